@@ -1,9 +1,95 @@
 // By Max Whitehouse.
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.management.ManagementFactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
 import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Properties;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
 
 import static java.lang.System.exit;
 
@@ -43,6 +129,13 @@ import static java.lang.System.exit;
  *     <li>{@link ArgsParser#getResultLong}.</li>
  * </ul> <br>
  *
+ * The results can also be copied onto the fields or constructor parameters of your own class that are annotated with
+ * {@link Bind}, see {@link ArgsParser#bind(Class)}. <br><br>
+ *
+ * Values for options with a long key can also be supplied by properties files, {@link ArgsParser#addConfigFile(Path)},
+ * and environment variables, {@link ArgsParser#setEnvironmentPrefix(String)}. The command line takes precedence over
+ * the environment, which takes precedence over the config files. <br><br>
+ *
  * <b>Example Usage: </b><br>
  *
  * <pre> {@code
@@ -89,32 +182,172 @@ public class ArgsParser {
 
     private final ArrayList<ArgOption> argOptions;
 
-    private final HashMap<String, ArgOption> keyMap = new HashMap<>();
+    private final KeyIndex keyIndex;
 
     private ArgOption optionListArg = null;
 
-    private final String help;
+    /**
+     * Built by the constructor, unless the options were loaded from a snapshot that was validated when it was written,
+     * then it is built the first time it is needed. See {@link ArgsParser#fromSchema(ProgrammeDetails, Path, Path)}.
+     */
+    private String help;
 
     private static final String[] HELP_FLAGS = new String[] {"-h", "--help", "--Help"};
 
+    private static final String COMPLETION_FLAG = "--Generate-Completion-Script";
+
+    private static final String END_OF_OPTIONS = "--";
+
+    // The states of the parse engine, see ArgsParser#compileTransitions.
+    private static final int S_KEY = 0;
+    private static final int S_VALUE = 1;
+    private static final int S_LIST = 2;
+    private static final int STATE_COUNT = 3;
+
+    // The classes of token.
+    private static final int T_END_OF_OPTIONS = 0;
+    private static final int T_LONG_KEY = 1;
+    private static final int T_SHORT_KEY = 2;
+    private static final int T_VALUE = 3;
+    private static final int TOKEN_CLASS_COUNT = 4;
+
+    // The actions of a transition.
+    private static final byte A_END_OPTIONS = 0;
+    private static final byte A_LONG_KEY = 1;
+    private static final byte A_SHORT_KEY = 2;
+    private static final byte A_FIRST_ITEM = 3;
+    private static final byte A_ITEM = 4;
+    private static final byte A_NO_LIST = 5;
+    private static final byte A_VALUE = 6;
+    private static final byte A_MISSING_VALUE_LONG_KEY = 7;
+    private static final byte A_MISSING_VALUE_SHORT_KEY = 8;
+
+    // The actions for a matched key, by the usage of its option and its dashes, see ArgsParser#compileKeyActions.
+    private static final byte K_FLAG_SHORT = 0;
+    private static final byte K_FLAG_LONG = 1;
+    private static final byte K_COUNT_SHORT = 2;
+    private static final byte K_COUNT_LONG = 3;
+    private static final byte K_VALUE_SHORT = 4;
+    private static final byte K_VALUE_LONG = 5;
+    private static final byte K_NOT_A_KEY = 6;
+
     private boolean parseErrorsDisplayStackTrace = true;
 
+    private boolean completionFlagEnabled = false;
+
     // Input things.
-    private String[] rawInputs;
+    private List<String> rawInputs;
 
     private ArgReceived listArg = null;
 
-    private final HashMap<ArgOption, ArgReceived> optionResultMap = new HashMap<>();
+    private HashMap<ArgOption, ArgReceived> optionResultMap = new HashMap<>();
 
-    private final HashMap<Character, ArgReceived> shortResultMap = new HashMap<>();
+    private HashMap<Character, ArgReceived> shortResultMap = new HashMap<>();
 
-    private final HashMap<String, ArgReceived> longResultMap = new HashMap<>();
+    private HashMap<String, ArgReceived> longResultMap = new HashMap<>();
+
+    /**
+     * True if the result maps are held by {@link ArgsParser#resultCache}, so the next parse needs new ones.
+     */
+    private boolean resultsShared = false;
 
     private ArgReceived currentKeyPair;
 
     private ArgReceived lastKeyPair;
 
-    private boolean expectingKey = false;
+    private HashMap<String, String> internTable = null;
+
+    private int internTableLimit = 65_536;
+
+    private int valueListLimit = 1 << 20;
+
+    private ParseListener parseListener = null;
+
+    private boolean storeResults = true;
+
+    private ParseMetrics metrics = null;
+
+    private LruCache<List<String>, CachedParse> resultCache = null;
+
+    /**
+     * Built the first time it is used, see {@link ArgsParser#keyPrefixIndex()}.
+     */
+    private volatile KeyPrefixIndex keyPrefixIndex = null;
+
+    /**
+     * One of {@code S_KEY}, {@code S_VALUE} for the value of {@link ArgsParser#currentKeyPair} or {@code S_LIST} once
+     * the list has started.
+     */
+    private int parseState = S_KEY;
+
+    private int passThroughOffset = -1;
+
+    /**
+     * The index in {@link ArgsParser#rawInputs} of the token being parsed, or -1 once the tokens are parsed.
+     */
+    private int tokenIndex = -1;
+
+    /**
+     * Not null while {@link ArgsParser#tryParseArgs(String[])} runs, then problems are added to it instead of thrown.
+     */
+    private ArrayList<Diagnostic> diagnostics = null;
+
+    // Layered configuration things.
+    private final ArrayList<Path> configFiles = new ArrayList<>();
+
+    private String environmentPrefix = null;
+
+    private String[] environmentNames = null;
+
+    private Map<String, String> environment = null;
+
+    private Path workingDirectory = null;
+
+    // Constraint things. Each option owns the bit of its index in argOptions. Options are mutable, so they are found
+    // by identity, not by their fields.
+    private final IdentityHashMap<ArgOption, Integer> optionIndexes;
+
+    private final int maskWords;
+
+    /**
+     * The action for each state and class of token, see {@link ArgsParser#compileTransitions(boolean)}.
+     */
+    private final byte[] transitions;
+
+    /**
+     * The action for each option and dash form of its key, see {@link ArgsParser#compileKeyActions(List)}.
+     */
+    private final byte[] keyActions;
+
+    /**
+     * The compiled value checks of each option, by its index, or null if no option has any. See
+     * {@link ArgOption#setValuePattern(String)}.
+     */
+    private final ValueCheck[] valueChecks;
+
+    /**
+     * True if an option has {@link ArgOption#fileValues}, then the results are not cached, as they are read from files
+     * that can change.
+     */
+    private final boolean hasFileValues;
+
+    private boolean hasConstraints = false;
+
+    private long[] requiredMask;
+
+    private long[] useOnItsOwnMask;
+
+    private final ArrayList<long[]> exclusiveGroupMasks;
+
+    private final ArrayList<String> exclusiveGroupNames;
+
+    private int[] requiringOptions;
+
+    private long[][] requiresMasks;
+
+    private long[] commandLineMask;
+
+    private long[] layeredMask;
 
 
 
@@ -170,6 +403,15 @@ public class ArgsParser {
      * {@link ArgsParser#ArgsParser(ProgrammeDetails, Class)}.
      */
     public ArgsParser(ProgrammeDetails programmeDetails, ArrayList<ArgOption> argOptions) {
+        this(programmeDetails, argOptions, null);
+    }
+
+    /**
+     * @param snapshotIndex The key index of a snapshot, whose options have already passed
+     *                      {@link ArgsParser#validateOptions(ArgOption)}. If not null the checks are skipped, the index
+     *                      is used as is and the help is built when it is first needed.
+     */
+    private ArgsParser(ProgrammeDetails programmeDetails, ArrayList<ArgOption> argOptions, KeyIndex snapshotIndex) {
         if (programmeDetails == null) {
             throw new NullPointerException("programmeDetails cannot be null.");
         }
@@ -184,15 +426,184 @@ public class ArgsParser {
 
         this.programmeDetails = programmeDetails;
         this.argOptions = argOptions;
+        boolean validated = snapshotIndex != null;
+        for (ArgOption argOption : argOptions) {
+            if (validated) {
+                identifyUsageList(argOption);
+            } else {
+                validateOptions(argOption);
+            }
+        }
+        keyIndex = (validated) ? snapshotIndex : KeyIndex.build(argOptions);
+
+        maskWords = (argOptions.size() + 63) >>> 6;
+        optionIndexes = new IdentityHashMap<>();
+        exclusiveGroupMasks = new ArrayList<>();
+        exclusiveGroupNames = new ArrayList<>();
+        compileConstraints();
+        transitions = compileTransitions(optionListArg != null);
+        keyActions = compileKeyActions(argOptions);
+        valueChecks = compileValueChecks(argOptions);
+        hasFileValues = hasFileValues(argOptions);
+
+        if (!validated) {
+            if (hasTextResources()) {
+                // The text is only loaded for the help, but a long key too long for it is still an error now.
+                new HelpBuilder().checkKeyLines();
+            } else {
+                help = new HelpBuilder().buildHelp();
+            }
+        }
+    }
+
+    private static boolean hasFileValues(List<ArgOption> argOptions) {
+        for (ArgOption argOption : argOptions) {
+            if (argOption.fileValues) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasTextResources() {
         for (ArgOption argOption : argOptions) {
-            validateOptions(argOption);
-            buildKeyMap(argOption);
+            if (argOption.textResource != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the options from the schema file, see {@link ArgsParser#readSchema(Path)}, and constructs an
+     * {@link ArgsParser} with them. <br>
+     * <br>
+     * If {@code snapshotFile} is not null the validated options are also compiled into a binary snapshot written to
+     * it. The snapshot holds the fingerprint of the schema, so later calls with an unchanged schema memory-map the
+     * snapshot and use it directly, skipping parsing the schema, validating the options and building the help until
+     * it is needed. If the schema changes the snapshot is compiled again.
+     *
+     * @throws ArgumentOptionException If the schema can't be read or is not valid.
+     */
+    public static ArgsParser fromSchema(ProgrammeDetails programmeDetails, Path schemaFile, Path snapshotFile) {
+        byte[] schema = SchemaReader.readBytes(schemaFile);
+        return compileSchema(programmeDetails, schemaFile, schema, SpecSnapshot.fingerprint(schema), snapshotFile);
+    }
+
+    private static ArgsParser compileSchema(ProgrammeDetails programmeDetails, Path schemaFile, byte[] schema,
+                                            long fingerprint, Path snapshotFile) {
+        if (snapshotFile != null) {
+            SpecSnapshot snapshot = SpecSnapshot.read(snapshotFile, fingerprint, false);
+            if (snapshot != null) {
+                return new ArgsParser(programmeDetails, snapshot.options, snapshot.keyIndex);
+            }
+        }
+
+        ArgsParser argsParser = new ArgsParser(programmeDetails, SchemaReader.read(schemaFile, schema));
+        if (snapshotFile != null) {
+            SpecSnapshot.write(snapshotFile, argsParser.argOptions, argsParser.keyIndex, fingerprint);
+        }
+        return argsParser;
+    }
+
+    /**
+     * Constructs an {@link ArgsParser} from a snapshot written by
+     * {@link ArgsParser#fromSchema(ProgrammeDetails, Path, Path)}, without the schema. This lets a programme ship only
+     * the snapshot.
+     *
+     * @throws ArgumentOptionException If the file is not a snapshot or was written by another version.
+     */
+    public static ArgsParser fromSnapshot(ProgrammeDetails programmeDetails, Path snapshotFile) {
+        SpecSnapshot snapshot = SpecSnapshot.read(snapshotFile, 0, true);
+        if (snapshot == null) {
+            throw new ArgumentOptionException("The file is not a valid snapshot.\n"
+                    + "Path: " + snapshotFile + ".");
         }
+        return new ArgsParser(programmeDetails, snapshot.options, snapshot.keyIndex);
+    }
+
+    /**
+     * A parser that shares everything built from the options with {@code compiled}, see {@link ArgsParser#fork()}.
+     */
+    private ArgsParser(ArgsParser compiled) {
+        programmeDetails = compiled.programmeDetails;
+        argOptions = compiled.argOptions;
+        keyIndex = compiled.keyIndex;
+        optionListArg = compiled.optionListArg;
+        help = compiled.help;
+
+        maskWords = compiled.maskWords;
+        transitions = compiled.transitions;
+        keyActions = compiled.keyActions;
+        valueChecks = compiled.valueChecks;
+        hasFileValues = compiled.hasFileValues;
+        optionIndexes = compiled.optionIndexes;
+        hasConstraints = compiled.hasConstraints;
+        requiredMask = compiled.requiredMask;
+        useOnItsOwnMask = compiled.useOnItsOwnMask;
+        exclusiveGroupMasks = compiled.exclusiveGroupMasks;
+        exclusiveGroupNames = compiled.exclusiveGroupNames;
+        requiringOptions = compiled.requiringOptions;
+        requiresMasks = compiled.requiresMasks;
+        commandLineMask = new long[maskWords];
+        layeredMask = new long[maskWords];
+
+        parseErrorsDisplayStackTrace = compiled.parseErrorsDisplayStackTrace;
+        completionFlagEnabled = compiled.completionFlagEnabled;
+        internTableLimit = compiled.internTableLimit;
+        valueListLimit = compiled.valueListLimit;
+        parseListener = compiled.parseListener;
+        storeResults = compiled.storeResults;
+        metrics = compiled.metrics;
+        resultCache = compiled.resultCache;
+        keyPrefixIndex = compiled.keyPrefixIndex;
+        configFiles.addAll(compiled.configFiles);
+        environmentPrefix = compiled.environmentPrefix;
+        environmentNames = compiled.environmentNames;
+        environment = compiled.environment;
+        workingDirectory = compiled.workingDirectory;
+    }
+
+    /**
+     * Returns a new parser with the same options and settings as this one. Everything built from the options, the key
+     * index, the constraints and the help, is shared rather than built again, only the state of a parse is new, so a
+     * fork is far cheaper than constructing a parser. A parser is not thread safe, but each fork can parse on its own
+     * thread. Settings changed on a fork don't change this parser. See {@link ParserRegistry}.
+     */
+    public ArgsParser fork() {
+        return new ArgsParser(this);
+    }
 
-        help = new HelpBuilder().buildHelp();
+    /**
+     * Reads options from a schema file. The schema has a section per option, started by a name in square brackets,
+     * followed by lines of {@code property = value}. The properties are named after the fields of {@link ArgOption}.
+     * Blank lines and lines starting with {@code #} or {@code ;} are ignored. <br>
+     * <br>
+     * Example:
+     * <pre>{@code
+     * [background]
+     * shortKey = b
+     * longKey = Set-Background
+     * usage = KEY_VALUE
+     * repeatable = true
+     * description = This command sets the background colour of the console.
+     * requires = Set-Text, r
+     * }</pre>
+     * The text of an option can be kept in a properties file instead, see {@link ArgOption#setText(TextResource,
+     * String)}, with the properties {@code textFile}, a path relative to the schema, and {@code textKey}.
+     *
+     * @throws ArgumentOptionException If the schema can't be read or has an unknown property or a malformed value.
+     */
+    public static ArrayList<ArgOption> readSchema(Path schemaFile) {
+        return SchemaReader.read(schemaFile, SchemaReader.readBytes(schemaFile));
     }
 
     private void validateOptions(ArgOption argOption) {
+        if ((argOption.textResource == null) != (argOption.textKey == null)) {
+            throw new ArgumentOptionException("A text resource and a text key must be set together.\n"
+                    + "Argument option: " + argOption);
+        }
+
         if (argOption.shortKey == '\0' && argOption.longKey.isEmpty() && argOption.usage != E_Usage.LIST) {
             String message = "Nether a short or long key have been provided for the following Argument. \n"
                     + "Argument option: " + argOption;
@@ -209,23 +620,53 @@ public class ArgsParser {
                     + "Argument option: " + argOption);
         }
 
-        checkForRepeatKeys(argOption);
+        if (argOption.valueFormat != E_ValueFormat.TEXT && argOption.usage != E_Usage.KEY_VALUE) {
+            throw new ArgumentOptionException("Only a key-value argument can have a value format. \n"
+                    + "Argument option: " + argOption);
+        }
+
+        boolean takesValues = argOption.usage == E_Usage.KEY_VALUE || argOption.usage == E_Usage.LIST;
+        if (argOption.fileValues && (!takesValues || argOption.valueFormat != E_ValueFormat.TEXT)) {
+            throw new ArgumentOptionException("Only a key-value or list argument without a value format can take "
+                    + "values from files. \n"
+                    + "Argument option: " + argOption);
+        }
+
+        if (argOption.hasValueChecks() && (!takesValues || argOption.fileValues)) {
+            throw new ArgumentOptionException("Only a key-value or list argument without @file values can have "
+                    + "value checks. \n"
+                    + "Argument option: " + argOption);
+        }
+
+        if (argOption.valueRangeMin > argOption.valueRangeMax || argOption.valueLengthMin < 0
+                || argOption.valueLengthMin > argOption.valueLengthMax) {
+            throw new ArgumentOptionException("The least of a value range or length is more than the greatest. \n"
+                    + "Argument option: " + argOption);
+        }
+
+        if (argOption.propertyOverride != E_PropertyOverride.LAST_WINS && argOption.usage != E_Usage.PROPERTIES) {
+            throw new ArgumentOptionException("Only a properties argument can have a property override. \n"
+                    + "Argument option: " + argOption);
+        }
 
         identifyUsageList(argOption);
     }
 
-    private void checkForRepeatKeys(ArgOption argOption) {
-        boolean dupeShortKey = keyMap.containsKey(String.valueOf(argOption.shortKey));
-        boolean dupeLongKey = keyMap.containsKey(argOption.longKey);
+    /**
+     * Called by {@link KeyIndex#build(List)}, which finds the repeated keys as it groups the keys.
+     *
+     * @param argShort The earlier option with the short key of {@code argOption}, or null.
+     * @param argLong The earlier option with the long key of {@code argOption}, or null.
+     */
+    private static void checkForRepeatKeys(ArgOption argOption, ArgOption argShort, ArgOption argLong) {
+        boolean dupeShortKey = argShort != null;
+        boolean dupeLongKey = argLong != null;
 
         if (dupeShortKey || dupeLongKey) {
-            ArgOption argShort = keyMap.get(String.valueOf(argOption.shortKey));
-            ArgOption argLong = keyMap.get(argOption.longKey);
-
             String message;
             if (dupeShortKey && dupeLongKey) {
                 message = "Arguments share a short and long key. \n" + "Option in conflict: " + argOption
-                        + "\nShort key: " + argLong + "\nLong key: " + argShort;
+                        + "\nShort key: " + argShort + "\nLong key: " + argLong;
             } else if (dupeShortKey) {
                 message = "Arguments share a short key. \n" + "Option in conflict: " + argOption
                         + "\nShort key: " + argShort;
@@ -247,1357 +688,7536 @@ public class ArgsParser {
         }
     }
 
-    private void buildKeyMap(ArgOption argOption) {
-        if (argOption.shortKey != '\0') {
-            keyMap.put(String.valueOf(argOption.shortKey), argOption);
+    private void compileConstraints() {
+        requiredMask = new long[maskWords];
+        useOnItsOwnMask = new long[maskWords];
+        commandLineMask = new long[maskWords];
+        layeredMask = new long[maskWords];
+
+        ArrayList<Integer> requiring = new ArrayList<>();
+        ArrayList<long[]> requires = new ArrayList<>();
+
+        for (int i = 0; i < argOptions.size(); i++) {
+            ArgOption argOption = argOptions.get(i);
+            optionIndexes.put(argOption, i);
+
+            if (argOption.required) {
+                setBit(requiredMask, i);
+            }
+
+            if (argOption.useOnItsOwn) {
+                setBit(useOnItsOwnMask, i);
+            }
+
+            if (!argOption.exclusiveGroup.isEmpty()) {
+                int group = exclusiveGroupNames.indexOf(argOption.exclusiveGroup);
+                if (group < 0) {
+                    group = exclusiveGroupNames.size();
+                    exclusiveGroupNames.add(argOption.exclusiveGroup);
+                    exclusiveGroupMasks.add(new long[maskWords]);
+                }
+                setBit(exclusiveGroupMasks.get(group), i);
+            }
+
+            if (argOption.requires.length > 0) {
+                requiring.add(i);
+                requires.add(compileRequires(argOption));
+            }
         }
 
-        if (!argOption.longKey.isEmpty()) {
-            keyMap.put(argOption.longKey, argOption);
+        requiringOptions = new int[requiring.size()];
+        for (int i = 0; i < requiringOptions.length; i++) {
+            requiringOptions[i] = requiring.get(i);
         }
-    }
+        requiresMasks = requires.toArray(new long[0][]);
 
+        hasConstraints = !isZero(requiredMask) || !isZero(useOnItsOwnMask) || !exclusiveGroupMasks.isEmpty()
+                || requiringOptions.length > 0;
+    }
 
+    private long[] compileRequires(ArgOption argOption) {
+        long[] mask = new long[maskWords];
+        for (String key : argOption.requires) {
+            int required = keyIndex.indexOf(key, 0, key.length());
+            if (required < 0) {
+                throw new ArgumentOptionException("An argument requires a key that is not bound to an option.\n"
+                        + "Required key: " + key + ".\n"
+                        + "Argument option: " + argOption);
+            }
+            setBit(mask, required);
+        }
+        return mask;
+    }
 
     /**
-     * When a parse error happens a Runtime Error is generated and thrown with a message about what caused
-     * the error. If this is true stack trace is included. If this is false no stack trace is included. This may be
-     * desirable for a production release. <br>
-     * <br>
-     * {@code default = true;}
+     * Builds the table {@link ArgsParser#parseInputs()} runs on: the action for each state, {@code S_*}, and class of
+     * token, {@code T_*}. Without a list argument a value where a key is expected is an error, otherwise it starts
+     * the list. A key where a value is expected is reported and then read as the key it looks like. Which state a key
+     * leads to is decided by {@link ArgsParser#compileKeyActions(List)}.
      */
-    public void setParseErrorsDisplayStackTrace(boolean displayStackTrace) {
-        parseErrorsDisplayStackTrace = displayStackTrace;
+    private static byte[] compileTransitions(boolean hasList) {
+        byte[] table = new byte[STATE_COUNT * TOKEN_CLASS_COUNT];
+
+        table[S_KEY * TOKEN_CLASS_COUNT + T_END_OF_OPTIONS] = A_END_OPTIONS;
+        table[S_KEY * TOKEN_CLASS_COUNT + T_LONG_KEY] = A_LONG_KEY;
+        table[S_KEY * TOKEN_CLASS_COUNT + T_SHORT_KEY] = A_SHORT_KEY;
+        table[S_KEY * TOKEN_CLASS_COUNT + T_VALUE] = (hasList) ? A_FIRST_ITEM : A_NO_LIST;
+
+        // "--" here is not the end of the options, it is a key with an empty name.
+        table[S_VALUE * TOKEN_CLASS_COUNT + T_END_OF_OPTIONS] = A_MISSING_VALUE_LONG_KEY;
+        table[S_VALUE * TOKEN_CLASS_COUNT + T_LONG_KEY] = A_MISSING_VALUE_LONG_KEY;
+        table[S_VALUE * TOKEN_CLASS_COUNT + T_SHORT_KEY] = A_MISSING_VALUE_SHORT_KEY;
+        table[S_VALUE * TOKEN_CLASS_COUNT + T_VALUE] = A_VALUE;
+
+        table[S_LIST * TOKEN_CLASS_COUNT + T_END_OF_OPTIONS] = A_END_OPTIONS;
+        table[S_LIST * TOKEN_CLASS_COUNT + T_LONG_KEY] = A_MISSING_VALUE_LONG_KEY;
+        table[S_LIST * TOKEN_CLASS_COUNT + T_SHORT_KEY] = A_MISSING_VALUE_SHORT_KEY;
+        table[S_LIST * TOKEN_CLASS_COUNT + T_VALUE] = A_ITEM;
+        return table;
     }
 
-
-
     /**
-     * Pass the string array parameter of the main function to this method to parse the command line. Then use this
-     * classes other public methods to interrogate the results.
+     * Builds the table {@link ArgsParser#parseKey(String, boolean)} runs on once a key is matched: the action for the
+     * short and long key of each option, at {@code index * 2} and {@code index * 2 + 1}, {@code K_*}, from its usage.
+     * Only the short key of an option that takes a value can leave the parse in {@code S_VALUE}, as its value is the
+     * next token.
      */
-    public void pareArgs(String[] commandLineArgs) {
-        rawInputs = commandLineArgs;
-        checkForHelpRequest();
-        initParseState();
-        parseInputs();
+    private static byte[] compileKeyActions(List<ArgOption> argOptions) {
+        byte[] table = new byte[argOptions.size() * 2];
+        for (int i = 0; i < argOptions.size(); i++) {
+            switch (argOptions.get(i).usage) {
+                case KEY:
+                    table[i * 2] = K_FLAG_SHORT;
+                    table[i * 2 + 1] = K_FLAG_LONG;
+                    break;
+                case COUNT:
+                    table[i * 2] = K_COUNT_SHORT;
+                    table[i * 2 + 1] = K_COUNT_LONG;
+                    break;
+                case KEY_VALUE:
+                case PROPERTIES:
+                    table[i * 2] = K_VALUE_SHORT;
+                    table[i * 2 + 1] = K_VALUE_LONG;
+                    break;
+                default:
+                    table[i * 2] = K_NOT_A_KEY;
+                    table[i * 2 + 1] = K_NOT_A_KEY;
+                    break;
+            }
+        }
+        return table;
     }
 
-    private void checkForHelpRequest() {
-        // Note(Max): I still prefer this over streams.
-        for (String input : rawInputs) {
-            for (String helpFlag : HELP_FLAGS) {
-                if (input.equals(helpFlag)) {
-                    System.out.println(help);
-                    exit(0);
+    private static ValueCheck[] compileValueChecks(List<ArgOption> argOptions) {
+        ValueCheck[] checks = null;
+        for (int i = 0; i < argOptions.size(); i++) {
+            ArgOption argOption = argOptions.get(i);
+            if (argOption.hasValueChecks()) {
+                if (checks == null) {
+                    checks = new ValueCheck[argOptions.size()];
                 }
+                checks[i] = new ValueCheck(argOption);
             }
         }
+        return checks;
     }
 
-    private void initParseState() {
-        if (optionListArg != null) {
-            listArg = new ArgReceived(optionListArg);
+    private static int tokenClass(String token) {
+        if (!token.startsWith("-")) {
+            return T_VALUE;
         }
+        if (!token.startsWith("--")) {
+            return T_SHORT_KEY;
+        }
+        return (token.length() == END_OF_OPTIONS.length()) ? T_END_OF_OPTIONS : T_LONG_KEY;
+    }
 
-        // This can be true as pos args are treated as keys.
-        expectingKey = true;
+    private static void setBit(long[] mask, int index) {
+        mask[index >>> 6] |= 1L << index;
     }
 
+    private static boolean isZero(long[] mask) {
+        for (long word : mask) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
 
+    /**
+     * @return The option {@code key} is bound to, or null.
+     */
+    private ArgOption findOption(String key) {
+        int index = keyIndex.indexOf(key, 0, key.length());
+        return (index < 0) ? null : argOptions.get(index);
+    }
 
-    private void parseInputs() {
-        for (String rawInput : rawInputs) {
-            if (expectingKey) {
-                getKey(rawInput);
-                continue;
-            }
 
-            // Expecting a value.
-            checkLooksLikeAValue(rawInput);
-            assignValueAndCycleSearch(rawInput);
-        }
 
-        // There is only one case where we should exit the loop while not expecting to receive a Key next. That is when
-        // we are receiving values for the listArg.
-        if (!expectingKey && currentKeyPair != listArg) {
-            throw new ParseArgumentException("All input was parsed and a value was still expected."
-                    + ((currentKeyPair == null) ? "" : "\nExpected Value Owner: " + currentKeyPair + "."));
-        }
+    /**
+     * When a parse error happens a Runtime Error is generated and thrown with a message about what caused
+     * the error. If this is true stack trace is included. If this is false no stack trace is included. This may be
+     * desirable for a production release. <br>
+     * <br>
+     * {@code default = true;}
+     */
+    public void setParseErrorsDisplayStackTrace(boolean displayStackTrace) {
+        parseErrorsDisplayStackTrace = displayStackTrace;
     }
 
-    private void getKey(String rawInput) {
-        if (rawInput.startsWith("--")) {
-            String trimmedInput = rawInput.substring("--".length());
-            parseKey(trimmedInput, true);
-            return;
+    /**
+     * Sets the maximum number of distinct values held by the table used to share equal values between the options
+     * that have {@link ArgOption#setInternValues(boolean)} set. Once the table is full, new values are stored as
+     * they are. The table only lives for one parse. Changing it detaches this parser from the result cache it shares,
+     * see {@link ArgsParser#setResultCacheSize(int)}. <br>
+     * <br>
+     * {@code default = 65536;}
+     */
+    public void setInternTableLimit(int internTableLimit) {
+        if (internTableLimit < 0) {
+            throw new ArgumentOptionException("The intern table limit can't be negative.");
         }
-
-        if (rawInput.startsWith("-")) {
-            String trimmedInput = rawInput.substring("-".length());
-            parseKey(trimmedInput, false);
-            return;
+        if (internTableLimit != this.internTableLimit) {
+            detachResultCache();
         }
+        this.internTableLimit = internTableLimit;
+    }
 
-        if (listArg == null) {
-            throw new ParseArgumentException("A key was expected. Check for spaces. \nReceived: " + rawInput + "\n");
+    /**
+     * Sets the maximum number of numbers one value of an option with a {@link E_ValueFormat} can expand to, e.g.
+     * {@code 1-1000} is 1000 numbers. For {@link E_ValueFormat#BIT_SET} it also bounds the largest index, as that sets
+     * the size of the {@link BitSet}. A value over the limit is a parse error, so a typo can't exhaust the memory.
+     * Changing it detaches this parser from the result cache it shares, see {@link ArgsParser#setResultCacheSize(int)}.
+     * <br>
+     * <br>
+     * {@code default = 1048576;}
+     */
+    public void setValueListLimit(int valueListLimit) {
+        if (valueListLimit < 0) {
+            throw new ArgumentOptionException("The value list limit can't be negative.");
+        }
+        if (valueListLimit != this.valueListLimit) {
+            detachResultCache();
         }
-        // This must be the first positional arg.
-        listArg.addValue(rawInput);
-        currentKeyPair = listArg;
-        expectingKey = false;
+        this.valueListLimit = valueListLimit;
     }
 
-    private void parseKey(String input, boolean isLongKey) {
-        // Get the key and a value. Value maybe empty. This protects the short key from malformed name value pairs.
-        String[] splitInput = input.split("=", 2);
+    /**
+     * Gives this parser a new empty result cache of the same size, as the cached results were made with settings it no
+     * longer has. Its forks keep the old cache.
+     */
+    private void detachResultCache() {
+        if (resultCache != null) {
+            resultCache = new LruCache<>(resultCache.maxSize);
+        }
+    }
 
-        String key = splitInput[0];
+    /**
+     * Sets a listener that is told about each key and value as soon as the parse recognises it, so work can start
+     * before the parse has finished, e.g. the items of a long {@link E_Usage#LIST} can be streamed into processing.
+     * Values from config files and environment variables are reported after the command line, with the token index
+     * -1. An exception thrown by the listener stops the parse. <br>
+     * <br>
+     * {@code default = null;} (No listener.)
+     */
+    public void setParseListener(ParseListener parseListener) {
+        this.parseListener = parseListener;
+    }
 
-        ArgOption argOption = keyMap.get(key);
-        ArgReceived argReceived = optionResultMap.computeIfAbsent(argOption, ArgReceived::new);
+    /**
+     * If this is false the values passed are not kept, only which options were passed and how many times. Use this
+     * with {@link ArgsParser#setParseListener(ParseListener)} to handle the values as they are parsed without
+     * holding them all. {@link ArgsParser#isPassed(String)}, {@link ArgReceived#getCount()} and the constraints still
+     * work, but {@link ArgReceived#getValues()} is empty and the value formats, interning and distinct values are not
+     * applied. <br>
+     * <br>
+     * {@code default = true;}
+     */
+    public void setStoreResults(boolean storeResults) {
+        this.storeResults = storeResults;
+    }
 
+    /**
+     * If this is true the parses of this parser are measured, see {@link ParseMetrics}. Parsers made by
+     * {@link ArgsParser#fork()} after this share its metrics, so the parses of every thread are counted together.
+     * Setting it to false drops the metrics. When off, a parse only checks that there are no metrics. <br>
+     * <br>
+     * {@code default = false;}
+     */
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        metrics = (metricsEnabled) ? new ParseMetrics(argOptions, optionIndexes) : null;
+    }
 
-        if (argOption == null) {
-            throw new ParseArgumentException("No key match.\n"
-                    + "Passed Key: " + key + ".\n"
-                    + "Input: " + input + ".");
-        }
+    /**
+     * @return The metrics of this parser, or null if they are not enabled, see
+     * {@link ArgsParser#setMetricsEnabled(boolean)}.
+     */
+    public ParseMetrics getMetrics() {
+        return metrics;
+    }
 
-        if (!isLongKey && key.equals(argOption.longKey)) {
-            throw new ParseArgumentException("A long key has been passed with only one dash this effects argument formatting.\n"
-                    + "Please add a dash.\n"
-                    + "Key: " + key + ".\n"
-                    + "Input: " + Arrays.toString(rawInputs));
-        } else if (isLongKey && key.charAt(0) == argOption.shortKey) {
-            throw new ParseArgumentException("A short key has been passed with two dash this effects argument formatting.\n"
-                    + "Please remove the extra dash.\n"
-                    + "Key: " + key + ".\n"
-                    + "Input: " + Arrays.toString(rawInputs));
-        }
-
-        if (!expectingKey) {
-            throw new ParseArgumentException("New key received while not expecting a new key.\n"
-                    + "This is likely due to a missing key-value missing a value.\n"
-                    + "New Key: " + key + ".\n"
-                    + "Input: " + input + ".");
+    /**
+     * Keeps the results of up to {@code maxSize} command lines, so parsing a command line again with
+     * {@link ArgsParser#pareArgs(String[])} only looks it up, e.g. for a scheduler that runs the same jobs over and
+     * over. The command lines are compared token by token and the least recently used is dropped when the cache is
+     * full. Only parses that succeed are kept. Parsers made by {@link ArgsParser#fork()} after this share the cache.
+     * <br>
+     * <br>
+     * The cache is skipped while results depend on more than the command line, or while the parse must do more than
+     * build results: when config files or environment variables are used, an option has
+     * {@link ArgOption#fileValues}, a listener is set, or the results are not stored. The cached results were made with
+     * the limits of the parser, so changing {@link ArgsParser#setValueListLimit(int)} or
+     * {@link ArgsParser#setInternTableLimit(int)} gives the parser a new empty cache, which its forks made after that
+     * share. {@link ArgsParser#tryParseArgs(String[])} and the byte command lines are never cached. Results from the
+     * cache are shared, like everything returned by {@link ArgReceived}, they must not be changed. A hit neither
+     * locks nor writes anything shared with other entries, so forks parsing on many threads don't contend. <br>
+     * <br>
+     * {@code default = 0;} (No cache.)
+     */
+    public void setResultCacheSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new ArgumentOptionException("The result cache size can't be negative.");
         }
+        resultCache = (maxSize == 0) ? null : new LruCache<>(maxSize);
+    }
 
-        if (!argReceived.getValues().isEmpty() && !argOption.isRepeatable()) {
-            String errorStart = "An argument has been used multiply times that should only be used once.\n";
-            String errorMid = "";
-            String errorEnd = "Short Key: '" + argOption.getShortKey() + "', Long Key: \"" + argOption.getLongKey() + "\".\n"
-                    + "Input: " + Arrays.toString(rawInputs);
+    /**
+     * @return The number of parses answered by the result cache, see {@link ArgsParser#setResultCacheSize(int)}.
+     */
+    public long getResultCacheHitCount() {
+        return (resultCache == null) ? 0 : resultCache.hits.sum();
+    }
 
-            if (argOption.getUsage() == E_Usage.KEY_VALUE) {
-                String shortError = "First Usage Value: " + argReceived.getValue() + ".\n";
-                String longError = "Second Usage: " + input + "First Usage Value: " + argReceived.getValue() + ".\n";
+    /**
+     * @return The number of parses the result cache was checked for and didn't have, see
+     * {@link ArgsParser#setResultCacheSize(int)}.
+     */
+    public long getResultCacheMissCount() {
+        return (resultCache == null) ? 0 : resultCache.misses.sum();
+    }
 
-                errorMid = (isLongKey) ? longError : shortError;
-            }
+    /**
+     * If this is true the hidden flag {@code --Generate-Completion-Script=bash} (or {@code =zsh}) passed as the only
+     * argument prints the completion script from {@link ArgsParser#getCompletionScript(E_Shell)} and stops execution.
+     * This lets a build or an installer generate the script by running the programme once. <br>
+     * <br>
+     * {@code default = false;}
+     */
+    public void setCompletionFlagEnabled(boolean completionFlagEnabled) {
+        this.completionFlagEnabled = completionFlagEnabled;
+    }
 
-            throw new ParseArgumentException(errorStart + errorMid + errorEnd);
+    /**
+     * Adds a properties file that supplies values for options that were not passed on the command line. The keys of
+     * the file are the long keys of the options, e.g. {@code Set-Background=(0,0,0)}. A {@link E_Usage#KEY} option
+     * is set by {@code true} or an empty value and left unset by {@code false}. A {@link E_Usage#COUNT} option also
+     * takes a count. Keys that are not bound to an option
+     * are ignored so a file can be shared between programmes. <br>
+     * <br>
+     * Files added later take precedence over files added earlier. A file that does not exist is skipped. Files are
+     * parsed once and cached by path and modification time, so constructing many parsers in one process only reads a
+     * file again once it has changed.
+     *
+     * @throws ArgumentOptionException From {@link ArgsParser#pareArgs(String[])} if the file exists but can't be read.
+     */
+    public void addConfigFile(Path configFile) {
+        if (configFile == null) {
+            throw new NullPointerException("configFile cannot be null.");
         }
+        configFiles.add(configFile);
+    }
 
-        expectingKey = false;
-
-        switch (argOption.getUsage()) {
-            case KEY:
-                if (isLongKey) {
-                    checkLongKeyKeyErrors(splitInput, argOption);
-                } else {
-                    checkShortKeyKeyErrors(splitInput, argOption);
-                }
-                updateResultMaps(argReceived);
-                argReceived.addValue("");
-                expectingKey = true;
-                lastKeyPair = argReceived;
-                currentKeyPair = null;
-                break;
-
-            case KEY_VALUE:
-                if (isLongKey) {
-                    checkLongKeyKeyValueErrors(splitInput, argOption);
-                    updateResultMaps(argReceived);
-                    argReceived.addValue(splitInput[1]);
-                    expectingKey = true;
-                    lastKeyPair = argReceived;
-                    currentKeyPair = null;
-                } else {
-                    checkShortKeyKeyValueErrors(splitInput, argOption);
-                    expectingKey = false;
-                    lastKeyPair = currentKeyPair;
-                    currentKeyPair = argReceived;
-                }
-                break;
+    /**
+     * Enables reading option values from environment variables. The variable for an option is the prefix followed by
+     * its long key in upper case with dashes replaced by underscores, e.g. with the prefix {@code "COL_"} the option
+     * {@code --Set-Background} is read from {@code COL_SET_BACKGROUND}. Values follow the same rules as
+     * {@link ArgsParser#addConfigFile(Path)}. Environment variables take precedence over config files. <br>
+     * <br>
+     * {@code default = null;} (Environment variables are not read.)
+     */
+    public void setEnvironmentPrefix(String environmentPrefix) {
+        this.environmentPrefix = environmentPrefix;
+        environmentNames = null;
 
-            case LIST:
-                throw new ArgsParser.ParseArgumentException("During command line key parsing, a key of type list was "
-                        + "found.");
+        if (environmentPrefix == null) {
+            return;
         }
-    }
 
-    private void checkLongKeyKeyErrors(String[] splitInput, ArgOption argOption) {
-        if (splitInput.length >= 2) {
-            String message = "A long key was used as a pair with a value instead of a lone key. Good format: ... --" + argOption.longKey + "... \n"
-                    + "Current parse: " + Arrays.toString(splitInput) + "\n"
-                    + "Key options: " + argOption;
-            throw new ParseArgumentException(message);
+        environmentNames = new String[argOptions.size()];
+        for (int i = 0; i < argOptions.size(); i++) {
+            String longKey = argOptions.get(i).longKey;
+            environmentNames[i] = (longKey.isEmpty())
+                    ? null : environmentPrefix + longKey.toUpperCase(Locale.ROOT).replace('-', '_');
         }
     }
 
-    private void checkLongKeyKeyValueErrors(String[] splitInput, ArgOption argOption) {
-        if (splitInput.length < 2) {
-            String message = "A long key for a key-value pair was used without the value. Good format: ... --" + argOption.longKey + "=value ... \n"
-                    + "Current parse: " + Arrays.toString(splitInput) + "\n"
-                    + "Key-value pair options: " + argOption;
-            throw new ParseArgumentException(message);
-        }
+    /**
+     * Sets the environment read when {@link ArgsParser#setEnvironmentPrefix(String)} is used. By default, a single
+     * snapshot of {@link System#getenv()} taken the first time it is needed is shared by every parser.
+     */
+    public void setEnvironment(Map<String, String> environment) {
+        this.environment = environment;
     }
 
-    private void checkShortKeyKeyErrors(String[] splitInput, ArgOption argOption) {
-        if (splitInput.length >= 2) {
-            String message = "A short key was used with an equals sign."
-                    + "Current parse: " + Arrays.toString(splitInput) + "\n"
-                    + "Key options: " + argOption;
-            throw new ParseArgumentException(message);
-        }
+    /**
+     * Sets the directory that relative paths are resolved against, the {@code @path} values of
+     * {@link ArgOption#fileValues}, the files of {@link ArgsParser#addConfigFile(Path)} and {@link Path} fields of
+     * {@link ArgsParser#bind(Class)}. A {@link LaunchServer} sets it to the working directory of its client. <br>
+     * <br>
+     * {@code default = null;} (Relative paths are resolved against the working directory of this process.)
+     */
+    public void setWorkingDirectory(Path workingDirectory) {
+        this.workingDirectory = workingDirectory;
     }
 
-    private void checkShortKeyKeyValueErrors(String[] splitInput, ArgOption argOption) {
-        if (splitInput.length >= 2) {
-            String message = "A short key was used as a pair with a value join via an equals. Good format: ... -" + argOption.shortKey + " value ..."
-                    + "Current parse: " + Arrays.toString(splitInput) + "\n"
-                    + "Key-value pair options: " + argOption;
-            throw new ParseArgumentException(message);
-        }
+    /**
+     * @return {@code path} resolved against {@link ArgsParser#workingDirectory} if one is set.
+     */
+    private Path resolvePath(Path path) {
+        return (workingDirectory == null) ? path : workingDirectory.resolve(path);
     }
 
-    private void updateResultMaps(ArgReceived argReceived) {
-        ArgOption option = argReceived.option;
-        optionResultMap.put(option, argReceived);
 
-        if (option.shortKey != '\0') {
-            shortResultMap.put(option.shortKey, argReceived);
-        }
 
-        if (!option.longKey.isEmpty()) {
-            longResultMap.put(option.longKey, argReceived);
-        }
+    /**
+     * Pass the string array parameter of the main function to this method to parse the command line. Then use this
+     * classes other public methods to interrogate the results.
+     */
+    public void pareArgs(String[] commandLineArgs) {
+        parse(Arrays.asList(commandLineArgs));
     }
 
-    private void checkLooksLikeAValue(String rawInput) {
-        // Note(Max): I have done this type of error detection a bunch, and it doesn't tell me why this is an error. I
-        //  think it is just bad.
-        if (rawInput.startsWith("-")) {
-            String errorMessage =
-                    "Expected a value, got a key. Look for spaces and check if a key can except a value.\n"
-                            + "Last group: " + lastKeyPair + "\n"
-                            + "Malformed value: " + rawInput;
-            throw new ParseArgumentException(errorMessage);
-        }
+    /**
+     * Parses a command line of UTF-8 tokens, e.g. read off a socket, like {@link ArgsParser#pareArgs(String[])}. Only
+     * the tokens the parse has to look at are decoded, the keys and the values of {@link E_Usage#KEY_VALUE} arguments.
+     * The items of the {@link E_Usage#LIST} argument, and everything after {@code --}, are decoded when the results
+     * are read, one at a time by {@link ArgReceived#getValueChars(int)} or all by {@link ArgReceived#getValues()}. The
+     * items are still decoded during the parse if the list argument interns or drops repeated values, accepts
+     * {@code @path} values or a listener is set, as those need the text. <br>
+     * <br>
+     * The arrays are kept, not copied, until the next parse, so they must not be changed while the results are used.
+     * Malformed UTF-8 is decoded to the replacement character.
+     */
+    public void pareArgs(byte[][] utf8Args) {
+        parse(new Utf8Args(utf8Args));
+    }
+
+    /**
+     * Parses a command line held as UTF-8 tokens each ended by a zero byte, the format of {@code /proc/self/cmdline},
+     * see {@link ArgsParser#pareArgs(byte[][])}. A last token without a zero byte is read to the end.
+     */
+    public void pareNulSeparatedArgs(byte[] utf8Args, int offset, int length) {
+        parse(Utf8Args.splitNulSeparated(utf8Args, offset, length));
     }
 
-    private void assignValueAndCycleSearch(String value) {
-        if (currentKeyPair == null) {
-            throw new ParseArgumentException("A value was passed while no key has been parsed to attach the value to.\n"
-                    + "Passed Value: " + value + "."
-                    + ((lastKeyPair == null) ? "" : "\nLast Argument Parsed: " + lastKeyPair + "."));
+    private void parse(List<String> commandLineArgs) {
+        rawInputs = commandLineArgs;
+        checkForCompletionRequest();
+        if (isHelpRequested()) {
+            System.out.println(getHelpText());
+            exit(0);
+        }
+        if (metrics == null) {
+            parseTokens();
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            parseTokens();
+            failed = false;
+        } finally {
+            metrics.record(commandLineMask, System.nanoTime() - start, failed);
         }
+    }
 
-        // Note(Max): Once the first argument assigned to `listArg` is passed the all subsequent values should be a part
-        // of the listArg value.
-        if (listArg != null && listArg == currentKeyPair) {
-            listArg.addValue(value);
-            expectingKey = false;
+    private void parseTokens() {
+        if (resultCache != null && !hasFileValues && !(rawInputs instanceof Utf8Args) && configFiles.isEmpty()
+                && environmentPrefix == null && workingDirectory == null && parseListener == null && storeResults) {
+            parseCached();
             return;
         }
 
-        updateResultMaps(currentKeyPair);
-        currentKeyPair.addValue(value);
-        lastKeyPair = currentKeyPair;
-        currentKeyPair = null;
-        expectingKey = true;
+        initParseState();
+        parseInputs();
+        applyConfigLayers();
+        checkConstraints();
     }
 
+    private void parseCached() {
+        CachedParse cached = resultCache.get(rawInputs);
+        if (cached != null) {
+            cached.restore(this);
+            return;
+        }
 
+        // The results hold views of the command line, so they get a copy the caller can't change.
+        List<String> key = Arrays.asList(rawInputs.toArray(new String[0]));
+        rawInputs = key;
+        initParseState();
+        parseInputs();
+        checkConstraints();
+        resultCache.putIfAbsent(key, new CachedParse(this));
+    }
 
     /**
-     * @param option An enum value where the enum class implements an {@link EnumOptions}.
+     * Parses the command line like {@link ArgsParser#pareArgs(String[])}, but problems with it are returned as
+     * {@link Diagnostic}s instead of thrown. After a problem the parse recovers and carries on, so every problem with
+     * the command line is reported, and no exceptions are created. A message is only built when
+     * {@link Diagnostic#getMessage()} is called. <br>
+     * <br>
+     * If a help flag is passed the help is not printed and execution doesn't stop, instead nothing is parsed and
+     * {@link ParseResult#isHelpRequested()} is true. The completion flag, see
+     * {@link ArgsParser#setCompletionFlagEnabled(boolean)}, is not handled. <br>
+     * <br>
+     * The results are read from the parser as usual. If there are errors some options may be missing from them.
      *
-     * @return True if the user passed the option at least once.
+     * @throws ArgumentOptionException If a config file can't be read.
      */
-    public <E extends Enum<E> & ArgsParser.EnumOptions> boolean isPassed(E option) {
-        return isPassed(option.get());
+    public ParseResult tryParseArgs(String[] commandLineArgs) {
+        rawInputs = Arrays.asList(commandLineArgs);
+        if (isHelpRequested()) {
+            initParseState();
+            return new ParseResult(Collections.emptyList(), true);
+        }
+
+        ArrayList<Diagnostic> found = new ArrayList<>();
+        diagnostics = found;
+        long start = (metrics == null) ? 0 : System.nanoTime();
+        boolean failed = true;
+        try {
+            initParseState();
+            parseInputs();
+            applyConfigLayers();
+            checkConstraints();
+            failed = !found.isEmpty();
+        } finally {
+            diagnostics = null;
+            if (metrics != null) {
+                metrics.record(commandLineMask, System.nanoTime() - start, failed);
+            }
+        }
+        return new ParseResult(found, false);
     }
 
-    /**
-     * @return True if the user passed the option at least once.
-     */
-    public boolean isPassed(ArgOption option) {
-        if (option == null) {
-            throw new NullPointerException("The option received to look for a result was null.");
+    private boolean isHelpRequested() {
+        // Note(Max): I still prefer this over streams.
+        for (int i = 0; i < rawInputs.size(); i++) {
+            // The flags all start with a dash, so the values are never decoded for this.
+            if (!startsWithDash(i)) {
+                continue;
+            }
+
+            String input = rawInputs.get(i);
+            if (input.equals(END_OF_OPTIONS)) {
+                return false;
+            }
+
+            for (String helpFlag : HELP_FLAGS) {
+                if (input.equals(helpFlag)) {
+                    return true;
+                }
+            }
         }
+        return false;
+    }
 
-        return optionResultMap.containsKey(option) && optionResultMap.get(option) != null;
+    private boolean startsWithDash(int index) {
+        if (rawInputs instanceof Utf8Args) {
+            return ((Utf8Args) rawInputs).startsWithDash(index);
+        }
+        return rawInputs.get(index).startsWith("-");
     }
 
     /**
-     * @param key A short or long key that is bound to an {@link ArgOption} for an argument you have configured. It is
-     *            not checked if the key is bound to an option. Therefore, it is recommended that you use a version of
-     *            this function that takes an {@link ArgOption} or a {@link EnumOptions} enum.
+     * Reports a problem with the command line. While collecting diagnostics, see
+     * {@link ArgsParser#tryParseArgs(String[])}, it is recorded and the caller recovers from it, otherwise it is thrown.
      *
-     * @return True if the user used the argument the key is associated with at least once. False if the key is not used
-     * or if the key is not bound to an option.
+     * @param option The option the problem is about, or null.
      */
-    public boolean isPassed(String key) {
-        boolean isShortKey = key.length() == 1;
-        boolean hasShortKey = isShortKey && isShortPassed(key.charAt(0));
-        return hasShortKey || longResultMap.containsKey(key);
+    private void report(E_Diagnostic code, ArgOption option, Supplier<String> message) {
+        if (metrics != null) {
+            metrics.failures[code.ordinal()].increment();
+        }
+        if (diagnostics == null) {
+            throw parseError(message.get());
+        }
+        diagnostics.add(new Diagnostic(code, tokenIndex, option, message));
     }
 
-    /**
-     * @param key Is not checked to see if it is bound to an option. Therefore, it is suggested that you use a version
-     *            of this function that takes an {@link ArgOption} or a {@link EnumOptions} enum.
-     *
-     * @return True if the user used the argument the short key is associated with at least once. False if the key is
-     * not used or if the key is not bound to an option.
-     */
-    public boolean isShortPassed(char key) {
-        return shortResultMap.containsKey(key);
+    private ParseArgumentException parseError(String message) {
+        return new ParseArgumentException(message, parseErrorsDisplayStackTrace);
     }
 
-    /**
-     * @param longKey Is not checked to see if it is bound to an option. Therefore, it is suggested that you use a
-     *                version of this function that takes an {@link ArgOption} or a {@link EnumOptions} enum.
-     *
-     * @return True if the user used the argument the long key is associated with at least once. False if the key is not
-     * used or if the key is not bound to an option.
-     */
-    public boolean isLongPassed(String longKey) {
-        return longResultMap.containsKey(longKey);
+    private void checkForCompletionRequest() {
+        if (!completionFlagEnabled || rawInputs.size() != 1 || !rawInputs.get(0).startsWith(COMPLETION_FLAG + "=")) {
+            return;
+        }
+
+        String shellName = rawInputs.get(0).substring(COMPLETION_FLAG.length() + 1);
+        for (E_Shell shell : E_Shell.values()) {
+            if (shell.name().equalsIgnoreCase(shellName)) {
+                System.out.print(getCompletionScript(shell));
+                exit(0);
+            }
+        }
+
+        throw parseError("Unknown shell for the completion script.\n"
+                + "Shells: " + Arrays.toString(E_Shell.values()) + ".\n"
+                + "Input: " + rawInputs.get(0) + ".");
+    }
+
+    private void initParseState() {
+        if (optionListArg != null) {
+            listArg = new ArgReceived(optionListArg);
+        }
+
+        if (resultsShared) {
+            optionResultMap = new HashMap<>();
+            shortResultMap = new HashMap<>();
+            longResultMap = new HashMap<>();
+            resultsShared = false;
+        } else {
+            optionResultMap.clear();
+            shortResultMap.clear();
+            longResultMap.clear();
+        }
+        currentKeyPair = null;
+        lastKeyPair = null;
+
+        // The first positional arg is found in this state too, as it is told apart from a key by its dash.
+        parseState = S_KEY;
+        passThroughOffset = -1;
+        tokenIndex = -1;
+
+        Arrays.fill(commandLineMask, 0);
+        Arrays.fill(layeredMask, 0);
+
+        internTable = null;
     }
 
+
+
     /**
-     * @return If the option the key is a part of was used it will return a container with the passed value or values.
-     * Null is returned if option was not passed.
+     * Runs the tokens through {@link ArgsParser#transitions}. Each token is classed by its dashes and the table gives
+     * the action for it in the current state, the action then sets the next state.
      */
-    public <E extends Enum<E> & ArgsParser.EnumOptions> ArgReceived getResult(E option) {
-        return optionResultMap.get(option.get());
+    private void parseInputs() {
+        Utf8Args lazyItems = (rawInputs instanceof Utf8Args && listArg != null && storeResults
+                && parseListener == null && !optionListArg.internValues && !optionListArg.distinctValues
+                && !optionListArg.fileValues && !optionListArg.hasValueChecks()) ? (Utf8Args) rawInputs : null;
+        byte[] table = transitions;
+
+        tokens:
+        for (int i = 0; i < rawInputs.size(); i++) {
+            tokenIndex = i;
+            // A lazy token without a dash is a value and is only decoded if it isn't a list item.
+            String token = null;
+            int tokenClass = T_VALUE;
+            if (lazyItems == null || lazyItems.startsWithDash(i)) {
+                token = rawInputs.get(i);
+                tokenClass = tokenClass(token);
+            }
+
+            switch (table[parseState * TOKEN_CLASS_COUNT + tokenClass]) {
+                case A_END_OPTIONS:
+                    endOptions(i + 1);
+                    break tokens;
+
+                case A_LONG_KEY:
+                    parseState = parseKey(token.substring("--".length()), true);
+                    break;
+
+                case A_SHORT_KEY:
+                    parseState = parseKey(token.substring("-".length()), false);
+                    break;
+
+                case A_FIRST_ITEM:
+                    // This must be the first positional arg.
+                    updateResultMaps(listArg);
+                    currentKeyPair = listArg;
+                    parseState = S_LIST;
+                    addListItem(token, lazyItems, i);
+                    break;
+
+                case A_ITEM:
+                    addListItem(token, lazyItems, i);
+                    break;
+
+                case A_NO_LIST:
+                    String value = token;
+                    report(E_Diagnostic.UNEXPECTED_VALUE, null,
+                            () -> "A key was expected. Check for spaces. \nReceived: " + value + "\n");
+                    break;
+
+                case A_VALUE:
+                    assignValue((token == null) ? rawInputs.get(i) : token);
+                    break;
+
+                case A_MISSING_VALUE_LONG_KEY:
+                    // Recover by reading it as the key it looks like.
+                    reportMissingValue(token);
+                    currentKeyPair = null;
+                    parseState = parseKey(token.substring("--".length()), true);
+                    break;
+
+                case A_MISSING_VALUE_SHORT_KEY:
+                    reportMissingValue(token);
+                    currentKeyPair = null;
+                    parseState = parseKey(token.substring("-".length()), false);
+                    break;
+            }
+        }
+
+        // There is only one case where we should exit the loop while not expecting to receive a Key next. That is when
+        // we are receiving values for the listArg.
+        tokenIndex = rawInputs.size();
+        if (parseState == S_VALUE) {
+            ArgReceived owner = currentKeyPair;
+            report(E_Diagnostic.MISSING_VALUE, owner.option,
+                    () -> "All input was parsed and a value was still expected."
+                            + "\nExpected Value Owner: " + owner + ".");
+        }
+        tokenIndex = -1;
     }
 
     /**
-     * @param key A short or long key that is bound to an {@link ArgOption} for an option you have configured.
-     *
-     * @return If the option the key is a part of was used it will return a container with the passed value or values.
-     * Null is returned if option was not passed.
-     *
-     * @throws ArgumentOptionException If {@code key} is not bound to an option.
+     * Nothing after {@code --} is interpreted. The tokens are kept as a view of {@link ArgsParser#rawInputs}, so
+     * forwarding a long command line to another programme neither copies nor inspects each token.
      */
-    public ArgReceived getResult(String key) {
-        if (!keyMap.containsKey(key)) {
-            throw new ArgumentOptionException("The key (\"" + key + "\") is not bound to an option.");
+    private void endOptions(int offset) {
+        passThroughOffset = offset;
+
+        if (listArg == null || offset == rawInputs.size()) {
+            return;
         }
-        if (longResultMap.containsKey(key)) {
-            return longResultMap.get(key);
+
+        if (listArg.count == 0) {
+            updateResultMaps(listArg);
         }
 
-        boolean isShortKey = key.length() == 1;
-        if (isShortKey && shortResultMap.containsKey(key.charAt(0))) {
-            return shortResultMap.get(key.charAt(0));
+        if (storeResults && (optionListArg.internValues || optionListArg.distinctValues
+                || optionListArg.hasValueChecks())) {
+            for (int i = offset; i < rawInputs.size(); i++) {
+                tokenIndex = i;
+                storeValue(listArg, rawInputs.get(i), true);
+            }
+            return;
         }
 
-        return null;
+        listArg.addPassThroughValues(getPassThroughArgs());
+
+        if (parseListener != null) {
+            for (int i = offset; i < rawInputs.size(); i++) {
+                parseListener.onListValue(optionListArg, rawInputs.get(i), i);
+            }
+        }
     }
 
     /**
-     * @param shortKey Should be bound to an {@link ArgOption} this is not checked. Therefore, it is suggested that you
-     *                 use a version of this function that takes an {@link ArgOption} or a {@link EnumOptions} enum.
-     *
-     * @return If the option the key is a part of was used it will return a container with the passed value or values.
-     * Null is returned if option was not passed. If the key is not bound null is returned.
+     * @return The next state of the parse.
      */
-    public ArgReceived getResultShort(char shortKey) {
-        return shortResultMap.get(shortKey);
+    private int parseKey(String input, boolean isLongKey) {
+        if (!isLongKey && input.length() > 1) {
+            ArgOption joined = findJoinedProperties(input);
+            if (joined != null) {
+                ArgReceived argReceived = optionResultMap.computeIfAbsent(joined, ArgReceived::new);
+                updateResultMaps(argReceived);
+                storeValue(argReceived, input.substring(1));
+                lastKeyPair = argReceived;
+                return S_KEY;
+            }
+        }
+
+        // Get the key and a value. Value maybe empty. This protects the short key from malformed name value pairs.
+        String[] splitInput = input.split("=", 2);
+
+        String key = splitInput[0];
+
+        int index = keyIndex.indexOf(key, 0, key.length());
+        List<String> inputs = rawInputs;
+
+        if (index < 0) {
+            report(E_Diagnostic.UNKNOWN_KEY, null, () -> "No key match.\n"
+                    + "Passed Key: " + key + ".\n"
+                    + "Input: " + input + ".");
+            return S_KEY;
+        }
+
+        ArgOption argOption = argOptions.get(index);
+        if (!isLongKey && key.equals(argOption.longKey)) {
+            report(E_Diagnostic.WRONG_DASH_COUNT, argOption,
+                    () -> "A long key has been passed with only one dash this effects argument formatting.\n"
+                            + "Please add a dash.\n"
+                            + "Key: " + key + ".\n"
+                            + "Input: " + inputs);
+            return S_KEY;
+        } else if (isLongKey && key.length() == 1 && key.charAt(0) == argOption.shortKey) {
+            report(E_Diagnostic.WRONG_DASH_COUNT, argOption,
+                    () -> "A short key has been passed with two dash this effects argument formatting.\n"
+                            + "Please remove the extra dash.\n"
+                            + "Key: " + key + ".\n"
+                            + "Input: " + inputs);
+            return S_KEY;
+        }
+
+        ArgReceived argReceived = optionResultMap.get(argOption);
+        if (argReceived == null) {
+            // Only added to the results by updateResultMaps once it is stored, so a key whose value is missing is not
+            // passed, and its value can still come from a config file or the environment.
+            argReceived = new ArgReceived(argOption);
+        }
+        if (argReceived.count > 0 && !argOption.allowsRepeats()) {
+            String firstValue = argReceived.getValue();
+            // Carries on as if it was repeatable, so the value of a short key isn't read as a key.
+            report(E_Diagnostic.REPEATED_OPTION, argOption, () -> {
+                String errorStart = "An argument has been used multiply times that should only be used once.\n";
+                String errorMid = "";
+                String errorEnd = "Short Key: '" + argOption.getShortKey() + "', Long Key: \"" + argOption.getLongKey() + "\".\n"
+                        + "Input: " + inputs;
+
+                if (argOption.getUsage() == E_Usage.KEY_VALUE) {
+                    String shortError = "First Usage Value: " + firstValue + ".\n";
+                    String longError = "Second Usage: " + input + "First Usage Value: " + firstValue + ".\n";
+
+                    errorMid = (isLongKey) ? longError : shortError;
+                }
+
+                return errorStart + errorMid + errorEnd;
+            });
+        }
+
+        argReceived.optionIndex = index;
+
+        switch (keyActions[index * 2 + ((isLongKey) ? 1 : 0)]) {
+            case K_FLAG_SHORT:
+                checkShortKeyKeyErrors(splitInput, argOption);
+                storeFlag(argReceived);
+                return S_KEY;
+
+            case K_FLAG_LONG:
+                checkLongKeyKeyErrors(splitInput, argOption);
+                storeFlag(argReceived);
+                return S_KEY;
+
+            case K_COUNT_SHORT:
+                checkShortKeyKeyErrors(splitInput, argOption);
+                storeCount(argReceived);
+                return S_KEY;
+
+            case K_COUNT_LONG:
+                checkLongKeyKeyErrors(splitInput, argOption);
+                storeCount(argReceived);
+                return S_KEY;
+
+            case K_VALUE_SHORT:
+                if (checkShortKeyKeyValueErrors(splitInput, argOption)) {
+                    lastKeyPair = currentKeyPair;
+                    currentKeyPair = argReceived;
+                    return S_VALUE;
+                }
+                // A short key's value joined by an equals, which is recovered from.
+                storeJoinedValue(argReceived, splitInput[1]);
+                return S_KEY;
+
+            case K_VALUE_LONG:
+                if (checkLongKeyKeyValueErrors(splitInput, argOption)) {
+                    storeJoinedValue(argReceived, splitInput[1]);
+                }
+                return S_KEY;
+
+            default:
+                throw parseError("During command line key parsing, a key of type list was found.");
+        }
     }
 
-    /**
-     * {@code longKey} is not checked to see if it is bound to an option. Therefore, it is suggested that you use a
-     * version of this function that takes an {@link ArgOption} or a {@link EnumOptions} enum. <br>
-     * <br>
-     * Returns a container with the passed value or values if the option the key is a part of was used.
-     * Null is returned if option was not passed. If the key is not bound null is returned.
-     */
-    public ArgReceived getResultLong(String longKey) {
-        return longResultMap.get(longKey);
+    private void storeFlag(ArgReceived argReceived) {
+        updateResultMaps(argReceived);
+        storeValue(argReceived, "");
+        lastKeyPair = argReceived;
+    }
+
+    private void storeCount(ArgReceived argReceived) {
+        updateResultMaps(argReceived);
+        argReceived.count++;
+        if (parseListener != null) {
+            parseListener.onKey(argReceived.option, tokenIndex);
+        }
+        lastKeyPair = argReceived;
+    }
+
+    private void storeJoinedValue(ArgReceived argReceived, String value) {
+        updateResultMaps(argReceived);
+        storeValue(argReceived, value);
+        lastKeyPair = argReceived;
     }
 
     /**
-     * Returns the automatically generated help text.
+     * @return The {@link E_Usage#PROPERTIES} argument whose short key starts {@code input}, e.g. {@code Dname=value},
+     * or null. It is also null if the name is the argument's long key, e.g. {@code Define=value} for {@code -D} and
+     * {@code --Define}, which is far more likely a long key passed with one dash than a property named {@code efine}.
      */
-    public String getHelpText() {
-        return help;
+    private ArgOption findJoinedProperties(String input) {
+        int index = keyIndex.indexOf(input, 0, 1);
+        if (index < 0) {
+            return null;
+        }
+        // Long keys are at least two charters, so this is the short key.
+        ArgOption option = argOptions.get(index);
+        if (option.usage != E_Usage.PROPERTIES) {
+            return null;
+        }
+
+        int equals = input.indexOf('=');
+        int end = (equals < 0) ? input.length() : equals;
+        boolean isLongKey = !option.longKey.isEmpty() && end == option.longKey.length()
+                && input.startsWith(option.longKey);
+        return (isLongKey) ? null : option;
     }
 
+    // Note: The checks below return false if a problem was reported, so the caller can recover.
 
+    private void checkLongKeyKeyErrors(String[] splitInput, ArgOption argOption) {
+        if (splitInput.length >= 2) {
+            report(E_Diagnostic.UNEXPECTED_KEY_VALUE, argOption, () -> "A long key was used as a pair with a value instead of a lone key. Good format: ... --" + argOption.longKey + "... \n"
+                    + "Current parse: " + Arrays.toString(splitInput) + "\n"
+                    + "Key options: " + argOption);
+        }
+    }
+
+    private boolean checkLongKeyKeyValueErrors(String[] splitInput, ArgOption argOption) {
+        if (splitInput.length < 2) {
+            report(E_Diagnostic.MISSING_VALUE, argOption, () -> "A long key for a key-value pair was used without the value. Good format: ... --" + argOption.longKey + "=value ... \n"
+                    + "Current parse: " + Arrays.toString(splitInput) + "\n"
+                    + "Key-value pair options: " + argOption);
+            return false;
+        }
+        return true;
+    }
+
+    private void checkShortKeyKeyErrors(String[] splitInput, ArgOption argOption) {
+        if (splitInput.length >= 2) {
+            report(E_Diagnostic.UNEXPECTED_KEY_VALUE, argOption, () -> "A short key was used with an equals sign."
+                    + "Current parse: " + Arrays.toString(splitInput) + "\n"
+                    + "Key options: " + argOption);
+        }
+    }
+
+    private boolean checkShortKeyKeyValueErrors(String[] splitInput, ArgOption argOption) {
+        if (splitInput.length >= 2) {
+            report(E_Diagnostic.JOINED_SHORT_KEY_VALUE, argOption, () -> "A short key was used as a pair with a value join via an equals. Good format: ... -" + argOption.shortKey + " value ..."
+                    + "Current parse: " + Arrays.toString(splitInput) + "\n"
+                    + "Key-value pair options: " + argOption);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The index of the option of {@code argReceived} in {@link ArgsParser#argOptions}, looked up once per
+     * result.
+     */
+    private int indexOf(ArgReceived argReceived) {
+        if (argReceived.optionIndex < 0) {
+            argReceived.optionIndex = optionIndexes.get(argReceived.option);
+        }
+        return argReceived.optionIndex;
+    }
+
+    private void updateResultMaps(ArgReceived argReceived) {
+        ArgOption option = argReceived.option;
+        optionResultMap.put(option, argReceived);
+        setBit((argReceived.source == E_Source.COMMAND_LINE) ? commandLineMask : layeredMask, indexOf(argReceived));
+
+        if (option.shortKey != '\0') {
+            shortResultMap.put(option.shortKey, argReceived);
+        }
+
+        if (!option.longKey.isEmpty()) {
+            longResultMap.put(option.longKey, argReceived);
+        }
+    }
+
+    private void storeValue(ArgReceived argReceived, String value) {
+        storeValue(argReceived, value, false);
+    }
+
+    /**
+     * @param literal True for values after {@code --}, which are never read as {@code @path}.
+     */
+    private void storeValue(ArgReceived argReceived, String value, boolean literal) {
+        if (argReceived.option.usage == E_Usage.PROPERTIES) {
+            storeProperty(argReceived, value);
+            return;
+        }
+
+        if (valueChecks != null && !passesValueCheck(argReceived, value)) {
+            return;
+        }
+        if (storeResults && argReceived.option.valueFormat != E_ValueFormat.TEXT
+                && !passesNumberCheck(argReceived, value)) {
+            return;
+        }
+
+        Path valueFile = null;
+        if (argReceived.option.fileValues && !literal && value.length() > 1 && value.charAt(0) == '@') {
+            // "@@text" is the escape for the text "@text".
+            if (value.charAt(1) == '@') {
+                value = value.substring(1);
+            } else {
+                valueFile = resolvePath(Paths.get(value.substring(1)));
+            }
+        }
+
+        if (!storeResults) {
+            argReceived.count++;
+            notifyListener(argReceived.option, value);
+            return;
+        }
+
+        if (argReceived.option.internValues) {
+            value = internValue(value);
+        }
+
+        boolean added = argReceived.addValue(value);
+        if (added && valueFile != null) {
+            argReceived.addValueFile(new ValueFile(valueFile, parseErrorsDisplayStackTrace));
+        } else if (added && argReceived.option.valueFormat != E_ValueFormat.TEXT) {
+            argReceived.numbers.add(value);
+        }
+
+        notifyListener(argReceived.option, value);
+    }
+
+    /**
+     * @return False if the value failed a check of its option, which is reported.
+     */
+    private boolean passesValueCheck(ArgReceived argReceived, String value) {
+        ArgOption option = argReceived.option;
+        ValueCheck check = valueChecks[indexOf(argReceived)];
+        String problem = (check == null) ? null : check.problem(value);
+        if (problem == null) {
+            return true;
+        }
+
+        report(E_Diagnostic.INVALID_VALUE, option, () -> "A value failed a check of its argument.\n"
+                + "Problem: " + problem + ".\n"
+                + "Value: " + value + ".\n"
+                + "Argument option: " + option);
+        return false;
+    }
+
+    /**
+     * Splits {@code pair} at its first equals, a pair without one has an empty value.
+     */
+    private void storeProperty(ArgReceived argReceived, String pair) {
+        ArgOption option = argReceived.option;
+        int equals = pair.indexOf('=');
+        if (equals == 0 || pair.isEmpty()) {
+            report(E_Diagnostic.INVALID_PROPERTY, option, () -> "A property has no name.\n"
+                    + "Good format: name=value.\n"
+                    + "Property: " + pair + ".\n"
+                    + "Argument option: " + option);
+            return;
+        }
+
+        argReceived.count++;
+        if (storeResults) {
+            String name = (equals < 0) ? pair : pair.substring(0, equals);
+            String value = (equals < 0) ? "" : pair.substring(equals + 1);
+            if (argReceived.properties == null) {
+                argReceived.properties = new PropertyMap();
+            }
+
+            int index = argReceived.properties.indexOf(name);
+            if (index < 0) {
+                argReceived.properties.add(name, value);
+            } else if (option.propertyOverride == E_PropertyOverride.LAST_WINS) {
+                argReceived.properties.values[index] = value;
+            } else if (option.propertyOverride == E_PropertyOverride.ERROR) {
+                String first = argReceived.properties.values[index];
+                report(E_Diagnostic.REPEATED_PROPERTY, option, () -> "A property has been given more than once.\n"
+                        + "Name: " + name + ".\n"
+                        + "First value: " + first + ".\n"
+                        + "Second value: " + value + ".\n"
+                        + "Argument option: " + option);
+            }
+        }
+
+        notifyListener(option, pair);
+    }
+
+    private void notifyListener(ArgOption option, String value) {
+        if (parseListener == null) {
+            return;
+        }
+
+        switch (option.usage) {
+            case KEY:
+            case COUNT: parseListener.onKey(option, tokenIndex); break;
+            case KEY_VALUE:
+            case PROPERTIES: parseListener.onKeyValue(option, value, tokenIndex); break;
+            case LIST: parseListener.onListValue(option, value, tokenIndex); break;
+        }
+    }
+
+    /**
+     * @return False if the value is not a list of numbers and ranges, which is reported. Like a value that fails a
+     * check it is then dropped, so the values and the numbers of the argument agree.
+     */
+    private boolean passesNumberCheck(ArgReceived argReceived, String value) {
+        if (argReceived.numbers == null) {
+            argReceived.numbers = new NumberList(argReceived.option.valueFormat);
+        }
+
+        String problem = argReceived.numbers.check(value, valueListLimit);
+        if (problem == null) {
+            return true;
+        }
+
+        ArgOption option = argReceived.option;
+        report(E_Diagnostic.INVALID_NUMBER_LIST, option, () -> "A value is not a list of numbers and ranges.\n"
+                + "Problem: " + problem + ".\n"
+                + "Value: " + value + ".\n"
+                + "Good format: 1,5,9-200.\n"
+                + "Argument option: " + option);
+        return false;
+    }
+
+    private String internValue(String value) {
+        if (internTable == null) {
+            internTable = new HashMap<>();
+        }
+
+        String interned = internTable.get(value);
+        if (interned != null) {
+            return interned;
+        }
+
+        if (internTable.size() < internTableLimit) {
+            internTable.put(value, value);
+        }
+        return value;
+    }
+
+    /**
+     * @param token Null for a lazy item, which is kept as bytes until it is read.
+     */
+    private void addListItem(String token, Utf8Args lazyItems, int index) {
+        if (token == null) {
+            listArg.addLazyValue(lazyItems, index);
+        } else {
+            storeValue(listArg, token);
+        }
+    }
+
+    private void reportMissingValue(String rawInput) {
+        // Note(Max): I have done this type of error detection a bunch, and it doesn't tell me why this is an error. I
+        //  think it is just bad.
+        ArgReceived last = lastKeyPair;
+        report(E_Diagnostic.MISSING_VALUE, (currentKeyPair == null) ? null : currentKeyPair.option,
+                () -> "Expected a value, got a key. Look for spaces and check if a key can except a value.\n"
+                        + "Last group: " + last + "\n"
+                        + "Malformed value: " + rawInput);
+    }
+
+    private void assignValue(String value) {
+        updateResultMaps(currentKeyPair);
+        storeValue(currentKeyPair, value);
+        lastKeyPair = currentKeyPair;
+        currentKeyPair = null;
+        parseState = S_KEY;
+    }
+
+
+
+    private void applyConfigLayers() {
+        if (configFiles.isEmpty() && environmentPrefix == null) {
+            return;
+        }
+
+        ArrayList<Map<String, String>> fileLayers = new ArrayList<>(configFiles.size());
+        for (Path configFile : configFiles) {
+            fileLayers.add(ConfigFileCache.load(resolvePath(configFile)));
+        }
+
+        Map<String, String> env = (environment == null) ? EnvironmentSnapshot.VALUES : environment;
+
+        for (int i = 0; i < argOptions.size(); i++) {
+            ArgOption option = argOptions.get(i);
+            if (option.longKey.isEmpty() || option.usage == E_Usage.LIST || isPassed(option)) {
+                continue;
+            }
+
+            String value = null;
+            E_Source source = E_Source.ENVIRONMENT;
+            if (environmentNames != null && environmentNames[i] != null) {
+                value = env.get(environmentNames[i]);
+            }
+
+            for (int layer = fileLayers.size() - 1; value == null && layer >= 0; layer--) {
+                value = fileLayers.get(layer).get(option.longKey);
+                source = E_Source.CONFIG_FILE;
+            }
+
+            if (value != null) {
+                applyLayerValue(option, value.trim(), source);
+            }
+        }
+    }
+
+    private void applyLayerValue(ArgOption option, String value, E_Source source) {
+        ArgReceived argReceived = new ArgReceived(option);
+        argReceived.source = source;
+
+        if (option.usage == E_Usage.KEY) {
+            if (value.equalsIgnoreCase("false")) {
+                return;
+            }
+
+            if (!value.isEmpty() && !value.equalsIgnoreCase("true")) {
+                String keyValue = value;
+                report(E_Diagnostic.INVALID_LAYER_VALUE, option,
+                        () -> "A key can only be set to true or false outside the command line.\n"
+                                + "Source: " + source + ".\n"
+                                + "Value: " + keyValue + ".\n"
+                                + "Key options: " + option);
+                return;
+            }
+            value = "";
+        }
+
+        if (option.usage == E_Usage.COUNT) {
+            int count = parseLayerCount(option, value, source);
+            if (count > 0) {
+                updateResultMaps(argReceived);
+                argReceived.count = count;
+                for (int i = 0; parseListener != null && i < count; i++) {
+                    parseListener.onKey(option, tokenIndex);
+                }
+            }
+            return;
+        }
+
+        updateResultMaps(argReceived);
+        storeValue(argReceived, value);
+    }
+
+    private int parseLayerCount(ArgOption option, String value, E_Source source) {
+        if (value.isEmpty() || value.equalsIgnoreCase("true")) {
+            return 1;
+        }
+
+        if (value.equalsIgnoreCase("false")) {
+            return 0;
+        }
+
+        try {
+            int count = Integer.parseInt(value);
+            if (count >= 0) {
+                return count;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below.
+        }
+
+        report(E_Diagnostic.INVALID_LAYER_VALUE, option,
+                () -> "A counter can only be set to true, false or a count outside the command line.\n"
+                        + "Source: " + source + ".\n"
+                        + "Value: " + value + ".\n"
+                        + "Counter options: " + option);
+        return 0;
+    }
+
+    /**
+     * Checks the constraints compiled by {@link ArgsParser#compileConstraints()} against the options passed. Required
+     * options and requirements are satisfied by any source, {@link E_Source}. Exclusivity is only checked between
+     * options passed on the command line, so a config file can't conflict with what the user typed.
+     */
+    private void checkConstraints() {
+        if (!hasConstraints) {
+            return;
+        }
+
+        int commandLineCount = 0;
+        boolean useOnItsOwnPassed = false;
+        for (int word = 0; word < maskWords; word++) {
+            long passed = commandLineMask[word] | layeredMask[word];
+
+            for (long missing = requiredMask[word] & ~passed; missing != 0; missing &= missing - 1) {
+                ArgOption option = argOptions.get((word << 6) + Long.numberOfTrailingZeros(missing));
+                report(E_Diagnostic.MISSING_REQUIRED, option, () -> "A required argument was not passed.\n"
+                        + "Argument option: " + option);
+            }
+
+            commandLineCount += Long.bitCount(commandLineMask[word]);
+            useOnItsOwnPassed |= (useOnItsOwnMask[word] & commandLineMask[word]) != 0;
+        }
+
+        if (useOnItsOwnPassed && commandLineCount > 1) {
+            String passed = describeMask(commandLineMask);
+            report(E_Diagnostic.NOT_USED_ON_ITS_OWN, null,
+                    () -> "An argument that should be used on its own was passed with other arguments.\n"
+                            + "Arguments passed: " + passed);
+        }
+
+        for (int group = 0; group < exclusiveGroupMasks.size(); group++) {
+            long[] groupMask = exclusiveGroupMasks.get(group);
+            int groupCount = 0;
+            for (int word = 0; word < maskWords; word++) {
+                groupCount += Long.bitCount(groupMask[word] & commandLineMask[word]);
+            }
+
+            if (groupCount > 1) {
+                long[] conflict = new long[maskWords];
+                for (int word = 0; word < maskWords; word++) {
+                    conflict[word] = groupMask[word] & commandLineMask[word];
+                }
+                String groupName = exclusiveGroupNames.get(group);
+                String passed = describeMask(conflict);
+                report(E_Diagnostic.EXCLUSIVE_CONFLICT, null,
+                        () -> "Only one argument of an exclusive group can be passed.\n"
+                                + "Group: " + groupName + ".\n"
+                                + "Arguments passed: " + passed);
+            }
+        }
+
+        for (int i = 0; i < requiringOptions.length; i++) {
+            int index = requiringOptions[i];
+            int word = index >>> 6;
+            if (((commandLineMask[word] | layeredMask[word]) & (1L << index)) == 0) {
+                continue;
+            }
+
+            long[] requires = requiresMasks[i];
+            ArgOption argument = argOptions.get(index);
+            for (word = 0; word < maskWords; word++) {
+                long missing = requires[word] & ~(commandLineMask[word] | layeredMask[word]);
+                for (; missing != 0; missing &= missing - 1) {
+                    ArgOption option = argOptions.get((word << 6) + Long.numberOfTrailingZeros(missing));
+                    report(E_Diagnostic.MISSING_REQUIREMENT, argument,
+                            () -> "An argument was passed without an argument it requires.\n"
+                                    + "Argument: " + argument + "\n"
+                                    + "Requires: " + option);
+                }
+            }
+        }
+    }
+
+    private String describeMask(long[] mask) {
+        StringBuilder description = new StringBuilder();
+        for (int word = 0; word < maskWords; word++) {
+            for (long bits = mask[word]; bits != 0; bits &= bits - 1) {
+                ArgOption option = argOptions.get((word << 6) + Long.numberOfTrailingZeros(bits));
+                description.append((description.length() == 0) ? "" : ", ")
+                        .append((option.usage == E_Usage.LIST) ? HelpBuilder.LIST_USAGE_KEY : option.getName());
+            }
+        }
+        return description.toString();
+    }
+
+
+
+    /**
+     * @param option An enum value where the enum class implements an {@link EnumOptions}.
+     *
+     * @return True if the user passed the option at least once.
+     */
+    public <E extends Enum<E> & ArgsParser.EnumOptions> boolean isPassed(E option) {
+        return isPassed(option.get());
+    }
+
+    /**
+     * @return True if the user passed the option at least once.
+     */
+    public boolean isPassed(ArgOption option) {
+        if (option == null) {
+            throw new NullPointerException("The option received to look for a result was null.");
+        }
+
+        return optionResultMap.containsKey(option) && optionResultMap.get(option) != null;
+    }
+
+    /**
+     * @param key A short or long key that is bound to an {@link ArgOption} for an argument you have configured. It is
+     *            not checked if the key is bound to an option. Therefore, it is recommended that you use a version of
+     *            this function that takes an {@link ArgOption} or a {@link EnumOptions} enum.
+     *
+     * @return True if the user used the argument the key is associated with at least once. False if the key is not used
+     * or if the key is not bound to an option.
+     */
+    public boolean isPassed(String key) {
+        boolean isShortKey = key.length() == 1;
+        boolean hasShortKey = isShortKey && isShortPassed(key.charAt(0));
+        return hasShortKey || longResultMap.containsKey(key);
+    }
+
+    /**
+     * @param key Is not checked to see if it is bound to an option. Therefore, it is suggested that you use a version
+     *            of this function that takes an {@link ArgOption} or a {@link EnumOptions} enum.
+     *
+     * @return True if the user used the argument the short key is associated with at least once. False if the key is
+     * not used or if the key is not bound to an option.
+     */
+    public boolean isShortPassed(char key) {
+        return shortResultMap.containsKey(key);
+    }
+
+    /**
+     * @param longKey Is not checked to see if it is bound to an option. Therefore, it is suggested that you use a
+     *                version of this function that takes an {@link ArgOption} or a {@link EnumOptions} enum.
+     *
+     * @return True if the user used the argument the long key is associated with at least once. False if the key is not
+     * used or if the key is not bound to an option.
+     */
+    public boolean isLongPassed(String longKey) {
+        return longResultMap.containsKey(longKey);
+    }
+
+    /**
+     * @return If the option the key is a part of was used it will return a container with the passed value or values.
+     * Null is returned if option was not passed.
+     */
+    public <E extends Enum<E> & ArgsParser.EnumOptions> ArgReceived getResult(E option) {
+        return optionResultMap.get(option.get());
+    }
+
+    /**
+     * @return If the option was used it will return a container with the passed value or values. Null is returned if
+     * option was not passed.
+     */
+    public ArgReceived getResult(ArgOption option) {
+        if (option == null) {
+            throw new NullPointerException("The option received to look for a result was null.");
+        }
+
+        return optionResultMap.get(option);
+    }
+
+    /**
+     * @param key A short or long key that is bound to an {@link ArgOption} for an option you have configured.
+     *
+     * @return If the option the key is a part of was used it will return a container with the passed value or values.
+     * Null is returned if option was not passed.
+     *
+     * @throws ArgumentOptionException If {@code key} is not bound to an option.
+     */
+    public ArgReceived getResult(String key) {
+        if (findOption(key) == null) {
+            throw new ArgumentOptionException("The key (\"" + key + "\") is not bound to an option.");
+        }
+        if (longResultMap.containsKey(key)) {
+            return longResultMap.get(key);
+        }
+
+        boolean isShortKey = key.length() == 1;
+        if (isShortKey && shortResultMap.containsKey(key.charAt(0))) {
+            return shortResultMap.get(key.charAt(0));
+        }
+
+        return null;
+    }
+
+    /**
+     * @param shortKey Should be bound to an {@link ArgOption} this is not checked. Therefore, it is suggested that you
+     *                 use a version of this function that takes an {@link ArgOption} or a {@link EnumOptions} enum.
+     *
+     * @return If the option the key is a part of was used it will return a container with the passed value or values.
+     * Null is returned if option was not passed. If the key is not bound null is returned.
+     */
+    public ArgReceived getResultShort(char shortKey) {
+        return shortResultMap.get(shortKey);
+    }
+
+    /**
+     * {@code longKey} is not checked to see if it is bound to an option. Therefore, it is suggested that you use a
+     * version of this function that takes an {@link ArgOption} or a {@link EnumOptions} enum. <br>
+     * <br>
+     * Returns a container with the passed value or values if the option the key is a part of was used.
+     * Null is returned if option was not passed. If the key is not bound null is returned.
+     */
+    public ArgReceived getResultLong(String longKey) {
+        return longResultMap.get(longKey);
+    }
+
+    /**
+     * Returns the arguments passed after {@code --}, the end of options marker, which are not interpreted by the parse.
+     * The list is an unmodifiable view of the array passed to {@link ArgsParser#pareArgs(String[])}, so getting it
+     * doesn't copy the arguments. If there is an {@link E_Usage#LIST} argument the same arguments are also the last
+     * items of its list, which allows list items that start with a dash. <br>
+     * <br>
+     * The list is empty if {@code --} was not passed.
+     */
+    public List<String> getPassThroughArgs() {
+        if (passThroughOffset < 0) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(rawInputs.subList(passThroughOffset, rawInputs.size()));
+    }
+
+    /**
+     * Returns the index of the first argument after {@code --} in the array passed to
+     * {@link ArgsParser#pareArgs(String[])}, or -1 if {@code --} was not passed. See
+     * {@link ArgsParser#getPassThroughArgs()}.
+     */
+    public int getPassThroughOffset() {
+        return passThroughOffset;
+    }
+
+    /**
+     * Starts a parse that is given the command line one token at a time, for a console or completion that needs to
+     * know what can come next as the user types. See {@link IncrementalParse}.
+     */
+    public IncrementalParse startIncrementalParse() {
+        return new IncrementalParse(this);
+    }
+
+    private KeyPrefixIndex keyPrefixIndex() {
+        KeyPrefixIndex index = keyPrefixIndex;
+        if (index == null) {
+            index = new KeyPrefixIndex(argOptions);
+            keyPrefixIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the options of the parser, in the order they were given. This is how the options are found when the
+     * parser was made by {@link ArgsParser#fromSchema(ProgrammeDetails, Path, Path)}.
+     */
+    public List<ArgOption> getArgOptions() {
+        return Collections.unmodifiableList(argOptions);
+    }
+
+    /**
+     * Creates an instance of {@code type} from the results of the parse. If {@code type} has a constructor whose
+     * parameters are all annotated with {@link Bind}, such as the canonical constructor of a record whose components
+     * are annotated, it is called with the results. Otherwise, the no-argument constructor is called and the fields
+     * annotated with {@link Bind} are set as by {@link ArgsParser#bindInto(Object)}. <br>
+     * <br>
+     * The bindings of a class are resolved once, into method handles shared by every parser, so binding costs about
+     * the same as copying the results by hand. Its keys are all checked the first time the class is bound with the
+     * options of a parser, and its forks, before any value is converted. See {@link Bind} for the supported types.
+     *
+     * @throws ArgumentOptionException If {@code type} can't be bound, or it uses a key that is not bound to an option.
+     * @throws ParseArgumentException If a value can't be converted to the type it is bound to.
+     */
+    public <T> T bind(Class<T> type) {
+        if (type == null) {
+            throw new NullPointerException("type cannot be null.");
+        }
+
+        return type.cast(Binder.forClass(type).create(this));
+    }
+
+    /**
+     * Sets the fields of {@code target} that are annotated with {@link Bind} to the results of the parse. Fields of
+     * options that were not passed are left as they are, so a field initializer works as a default value.
+     *
+     * @throws ArgumentOptionException If the class of {@code target} can't be bound, or it uses a key that is not
+     * bound to an option.
+     * @throws ParseArgumentException If a value can't be converted to the type of its field.
+     */
+    public void bindInto(Object target) {
+        if (target == null) {
+            throw new NullPointerException("target cannot be null.");
+        }
+
+        Binder.forClass(target.getClass()).setFields(this, target);
+    }
+
+    /**
+     * Returns the automatically generated help text.
+     */
+    public String getHelpText() {
+        if (help == null) {
+            help = new HelpBuilder().buildHelp();
+        }
+        return help;
+    }
+
+    /**
+     * Returns a self-contained completion script for {@code shell}. The script only uses the shell's own completion
+     * system, so pressing tab never starts a JVM. Install it like any other completion script, e.g. source the bash
+     * script from {@code ~/.bashrc} or place the zsh script in a directory on {@code $fpath} as
+     * {@code _<command name>}.
+     */
+    public String getCompletionScript(E_Shell shell) {
+        if (shell == null) {
+            throw new NullPointerException("shell cannot be null.");
+        }
+
+        CompletionBuilder completionBuilder = new CompletionBuilder();
+        return (shell == E_Shell.BASH) ? completionBuilder.buildBash() : completionBuilder.buildZsh();
+    }
+
+
+
+    /**
+     * The user should instantiate this class for each argument/option they would like there programme to accept. The instances are
+     * then passed to a constructor of {@link ArgsParser}. Alternately the user can instantiate instances of this class inside
+     * the fields of an enum implementing {@link EnumOptions} and then pass the {@code .class} of that enum to {@link
+     * ArgsParser#ArgsParser(ProgrammeDetails, Class)}, see the constructor for details. <br>
+     * <br>
+     * The user can configure: <br>
+     * <ul>
+     *     <li> The short key, {@link ArgOption#shortKey}. </li>
+     *     <li> The long key, {@link ArgOption#longKey}. </li>
+     *     <li> The format to use the argument, {@link ArgOption#usage}. </li>
+     *     <li> An example of how to use the short key, {@link ArgOption#shortValueExample}. </li>
+     *     <li> An example of how to use the long key, {@link ArgOption#longValueExample}. </li>
+     *     <li> An example of how to use the argument if it is a list, {@link ArgOption#listExample}. </li>
+     *     <li> A description of what the argument does and what it is used for, {@link ArgOption#description}. </li>
+     *     <li> Whether the argument should be passed on its own, {@link ArgOption#useOnItsOwn}. </li>
+     *     <li> Whether the argument can be used more than once, {@link ArgOption#repeatable}. </li>
+     *     <li> Whether the argument must be passed, {@link ArgOption#required}. </li>
+     *     <li> A group of arguments only one of which can be passed, {@link ArgOption#exclusiveGroup}. </li>
+     *     <li> Other arguments that must be passed with the argument, {@link ArgOption#requires}. </li>
+     *     <li> Whether equal values share one instance, {@link ArgOption#internValues}. </li>
+     *     <li> Whether repeated values are dropped, {@link ArgOption#distinctValues}. </li>
+     *     <li> How values are read as numbers, {@link ArgOption#valueFormat}. </li>
+     *     <li> Whether {@code @path} values stand for the contents of a file, {@link ArgOption#fileValues}. </li>
+     *     <li> What a repeated name of a properties argument does, {@link ArgOption#propertyOverride}. </li>
+     *     <li> Checks each value must pass, {@link ArgOption#valuePattern}, {@link ArgOption#valueRangeMin},
+     *     {@link ArgOption#valueLengthMin} and {@link ArgOption#valueCharset}. </li>
+     *     <li> Where the description and examples are loaded from, {@link ArgOption#textResource}. </li>
+     * </ul>
+     *
+     * <br>
+     * There are several reversed keys to print the help, they are saved in {@link ArgsParser#HELP_FLAGS}. They print
+     * the help and stop excursion.
+     */
+    public static class ArgOption {
+
+        /**
+         * The short key used for an argument. Should be a single char.
+         * <br>
+         * Example: 'w' -> '-w'
+         */
+        private char shortKey = '\0';
+
+        /**
+         * The long key used for an argument. Should be more than one char long.
+         * <br>
+         * {@code Example: 'Window-Name' -> '--Window-Name'}
+         */
+        private String longKey = "";
+
+        /**
+         * The way to use the argument. See {@link E_Usage} for a description of the options.
+         */
+        private E_Usage usage = null;
+
+        /**
+         * An example usage of the short key that will be printed for the user if they use one of the help flags and: <br>
+         * 1) The short key has been set. <br>
+         * 2) {@link ArgOption#usage} is {@link E_Usage#KEY_VALUE}. <br>
+         * <br>
+         * {@code Example: '(1, 2, 3)' -> 'ColColorize ... -t (1,2,3) ...'}
+         */
+        private String shortValueExample = "{value}";
+
+        /**
+         * An example usage of the long key that will be printed for the user if they use one of the help flags and: <br>
+         * 1) The short key has been set. <br>
+         * 2) {@link ArgOption#usage} is {@link E_Usage#KEY_VALUE}. <br>
+         * <br>
+         * {@code Example: 'Bright Blue' -> 'ColColorize ... -Text-Colour="Bright Blue" ...'}
+         */
+        private String longValueExample = "{value}";
+
+        /**
+         * An example usage of the space delimited list positional argument that will be printed for the user if they
+         * use one of the help flags.
+         * <br>
+         * {@code Example: 'Max, Maximus and Maximilian' -> 'BuildProfiles ... Max Maximus Maximilian'}
+         */
+        private String listExample = "{value} {value} {value}";
+
+        /**
+         * A description of what the argument is used for in your programme.
+         */
+        private String description = "";
+
+        /**
+         * If true then the option should not be passed with any other option, if it is passed with another argument a
+         * {@link ParseArgumentException} is thrown. If false the user can pass this argument with others. An example
+         * argument with this set to true is {@code --help}.
+         */
+        private boolean useOnItsOwn = false;
+
+        /**
+         * If true the user can pass this argument more than once. If false then should the user passes this argument
+         * more than once an {@link ParseArgumentException} will be thrown.
+         */
+        private boolean repeatable = false;
+
+        /**
+         * If true the user must pass this argument, on the command line or through a config source. If it is missing a
+         * {@link ParseArgumentException} is thrown.
+         */
+        private boolean required = false;
+
+        /**
+         * The name of a group of arguments of which at most one can be passed. If more than one is passed a
+         * {@link ParseArgumentException} is thrown. An empty name means the argument is not in a group.
+         */
+        private String exclusiveGroup = "";
+
+        /**
+         * The short or long keys of the arguments that must also be passed if this argument is passed. If one is
+         * missing a {@link ParseArgumentException} is thrown.
+         */
+        private String[] requires = new String[0];
+
+        /**
+         * If true equal values passed to this argument share one String instance. See
+         * {@link ArgsParser#setInternTableLimit(int)}.
+         */
+        private boolean internValues = false;
+
+        /**
+         * If true a value equal to one already passed to this argument is dropped, the order of first use is kept.
+         */
+        private boolean distinctValues = false;
+
+        /**
+         * How the values of a {@link E_Usage#KEY_VALUE} argument are read as well as text. See {@link E_ValueFormat}.
+         */
+        private E_ValueFormat valueFormat = E_ValueFormat.TEXT;
+
+        /**
+         * If true a value {@code @path} stands for the contents of the file, read when the value is first used. See
+         * {@link ArgOption#setFileValues(boolean)}.
+         */
+        private boolean fileValues = false;
+
+        /**
+         * What a repeated name of an {@link E_Usage#PROPERTIES} argument does. See
+         * {@link ArgOption#setPropertyOverride(E_PropertyOverride)}.
+         */
+        private E_PropertyOverride propertyOverride = E_PropertyOverride.LAST_WINS;
+
+        /**
+         * A regular expression each value must match, empty for none. See {@link ArgOption#setValuePattern(String)}.
+         */
+        private String valuePattern = "";
+
+        /**
+         * The least and greatest whole number a value can be. See {@link ArgOption#setValueRange(long, long)}.
+         */
+        private long valueRangeMin = Long.MIN_VALUE;
+
+        private long valueRangeMax = Long.MAX_VALUE;
+
+        /**
+         * The least and greatest number of charters a value can have. See {@link ArgOption#setValueLength(int, int)}.
+         */
+        private int valueLengthMin = 0;
+
+        private int valueLengthMax = Integer.MAX_VALUE;
+
+        /**
+         * The charters a value can be made of, empty for any. See {@link ArgOption#setValueCharset(String)}.
+         */
+        private String valueCharset = "";
+
+        /**
+         * Where the text of the help is loaded from when it is needed, in place of {@link ArgOption#description} and
+         * the examples. See {@link ArgOption#setText(TextResource, String)}.
+         */
+        private TextResource textResource = null;
+
+        /**
+         * The name the text of this argument has in {@link ArgOption#textResource}.
+         */
+        private String textKey = null;
+
+        /**
+         * The help text of an argument loaded by {@link ArgsParser#fromSnapshot(ProgrammeDetails, Path)}, still in the
+         * mapped snapshot, until {@link ArgOption#decodeSnapshotText()} decodes it into {@link ArgOption#description}
+         * and the examples.
+         */
+        private volatile SnapshotText snapshotText = null;
+
+
+
+        /**
+         * Return the long key if the argument has one set if not the short key is returned.
+         */
+        public String getName() {
+            return (longKey.isEmpty()) ? String.valueOf(shortKey) : longKey;
+        }
+
+        /**
+         * Return the short key, if not set will be {@code '\0'}. See {@link ArgsParser.ArgOption#shortKey}.
+         */
+        public char getShortKey() {
+            return shortKey;
+        }
+
+        /**
+         * Sets the short key. See {@link ArgsParser.ArgOption#shortKey}.
+         */
+        public ArgOption setShortKey(char shortKey) {
+            this.shortKey = shortKey;
+            return this;
+        }
+
+        /**
+         * Return the long key, if not set will be empty. See {@link ArgsParser.ArgOption#longKey}.
+         */
+        public String getLongKey() {
+            return longKey;
+        }
+
+        /**
+         * Sets the long key. See {@link ArgsParser.ArgOption#longKey}.
+         *
+         * @throws ArgumentOptionException if the long key is not at least 2 chars long.
+         */
+        public ArgOption setLongKey(String longKey) {
+            if (longKey.length() < 2) {
+                throw new ArgumentOptionException("Long keys should be at least 2 charters long. \n");
+            }
+            this.longKey = longKey;
+            return this;
+        }
+
+        /**
+         * Returns the usage. See {@link ArgsParser.ArgOption#usage}.
+         */
+        public E_Usage getUsage() {
+            return usage;
+        }
+
+        /**
+         * Sets the way the argument is used. See {@link ArgsParser.ArgOption#usage}.
+         */
+        public ArgOption setUsage(E_Usage usage) {
+            this.usage = usage;
+            return this;
+        }
+
+        /**
+         * Returns the example that will be used for the short key in the generated help text if the short key is set
+         * and the argument has usage, KEY_VALUE. <br>
+         * <br>
+         * See {@link ArgOption#shortValueExample}.
+         */
+        public String getShortValueExample() {
+            decodeSnapshotText();
+            return text("shortValueExample", shortValueExample);
+        }
+
+        /**
+         * Sets the example that will be used for the short key in the generated help text if the short key is set and
+         * the argument has usage, {@link E_Usage#KEY_VALUE}. <br>
+         * <br>
+         * {@code default = "{value}";} <br>
+         * <br>
+         * See {@link ArgOption#shortValueExample}.
+         */
+        public ArgOption setShortValueExample(String shortValueExample) {
+            decodeSnapshotText();
+            this.shortValueExample = shortValueExample;
+            return this;
+        }
+
+        /**
+         * Returns the example that will be used for the long key in the generated help text if the long key is set. <br>
+         * <br>
+         * See {@link ArgOption#longValueExample}.
+         */
+        public String getLongValueExample() {
+            decodeSnapshotText();
+            return text("longValueExample", longValueExample);
+        }
+
+        /**
+         * Sets the example that will be used for the long key in the generated help text if the long key is set and the
+         * argument has usage, {@link E_Usage#KEY_VALUE}. <br>
+         * <br>
+         * {@code default = "{value}";} <br>
+         * <br>
+         * See {@link ArgOption#longValueExample}.
+         */
+        public ArgOption setLongValueExample(String longValueExample) {
+            decodeSnapshotText();
+            this.longValueExample = longValueExample;
+            return this;
+        }
+
+        /**
+         * Returns the example that will be included in the generated help if this argument has usage,
+         * {@link E_Usage#LIST}, a space delimited list. <br>
+         * <br>
+         * See {@link ArgOption#listExample}.
+         */
+        public String getListExample() {
+            decodeSnapshotText();
+            return text("listExample", listExample);
+        }
+
+        /**
+         * Set the example that will be included in the generated help if this argument has usage, {@link E_Usage#LIST},
+         * a space delimited list. <br>
+         * <br>
+         * {@code default = "{value} {value} {value}";} <br>
+         * <br>
+         * See {@link ArgOption#listExample}.
+         */
+        public ArgOption setListExample(String listExample) {
+            decodeSnapshotText();
+            this.listExample = listExample;
+            return this;
+        }
+
+        /**
+         * Returns the description that will be included in the generated help for what this argument is used for and
+         * what it does.
+         */
+        public String getDescription() {
+            decodeSnapshotText();
+            return text("description", description);
+        }
+
+        /**
+         * Set the description that will be included in the generated help for what this argument is used for and what
+         * it does. <br>
+         * <br>
+         * {@code default = "";} <br>
+         * <br>
+         * See {@link ArgOption#description}.
+         */
+        public ArgOption setDescription(String description) {
+            decodeSnapshotText();
+            this.description = description;
+            return this;
+        }
+
+        /**
+         * Returns the boolean {@link ArgOption#useOnItsOwn}.
+         */
+        public boolean isUseOnItsOwn() {
+            return useOnItsOwn;
+        }
+
+        /**
+         * If this is true then the argument should not be passed with another
+         * argument, if it is passed with any other arguments a {@link ParseArgumentException} is thrown. If it is set
+         * to false the user can pass this argument with others. An example argument with this set to true is
+         * {@code --help}. <br>
+         * <br>
+         * {@code default = false;} <br>
+         * <br>
+         * Sets {@link ArgOption#useOnItsOwn}.
+         */
+        public ArgOption setUseOnItsOwn(boolean useOnItsOwn) {
+            this.useOnItsOwn = useOnItsOwn;
+            return this;
+        }
+
+        /**
+         * Returns the boolean {@link ArgOption#repeatable}.
+         */
+        public boolean isRepeatable() {
+            return repeatable;
+        }
+
+        /**
+         * If this is true the user can pass this argument more than once. If this is
+         * set to false then if the user passes this argument more than once a {@link ParseArgumentException} will be
+         * thrown. <br>
+         * <br>
+         * {@code default = false;} <br>
+         * <br>
+         * Sets {@link ArgOption#repeatable}.
+         */
+        public ArgOption setRepeatable(boolean repeatable) {
+            this.repeatable = repeatable;
+            return this;
+        }
+
+        /**
+         * Returns the boolean {@link ArgOption#required}.
+         */
+        public boolean isRequired() {
+            return required;
+        }
+
+        /**
+         * If this is true the user must pass this argument, if they don't a {@link ParseArgumentException} is thrown.
+         * A value from a config file or the environment counts as passing it. <br>
+         * <br>
+         * {@code default = false;} <br>
+         * <br>
+         * Sets {@link ArgOption#required}.
+         */
+        public ArgOption setRequired(boolean required) {
+            this.required = required;
+            return this;
+        }
+
+        /**
+         * Returns the name of the exclusive group, empty if the argument is not in one. See
+         * {@link ArgOption#exclusiveGroup}.
+         */
+        public String getExclusiveGroup() {
+            return exclusiveGroup;
+        }
+
+        /**
+         * Puts the argument in a named group of which the user can pass at most one argument on the command line. If
+         * more than one is passed a {@link ParseArgumentException} is thrown. <br>
+         * <br>
+         * {@code default = "";} <br>
+         * <br>
+         * Sets {@link ArgOption#exclusiveGroup}.
+         */
+        public ArgOption setExclusiveGroup(String exclusiveGroup) {
+            this.exclusiveGroup = exclusiveGroup;
+            return this;
+        }
+
+        /**
+         * Returns a copy of the keys this argument requires. See {@link ArgOption#requires}.
+         */
+        public String[] getRequires() {
+            return requires.clone();
+        }
+
+        /**
+         * Sets the short or long keys of the arguments that must be passed if this argument is passed. The keys are
+         * used, rather than the options, so an enum constant can require a constant declared after it. If a key is not
+         * bound to an option the constructor of {@link ArgsParser} throws an {@link ArgumentOptionException}. <br>
+         * <br>
+         * {@code default = {};} <br>
+         * <br>
+         * Sets {@link ArgOption#requires}.
+         */
+        public ArgOption setRequires(String... requires) {
+            this.requires = requires.clone();
+            return this;
+        }
+
+        /**
+         * Returns the boolean {@link ArgOption#internValues}.
+         */
+        public boolean isInternValues() {
+            return internValues;
+        }
+
+        /**
+         * If this is true equal values passed to this argument share one String instance, through a table that is
+         * local to the {@link ArgsParser} and bounded by {@link ArgsParser#setInternTableLimit(int)}. Use this for
+         * large lists or repeatable arguments that repeat the same values many times. <br>
+         * <br>
+         * {@code default = false;} <br>
+         * <br>
+         * Sets {@link ArgOption#internValues}.
+         */
+        public ArgOption setInternValues(boolean internValues) {
+            this.internValues = internValues;
+            return this;
+        }
+
+        /**
+         * Returns the boolean {@link ArgOption#distinctValues}.
+         */
+        public boolean isDistinctValues() {
+            return distinctValues;
+        }
+
+        /**
+         * If this is true only the first use of each value is kept by {@link ArgReceived#getValues()}, in the order
+         * the values were first passed. {@link ArgReceived#getCount()} still counts every use. <br>
+         * <br>
+         * {@code default = false;} <br>
+         * <br>
+         * Sets {@link ArgOption#distinctValues}.
+         */
+        public ArgOption setDistinctValues(boolean distinctValues) {
+            this.distinctValues = distinctValues;
+            return this;
+        }
+
+        /**
+         * Returns {@link ArgOption#valueFormat}.
+         */
+        public E_ValueFormat getValueFormat() {
+            return valueFormat;
+        }
+
+        /**
+         * Sets how each value of a {@link E_Usage#KEY_VALUE} argument is read, as well as being kept as text. Other
+         * than {@link E_ValueFormat#TEXT} the value is a comma separated list of numbers and inclusive ranges, e.g.
+         * {@code --Cpus=0-7,12,16-31}, read during the parse without splitting it into strings. Get the numbers from
+         * {@link ArgReceived#getInts()}, {@link ArgReceived#getLongs()} or {@link ArgReceived#getBitSet()}. <br>
+         * <br>
+         * {@code default = E_ValueFormat.TEXT;} <br>
+         * <br>
+         * Sets {@link ArgOption#valueFormat}.
+         */
+        public ArgOption setValueFormat(E_ValueFormat valueFormat) {
+            if (valueFormat == null) {
+                throw new NullPointerException("valueFormat cannot be null.");
+            }
+            this.valueFormat = valueFormat;
+            return this;
+        }
+
+        /**
+         * Returns the boolean {@link ArgOption#fileValues}.
+         */
+        public boolean isFileValues() {
+            return fileValues;
+        }
+
+        /**
+         * If this is true a value of this argument written {@code @path}, e.g. {@code --Filter=@filter.json}, stands
+         * for the contents of the file. The parse doesn't touch the file. It is memory-mapped the first time the
+         * contents are asked for by {@link ArgReceived#getValueBytes(int)} or {@link ArgReceived#getValueChars(int)},
+         * and the mapping is kept for later calls. {@link ArgReceived#getValues()} still returns the text passed.
+         * Write {@code @@text} to pass the text {@code @text}. Values after {@code --} are never read as files. <br>
+         * <br>
+         * Only for {@link E_Usage#KEY_VALUE} and {@link E_Usage#LIST} arguments without a value format. <br>
+         * <br>
+         * {@code default = false;} <br>
+         * <br>
+         * Sets {@link ArgOption#fileValues}.
+         */
+        public ArgOption setFileValues(boolean fileValues) {
+            this.fileValues = fileValues;
+            return this;
+        }
+
+        /**
+         * Returns the {@link ArgOption#propertyOverride}.
+         */
+        public E_PropertyOverride getPropertyOverride() {
+            return propertyOverride;
+        }
+
+        /**
+         * Sets what happens when an {@link E_Usage#PROPERTIES} argument is given a name twice, e.g.
+         * {@code -Dmode=a -Dmode=b}. See {@link E_PropertyOverride}. <br>
+         * <br>
+         * {@code default = E_PropertyOverride.LAST_WINS;} <br>
+         * <br>
+         * Sets {@link ArgOption#propertyOverride}.
+         */
+        public ArgOption setPropertyOverride(E_PropertyOverride propertyOverride) {
+            if (propertyOverride == null) {
+                throw new NullPointerException("propertyOverride cannot be null.");
+            }
+            this.propertyOverride = propertyOverride;
+            return this;
+        }
+
+        /**
+         * Returns the {@link ArgOption#valuePattern}, empty if there is none.
+         */
+        public String getValuePattern() {
+            return valuePattern;
+        }
+
+        /**
+         * Sets a regular expression the whole of each value must match, e.g. {@code [a-z][a-z0-9-]*}. The expression
+         * is compiled once when the {@link ArgsParser} is constructed, so each value costs one match. An empty
+         * expression checks nothing. <br>
+         * <br>
+         * Only for {@link E_Usage#KEY_VALUE} and {@link E_Usage#LIST} arguments without {@code @file} values, as are
+         * the other value checks. A value that fails a check is reported as {@link E_Diagnostic#INVALID_VALUE} and not
+         * kept. The checks also apply to values from config files and environment variables. <br>
+         * <br>
+         * {@code default = "";} <br>
+         * <br>
+         * Sets {@link ArgOption#valuePattern}.
+         */
+        public ArgOption setValuePattern(String valuePattern) {
+            if (valuePattern == null) {
+                throw new NullPointerException("valuePattern cannot be null.");
+            }
+            this.valuePattern = valuePattern;
+            return this;
+        }
+
+        /**
+         * Returns the least whole number a value can be, see {@link ArgOption#setValueRange(long, long)}.
+         */
+        public long getValueRangeMin() {
+            return valueRangeMin;
+        }
+
+        /**
+         * Returns the greatest whole number a value can be, see {@link ArgOption#setValueRange(long, long)}.
+         */
+        public long getValueRangeMax() {
+            return valueRangeMax;
+        }
+
+        /**
+         * Sets the inclusive range of each value, which must then be a whole number, e.g. {@code 1, 65535} for a
+         * port. See {@link ArgOption#setValuePattern(String)} for the arguments the checks are for. <br>
+         * <br>
+         * {@code default = Long.MIN_VALUE, Long.MAX_VALUE;} which doesn't check the value is a number. <br>
+         * <br>
+         * Sets {@link ArgOption#valueRangeMin} and {@link ArgOption#valueRangeMax}.
+         */
+        public ArgOption setValueRange(long min, long max) {
+            this.valueRangeMin = min;
+            this.valueRangeMax = max;
+            return this;
+        }
+
+        /**
+         * Returns the least number of charters a value can have, see {@link ArgOption#setValueLength(int, int)}.
+         */
+        public int getValueLengthMin() {
+            return valueLengthMin;
+        }
+
+        /**
+         * Returns the greatest number of charters a value can have, see {@link ArgOption#setValueLength(int, int)}.
+         */
+        public int getValueLengthMax() {
+            return valueLengthMax;
+        }
+
+        /**
+         * Sets the inclusive range of the number of charters in each value. See
+         * {@link ArgOption#setValuePattern(String)} for the arguments the checks are for. <br>
+         * <br>
+         * {@code default = 0, Integer.MAX_VALUE;} <br>
+         * <br>
+         * Sets {@link ArgOption#valueLengthMin} and {@link ArgOption#valueLengthMax}.
+         */
+        public ArgOption setValueLength(int min, int max) {
+            this.valueLengthMin = min;
+            this.valueLengthMax = max;
+            return this;
+        }
+
+        /**
+         * Returns the {@link ArgOption#valueCharset}, empty if any charter is allowed.
+         */
+        public String getValueCharset() {
+            return valueCharset;
+        }
+
+        /**
+         * Sets the charters each value can be made of, e.g. {@code "0123456789abcdef"}. The charters are put in a set
+         * once when the {@link ArgsParser} is constructed. See {@link ArgOption#setValuePattern(String)} for the
+         * arguments the checks are for. <br>
+         * <br>
+         * {@code default = "";} which allows any charter. <br>
+         * <br>
+         * Sets {@link ArgOption#valueCharset}.
+         */
+        public ArgOption setValueCharset(String valueCharset) {
+            if (valueCharset == null) {
+                throw new NullPointerException("valueCharset cannot be null.");
+            }
+            this.valueCharset = valueCharset;
+            return this;
+        }
+
+        /**
+         * @return True if any value check is set.
+         */
+        private boolean hasValueChecks() {
+            return !valuePattern.isEmpty() || !valueCharset.isEmpty()
+                    || valueRangeMin != Long.MIN_VALUE || valueRangeMax != Long.MAX_VALUE
+                    || valueLengthMin != 0 || valueLengthMax != Integer.MAX_VALUE;
+        }
+
+        /**
+         * @return True if passing the argument again is not a problem.
+         */
+        private boolean allowsRepeats() {
+            return repeatable || usage == E_Usage.COUNT || usage == E_Usage.PROPERTIES;
+        }
+
+        /**
+         * Returns the {@link ArgOption#textResource}, null if the text is held by the argument.
+         */
+        public TextResource getTextResource() {
+            return textResource;
+        }
+
+        /**
+         * Returns the {@link ArgOption#textKey}, null if the text is held by the argument.
+         */
+        public String getTextKey() {
+            return textKey;
+        }
+
+        /**
+         * Keeps the description and examples of this argument in {@code textResource} under {@code textKey}, e.g. the
+         * entry {@code drinks.description} for the key {@code drinks}, see {@link TextResource}. The resource is only
+         * read when the text is first asked for, by the help or a getter, so a large spec holds no text until the
+         * help is shown. An entry of the resource takes the place of the text set on the argument, a missing entry
+         * leaves it. Equal arguments have the same resource and key, the text itself is not compared. <br>
+         * <br>
+         * {@code default = null, null;} <br>
+         * <br>
+         * Sets {@link ArgOption#textResource} and {@link ArgOption#textKey}.
+         */
+        public ArgOption setText(TextResource textResource, String textKey) {
+            if ((textResource == null) != (textKey == null)) {
+                throw new ArgumentOptionException("A text resource and a text key must be set together.");
+            }
+            this.textResource = textResource;
+            this.textKey = textKey;
+            return this;
+        }
+
+        /**
+         * Decodes the help text of an argument loaded from a snapshot the first time it is used. Threads that get here
+         * at once each decode the same text, so there is no lock.
+         */
+        private void decodeSnapshotText() {
+            SnapshotText text = snapshotText;
+            if (text == null) {
+                return;
+            }
+            shortValueExample = text.get(SnapshotText.SHORT_VALUE_EXAMPLE);
+            longValueExample = text.get(SnapshotText.LONG_VALUE_EXAMPLE);
+            listExample = text.get(SnapshotText.LIST_EXAMPLE);
+            description = text.get(SnapshotText.DESCRIPTION);
+            snapshotText = null;
+        }
+
+        private String text(String field, String held) {
+            if (textResource == null) {
+                return held;
+            }
+            String text = textResource.get(textKey + "." + field);
+            return (text == null) ? held : text;
+        }
+
+
+        
+        /**
+         * The help text held by an option, {@link ArgOption#description} and the examples, is not compared, so changing
+         * it doesn't change how the option compares or hashes.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ArgOption argOption = (ArgOption) o;
+            return shortKey == argOption.shortKey 
+                    && useOnItsOwn == argOption.useOnItsOwn 
+                    && repeatable == argOption.repeatable 
+                    && required == argOption.required 
+                    && Objects.equals(exclusiveGroup, argOption.exclusiveGroup) 
+                    && Arrays.equals(requires, argOption.requires) 
+                    && internValues == argOption.internValues 
+                    && distinctValues == argOption.distinctValues 
+                    && valueFormat == argOption.valueFormat 
+                    && fileValues == argOption.fileValues 
+                    && propertyOverride == argOption.propertyOverride
+                    && Objects.equals(valuePattern, argOption.valuePattern)
+                    && valueRangeMin == argOption.valueRangeMin
+                    && valueRangeMax == argOption.valueRangeMax
+                    && valueLengthMin == argOption.valueLengthMin
+                    && valueLengthMax == argOption.valueLengthMax
+                    && Objects.equals(valueCharset, argOption.valueCharset)
+                    && Objects.equals(longKey, argOption.longKey) 
+                    && usage == argOption.usage 
+                    && Objects.equals(textResource, argOption.textResource)
+                    && Objects.equals(textKey, argOption.textKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(
+                    shortKey, 
+                    longKey, 
+                    usage,
+                    useOnItsOwn,
+                    repeatable,
+                    required,
+                    exclusiveGroup,
+                    Arrays.hashCode(requires),
+                    internValues,
+                    distinctValues,
+                    valueFormat,
+                    fileValues,
+                    propertyOverride,
+                    valuePattern,
+                    valueRangeMin,
+                    valueRangeMax,
+                    valueLengthMin,
+                    valueLengthMax,
+                    valueCharset,
+                    textResource,
+                    textKey
+            );
+        }
+
+        @Override
+        public String toString() {
+            decodeSnapshotText();
+            return "ArgOption{" +
+                    "shortKey='" + shortKey + "', " +
+                    "longKey=\"" + longKey + "\", " +
+                    "usage=" + usage + ", " +
+                    "shortValueExample=\"" + shortValueExample + "\", " +
+                    "longKeyValueExample=\"" + longValueExample + "\", " +
+                    "listExample=\"" + listExample + "\", " +
+                    "description=\"" + description + "\"" +
+                    ((textKey == null) ? "" : ", textKey=\"" + textKey + "\", textResource=" + textResource) +
+                    "}";
+        }
+
+    }
+
+    /**
+     * This class holds any values passed by the user, {@link ArgReceived#values}, for a given argument,
+     * {@link ArgReceived#option}.
+     */
+    public static class ArgReceived {
+
+        /**
+         * The argument used to pass {@link ArgReceived#values}.
+         */
+        private final ArgOption option;
+
+        /**
+         * The results array for {@link ArgReceived#option}. This will be empty if the argument is not passed. The size
+         * of this array is the number of times the argument is passed.
+         */
+        private final ArrayList<String> values = new ArrayList<>();
+
+        /**
+         * Where {@link ArgReceived#values} came from. See {@link E_Source}.
+         */
+        private E_Source source = E_Source.COMMAND_LINE;
+
+        /**
+         * The number of times the argument was passed. This is the only thing stored for {@link E_Usage#COUNT}.
+         */
+        private int count = 0;
+
+        /**
+         * The values already in {@link ArgReceived#values}, only used if {@link ArgOption#distinctValues} is set.
+         */
+        private HashSet<String> distinct = null;
+
+        /**
+         * The items of a {@link E_Usage#LIST} passed after {@code --}. This is a view of the command line, not a copy.
+         */
+        private List<String> passThroughValues = Collections.emptyList();
+
+        /**
+         * The numbers read from {@link ArgReceived#values}, only used if {@link ArgOption#valueFormat} is set.
+         */
+        private NumberList numbers = null;
+
+        /**
+         * The file of each value in {@link ArgReceived#values} that was passed as {@code @path}, null for the others.
+         * Only made once a value is passed as a file, see {@link ArgOption#fileValues}.
+         */
+        private ArrayList<ValueFile> valueFiles = null;
+
+        /**
+         * The command line that the null entries of {@link ArgReceived#values} are still undecoded in, see
+         * {@link ArgsParser#pareArgs(byte[][])}, and the index of the token of each of them.
+         */
+        private Utf8Args lazyTokens = null;
+
+        private int[] lazyTokenIndexes = null;
+
+        /**
+         * The pairs of an {@link E_Usage#PROPERTIES} argument, made when the first is passed.
+         */
+        private PropertyMap properties = null;
+
+        /**
+         * The index of {@link ArgReceived#option} in the parser, see {@link ArgsParser#indexOf(ArgReceived)}.
+         */
+        private int optionIndex = -1;
+
+
+
+        public ArgReceived(ArgOption option) {
+            this.option = option;
+        }
+
+
+
+        /**
+         * @return False if the value was dropped by {@link ArgOption#distinctValues}.
+         */
+        private boolean addValue(String value) {
+            count++;
+
+            if (option.distinctValues) {
+                if (distinct == null) {
+                    distinct = new HashSet<>();
+                }
+                if (!distinct.add(value)) {
+                    return false;
+                }
+            }
+
+            values.add(value);
+            if (valueFiles != null) {
+                valueFiles.add(null);
+            }
+            return true;
+        }
+
+        /**
+         * Sets the file of the value just added.
+         */
+        private void addValueFile(ValueFile valueFile) {
+            if (valueFiles == null) {
+                valueFiles = new ArrayList<>(values.size());
+                for (int i = 0; i < values.size(); i++) {
+                    valueFiles.add(null);
+                }
+            }
+            valueFiles.set(values.size() - 1, valueFile);
+        }
+
+        /**
+         * Finishes anything that is otherwise done on the first read, so the results can be read from many threads
+         * without changing, see {@link CachedParse}.
+         */
+        private void freeze() {
+            if (numbers != null) {
+                if (numbers.ints != null) {
+                    numbers.getInts();
+                } else if (numbers.longs != null) {
+                    numbers.getLongs();
+                }
+            }
+        }
+
+        private void addLazyValue(Utf8Args tokens, int tokenIndex) {
+            count++;
+            if (lazyTokenIndexes == null) {
+                lazyTokens = tokens;
+                lazyTokenIndexes = new int[16];
+            } else if (values.size() == lazyTokenIndexes.length) {
+                lazyTokenIndexes = Arrays.copyOf(lazyTokenIndexes, lazyTokenIndexes.length * 2);
+            }
+            lazyTokenIndexes[values.size()] = tokenIndex;
+            values.add(null);
+        }
+
+        /**
+         * @return The value at {@code index} of {@link ArgReceived#values}, decoding it if it is still undecoded.
+         */
+        private String resolve(int index) {
+            String value = values.get(index);
+            if (value == null && lazyTokens != null) {
+                value = lazyTokens.get(lazyTokenIndexes[index]);
+                values.set(index, value);
+            }
+            return value;
+        }
+
+        private void addPassThroughValues(List<String> passThroughValues) {
+            this.passThroughValues = passThroughValues;
+            count += passThroughValues.size();
+        }
+
+
+
+        /**
+         * Returns the argument that the results were passed with.
+         */
+        public ArgOption getOption() {
+            return option;
+        }
+
+        /**
+         * Returns the number of times the argument was passed, 0 if it was not. For {@link E_Usage#COUNT} this is how
+         * many times the key was used, e.g. 3 for {@code -v -v -v}. For {@link E_Usage#LIST} it is the number of
+         * items in the list. Values dropped by {@link ArgOption#setDistinctValues(boolean)} are still counted.
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Returns where the values were passed, the command line, an environment variable or a config file.
+         */
+        public E_Source getSource() {
+            return source;
+        }
+
+        /**
+         * @return A copy of the list of values passed with the associated {@link ArgOption}. If the argument is a
+         * key type then the string will be empty. A {@link E_Usage#COUNT} argument stores no values so the list is
+         * always empty, use {@link ArgReceived#getCount()}. For {@link E_Usage#PROPERTIES} it is each name and its
+         * value joined by an equals, once per name.
+         */
+        public ArrayList<String> getValues() {
+            if (option.usage == E_Usage.PROPERTIES) {
+                return (properties == null) ? new ArrayList<>() : properties.pairs();
+            }
+
+            ArrayList<String> copy = new ArrayList<>(values.size() + passThroughValues.size());
+            if (lazyTokens == null) {
+                copy.addAll(values);
+            } else {
+                for (int i = 0; i < values.size(); i++) {
+                    copy.add(resolve(i));
+                }
+            }
+            copy.addAll(passThroughValues);
+            return copy;
+        }
+
+        /**
+         * Returns a publisher of the values, in the order they were passed, that hands them to a subscriber only as
+         * fast as it requests them. Values of a command line parsed from bytes are decoded as they are requested.
+         * Each subscriber gets every value. See {@link ListPublisher}.
+         */
+        public ListPublisher publishValues() {
+            return new ListPublisher(() -> new ListSource() {
+                int next = 0;
+
+                @Override
+                public String next() {
+                    return (next < values.size() + passThroughValues.size()) ? readValueAt(next++) : null;
+                }
+            }, true);
+        }
+
+        /**
+         * If the associated {@link ArgOption} was not used {@code null} is returned. <br>
+         * <br>
+         * If the argument is used at least once a string is returned. The string returned is based on the usage of the
+         * argument. <br>
+         * <ul>
+         *     <li>{@link E_Usage#KEY}: an empty string.</li>
+         *     <li>{@link E_Usage#KEY_VALUE}: the string passed with the first instance of the argument in the command
+         *     passed.</li>
+         *     <li>{@link E_Usage#LIST}: the first item in the list.</li>
+         *     <li>{@link E_Usage#COUNT}: the count, see {@link ArgReceived#getCount()}.</li>
+         *     <li>{@link E_Usage#PROPERTIES}: the first pair, see {@link ArgReceived#getValues()}.</li>
+         * </ul>
+         */
+        public String getValue() {
+            if (option.usage == E_Usage.COUNT) {
+                return (count == 0) ? null : String.valueOf(count);
+            }
+            if (option.usage == E_Usage.PROPERTIES) {
+                return (properties == null) ? null : properties.getName(0) + "=" + properties.getValue(0);
+            }
+            if (values.isEmpty()) {
+                return (passThroughValues.isEmpty()) ? null : passThroughValues.get(0);
+            }
+            return resolve(0);
+        }
+
+        /**
+         * Returns the pairs of an {@link E_Usage#PROPERTIES} argument. The map is not a copy, don't change it.
+         *
+         * @throws ArgumentOptionException If the argument has a different usage.
+         */
+        public PropertyMap getProperties() {
+            if (option.usage != E_Usage.PROPERTIES) {
+                throw new ArgumentOptionException("The argument does not have the usage " + E_Usage.PROPERTIES + ".\n"
+                        + "Usage: " + option.usage + ".\n"
+                        + "Argument option: " + option);
+            }
+            return (properties == null) ? new PropertyMap() : properties;
+        }
+
+        /**
+         * Returns the numbers of every value passed, in the order they were passed, for an argument with the value
+         * format {@link E_ValueFormat#INT_LIST}. The array is not a copy, don't change it.
+         *
+         * @throws ArgumentOptionException If the argument has a different value format.
+         */
+        public int[] getInts() {
+            checkValueFormat(E_ValueFormat.INT_LIST);
+            return (numbers == null) ? new int[0] : numbers.getInts();
+        }
+
+        /**
+         * Returns the numbers of every value passed, in the order they were passed, for an argument with the value
+         * format {@link E_ValueFormat#LONG_LIST}. The array is not a copy, don't change it.
+         *
+         * @throws ArgumentOptionException If the argument has a different value format.
+         */
+        public long[] getLongs() {
+            checkValueFormat(E_ValueFormat.LONG_LIST);
+            return (numbers == null) ? new long[0] : numbers.getLongs();
+        }
+
+        /**
+         * Returns the set of every number passed for an argument with the value format {@link E_ValueFormat#BIT_SET}.
+         * The set is not a copy, don't change it.
+         *
+         * @throws ArgumentOptionException If the argument has a different value format.
+         */
+        public BitSet getBitSet() {
+            checkValueFormat(E_ValueFormat.BIT_SET);
+            return (numbers == null) ? new BitSet() : numbers.bits;
+        }
+
+        /**
+         * Returns the value at {@code index} of {@link ArgReceived#getValues()} as bytes. If it was passed as
+         * {@code @path}, see {@link ArgOption#setFileValues(boolean)}, the file is memory-mapped on the first call and
+         * the buffer is a read-only view of the mapping, so the contents are not copied. Otherwise, the buffer holds
+         * the value in UTF-8. Each call returns a new view, with its own position.
+         *
+         * @throws IndexOutOfBoundsException If there is no value at {@code index}.
+         * @throws ParseArgumentException If the file can't be read.
+         */
+        public ByteBuffer getValueBytes(int index) {
+            ValueFile valueFile = getValueFile(index);
+            if (valueFile != null) {
+                return valueFile.bytes();
+            }
+            return ByteBuffer.wrap(valueAt(index).getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+        }
+
+        /**
+         * Returns the value at {@code index} of {@link ArgReceived#getValues()} as charters. If it was passed as
+         * {@code @path}, see {@link ArgOption#setFileValues(boolean)}, these are the contents of the file read as
+         * UTF-8. A file that is all ASCII is read straight from its mapping without a copy, any other file is decoded
+         * once on the first call. Otherwise, it is the value itself.
+         *
+         * @throws IndexOutOfBoundsException If there is no value at {@code index}.
+         * @throws ParseArgumentException If the file can't be read.
+         */
+        public CharSequence getValueChars(int index) {
+            ValueFile valueFile = getValueFile(index);
+            if (valueFile != null) {
+                return valueFile.chars();
+            }
+            return valueAt(index);
+        }
+
+        private ValueFile getValueFile(int index) {
+            return (valueFiles != null && index < valueFiles.size()) ? valueFiles.get(index) : null;
+        }
+
+        private String valueAt(int index) {
+            if (index < values.size()) {
+                return resolve(index);
+            }
+            return passThroughValues.get(index - values.size());
+        }
+
+        /**
+         * @return The value at {@code index} like {@link ArgReceived#valueAt(int)}, but a value still undecoded is
+         * decoded into a new string and not stored, so nothing is written. A subscriber of
+         * {@link ArgReceived#publishValues()} can read on its own thread while the results are read on another.
+         */
+        private String readValueAt(int index) {
+            if (index >= values.size()) {
+                return passThroughValues.get(index - values.size());
+            }
+            String value = values.get(index);
+            return (value == null && lazyTokens != null) ? lazyTokens.decode(lazyTokenIndexes[index]) : value;
+        }
+
+        private void checkValueFormat(E_ValueFormat format) {
+            if (option.valueFormat != format) {
+                throw new ArgumentOptionException("The argument does not have the value format " + format + ".\n"
+                        + "Value format: " + option.valueFormat + ".\n"
+                        + "Argument option: " + option);
+            }
+        }
+
+
+
+        @Override
+        public String toString() {
+            return "ArgReceived{Values=\"" + getValues() + "\", Source=" + source + ", Option=" + option + "}";
+        }
+
+    }
+
+    /**
+     * This class holds details about the programme and is mainly used by {@link HelpBuilder}.
+     */
+    public static class ProgrammeDetails {
+
+        /**
+         * This is the mnemonic used to call the programme. This field must be set by the user.
+         */
+        private String commandName = "";
+
+        /**
+         * This field is used in the help text. If this field is not set by the user commandName will be used instead.
+         */
+        private String programmeName = "";
+
+        /**
+         * This is a description of the programme that will is used in the help text.
+         */
+        private String programmeDescription = "";
+
+        /**
+         * The author or authors of the programme that is used in the help text.
+         */
+        private String author = "";
+
+        /**
+         * The version of the programme that is used in the help text.
+         */
+        private String version = "";
+
+
+
+        /**
+         * Returns the command mnemonic used in the help text. See {@link ProgrammeDetails#commandName}.
+         */
+        public String getCommandName() {
+            return commandName;
+        }
+
+        /**
+         * Sets the command mnemonic used to call the programme. This is used in the help text. See
+         * {@link ProgrammeDetails#commandName}.
+         */
+        public ProgrammeDetails setCommandName(String commandName) {
+            this.commandName = commandName;
+            return this;
+        }
+
+        /**
+         * Get the programme name. See {@link ProgrammeDetails#programmeName}.
+         */
+        public String getProgrammeName() {
+            return programmeName;
+        }
+
+        /**
+         * Sets the programme name, the proper name of the programme e.g. Google Chrome, used in the help text. If this
+         * is not set {@link ProgrammeDetails#commandName} is used instead. See {@link ProgrammeDetails#programmeName}.
+         */
+        public ProgrammeDetails setProgrammeName(String programmeName) {
+            this.programmeName = programmeName;
+            return this;
+        }
+
+        /**
+         * Gets the description of the programme that is used in the help text. See
+         * {@link ProgrammeDetails#programmeDescription}.
+         */
+        public String getProgrammeDescription() {
+            return programmeDescription;
+        }
+
+        /**
+         * Sets the description of the programme that is used in the help text. See
+         * {@link ProgrammeDetails#programmeDescription}.
+         */
+        public ProgrammeDetails setProgrammeDescription(String programmeDescription) {
+            this.programmeDescription = programmeDescription;
+            return this;
+        }
+
+        /**
+         * Get the author or authors of the programme that are printed in the help text. See
+         * {@link ProgrammeDetails#author}.
+         */
+        public String getAuthor() {
+            return author;
+        }
+
+        /**
+         * Sets the author or authors of the programme that are printed in the help text. See
+         * {@link ProgrammeDetails#author}.
+         */
+        public ProgrammeDetails setAuthor(String author) {
+            this.author = author;
+            return this;
+        }
+
+        /**
+         * Get the version that is printed in the help text. See {@link ProgrammeDetails#version}.
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * Sets the version that is printed in the help text. See {@link ProgrammeDetails#version}.
+         */
+        public ProgrammeDetails setVersion(String version) {
+            this.version = version;
+            return this;
+        }
+
+
+
+        private ProgrammeDetails copy() {
+            return new ProgrammeDetails()
+                    .setCommandName(commandName)
+                    .setProgrammeName(programmeName)
+                    .setProgrammeDescription(programmeDescription)
+                    .setAuthor(author)
+                    .setVersion(version);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ProgrammeDetails that = (ProgrammeDetails) o;
+            return Objects.equals(commandName, that.commandName)
+                    && Objects.equals(programmeName, that.programmeName)
+                    && Objects.equals(programmeDescription, that.programmeDescription)
+                    && Objects.equals(author, that.author)
+                    && Objects.equals(version, that.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(commandName, programmeName, programmeDescription, author, version);
+        }
+
+        @Override
+        public String toString() {
+            return "ProgrammeDetails{" +
+                    "commandName='" + commandName + "', " +
+                    "programmeName=\"" + programmeName + "\", " +
+                    "programmeDescription=" + programmeDescription + ", " +
+                    "author=\"" + author + "\", " +
+                    "version=\"" + version + "\"" +
+                    "}";
+        }
+
+    }
+
+    /**
+     * A thread safe cache of compiled parsers for a process that runs many tools, e.g. a plugin host. The first request
+     * for a spec constructs its parser, with the key index, constraints and help, and later requests get a
+     * {@link ArgsParser#fork()} of it. Each call returns a new fork, so the parsers returned can be used on any thread
+     * without sharing parse state. <br>
+     * <br>
+     * The registry holds at most {@code maxSize} specs, the least recently used is evicted when a new one is added.
+     * Reads of a cached spec don't lock. A spec asked for on many threads at once is compiled once, and compiling it
+     * only holds up the threads asking for it.
+     */
+    public static final class ParserRegistry {
+
+        private final LruCache<Object, ArgsParser> cache;
+
+        public ParserRegistry(int maxSize) {
+            cache = new LruCache<>(maxSize);
+        }
+
+        /**
+         * Returns a fork of the parser cached for {@code specKey}, compiling it with {@code compiler} if it is not
+         * cached. The key identifies the spec, e.g. the name of a tool, an enum class or a schema fingerprint. If
+         * {@code compiler} throws nothing is cached.
+         */
+        public ArgsParser get(Object specKey, Supplier<ArgsParser> compiler) {
+            if (specKey == null || compiler == null) {
+                throw new NullPointerException("specKey and compiler cannot be null.");
+            }
+            return cache.computeIfAbsent(specKey, key -> compiler.get()).fork();
+        }
+
+        /**
+         * Returns a fork of the parser for the options of {@code enumClass}, see
+         * {@link ArgsParser#ArgsParser(ProgrammeDetails, Class)}. It is keyed by the class and the contents of
+         * {@code programmeDetails}.
+         */
+        public <E extends Enum<E> & EnumOptions> ArgsParser get(ProgrammeDetails programmeDetails, Class<E> enumClass) {
+            ProgrammeDetails details = programmeDetails.copy();
+            return get(Arrays.asList(details, enumClass), () -> new ArgsParser(details, enumClass));
+        }
+
+        /**
+         * Returns a fork of the parser for {@code argOptions}. It is keyed by the contents of the options and of
+         * {@code programmeDetails}, so equal specs built separately share one parser. Don't change the options once
+         * they are passed.
+         */
+        public ArgsParser get(ProgrammeDetails programmeDetails, List<ArgOption> argOptions) {
+            ProgrammeDetails details = programmeDetails.copy();
+            ArrayList<ArgOption> options = new ArrayList<>(argOptions);
+            return get(Arrays.asList(details, options, helpTexts(options)), () -> new ArgsParser(details, options));
+        }
+
+        /**
+         * @return The help text of each option, which {@link ArgOption#equals(Object)} leaves out, so specs that only
+         * differ in it don't share a parser.
+         */
+        private static List<String> helpTexts(List<ArgOption> options) {
+            ArrayList<String> texts = new ArrayList<>(options.size() * 4);
+            for (ArgOption option : options) {
+                option.decodeSnapshotText();
+                texts.add(option.description);
+                texts.add(option.shortValueExample);
+                texts.add(option.longValueExample);
+                texts.add(option.listExample);
+            }
+            return texts;
+        }
+
+        /**
+         * Returns the number of specs cached.
+         */
+        public int size() {
+            return cache.size();
+        }
+
+        public long getHitCount() {
+            return cache.hits.sum();
+        }
+
+        public long getMissCount() {
+            return cache.misses.sum();
+        }
+
+        public long getEvictionCount() {
+            return cache.evictions.sum();
+        }
+
+        /**
+         * Removes every spec, the statistics are kept.
+         */
+        public void clear() {
+            cache.clear();
+        }
+
+    }
+
+    /**
+     * A handle to a parser whose options come from a schema file that can change while the programme runs, e.g. in a
+     * daemon. The schema is checked every {@code pollMillis} on a daemon thread, when its modified time or size
+     * changes and its contents differ, the new version is compiled on that thread and then published with one atomic
+     * swap. {@link ReloadableParser#get()} never waits on a compile, it returns a {@link ArgsParser#fork()} of the
+     * version current at the call, so a parse in flight finishes against the version it started with. <br>
+     * <br>
+     * The first version is compiled by the constructor and any error is thrown. A later version that fails to compile
+     * is not published, the previous one stays current and the error is kept for
+     * {@link ReloadableParser#getLastError()}.
+     */
+    public static final class ReloadableParser implements Closeable {
+
+        private final ProgrammeDetails programmeDetails;
+
+        private final Path schemaFile;
+
+        private final Path snapshotFile;
+
+        private final Consumer<ArgsParser> configure;
+
+        private final AtomicReference<ArgsParser> current = new AtomicReference<>();
+
+        private final ScheduledExecutorService watcher;
+
+        private FileTime loadedModifiedTime;
+
+        private long loadedSize = -1;
+
+        private long loadedFingerprint;
+
+        private volatile long version;
+
+        private volatile RuntimeException lastError;
+
+        /**
+         * @param snapshotFile See {@link ArgsParser#fromSchema(ProgrammeDetails, Path, Path)}, can be null.
+         * @param pollMillis   How often to check the schema, 0 to only reload on {@link ReloadableParser#reload()}.
+         * @param configure    Applies the settings, e.g. config files, to each version as it is compiled, can be
+         *                     null.
+         */
+        public ReloadableParser(ProgrammeDetails programmeDetails, Path schemaFile, Path snapshotFile, long pollMillis,
+                                Consumer<ArgsParser> configure) {
+            if (pollMillis < 0) {
+                throw new ArgumentOptionException("The poll interval cannot be negative.");
+            }
+            this.programmeDetails = programmeDetails;
+            this.schemaFile = schemaFile;
+            this.snapshotFile = snapshotFile;
+            this.configure = configure;
+
+            if (!reload()) {
+                throw lastError;
+            }
+
+            if (pollMillis == 0) {
+                watcher = null;
+                return;
+            }
+            watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ArgsParser-reload " + schemaFile.getFileName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            watcher.scheduleWithFixedDelay(this::reloadIfModified, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Returns a fork of the current version, see {@link ArgsParser#fork()}.
+         */
+        public ArgsParser get() {
+            return current.get().fork();
+        }
+
+        /**
+         * Reads the schema and, if its contents changed, compiles and publishes the new version.
+         *
+         * @return False if the schema could not be read or compiled, the error is in
+         * {@link ReloadableParser#getLastError()}.
+         */
+        public synchronized boolean reload() {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(schemaFile, BasicFileAttributes.class);
+                byte[] schema = SchemaReader.readBytes(schemaFile);
+                long fingerprint = SpecSnapshot.fingerprint(schema);
+                loadedModifiedTime = attributes.lastModifiedTime();
+                loadedSize = attributes.size();
+
+                if (current.get() == null || fingerprint != loadedFingerprint) {
+                    ArgsParser compiled = compileSchema(programmeDetails, schemaFile, schema, fingerprint, snapshotFile);
+                    if (configure != null) {
+                        configure.accept(compiled);
+                    }
+                    compiled.getHelpText();
+                    loadedFingerprint = fingerprint;
+                    current.set(compiled);
+                    version++;
+                }
+                lastError = null;
+                return true;
+            } catch (IOException e) {
+                lastError = new ArgumentOptionException("Unable to read the schema file.\n"
+                        + "Path: " + schemaFile + ".\n"
+                        + "Reason: " + e);
+            } catch (RuntimeException e) {
+                lastError = e;
+            }
+            return false;
+        }
+
+        private synchronized void reloadIfModified() {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(schemaFile, BasicFileAttributes.class);
+                if (attributes.lastModifiedTime().equals(loadedModifiedTime) && attributes.size() == loadedSize) {
+                    return;
+                }
+            } catch (IOException e) {
+                // The file may be mid replace, the next poll sees the new one.
+                return;
+            }
+            reload();
+        }
+
+        /**
+         * Returns the number of versions published, starting at 1 for the version compiled by the constructor.
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns the error from the last reload, or null if it succeeded.
+         */
+        public RuntimeException getLastError() {
+            return lastError;
+        }
+
+        /**
+         * Stops watching the schema. Parsers already returned and {@link ReloadableParser#get()} keep working with the
+         * current version.
+         */
+        @Override
+        public void close() {
+            if (watcher != null) {
+                watcher.shutdownNow();
+            }
+        }
+
+    }
+
+    /**
+     * Runs a command for a {@link LaunchServer}, after its command line parsed without errors.
+     */
+    public interface LaunchHandler {
+
+        /**
+         * @param argsParser A parser of its own holding the results.
+         * @return The exit code sent to the client.
+         */
+        int run(ArgsParser argsParser, Invocation invocation) throws Exception;
+
+    }
+
+    /**
+     * What a {@link LaunchClient} sent with a command line, and the streams back to it.
+     */
+    public static final class Invocation {
+
+        private final String command;
+
+        private final Path workingDirectory;
+
+        private final Map<String, String> environment;
+
+        private final PrintStream out;
+
+        private final PrintStream err;
+
+        private Invocation(String command, Path workingDirectory, Map<String, String> environment,
+                           PrintStream out, PrintStream err) {
+            this.command = command;
+            this.workingDirectory = workingDirectory;
+            this.environment = environment;
+            this.out = out;
+            this.err = err;
+        }
+
+        public String getCommand() {
+            return command;
+        }
+
+        /**
+         * @return The working directory of the client.
+         */
+        public Path getWorkingDirectory() {
+            return workingDirectory;
+        }
+
+        /**
+         * @return The environment variables of the client.
+         */
+        public Map<String, String> getEnvironment() {
+            return environment;
+        }
+
+        /**
+         * @return {@code path} resolved against the working directory of the client.
+         */
+        public Path resolve(String path) {
+            return workingDirectory.resolve(path);
+        }
+
+        /**
+         * @return The standard output of the client. Writes are sent as they are flushed.
+         */
+        public PrintStream getOut() {
+            return out;
+        }
+
+        /**
+         * @return The standard error of the client. Writes are sent as they are flushed.
+         */
+        public PrintStream getErr() {
+            return err;
+        }
+
+    }
+
+    /**
+     * A resident process that runs commands for a {@link LaunchClient} over a Unix domain socket, so a tool only pays
+     * for starting a JVM once. Each command has a compiled parser and a {@link LaunchHandler}. For each connection the
+     * command line is parsed by a {@link ArgsParser#fork()} of the parser, with the environment and working directory
+     * of the client, see {@link ArgsParser#setWorkingDirectory(Path)}, using
+     * {@link ArgsParser#tryParseArgs(String[])}, so nothing in the server calls {@link System#exit(int)}:
+     * <ul>
+     *     <li>A help flag sends the help to the client's standard output, with the exit code 0.</li>
+     *     <li>Parse errors send one message per problem to the client's standard error, with the exit code 2.</li>
+     *     <li>Otherwise the handler runs and its return is the exit code. If it throws, the exception is sent to the
+     *     client's standard error, with the exit code 1.</li>
+     * </ul>
+     * The protocol, all numbers big endian and a string being an int byte length then UTF-8 bytes: <br>
+     * Request: int {@link LaunchServer#PROTOCOL_VERSION}, string command, string working directory, int argument
+     * count, each argument, int environment variable count, each name and value. <br>
+     * Response: frames of a byte type then its body, type 1 standard output or 2 standard error with an int length
+     * then the bytes, until type 3 exit with the int exit code, which ends the connection. <br>
+     * <br>
+     * Unix domain sockets need Java 16 or newer, they are opened by reflection so this file still builds for Java 8.
+     * Connections are handled on virtual threads when the JVM has them, otherwise on the executor given, or a cached
+     * pool of daemon threads. <br>
+     * <br>
+     * Anyone able to connect to the socket can run the commands with the permissions of the server, and the socket
+     * file is created with the permissions of the process. So the socket file must be in a directory that only its
+     * owner can open, mode 0700 on POSIX file systems, e.g. one made by {@link Files#createTempDirectory(String,
+     * java.nio.file.attribute.FileAttribute[])}, otherwise {@link LaunchServer#start()} fails.
+     */
+    public static final class LaunchServer implements Closeable {
+
+        public static final int PROTOCOL_VERSION = 1;
+
+        static final byte FRAME_OUT = 1;
+
+        static final byte FRAME_ERR = 2;
+
+        static final byte FRAME_EXIT = 3;
+
+        /**
+         * The largest string or frame accepted, so a bad client can't make the server allocate without bound.
+         */
+        static final int MAX_FRAME_LENGTH = 1 << 24;
+
+        private final Path socketFile;
+
+        private final ConcurrentHashMap<String, ArgsParser> parsers = new ConcurrentHashMap<>();
+
+        private final ConcurrentHashMap<String, LaunchHandler> handlers = new ConcurrentHashMap<>();
+
+        private final Executor executor;
+
+        private final boolean ownsExecutor;
+
+        private volatile ServerSocketChannel serverChannel;
+
+        /**
+         * @param executor Runs the connections if the JVM has no virtual threads, can be null.
+         */
+        public LaunchServer(Path socketFile, Executor executor) {
+            this.socketFile = socketFile;
+
+            Executor virtualThreads = newVirtualThreadExecutor();
+            ownsExecutor = virtualThreads != null || executor == null;
+            if (virtualThreads != null) {
+                this.executor = virtualThreads;
+            } else if (executor != null) {
+                this.executor = executor;
+            } else {
+                this.executor = Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "ArgsParser-launch");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+
+        private static Executor newVirtualThreadExecutor() {
+            try {
+                return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Adds a command. The parser is only forked, it is not changed or parsed with, so its settings apply to every
+         * run, except the environment which is the client's.
+         */
+        public LaunchServer addCommand(String command, ArgsParser compiled, LaunchHandler handler) {
+            if (command == null || compiled == null || handler == null) {
+                throw new NullPointerException("command, compiled and handler cannot be null.");
+            }
+            compiled.getHelpText();
+            parsers.put(command, compiled);
+            handlers.put(command, handler);
+            return this;
+        }
+
+        /**
+         * Binds the socket and accepts connections on a daemon thread until {@link LaunchServer#close()}. A socket
+         * left at its path by a server that is no longer running is replaced.
+         *
+         * @throws IOException                   If the socket can't be bound, its directory can be opened by other
+         *                                       users, or its path is taken by another file or a running server.
+         * @throws UnsupportedOperationException If the JVM has no Unix domain sockets.
+         */
+        public void start() throws IOException {
+            checkPrivateDirectory(socketFile.toAbsolutePath().getParent());
+            removeStaleSocket(socketFile);
+            ServerSocketChannel channel = UnixSockets.openServer();
+            channel.bind(UnixSockets.address(socketFile));
+            serverChannel = channel;
+
+            Thread acceptor = new Thread(this::acceptConnections, "ArgsParser-launch-accept " + socketFile.getFileName());
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private static void checkPrivateDirectory(Path directory) throws IOException {
+            PosixFileAttributeView view = Files.getFileAttributeView(directory, PosixFileAttributeView.class);
+            if (view == null) {
+                // Not a POSIX file system, the access control list of the directory applies.
+                return;
+            }
+
+            Set<PosixFilePermission> others = EnumSet.of(
+                    PosixFilePermission.GROUP_READ, PosixFilePermission.GROUP_WRITE, PosixFilePermission.GROUP_EXECUTE,
+                    PosixFilePermission.OTHERS_READ, PosixFilePermission.OTHERS_WRITE,
+                    PosixFilePermission.OTHERS_EXECUTE);
+            others.retainAll(view.readAttributes().permissions());
+            if (!others.isEmpty()) {
+                throw new IOException("The directory of the socket file can be opened by other users, it must only be"
+                        + " accessible by its owner (0700).\nDirectory: " + directory + ".\nPermissions: " + others
+                        + ".");
+            }
+        }
+
+        /**
+         * Deletes the file at {@code socketFile} only if it is a socket that refuses connections.
+         */
+        private static void removeStaleSocket(Path socketFile) throws IOException {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(socketFile, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (NoSuchFileException e) {
+                return;
+            }
+            if (!attributes.isOther()) {
+                throw new FileAlreadyExistsException(socketFile.toString(), null, "It is not a socket.");
+            }
+
+            boolean listening;
+            try {
+                UnixSockets.connect(socketFile).close();
+                listening = true;
+            } catch (IOException e) {
+                listening = false;
+            }
+            if (listening) {
+                throw new FileAlreadyExistsException(socketFile.toString(), null, "A server is listening on it.");
+            }
+            Files.delete(socketFile);
+        }
+
+        private void acceptConnections() {
+            ServerSocketChannel channel = serverChannel;
+            while (channel.isOpen()) {
+                SocketChannel connection;
+                try {
+                    connection = channel.accept();
+                } catch (IOException e) {
+                    // Closed by close().
+                    return;
+                }
+                executor.execute(() -> serve(connection));
+            }
+        }
+
+        private void serve(SocketChannel connection) {
+            try (SocketChannel channel = connection) {
+                DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+                DataOutputStream frames = new DataOutputStream(Channels.newOutputStream(channel));
+
+                if (in.readInt() != PROTOCOL_VERSION) {
+                    return;
+                }
+                String command = readString(in);
+                Path workingDirectory = Paths.get(readString(in));
+                String[] args = new String[readCount(in)];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = readString(in);
+                }
+                HashMap<String, String> environment = new HashMap<>();
+                for (int i = readCount(in); i > 0; i--) {
+                    environment.put(readString(in), readString(in));
+                }
+
+                PrintStream out = new PrintStream(new BufferedOutputStream(new FrameOutputStream(frames, FRAME_OUT)),
+                        true, "UTF-8");
+                PrintStream err = new PrintStream(new BufferedOutputStream(new FrameOutputStream(frames, FRAME_ERR)),
+                        true, "UTF-8");
+                int exitCode = run(new Invocation(command, workingDirectory,
+                        Collections.unmodifiableMap(environment), out, err), args);
+                out.flush();
+                err.flush();
+
+                synchronized (frames) {
+                    frames.writeByte(FRAME_EXIT);
+                    frames.writeInt(exitCode);
+                    frames.flush();
+                }
+            } catch (IOException e) {
+                // The client went away, there is no one to tell.
+            }
+        }
+
+        private int run(Invocation invocation, String[] args) {
+            ArgsParser compiled = parsers.get(invocation.command);
+            if (compiled == null) {
+                invocation.err.println("Unknown command: " + invocation.command + ".");
+                return 2;
+            }
+
+            ArgsParser argsParser = compiled.fork();
+            argsParser.setEnvironment(invocation.environment);
+            argsParser.setWorkingDirectory(invocation.workingDirectory);
+            try {
+                ParseResult result = argsParser.tryParseArgs(args);
+                if (result.isHelpRequested()) {
+                    invocation.out.println(argsParser.getHelpText());
+                    return 0;
+                }
+                if (result.hasErrors()) {
+                    for (Diagnostic diagnostic : result.getDiagnostics()) {
+                        invocation.err.println(diagnostic.getMessage());
+                    }
+                    return 2;
+                }
+                return handlers.get(invocation.command).run(argsParser, invocation);
+            } catch (Exception e) {
+                e.printStackTrace(invocation.err);
+                return 1;
+            }
+        }
+
+        public Path getSocketFile() {
+            return socketFile;
+        }
+
+        /**
+         * Stops accepting connections and removes the socket file. Commands already running finish.
+         */
+        @Override
+        public void close() throws IOException {
+            ServerSocketChannel channel = serverChannel;
+            if (channel != null) {
+                channel.close();
+                Files.deleteIfExists(socketFile);
+            }
+            if (ownsExecutor && executor instanceof ExecutorService) {
+                ((ExecutorService) executor).shutdown();
+            }
+        }
+
+        static String readString(DataInputStream in) throws IOException {
+            byte[] bytes = new byte[readCount(in)];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        static int readCount(DataInputStream in) throws IOException {
+            int count = in.readInt();
+            if (count < 0 || count > MAX_FRAME_LENGTH) {
+                throw new IOException("Bad length in the launch protocol: " + count + ".");
+            }
+            return count;
+        }
+
+        static void writeString(DataOutputStream out, String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+    }
+
+    /**
+     * Writes each write as one frame, standard output and error share the connection so frames are written whole.
+     */
+    private static final class FrameOutputStream extends OutputStream {
+
+        private final DataOutputStream frames;
+
+        private final byte type;
+
+        FrameOutputStream(DataOutputStream frames, byte type) {
+            this.frames = frames;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return;
+            }
+            synchronized (frames) {
+                frames.writeByte(type);
+                frames.writeInt(length);
+                frames.write(bytes, offset, length);
+                frames.flush();
+            }
+        }
+
+    }
+
+    /**
+     * The client of a {@link LaunchServer}. It sends the command line with the working directory and environment of
+     * this process, copies the output back to {@link System#out} and {@link System#err}, and returns the exit code.
+     * It can also be run on its own: {@code java ArgsParser$LaunchClient <socket> <command> [args...]}.
+     */
+    public static final class LaunchClient {
+
+        private LaunchClient() {
+        }
+
+        public static void main(String[] args) throws IOException {
+            if (args.length < 2) {
+                System.err.println("Usage: ArgsParser$LaunchClient <socket> <command> [args...]");
+                exit(2);
+            }
+            exit(run(Paths.get(args[0]), args[1], Arrays.copyOfRange(args, 2, args.length)));
+        }
+
+        public static int run(Path socketFile, String command, String[] args) throws IOException {
+            return run(socketFile, command, args, Paths.get("").toAbsolutePath(), System.getenv(), System.out, System.err);
+        }
+
+        /**
+         * @return The exit code from the server.
+         * @throws EOFException If the server closed the connection without an exit code.
+         */
+        public static int run(Path socketFile, String command, String[] args, Path workingDirectory,
+                              Map<String, String> environment, OutputStream out, OutputStream err)
+                throws IOException {
+            try (SocketChannel channel = UnixSockets.connect(socketFile)) {
+                DataOutputStream request = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                request.writeInt(LaunchServer.PROTOCOL_VERSION);
+                LaunchServer.writeString(request, command);
+                LaunchServer.writeString(request, workingDirectory.toString());
+                request.writeInt(args.length);
+                for (String arg : args) {
+                    LaunchServer.writeString(request, arg);
+                }
+                request.writeInt(environment.size());
+                for (Map.Entry<String, String> variable : environment.entrySet()) {
+                    LaunchServer.writeString(request, variable.getKey());
+                    LaunchServer.writeString(request, variable.getValue());
+                }
+                request.flush();
+
+                DataInputStream frames = new DataInputStream(Channels.newInputStream(channel));
+                byte[] buffer = new byte[8192];
+                while (true) {
+                    byte type = frames.readByte();
+                    if (type == LaunchServer.FRAME_EXIT) {
+                        return frames.readInt();
+                    }
+
+                    OutputStream target = (type == LaunchServer.FRAME_OUT) ? out : err;
+                    for (int remaining = LaunchServer.readCount(frames); remaining > 0; ) {
+                        int read = frames.read(buffer, 0, Math.min(buffer.length, remaining));
+                        if (read == -1) {
+                            throw new EOFException();
+                        }
+                        target.write(buffer, 0, read);
+                        remaining -= read;
+                    }
+                    target.flush();
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Opens Unix domain sockets, which are new in Java 16, by reflection.
+     */
+    private static final class UnixSockets {
+
+        private UnixSockets() {
+        }
+
+        static ProtocolFamily family() {
+            try {
+                return StandardProtocolFamily.valueOf("UNIX");
+            } catch (IllegalArgumentException e) {
+                throw new UnsupportedOperationException("Unix domain sockets need Java 16 or newer.");
+            }
+        }
+
+        static SocketAddress address(Path socketFile) {
+            try {
+                return (SocketAddress) Class.forName("java.net.UnixDomainSocketAddress")
+                        .getMethod("of", Path.class)
+                        .invoke(null, socketFile);
+            } catch (ReflectiveOperationException e) {
+                throw new UnsupportedOperationException("Unix domain sockets need Java 16 or newer.", e);
+            }
+        }
+
+        static ServerSocketChannel openServer() throws IOException {
+            return (ServerSocketChannel) open(ServerSocketChannel.class);
+        }
+
+        static SocketChannel connect(Path socketFile) throws IOException {
+            SocketChannel channel = (SocketChannel) open(SocketChannel.class);
+            try {
+                channel.connect(address(socketFile));
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            return channel;
+        }
+
+        private static Object open(Class<?> channelClass) throws IOException {
+            ProtocolFamily family = family();
+            try {
+                return channelClass.getMethod("open", ProtocolFamily.class).invoke(null, family);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new UnsupportedOperationException("Unable to open a Unix domain socket.", e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new UnsupportedOperationException("Unix domain sockets need Java 16 or newer.", e);
+            }
+        }
+
+    }
+
+    /**
+     * The results of a command line, see {@link ArgsParser#setResultCacheSize(int)}. Nothing in it is changed once it
+     * is made, so it can be restored into any number of parsers on any thread.
+     */
+    private static final class CachedParse {
+
+        private final List<String> rawInputs;
+
+        private final ArgReceived listArg;
+
+        private final HashMap<ArgOption, ArgReceived> optionResultMap;
+
+        private final HashMap<Character, ArgReceived> shortResultMap;
+
+        private final HashMap<String, ArgReceived> longResultMap;
+
+        private final int passThroughOffset;
+
+        private final long[] commandLineMask;
+
+        CachedParse(ArgsParser parsed) {
+            for (ArgReceived argReceived : parsed.optionResultMap.values()) {
+                argReceived.freeze();
+            }
+
+            rawInputs = parsed.rawInputs;
+            listArg = parsed.listArg;
+            optionResultMap = parsed.optionResultMap;
+            shortResultMap = parsed.shortResultMap;
+            longResultMap = parsed.longResultMap;
+            passThroughOffset = parsed.passThroughOffset;
+            commandLineMask = parsed.commandLineMask.clone();
+            parsed.resultsShared = true;
+        }
+
+        void restore(ArgsParser parser) {
+            parser.rawInputs = rawInputs;
+            parser.listArg = listArg;
+            parser.optionResultMap = optionResultMap;
+            parser.shortResultMap = shortResultMap;
+            parser.longResultMap = longResultMap;
+            parser.resultsShared = true;
+            parser.passThroughOffset = passThroughOffset;
+            System.arraycopy(commandLineMask, 0, parser.commandLineMask, 0, commandLineMask.length);
+            Arrays.fill(parser.layeredMask, 0);
+
+            parser.currentKeyPair = null;
+            parser.lastKeyPair = null;
+            parser.internTable = null;
+            parser.tokenIndex = -1;
+        }
+
+    }
+
+    /**
+     * A size bounded cache that evicts the least recently used entry. Reads only look up the map and stamp the entry
+     * they find with {@link System#nanoTime()}, so they never lock or write to anything shared by every entry. A miss
+     * puts a task for the value with {@link ConcurrentHashMap#putIfAbsent(Object, Object)} and runs it outside the map,
+     * so a slow value only holds up the callers asking for the same key. Then if the cache is over its size the entry
+     * with the oldest stamp is found and removed. Finding it is a scan without a lock, which is cheap beside computing
+     * a value and only happens on a miss. Callers evicting at once may leave the cache below its size, never above.
+     */
+    private static final class LruCache<K, V> {
+
+        private final int maxSize;
+
+        private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+        final LongAdder hits = new LongAdder();
+
+        final LongAdder misses = new LongAdder();
+
+        final LongAdder evictions = new LongAdder();
+
+        LruCache(int maxSize) {
+            if (maxSize < 1) {
+                throw new ArgumentOptionException("The size of a cache must be at least 1.");
+            }
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * @return The cached value, or null.
+         */
+        V get(K key) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            entry.lastUsed = System.nanoTime();
+            return entry.await();
+        }
+
+        /**
+         * Returns the value cached for {@code key}, computing it if there is none. Callers asking for a key while it
+         * is computed wait for it. If {@code compute} throws they all get the exception and nothing is cached.
+         */
+        V computeIfAbsent(K key, Function<K, V> compute) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                hits.increment();
+                entry.lastUsed = System.nanoTime();
+                return entry.await();
+            }
+
+            misses.increment();
+            Entry<V> created = new Entry<>(new FutureTask<>(() -> compute.apply(key)));
+            entry = entries.putIfAbsent(key, created);
+            if (entry != null) {
+                // Another caller is computing it.
+                return entry.await();
+            }
+
+            created.task.run();
+            V value;
+            try {
+                value = created.await();
+            } catch (RuntimeException | Error e) {
+                entries.remove(key, created);
+                throw e;
+            }
+            created.lastUsed = System.nanoTime();
+            if (entries.size() > maxSize) {
+                evict();
+            }
+            return value;
+        }
+
+        /**
+         * Caches {@code value} unless a value is already cached for {@code key}, e.g. by another caller that missed
+         * at the same time, which is kept so its readers and stamp are left alone.
+         */
+        void putIfAbsent(K key, V value) {
+            FutureTask<V> task = new FutureTask<>(() -> value);
+            task.run();
+            if (entries.putIfAbsent(key, new Entry<>(task)) == null && entries.size() > maxSize) {
+                evict();
+            }
+        }
+
+        private void evict() {
+            while (entries.size() > maxSize) {
+                Map.Entry<K, Entry<V>> oldest = null;
+                for (Map.Entry<K, Entry<V>> candidate : entries.entrySet()) {
+                    if (oldest == null || candidate.getValue().lastUsed - oldest.getValue().lastUsed < 0) {
+                        oldest = candidate;
+                    }
+                }
+
+                if (oldest == null) {
+                    return;
+                }
+                // Only fails if another caller removed it first, then the size is checked again.
+                if (entries.remove(oldest.getKey(), oldest.getValue())) {
+                    evictions.increment();
+                }
+            }
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        void clear() {
+            entries.clear();
+        }
+
+        private static final class Entry<V> {
+
+            final FutureTask<V> task;
+
+            volatile long lastUsed = System.nanoTime();
+
+            Entry(FutureTask<V> task) {
+                this.task = task;
+            }
+
+            /**
+             * @return The value, once the task has computed it. Interrupts are kept for after the wait.
+             */
+            V await() {
+                boolean interrupted = false;
+                try {
+                    while (true) {
+                        try {
+                            return task.get();
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        } catch (ExecutionException e) {
+                            Throwable cause = e.getCause();
+                            if (cause instanceof RuntimeException) {
+                                throw (RuntimeException) cause;
+                            }
+                            if (cause instanceof Error) {
+                                throw (Error) cause;
+                            }
+                            throw new IllegalStateException(cause);
+                        }
+                    }
+                } finally {
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+
+        }
+
+    }
+
+    /**
+     * This class builds the help/info message displayed if any of the arguments in {@link ArgsParser#HELP_FLAGS} are
+     * passed.
+     */
+    private class HelpBuilder {
+
+        public StringBuilder stringBuilder = new StringBuilder();
+
+        // All measurements are mono-font cells.
+        private int infoWidth;
+
+        /**
+         * Maximum number or total number of monospaced charters per line.
+         */
+        private static final int LINE_WIDTH = 100;
+
+        /**
+         * Minimum gap between the left and the right side of the name lines in the name box.
+         */
+        private static final int NAME_MARGIN = 5;
+
+        /**
+         * The starting width of the key column before it is expanded to fit longer long keys.
+         */
+        private static final int BASE_KEY_COL_WIDTH = 40;
+
+        /**
+         * The maximum extra space that can be used for longer long keys. If the width of key column exceeds the sum of
+         * this and {@link HelpBuilder#BASE_KEY_COL_WIDTH} an error is thrown.
+         */
+        private static final int EXTRA_KEY_SPACE = 10;
+
+        /**
+         * The margin on the left-hand side of the key column.
+         */
+        private static final int LEFT_MARGIN_WIDTH = 2;
+
+        /**
+         * The minimum gap between the key column and the argument information.
+         */
+        private static final int KEY_DESCRIPTION_GAP = 3;
+
+        /**
+         * Default description for the special help argument.
+         */
+        private static final String HELP_FLAG_DESCRIPTION = "Use to print this help.";
+
+        /**
+         * The default "key" used in the key column for an argument with usage {@link E_Usage#LIST}.
+         */
+        private static final String LIST_USAGE_KEY = "[SPACE DELIMITED LIST]";
+
+        /**
+         * The usage text for an argument with usage {@link E_Usage#LIST}.
+         */
+        private static final String LIST_USAGE = "List, a space delimited list of values at the end of the command.";
+
+        /**
+         * The prefix that comes before each example block. See {@link ArgOption#shortValueExample} and
+         * {@link ArgOption#longValueExample}.
+         */
+        private static final String EXAMPLE_PREFIX = "Example: ";
+
+
+
+        public String buildHelp() {
+            buildNameBox();
+            buildProgrammeDescription();
+            buildProgrammeDetail();
+            buildOptionHelpBlocks();
+            stringBuilder.append("\n");
+            return stringBuilder.toString();
+        }
+
+        private void buildNameBox() {
+            int nameSpace = LINE_WIDTH - (NAME_MARGIN * 2);
+
+            String programmeName = (programmeDetails.programmeName.isEmpty())
+                    ? programmeDetails.commandName : programmeDetails.programmeName;
+
+            ArrayList<String> nameLines = lineWrapString(programmeName, nameSpace);
+
+            boxProgrammeNameLines(nameLines);
+
+            addLinesToHelpText(nameLines);
+        }
+
+        private void boxProgrammeNameLines(ArrayList<String> nameLines) {
+            for (int i = 0; i < nameLines.size(); i++) {
+                String line = nameLines.get(i);
+
+                int leftSpace = (LINE_WIDTH - line.length()) / 2;
+                int rightSpace = LINE_WIDTH - (leftSpace + line.length());
+
+                String newLine = dupeString("=", leftSpace - 1) + " " + line
+                        + " " + dupeString("=", rightSpace - 1);
+
+                nameLines.set(i, newLine);
+            }
+
+            nameLines.add(0, dupeString("=", LINE_WIDTH));
+            nameLines.add(dupeString("=", LINE_WIDTH));
+        }
+
+        private void buildProgrammeDescription() {
+            String description = programmeDetails.programmeDescription;
+
+            if (description.isEmpty()) {
+                return;
+            }
+
+            addLinesToHelpText(lineWrapString(description, LINE_WIDTH));
+        }
+
+        private void buildProgrammeDetail() {
+            String author = programmeDetails.author;
+            String version = programmeDetails.version;
+
+            if (!author.isEmpty()) {
+                author = "By " + author;
+                author += (version.isEmpty()) ? "." : ", ";
+            }
+
+            if (!version.isEmpty()) {
+                String v = (author.isEmpty()) ? "Version " : "version ";
+                version = v + version + ".";
+            }
+
+            String details = author + version;
+
+            if (details.isEmpty()) {
+                return;
+            }
+
+            addLinesToHelpText(lineWrapString(details, LINE_WIDTH));
+        }
+
+        private void buildOptionHelpBlocks() {
+            // The fist option to be printed is help.
+
+            handBuildHelpOptionBlock();
+
+            // Note(Max): Have a temp variable so access to the parents classes private members isn't needed.
+            // We pull listOption out so that we can make sure it is the last option printed in the help and has one
+            // more new line.
+            ArgOption listOption = null;
+
+            for (ArgOption option : argOptions) {
+                if (option.usage == E_Usage.LIST) {
+                    listOption = option;
+                    continue;
+                }
+
+                buildOptionBlock(option);
+            }
+
+            if (listOption != null) {
+                stringBuilder.append("\n");
+                buildOptionBlock(listOption);
+            }
+        }
+
+        private void handBuildHelpOptionBlock() {
+            stringBuilder.append("\n");
+
+            StringBuilder keyList = new StringBuilder();
+
+            for (String helpFlag : HELP_FLAGS) {
+                keyList.append(helpFlag).append(", ");
+            }
+
+            keyList.delete(keyList.length() - 2, keyList.length() - 1);
+            String keyLine = dupeString(" ", LEFT_MARGIN_WIDTH) + keyList;
+
+
+            infoWidth = calcInfoWidth(keyLine);
+            ArrayList<String> description = lineWrapString(HELP_FLAG_DESCRIPTION, infoWidth);
+
+            ArrayList<String> example = lineWrapString(
+                    EXAMPLE_PREFIX + programmeDetails.commandName + " " + HELP_FLAGS[0],
+                    infoWidth
+            );
+
+            ArrayList<String> infoLines = new ArrayList<>();
+            infoLines.addAll(description);
+            infoLines.addAll(example);
+
+
+            mergeAndIndent(keyLine, infoLines);
+
+            addLinesToHelpText(infoLines);
+        }
+
+        private void buildOptionBlock(ArgOption option) {
+            stringBuilder.append("\n");
+
+            String keyLine = buildKeyLine(option);
+
+            ArrayList<String> infoLines = buildInfo(option, keyLine);
+
+            mergeAndIndent(keyLine, infoLines);
+
+            addLinesToHelpText(infoLines);
+        }
+
+        /**
+         * Builds only the key lines, for the errors they throw.
+         */
+        private void checkKeyLines() {
+            for (ArgOption option : argOptions) {
+                buildKeyLine(option);
+            }
+        }
+
+        private String buildKeyLine(ArgOption option) {
+            if (option.usage == E_Usage.LIST) {
+                return dupeString(" ", LEFT_MARGIN_WIDTH) + LIST_USAGE_KEY;
+            }
+
+            String keyLine = buildShortKeyString(option.shortKey);
+            keyLine = buildLongKeyString(option.longKey, keyLine);
+            return keyLine;
+        }
+
+        private String buildShortKeyString(char shortKey) {
+            if (shortKey == '\0') {
+                int keyWidth = "-x, ".length();
+                return dupeString(" ", LEFT_MARGIN_WIDTH + keyWidth);
+            }
+
+            return dupeString(" ", LEFT_MARGIN_WIDTH) + "-" + shortKey + ", ";
+        }
+
+        private String buildLongKeyString(String longKey, String keyLine) {
+            int spaceForLongKey = (BASE_KEY_COL_WIDTH + EXTRA_KEY_SPACE) - (keyLine.length());
+
+            if ("--".length() + longKey.length() + KEY_DESCRIPTION_GAP > spaceForLongKey) {
+                int maxLongKeyLength = spaceForLongKey - (2 + KEY_DESCRIPTION_GAP);
+                throw new ArgumentOptionException("Long key is too long for the help block.\n" +
+                        "With the current setting the charter limit for a long key is " + maxLongKeyLength + ".\n" +
+                        "Long key: " + longKey);
+            }
+
+            // Note(Max): Reassigning to keyLine looks like it might be wrong.
+            keyLine += "--" + longKey + dupeString(" ", KEY_DESCRIPTION_GAP);
+
+            // This is where you would change the layout so that you only let the extra space be used a chunk at a time
+            // rather than a space at a time I.E. use 5 spaces rather than 2.
+            int extraSpace = keyLine.length() - BASE_KEY_COL_WIDTH;
+            if (extraSpace > 0) {
+                keyLine += dupeString(" ", extraSpace);
+            }
+
+            return keyLine;
+        }
+
+        private ArrayList<String> buildInfo(ArgOption option, String keyLine) {
+            infoWidth = calcInfoWidth(keyLine);
+
+            ArrayList<String> description = buildDescription(option);
+
+            ArrayList<String> usageOption = buildUsage(option);
+
+            ArrayList<String> examples = buildExamples(option);
+
+            ArrayList<String> infoLines = new ArrayList<>();
+            infoLines.addAll(description);
+            infoLines.addAll(usageOption);
+            infoLines.addAll(examples);
+            return infoLines;
+        }
+
+        private int calcInfoWidth(String keyLine) {
+            // Note(Max): I would be easy to argue for this to set the field and not return a value, but I like how it
+            // looks when it returns a value, so I am going to leave it like this for the moment.
+            int indentWidth = Math.max(keyLine.length(), BASE_KEY_COL_WIDTH);
+
+            return LINE_WIDTH - indentWidth;
+        }
+
+        private ArrayList<String> buildDescription(ArgOption option) {
+            String description = option.getDescription();
+            if (description.isEmpty()) {
+                return new ArrayList<>(0);
+            }
+
+            return lineWrapString(description, infoWidth);
+        }
+
+        private ArrayList<String> buildUsage(ArgOption option) {
+            String usage = "";
+            switch (option.usage) {
+                case KEY: usage = "Key"; break;
+                case COUNT: usage = "Counter"; break;
+                case KEY_VALUE: usage = "Key-value pair"; break;
+                case LIST: usage = LIST_USAGE.replaceAll(".$", ""); break;
+                case PROPERTIES: usage = "Properties, name=value pairs"; break;
+            }
+
+            switch (option.valueFormat) {
+                case INT_LIST:
+                case LONG_LIST: usage += " of numbers and ranges like 1,5,9-200"; break;
+                case BIT_SET: usage += " of indexes and ranges like 0-7,12"; break;
+            }
+
+            if (option.isRepeatable()) {
+                usage += ", Repeatable";
+            }
+
+            if (option.isUseOnItsOwn()) {
+                usage += ", Exclusive";
+            }
+
+            if (option.isRequired()) {
+                usage += ", Required";
+            }
+
+            if (option.isFileValues()) {
+                usage += ", Accepts @file";
+            }
+
+            if (option.valueRangeMin != Long.MIN_VALUE || option.valueRangeMax != Long.MAX_VALUE) {
+                usage += ", From " + option.valueRangeMin + " to " + option.valueRangeMax;
+            }
+
+            if (option.valueLengthMin != 0 || option.valueLengthMax != Integer.MAX_VALUE) {
+                usage += ", " + option.valueLengthMin + " to " + option.valueLengthMax + " charters";
+            }
+
+            if (!option.valueCharset.isEmpty()) {
+                usage += ", Charters \"" + option.valueCharset + "\"";
+            }
+
+            if (!option.valuePattern.isEmpty()) {
+                usage += ", Matches " + option.valuePattern;
+            }
+
+            return lineWrapString("Usage: " + usage + ".", infoWidth);
+        }
+
+        private ArrayList<String> buildExamples(ArgOption option) {
+            ArrayList<String> out = null;
+
+            switch (option.usage) {
+                case KEY:
+                case KEY_VALUE:
+                case COUNT:
+                case PROPERTIES:
+                    out = buildValueExamples(option); break;
+                case LIST: out = buildListExample(option); break;
+            }
+
+            return out;
+        }
+
+        private ArrayList<String> buildListExample(ArgOption option) {
+            String ellipses = (option.useOnItsOwn) ? " " : " ... ";
+            String exampleBuilder = EXAMPLE_PREFIX + programmeDetails.commandName + ellipses + option.getListExample();
+            return lineWrapString(exampleBuilder, infoWidth);
+        }
+
+        private ArrayList<String> buildValueExamples(ArgOption option) {
+            String commandName = programmeDetails.commandName;
+            ArrayList<String> exampleLines = new ArrayList<>();
+
+            String ellipses = (option.useOnItsOwn) ? " " : " ... ";
+
+            if (option.shortKey != '\0') {
+                String valueExample = "";
+                if (option.usage == E_Usage.KEY_VALUE) {
+                    valueExample = " " + option.getShortValueExample();
+                } else if (option.usage == E_Usage.PROPERTIES) {
+                    // Joined like the JVM's -Dname=value.
+                    valueExample = option.getShortValueExample();
+                }
+
+                String shortExample = EXAMPLE_PREFIX + commandName + ellipses + "-" + option.getShortKey()
+                        + valueExample + ellipses;
+
+                exampleLines.addAll(lineWrapString(shortExample, infoWidth));
+            }
+
+            if (!option.longKey.isEmpty()) {
+                boolean takesValue = option.usage == E_Usage.KEY_VALUE || option.usage == E_Usage.PROPERTIES;
+                String valueExample = (takesValue) ? "=" + option.getLongValueExample() : "";
+
+                String longExample = EXAMPLE_PREFIX + commandName + ellipses + "--" + option.getLongKey()
+                        + valueExample + ellipses;
+
+                exampleLines.addAll(lineWrapString(longExample, infoWidth));
+            }
+
+            return exampleLines;
+        }
+
+        private void mergeAndIndent(String keyLine, ArrayList<String> infoLines) {
+            if (!infoLines.isEmpty()) {
+                String padding = dupeString(" ", LINE_WIDTH - (infoWidth + keyLine.length()));
+                infoLines.set(0, keyLine + padding + infoLines.get(0));
+            }
+
+            for (int i = 1; i < infoLines.size(); i++) {
+                String newLine = dupeString(" ", LINE_WIDTH - infoWidth) + infoLines.get(i);
+                infoLines.set(i, newLine);
+            }
+        }
+
+
+
+        private ArrayList<String> lineWrapString(String input, int lineWidth) {
+            ArrayList<String> wrappedLines = new ArrayList<>();
+
+            String[] inputWords = input.split(" ");
+            StringBuilder lineBuilder = new StringBuilder(lineWidth);
+            int lineLength = 0;
+
+            for (String word : inputWords) {
+                if (lineLength + word.length() <= lineWidth) {
+                    lineBuilder.append(word).append(" ");
+                    lineLength += 1 + word.length();
+                    continue;
+                }
+
+                wrappedLines.add(lineBuilder.toString().trim());
+                lineLength = word.length();
+                lineBuilder = new StringBuilder(lineWidth);
+                lineBuilder.append(word).append(" ");
+            }
+
+            wrappedLines.add(lineBuilder.toString().trim());
+            return wrappedLines;
+        }
+
+        private String dupeString(String string, int count) {
+            StringBuilder stringBuilder = new StringBuilder(string.length() * count);
+            for (int i = 0; i < count; i++) {
+                stringBuilder.append(string);
+            }
+            return stringBuilder.toString();
+        }
+
+        private void addLinesToHelpText(ArrayList<String> lines) {
+            if (lines.isEmpty()) {
+                return;
+            }
+
+            for (String line : lines) {
+                stringBuilder.append(line).append(System.lineSeparator());
+            }
+        }
+
+    }
+
+    /**
+     * This class builds the shell completion scripts returned by {@link ArgsParser#getCompletionScript(E_Shell)}.
+     * Options with {@link E_Usage#KEY_VALUE} complete their value as a file name, as does the {@link E_Usage#LIST}
+     * argument.
+     */
+    private class CompletionBuilder {
+
+        private final StringBuilder stringBuilder = new StringBuilder();
+
+        private final String commandName = programmeDetails.commandName;
+
+
+
+        public String buildBash() {
+            String functionName = "_" + commandName.replaceAll("[^A-Za-z0-9_]", "_") + "_complete";
+
+            ArrayList<String> shortKeys = new ArrayList<>();
+            ArrayList<String> longKeys = new ArrayList<>();
+            ArrayList<String> valueKeys = new ArrayList<>();
+            for (String helpFlag : HELP_FLAGS) {
+                (helpFlag.startsWith("--") ? longKeys : shortKeys).add(helpFlag);
+            }
+
+            for (ArgOption option : argOptions) {
+                if (option.usage == E_Usage.LIST) {
+                    continue;
+                }
+
+                boolean takesValue = option.usage == E_Usage.KEY_VALUE || option.usage == E_Usage.PROPERTIES;
+                if (option.shortKey != '\0') {
+                    shortKeys.add("-" + option.shortKey);
+                    if (takesValue) {
+                        valueKeys.add("-" + option.shortKey);
+                    }
+                }
+
+                if (!option.longKey.isEmpty()) {
+                    longKeys.add("--" + option.longKey + (takesValue ? "=" : ""));
+                }
+            }
+
+            line("# bash completion for " + commandName + ", generated by ArgsParser.");
+            line(functionName + "() {");
+            line("    local cur=\"${COMP_WORDS[COMP_CWORD]}\"");
+            line("    local prev=\"${COMP_WORDS[COMP_CWORD-1]}\"");
+            line("    local i");
+            line("");
+            line("    for (( i=1; i < COMP_CWORD; i++ )); do");
+            line("        if [[ \"${COMP_WORDS[i]}\" == \"--\" ]]; then");
+            line("            COMPREPLY=( $(compgen -f -- \"$cur\") )");
+            line("            return 0");
+            line("        fi");
+            line("    done");
+            line("");
+            line("    if [[ \"$cur\" == \"=\" ]]; then");
+            line("        COMPREPLY=( $(compgen -f) )");
+            line("        return 0");
+            line("    fi");
+            line("");
+            line("    case \"$prev\" in");
+            line("        =" + (valueKeys.isEmpty() ? "" : "|" + String.join("|", valueKeys)) + ")");
+            line("            COMPREPLY=( $(compgen -f -- \"$cur\") )");
+            line("            return 0");
+            line("            ;;");
+            line("    esac");
+            line("");
+            line("    case \"$cur\" in");
+            line("        --*)");
+            line("            COMPREPLY=( $(compgen -W " + shellQuote(String.join(" ", longKeys)) + " -- \"$cur\") )");
+            line("            if [[ ${#COMPREPLY[@]} -eq 1 && \"${COMPREPLY[0]}\" == *= ]]; then");
+            line("                compopt -o nospace");
+            line("            fi");
+            line("            return 0");
+            line("            ;;");
+            line("        -*)");
+            shortKeys.addAll(longKeys);
+            line("            COMPREPLY=( $(compgen -W " + shellQuote(String.join(" ", shortKeys)) + " -- \"$cur\") )");
+            line("            return 0");
+            line("            ;;");
+            line("    esac");
+            if (optionListArg != null) {
+                line("");
+                line("    COMPREPLY=( $(compgen -f -- \"$cur\") )");
+            }
+            line("}");
+            line("complete -F " + functionName + " " + shellQuote(commandName));
+            return stringBuilder.toString();
+        }
+
+        public String buildZsh() {
+            ArrayList<String> specs = new ArrayList<>();
+            specs.add(zshSpec("(- *)", new ArrayList<>(Arrays.asList(HELP_FLAGS)), HelpBuilder.HELP_FLAG_DESCRIPTION, ""));
+
+            for (ArgOption option : argOptions) {
+                if (option.usage == E_Usage.LIST) {
+                    continue;
+                }
+
+                boolean takesValue = option.usage == E_Usage.KEY_VALUE || option.usage == E_Usage.PROPERTIES;
+                ArrayList<String> keys = new ArrayList<>();
+                if (option.shortKey != '\0') {
+                    keys.add("-" + option.shortKey);
+                }
+                if (!option.longKey.isEmpty()) {
+                    keys.add("--" + option.longKey + (takesValue ? "=-" : ""));
+                }
+
+                String exclusions;
+                if (option.useOnItsOwn) {
+                    exclusions = "(- *)";
+                } else if (option.allowsRepeats()) {
+                    exclusions = "*";
+                } else {
+                    exclusions = "(" + String.join(" ", zshExclusionKeys(option)) + ")";
+                }
+
+                specs.add(zshSpec(exclusions, keys, option.getDescription(), takesValue ? ":value:_files" : ""));
+            }
+
+            if (optionListArg != null) {
+                specs.add(shellQuote("*:" + zshEscape(listDescription()) + ":_files"));
+            }
+
+            line("#compdef " + commandName);
+            line("# zsh completion for " + commandName + ", generated by ArgsParser.");
+            line("");
+            line("_arguments -S \\\n  " + String.join(" \\\n  ", specs));
+            return stringBuilder.toString();
+        }
+
+        private ArrayList<String> zshExclusionKeys(ArgOption option) {
+            ArrayList<String> keys = new ArrayList<>();
+            for (ArgOption other : argOptions) {
+                boolean sameGroup = !option.exclusiveGroup.isEmpty() && option.exclusiveGroup.equals(other.exclusiveGroup);
+                if (other != option && !sameGroup) {
+                    continue;
+                }
+
+                if (other.shortKey != '\0') {
+                    keys.add("-" + other.shortKey);
+                }
+                if (!other.longKey.isEmpty()) {
+                    keys.add("--" + other.longKey);
+                }
+            }
+            return keys;
+        }
+
+        private String zshSpec(String exclusions, ArrayList<String> keys, String description, String action) {
+            String tail = shellQuote("[" + zshEscape(description) + "]" + action);
+            if (keys.size() == 1) {
+                return shellQuote(exclusions) + keys.get(0) + tail;
+            }
+            return shellQuote(exclusions) + "{" + String.join(",", keys) + "}" + tail;
+        }
+
+        private String listDescription() {
+            String description = optionListArg.getDescription();
+            return (description.isEmpty()) ? "list" : description;
+        }
+
+        private String zshEscape(String text) {
+            return text.replace("\n", " ").replace("\\", "\\\\").replace("[", "\\[").replace("]", "\\]")
+                    .replace(":", "\\:");
+        }
+
+        private String shellQuote(String text) {
+            return "'" + text.replace("'", "'\\''") + "'";
+        }
+
+        private void line(String line) {
+            stringBuilder.append(line).append("\n");
+        }
+
+    }
+
+    /**
+     * The bindings of one class for {@link ArgsParser#bind(Class)} and {@link ArgsParser#bindInto(Object)}. A binder is
+     * built once per class, the reflection is only done then, and binding uses the method handles it resolved.
+     */
+    private static final class Binder {
+
+        private static final ConcurrentHashMap<Class<?>, Binder> BINDERS = new ConcurrentHashMap<>();
+
+        private final Class<?> type;
+
+        /**
+         * Has the type {@code (Object[])Object}, the array holds the constructor arguments.
+         */
+        private final MethodHandle constructor;
+
+        private final String[] keys;
+
+        private final Converter[] converters;
+
+        /**
+         * Each has the type {@code (Object, Object)void}, the target and the value. Null for constructor bindings.
+         */
+        private final MethodHandle[] setters;
+
+        /**
+         * The keys resolved against the options of the parser last bound with, see
+         * {@link Binder#resolveKeys(ArgsParser)}.
+         */
+        private volatile ResolvedKeys resolvedKeys = null;
+
+
+
+        static Binder forClass(Class<?> type) {
+            return BINDERS.computeIfAbsent(type, Binder::new);
+        }
+
+        private Binder(Class<?> type) {
+            this.type = type;
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            try {
+                Constructor<?> bindingConstructor = findBindingConstructor(type);
+                if (bindingConstructor != null) {
+                    Parameter[] parameters = bindingConstructor.getParameters();
+                    keys = new String[parameters.length];
+                    converters = new Converter[parameters.length];
+                    for (int i = 0; i < parameters.length; i++) {
+                        keys[i] = parameters[i].getAnnotation(Bind.class).value();
+                        converters[i] = converterFor(parameters[i].getType(), parameters[i].toString());
+                    }
+
+                    bindingConstructor.setAccessible(true);
+                    constructor = lookup.unreflectConstructor(bindingConstructor)
+                            .asType(MethodType.genericMethodType(parameters.length))
+                            .asSpreader(Object[].class, parameters.length);
+                    setters = null;
+                    return;
+                }
+
+                ArrayList<Field> fields = findBindingFields(type);
+                keys = new String[fields.size()];
+                converters = new Converter[fields.size()];
+                setters = new MethodHandle[fields.size()];
+                for (int i = 0; i < fields.size(); i++) {
+                    Field field = fields.get(i);
+                    field.setAccessible(true);
+                    keys[i] = field.getAnnotation(Bind.class).value();
+                    converters[i] = converterFor(field.getType(), field.toString());
+                    setters[i] = lookup.unreflectSetter(field)
+                            .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                }
+
+                constructor = findNoArgumentConstructor(lookup, type);
+            } catch (ArgumentOptionException e) {
+                throw e;
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new ArgumentOptionException("Unable to bind the class.\n"
+                        + "Class: " + type.getName() + ".\n"
+                        + "Reason: " + e);
+            }
+        }
+
+        private static Constructor<?> findBindingConstructor(Class<?> type) {
+            for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+                Parameter[] parameters = constructor.getParameters();
+                if (parameters.length == 0) {
+                    continue;
+                }
+
+                boolean allBound = true;
+                for (Parameter parameter : parameters) {
+                    allBound &= parameter.isAnnotationPresent(Bind.class);
+                }
+
+                if (allBound) {
+                    return constructor;
+                }
+            }
+            return null;
+        }
+
+        private static ArrayList<Field> findBindingFields(Class<?> type) {
+            ArrayList<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!field.isAnnotationPresent(Bind.class)) {
+                        continue;
+                    }
+
+                    if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+                        throw new ArgumentOptionException("A bound field can't be static or final.\n"
+                                + "Field: " + field + ".");
+                    }
+                    fields.add(field);
+                }
+            }
+
+            if (fields.isEmpty()) {
+                throw new ArgumentOptionException("The class has no constructor or fields annotated with Bind.\n"
+                        + "Class: " + type.getName() + ".");
+            }
+            return fields;
+        }
+
+        private static MethodHandle findNoArgumentConstructor(MethodHandles.Lookup lookup, Class<?> type)
+                throws IllegalAccessException {
+            Constructor<?> noArgumentConstructor;
+            try {
+                noArgumentConstructor = type.getDeclaredConstructor();
+            } catch (NoSuchMethodException e) {
+                // Only bindInto can be used.
+                return null;
+            }
+
+            noArgumentConstructor.setAccessible(true);
+            MethodHandle handle = lookup.unreflectConstructor(noArgumentConstructor)
+                    .asType(MethodType.methodType(Object.class));
+            return MethodHandles.dropArguments(handle, 0, Object[].class);
+        }
+
+        private static Converter converterFor(Class<?> target, String name) {
+            if (target == ArgReceived.class) {
+                return (parser, result) -> result;
+            }
+            if (target == boolean.class || target == Boolean.class) {
+                return (parser, result) -> result != null;
+            }
+            if (target == String.class) {
+                return (parser, result) -> (result == null) ? null : result.getValue();
+            }
+            if (target == int.class || target == Integer.class) {
+                return number(target, value -> (Object) Integer.parseInt(value), 0);
+            }
+            if (target == long.class || target == Long.class) {
+                return number(target, value -> (Object) Long.parseLong(value), 0L);
+            }
+            if (target == double.class || target == Double.class) {
+                return number(target, value -> (Object) Double.parseDouble(value), 0.0);
+            }
+            if (target == ByteBuffer.class) {
+                return (parser, result) -> (result == null) ? null : result.getValueBytes(0);
+            }
+            if (target == CharSequence.class) {
+                return (parser, result) -> (result == null) ? null : result.getValueChars(0);
+            }
+            if (target == Path.class) {
+                return (parser, result) -> (result == null) ? null : parser.resolvePath(Paths.get(result.getValue()));
+            }
+            if (target == int[].class) {
+                return (parser, result) -> (result == null) ? new int[0] : result.getInts();
+            }
+            if (target == long[].class) {
+                return (parser, result) -> (result == null) ? new long[0] : result.getLongs();
+            }
+            if (target == BitSet.class) {
+                return (parser, result) -> (result == null) ? new BitSet() : result.getBitSet();
+            }
+            if (target == String[].class) {
+                return (parser, result) -> (result == null) ? new String[0] : result.getValues().toArray(new String[0]);
+            }
+            if (target.isAssignableFrom(ArrayList.class)) {
+                return (parser, result) -> (result == null) ? new ArrayList<String>() : result.getValues();
+            }
+            if (target == PropertyMap.class) {
+                return (parser, result) -> (result == null) ? new PropertyMap() : result.getProperties();
+            }
+            if (target == Map.class) {
+                return (parser, result) -> (result == null) ? new LinkedHashMap<String, String>()
+                        : result.getProperties().toMap();
+            }
+            if (target.isEnum()) {
+                return (parser, result) -> (result == null) ? null : enumValue(parser, target, result);
+            }
+
+            throw new ArgumentOptionException("The type of a binding is not supported.\n"
+                    + "Binding: " + name + ".");
+        }
+
+        private static Converter number(Class<?> target, ValueParser valueParser, Object zero) {
+            Object absent = (target.isPrimitive()) ? zero : null;
+            return (parser, result) -> {
+                if (result == null) {
+                    return absent;
+                }
+
+                String value = result.getValue();
+                try {
+                    return valueParser.parse(value.trim());
+                } catch (NumberFormatException e) {
+                    throw parser.parseError("A value could not be read as a number.\n"
+                            + "Value: " + value + ".\n"
+                            + "Argument option: " + result.option);
+                }
+            };
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Object enumValue(ArgsParser parser, Class<?> target, ArgReceived result) {
+            String value = result.getValue();
+            for (Object constant : target.getEnumConstants()) {
+                if (((Enum) constant).name().equalsIgnoreCase(value)) {
+                    return constant;
+                }
+            }
+
+            throw parser.parseError("A value is not one of the allowed values.\n"
+                    + "Value: " + value + ".\n"
+                    + "Allowed values: " + Arrays.toString(target.getEnumConstants()) + ".\n"
+                    + "Argument option: " + result.option);
+        }
+
+
+
+        /**
+         * @return The index in the options of {@code parser} of the option of each key. The keys are all checked the
+         * first time the class is bound with a list of options, and only again when it is bound with another, forks
+         * share the options of the parser they were forked from.
+         */
+        private int[] resolveKeys(ArgsParser parser) {
+            ResolvedKeys resolved = resolvedKeys;
+            if (resolved != null && resolved.options == parser.argOptions) {
+                return resolved.indexes;
+            }
+
+            int[] indexes = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                indexes[i] = parser.keyIndex.indexOf(keys[i], 0, keys[i].length());
+                if (indexes[i] < 0) {
+                    throw new ArgumentOptionException("A binding uses a key that is not bound to an option.\n"
+                            + "Key: " + keys[i] + ".\n"
+                            + "Class: " + type.getName() + ".");
+                }
+            }
+            resolvedKeys = new ResolvedKeys(parser.argOptions, indexes);
+            return indexes;
+        }
+
+        private static ArgReceived boundResult(ArgsParser parser, int[] indexes, int i) {
+            return parser.optionResultMap.get(parser.argOptions.get(indexes[i]));
+        }
+
+        Object create(ArgsParser parser) {
+            if (constructor == null) {
+                throw new ArgumentOptionException("The class has no no-argument constructor to bind with.\n"
+                        + "Class: " + type.getName() + ".");
+            }
+
+            int[] indexes = resolveKeys(parser);
+            Object[] arguments = new Object[(setters == null) ? keys.length : 0];
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = converters[i].convert(parser, boundResult(parser, indexes, i));
+            }
+
+            Object instance;
+            try {
+                instance = (Object) constructor.invokeExact(arguments);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new ArgumentOptionException("Unable to create the bound class.\n"
+                        + "Class: " + type.getName() + ".\n"
+                        + "Reason: " + e);
+            }
+
+            if (setters != null) {
+                setFields(parser, instance);
+            }
+            return instance;
+        }
+
+        void setFields(ArgsParser parser, Object target) {
+            if (setters == null) {
+                throw new ArgumentOptionException("The class is bound through its constructor, not its fields.\n"
+                        + "Class: " + type.getName() + ".");
+            }
+
+            int[] indexes = resolveKeys(parser);
+            for (int i = 0; i < setters.length; i++) {
+                ArgReceived result = boundResult(parser, indexes, i);
+                if (result == null) {
+                    continue;
+                }
+
+                try {
+                    setters[i].invokeExact(target, converters[i].convert(parser, result));
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new ArgumentOptionException("Unable to set a bound field.\n"
+                            + "Class: " + type.getName() + ".\n"
+                            + "Reason: " + e);
+                }
+            }
+        }
+
+        private static final class ResolvedKeys {
+
+            final List<ArgOption> options;
+
+            final int[] indexes;
+
+            ResolvedKeys(List<ArgOption> options, int[] indexes) {
+                this.options = options;
+                this.indexes = indexes;
+            }
+
+        }
+
+    }
+
+    private interface Converter {
+        Object convert(ArgsParser parser, ArgReceived result);
+    }
+
+    private interface ValueParser {
+        Object parse(String value);
+    }
+
+    /**
+     * A value passed as {@code @path}, see {@link ArgOption#setFileValues(boolean)}. Nothing is read until the contents
+     * are first asked for, then the file is mapped once and the mapping is shared by later calls.
+     */
+    private static final class ValueFile {
+
+        private final Path path;
+
+        private final boolean displayStackTrace;
+
+        private volatile ByteBuffer mapping;
+
+        private volatile CharSequence chars;
+
+        ValueFile(Path path, boolean displayStackTrace) {
+            this.path = path;
+            this.displayStackTrace = displayStackTrace;
+        }
+
+        ByteBuffer bytes() {
+            return mapping().duplicate();
+        }
+
+        CharSequence chars() {
+            CharSequence result = chars;
+            if (result == null) {
+                synchronized (this) {
+                    result = chars;
+                    if (result == null) {
+                        ByteBuffer bytes = mapping();
+                        result = (isAscii(bytes)) ? new AsciiChars(bytes) : StandardCharsets.UTF_8.decode(bytes.duplicate());
+                        chars = result;
+                    }
+                }
+            }
+            // A CharBuffer reads relative to its position, so each caller gets a view with its own.
+            return (result instanceof CharBuffer) ? ((CharBuffer) result).asReadOnlyBuffer() : result;
+        }
+
+        private ByteBuffer mapping() {
+            ByteBuffer result = mapping;
+            if (result == null) {
+                synchronized (this) {
+                    result = mapping;
+                    if (result == null) {
+                        result = map();
+                        mapping = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private ByteBuffer map() {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asReadOnlyBuffer();
+            } catch (IOException | IllegalArgumentException e) {
+                throw new ParseArgumentException("The file of a value could not be read.\n"
+                        + "Path: " + path + ".\n"
+                        + "Reason: " + e, displayStackTrace);
+            }
+        }
+
+        private static boolean isAscii(ByteBuffer bytes) {
+            for (int i = bytes.position(); i < bytes.limit(); i++) {
+                if (bytes.get(i) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+    /**
+     * A command line of UTF-8 tokens that decodes each token the first time it is read, see
+     * {@link ArgsParser#pareArgs(byte[][])}. The tokens may share one array, as when split from
+     * {@code /proc/self/cmdline}.
+     */
+    private static final class Utf8Args extends AbstractList<String> implements RandomAccess {
+
+        private final byte[][] buffers;
+
+        private final int[] starts;
+
+        private final int[] ends;
+
+        private final String[] decoded;
+
+        Utf8Args(byte[][] tokens) {
+            buffers = tokens.clone();
+            starts = new int[tokens.length];
+            ends = new int[tokens.length];
+            for (int i = 0; i < tokens.length; i++) {
+                if (tokens[i] == null) {
+                    throw new NullPointerException("A command line token cannot be null.");
+                }
+                ends[i] = tokens[i].length;
+            }
+            decoded = new String[tokens.length];
+        }
+
+        private Utf8Args(byte[][] buffers, int[] starts, int[] ends) {
+            this.buffers = buffers;
+            this.starts = starts;
+            this.ends = ends;
+            decoded = new String[starts.length];
+        }
+
+        static Utf8Args splitNulSeparated(byte[] buffer, int offset, int length) {
+            if (offset < 0 || length < 0 || offset + length > buffer.length) {
+                throw new IndexOutOfBoundsException("The range is outside the buffer.");
+            }
+
+            int end = offset + length;
+            int count = 0;
+            for (int i = offset; i < end; i++) {
+                if (buffer[i] == 0) {
+                    count++;
+                }
+            }
+            if (length > 0 && buffer[end - 1] != 0) {
+                count++;
+            }
+
+            int[] starts = new int[count];
+            int[] ends = new int[count];
+            int token = 0;
+            int start = offset;
+            for (int i = offset; i < end; i++) {
+                if (buffer[i] == 0) {
+                    starts[token] = start;
+                    ends[token++] = i;
+                    start = i + 1;
+                }
+            }
+            if (token < count) {
+                starts[token] = start;
+                ends[token] = end;
+            }
+
+            byte[][] buffers = new byte[count][];
+            Arrays.fill(buffers, buffer);
+            return new Utf8Args(buffers, starts, ends);
+        }
+
+        boolean startsWithDash(int index) {
+            return ends[index] > starts[index] && buffers[index][starts[index]] == '-';
+        }
+
+        @Override
+        public String get(int index) {
+            String token = decoded[index];
+            if (token == null) {
+                token = decode(index);
+                decoded[index] = token;
+            }
+            return token;
+        }
+
+        /**
+         * @return The token at {@code index}, decoded into a new string if it hasn't been, without storing it.
+         */
+        String decode(int index) {
+            String token = decoded[index];
+            if (token != null) {
+                return token;
+            }
+            return new String(buffers[index], starts[index], ends[index] - starts[index], StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int size() {
+            return decoded.length;
+        }
+
+    }
+
+    /**
+     * The charters of ASCII bytes, read straight from the buffer.
+     */
+    private static final class AsciiChars implements CharSequence {
+
+        private final ByteBuffer bytes;
+
+        AsciiChars(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int length() {
+            return bytes.remaining();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length());
+            }
+            return (char) bytes.get(bytes.position() + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length() || start > end) {
+                throw new IndexOutOfBoundsException("Start: " + start + ", End: " + end + ", Length: " + length());
+            }
+            ByteBuffer slice = bytes.duplicate();
+            slice.position(bytes.position() + start);
+            slice.limit(bytes.position() + end);
+            return new AsciiChars(slice.slice());
+        }
+
+        @Override
+        public String toString() {
+            byte[] copy = new byte[length()];
+            bytes.duplicate().get(copy);
+            return new String(copy, StandardCharsets.US_ASCII);
+        }
+
+    }
+
+    /**
+     * The numbers of the values of an argument with a {@link E_ValueFormat}. Values are scanned by index, without
+     * splitting them into strings or boxing the numbers. A value is scanned twice, first to check it and count its
+     * numbers, then to store them, so a malformed value adds nothing and the array grows at most once per value.
+     */
+    private static final class NumberList {
+
+        private final E_ValueFormat format;
+
+        private int[] ints;
+
+        private long[] longs;
+
+        private BitSet bits;
+
+        private int size = 0;
+
+        /**
+         * The scan position and the last number read by {@link NumberList#readNumber(String, long, long)}.
+         */
+        private int position;
+
+        private long number;
+
+        /**
+         * How many numbers the value last passed to {@link NumberList#check(String, int)} has.
+         */
+        private int checkedSize;
+
+        NumberList(E_ValueFormat format) {
+            this.format = format;
+            switch (format) {
+                case INT_LIST: ints = new int[8]; break;
+                case LONG_LIST: longs = new long[8]; break;
+                case BIT_SET: bits = new BitSet(); break;
+            }
+        }
+
+        /**
+         * @return Null, or what is wrong with the value. It is only added by {@link NumberList#add(String)}.
+         */
+        String check(String value, int limit) {
+            long min = (format == E_ValueFormat.LONG_LIST) ? Long.MIN_VALUE
+                    : (format == E_ValueFormat.BIT_SET) ? 0 : Integer.MIN_VALUE;
+            long max = (format == E_ValueFormat.LONG_LIST) ? Long.MAX_VALUE
+                    : (format == E_ValueFormat.BIT_SET) ? limit - 1 : Integer.MAX_VALUE;
+
+            long total = 0;
+            position = 0;
+            while (true) {
+                String problem = readNumber(value, min, max);
+                if (problem != null) {
+                    return problem;
+                }
+                long start = number;
+
+                if (position < value.length() && value.charAt(position) == '-') {
+                    position++;
+                    problem = readNumber(value, min, max);
+                    if (problem != null) {
+                        return problem;
+                    }
+                    if (number < start) {
+                        return "A range ends before it starts at charter " + position;
+                    }
+                }
+
+                // The subtraction can overflow for a range of longs, which is over the limit anyway.
+                long range = number - start + 1;
+                if (range <= 0 || range > limit - total) {
+                    return "More than " + limit + " numbers";
+                }
+                total += range;
+
+                if (position == value.length()) {
+                    break;
+                }
+                if (value.charAt(position) != ',') {
+                    return "Expected a comma at charter " + position;
+                }
+                position++;
+            }
+
+            checkedSize = (int) total;
+            return null;
+        }
+
+        /**
+         * Adds {@code value}, which must be the value last passed to {@link NumberList#check(String, int)}.
+         */
+        void add(String value) {
+            store(value, checkedSize);
+        }
+
+        /**
+         * Reads the number at {@link NumberList#position}, like {@link Long#parseLong(String)} it is accumulated
+         * negatively so {@link Long#MIN_VALUE} can be read.
+         */
+        private String readNumber(String value, long min, long max) {
+            boolean negative = position < value.length() && value.charAt(position) == '-';
+            if (negative) {
+                if (min >= 0) {
+                    return "A negative number at charter " + position;
+                }
+                position++;
+            }
+
+            long limit = (negative) ? min : -max;
+            long multiplyMin = limit / 10;
+            long result = 0;
+            int start = position;
+            for (; position < value.length(); position++) {
+                int digit = value.charAt(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                if (result < multiplyMin || result * 10 < limit + digit) {
+                    return "A number out of range at charter " + start;
+                }
+                result = result * 10 - digit;
+            }
+
+            if (position == start) {
+                return "Expected a number at charter " + position;
+            }
+            number = (negative) ? result : -result;
+            return null;
+        }
+
+        private void store(String value, int total) {
+            if (format == E_ValueFormat.INT_LIST && size + total > ints.length) {
+                ints = Arrays.copyOf(ints, Math.max(size + total, ints.length * 2));
+            } else if (format == E_ValueFormat.LONG_LIST && size + total > longs.length) {
+                longs = Arrays.copyOf(longs, Math.max(size + total, longs.length * 2));
+            }
+
+            // The value has been checked, so there are no problems to look for.
+            position = 0;
+            while (position <= value.length()) {
+                readNumber(value, Long.MIN_VALUE, Long.MAX_VALUE);
+                long start = number;
+                if (position < value.length() && value.charAt(position) == '-') {
+                    position++;
+                    readNumber(value, Long.MIN_VALUE, Long.MAX_VALUE);
+                }
+                storeRange(start, number);
+                position++;
+            }
+        }
+
+        private void storeRange(long start, long end) {
+            switch (format) {
+                case INT_LIST:
+                    for (long i = start; i <= end; i++) {
+                        ints[size++] = (int) i;
+                    }
+                    break;
+                case LONG_LIST:
+                    for (long i = start; ; i++) {
+                        longs[size++] = i;
+                        // Checked before the increment so a range ending at Long.MAX_VALUE stops.
+                        if (i == end) {
+                            break;
+                        }
+                    }
+                    break;
+                case BIT_SET:
+                    bits.set((int) start, (int) end + 1);
+                    break;
+            }
+        }
+
+        int[] getInts() {
+            if (ints.length != size) {
+                ints = Arrays.copyOf(ints, size);
+            }
+            return ints;
+        }
+
+        long[] getLongs() {
+            if (longs.length != size) {
+                longs = Arrays.copyOf(longs, size);
+            }
+            return longs;
+        }
+
+    }
+
+    /**
+     * The index from the short and long keys to the position of their option, built once by the constructor. It is a
+     * perfect hash made by hash and displace: a key is hashed once, the hash picks a bucket and the displacement of the
+     * bucket picks the slot of the key. The displacements are searched for when the index is built so that no two keys
+     * share a slot, so a lookup is one hash and one comparison with the key in that slot however many options there
+     * are. The keys are packed into one char array, not kept as a String per entry.
+     */
+    private static final class KeyIndex {
+
+        /**
+         * Displacements tried for a bucket before the index is built again with the next seed.
+         */
+        private static final int MAX_DISPLACEMENT = 1 << 16;
+
+        private final int seed;
+
+        private final int[] displacements;
+
+        /**
+         * Per slot, the position of the option shifted left one, with the low bit set if the slot holds its long key.
+         * Empty slots are -1.
+         */
+        private final int[] slots;
+
+        private final char[] keyChars;
+
+        /**
+         * The key of slot {@code i} is {@code keyChars[keyOffsets[i]]} to {@code keyChars[keyOffsets[i + 1]]}.
+         */
+        private final int[] keyOffsets;
+
+        private KeyIndex(int seed, int[] displacements, int[] slots, List<ArgOption> options) {
+            this.seed = seed;
+            this.displacements = displacements;
+            this.slots = slots;
+
+            keyOffsets = new int[slots.length + 1];
+            int length = 0;
+            for (int slot = 0; slot < slots.length; slot++) {
+                keyOffsets[slot] = length;
+                if (slots[slot] >= 0) {
+                    length += key(options, slots[slot]).length();
+                }
+            }
+            keyOffsets[slots.length] = length;
+
+            keyChars = new char[length];
+            for (int slot = 0; slot < slots.length; slot++) {
+                if (slots[slot] >= 0) {
+                    String key = key(options, slots[slot]);
+                    key.getChars(0, key.length(), keyChars, keyOffsets[slot]);
+                }
+            }
+        }
+
+        /**
+         * Restores an index from the seed, displacements and slots of an index built for the same options.
+         */
+        static KeyIndex restore(int seed, int[] displacements, int[] slots, List<ArgOption> options) {
+            if (displacements.length == 0 || slots.length == 0) {
+                throw new IllegalArgumentException("An index has at least one bucket and slot.");
+            }
+            return new KeyIndex(seed, displacements, slots, options);
+        }
+
+        /**
+         * @throws ArgumentOptionException If two options share a key.
+         */
+        static KeyIndex build(List<ArgOption> options) {
+            int[] entries = new int[options.size() * 2];
+            int entryCount = 0;
+            for (int i = 0; i < options.size(); i++) {
+                if (options.get(i).shortKey != '\0') {
+                    entries[entryCount++] = i << 1;
+                }
+                if (!options.get(i).longKey.isEmpty()) {
+                    entries[entryCount++] = (i << 1) | 1;
+                }
+            }
+            entries = Arrays.copyOf(entries, entryCount);
+
+            String[] keys = new String[entryCount];
+            for (int i = 0; i < entryCount; i++) {
+                keys[i] = key(options, entries[i]);
+            }
+
+            int bucketCount = entryCount / 2 + 1;
+            int slotCount = entryCount + entryCount / 4 + 1;
+            for (int seed = 0; ; seed++) {
+                int[] hashes = new int[entryCount];
+                for (int i = 0; i < entryCount; i++) {
+                    hashes[i] = hash(seed, keys[i], 0, keys[i].length());
+                }
+                int[][] buckets = groupBuckets(hashes, bucketCount);
+
+                // Equal keys have equal hashes, so they are always in the same bucket.
+                if (seed == 0) {
+                    checkForRepeatKeys(options, entries, keys, buckets);
+                }
+
+                int[] slots = new int[slotCount];
+                int[] displacements = place(entries, hashes, buckets, slots);
+                if (displacements != null) {
+                    return new KeyIndex(seed, displacements, slots, options);
+                }
+            }
+        }
+
+        /**
+         * @return The entries of each bucket, as positions in {@code hashes}, in the order of the entries.
+         */
+        private static int[][] groupBuckets(int[] hashes, int bucketCount) {
+            int[] sizes = new int[bucketCount];
+            for (int hash : hashes) {
+                sizes[bucketOf(hash, bucketCount)]++;
+            }
+
+            int[][] buckets = new int[bucketCount][];
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                buckets[bucket] = new int[sizes[bucket]];
+                sizes[bucket] = 0;
+            }
+            for (int i = 0; i < hashes.length; i++) {
+                int bucket = bucketOf(hashes[i], bucketCount);
+                buckets[bucket][sizes[bucket]++] = i;
+            }
+            return buckets;
+        }
+
+        private static void checkForRepeatKeys(List<ArgOption> options, int[] entries, String[] keys, int[][] buckets) {
+            ArgOption[] shortOwners = new ArgOption[options.size()];
+            ArgOption[] longOwners = new ArgOption[options.size()];
+
+            for (int[] bucket : buckets) {
+                for (int i = 1; i < bucket.length; i++) {
+                    int entry = entries[bucket[i]];
+                    for (int j = 0; j < i; j++) {
+                        int earlier = entries[bucket[j]];
+                        if ((earlier & 1) == (entry & 1) && keys[bucket[j]].equals(keys[bucket[i]])) {
+                            ArgOption[] owners = ((entry & 1) == 0) ? shortOwners : longOwners;
+                            owners[entry >>> 1] = options.get(earlier >>> 1);
+                            break;
+                        }
+                    }
+                }
+            }
+
+            for (int i = 0; i < options.size(); i++) {
+                ArgsParser.checkForRepeatKeys(options.get(i), shortOwners[i], longOwners[i]);
+            }
+        }
+
+        /**
+         * Places the largest buckets first, while most slots are free.
+         *
+         * @return The displacements, or null if a bucket could not be placed with this seed.
+         */
+        private static int[] place(int[] entries, int[] hashes, int[][] buckets, int[] slots) {
+            int largest = 0;
+            for (int[] bucket : buckets) {
+                largest = Math.max(largest, bucket.length);
+            }
+
+            // A counting sort by size, largest first.
+            int[] sizeStarts = new int[largest + 2];
+            for (int[] bucket : buckets) {
+                sizeStarts[largest - bucket.length + 1]++;
+            }
+            for (int i = 1; i < sizeStarts.length; i++) {
+                sizeStarts[i] += sizeStarts[i - 1];
+            }
+            int[] order = new int[buckets.length];
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                order[sizeStarts[largest - buckets[bucket].length]++] = bucket;
+            }
+
+            Arrays.fill(slots, -1);
+            int[] displacements = new int[buckets.length];
+            int[] placed = new int[largest];
+
+            for (int bucket : order) {
+                int[] members = buckets[bucket];
+                if (members.length == 0) {
+                    break;
+                }
+
+                int displacement = 0;
+                while (!fits(hashes, members, displacement, slots, placed)) {
+                    if (++displacement == MAX_DISPLACEMENT) {
+                        return null;
+                    }
+                }
+
+                displacements[bucket] = displacement;
+                for (int i = 0; i < members.length; i++) {
+                    slots[placed[i]] = entries[members[i]];
+                }
+            }
+            return displacements;
+        }
+
+        /**
+         * @param placed Filled with the slot of each member if they fit.
+         */
+        private static boolean fits(int[] hashes, int[] members, int displacement, int[] slots, int[] placed) {
+            for (int i = 0; i < members.length; i++) {
+                int slot = slotOf(hashes[members[i]], displacement, slots.length);
+                if (slots[slot] >= 0) {
+                    return false;
+                }
+                for (int j = 0; j < i; j++) {
+                    if (placed[j] == slot) {
+                        return false;
+                    }
+                }
+                placed[i] = slot;
+            }
+            return true;
+        }
+
+        /**
+         * @return The position of the option {@code key.subSequence(start, end)} is bound to, or -1.
+         */
+        int indexOf(CharSequence key, int start, int end) {
+            int hash = hash(seed, key, start, end);
+            int slot = slotOf(hash, displacements[bucketOf(hash, displacements.length)], slots.length);
+
+            int entry = slots[slot];
+            if (entry < 0) {
+                return -1;
+            }
+
+            int offset = keyOffsets[slot];
+            if (keyOffsets[slot + 1] - offset != end - start) {
+                return -1;
+            }
+            for (int i = start; i < end; i++) {
+                if (keyChars[offset++] != key.charAt(i)) {
+                    return -1;
+                }
+            }
+            return entry >>> 1;
+        }
+
+        private static String key(List<ArgOption> options, int entry) {
+            ArgOption option = options.get(entry >>> 1);
+            return ((entry & 1) == 0) ? String.valueOf(option.shortKey) : option.longKey;
+        }
+
+        /**
+         * FNV-1a over the charters, started from a basis changed by the seed.
+         */
+        private static int hash(int seed, CharSequence key, int start, int end) {
+            int hash = 0x811c9dc5 ^ (seed * 0x9e3779b9);
+            for (int i = start; i < end; i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x01000193;
+            }
+            return hash;
+        }
+
+        private static int bucketOf(int hash, int bucketCount) {
+            return (hash & 0x7fffffff) % bucketCount;
+        }
+
+        private static int slotOf(int hash, int displacement, int slotCount) {
+            int mixed = hash ^ (displacement * 0x9e3779b9);
+            mixed ^= mixed >>> 16;
+            mixed *= 0x85ebca6b;
+            mixed ^= mixed >>> 13;
+            mixed *= 0xc2b2ae35;
+            mixed ^= mixed >>> 16;
+            return (mixed & 0x7fffffff) % slotCount;
+        }
+
+    }
+
+    /**
+     * Reads the schema files of {@link ArgsParser#readSchema(Path)}.
+     */
+    private static final class SchemaReader {
+
+        static byte[] readBytes(Path schemaFile) {
+            try {
+                return Files.readAllBytes(schemaFile);
+            } catch (IOException e) {
+                throw new ArgumentOptionException("Unable to read the schema file.\n"
+                        + "Path: " + schemaFile + ".\n"
+                        + "Reason: " + e);
+            }
+        }
+
+        static ArrayList<ArgOption> read(Path schemaFile, byte[] schema) {
+            ArrayList<ArgOption> options = new ArrayList<>();
+            ArgOption current = null;
+            HashMap<Path, TextResource> textResources = new HashMap<>();
+
+            String[] lines = new String(schema, StandardCharsets.UTF_8).split("\r?\n");
+            for (int i = 0; i < lines.length; i++) {
+                String line = lines[i].trim();
+                String location = schemaFile + ":" + (i + 1);
+
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith(";")) {
+                    continue;
+                }
+
+                if (line.startsWith("[") && line.endsWith("]")) {
+                    current = new ArgOption();
+                    options.add(current);
+                    continue;
+                }
+
+                int equals = line.indexOf('=');
+                if (current == null || equals < 0) {
+                    throw new ArgumentOptionException("Expected an option section or a property of one.\n"
+                            + "Line: " + line + ".\n"
+                            + "Schema: " + location + ".");
+                }
+
+                String name = line.substring(0, equals).trim();
+                String value = line.substring(equals + 1).trim();
+                if (name.equals("textFile")) {
+                    Path textFile = schemaFile.toAbsolutePath().resolveSibling(value).normalize();
+                    current.textResource = textResources.computeIfAbsent(textFile, TextResource::fromFile);
+                    continue;
+                }
+                setProperty(current, name, value, location);
+            }
+
+            return options;
+        }
+
+        private static void setProperty(ArgOption option, String name, String value, String location) {
+            switch (name) {
+                case "shortKey":
+                    if (value.length() != 1) {
+                        throw schemaError("A short key must be a single charter.", name, value, location);
+                    }
+                    option.shortKey = value.charAt(0);
+                    break;
+                case "longKey":
+                    if (value.length() < 2) {
+                        throw schemaError("Long keys should be at least 2 charters long.", name, value, location);
+                    }
+                    option.longKey = value;
+                    break;
+                case "usage":
+                    try {
+                        option.usage = E_Usage.valueOf(value.toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        throw schemaError("Unknown usage, the usages are " + Arrays.toString(E_Usage.values()) + ".",
+                                name, value, location);
+                    }
+                    break;
+                case "shortValueExample": option.shortValueExample = value; break;
+                case "longValueExample": option.longValueExample = value; break;
+                case "listExample": option.listExample = value; break;
+                case "description": option.description = value; break;
+                case "exclusiveGroup": option.exclusiveGroup = value; break;
+                case "textKey": option.textKey = value; break;
+                case "useOnItsOwn": option.useOnItsOwn = readBoolean(name, value, location); break;
+                case "repeatable": option.repeatable = readBoolean(name, value, location); break;
+                case "required": option.required = readBoolean(name, value, location); break;
+                case "internValues": option.internValues = readBoolean(name, value, location); break;
+                case "distinctValues": option.distinctValues = readBoolean(name, value, location); break;
+                case "fileValues": option.fileValues = readBoolean(name, value, location); break;
+                case "propertyOverride":
+                    try {
+                        option.propertyOverride = E_PropertyOverride.valueOf(value.toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        throw schemaError("Unknown property override, the overrides are "
+                                + Arrays.toString(E_PropertyOverride.values()) + ".", name, value, location);
+                    }
+                    break;
+                case "valueFormat":
+                    try {
+                        option.valueFormat = E_ValueFormat.valueOf(value.toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        throw schemaError("Unknown value format, the formats are "
+                                + Arrays.toString(E_ValueFormat.values()) + ".", name, value, location);
+                    }
+                    break;
+                case "requires":
+                    option.requires = (value.isEmpty()) ? new String[0] : value.split("\\s*,\\s*");
+                    break;
+                case "valuePattern": option.valuePattern = value; break;
+                case "valueCharset": option.valueCharset = value; break;
+                case "valueRange": {
+                    long[] range = readRange(name, value, location);
+                    option.valueRangeMin = range[0];
+                    option.valueRangeMax = range[1];
+                    break;
+                }
+                case "valueLength": {
+                    long[] range = readRange(name, value, location);
+                    if (range[0] < 0 || range[1] > Integer.MAX_VALUE) {
+                        throw schemaError("A length must be from 0 to " + Integer.MAX_VALUE + ".", name, value, location);
+                    }
+                    option.valueLengthMin = (int) range[0];
+                    option.valueLengthMax = (int) range[1];
+                    break;
+                }
+                default:
+                    throw schemaError("Unknown property.", name, value, location);
+            }
+        }
+
+        private static boolean readBoolean(String name, String value, String location) {
+            if (value.equalsIgnoreCase("true")) {
+                return true;
+            }
+            if (value.equalsIgnoreCase("false")) {
+                return false;
+            }
+            throw schemaError("Expected true or false.", name, value, location);
+        }
+
+        /**
+         * Reads {@code least, greatest}, two whole numbers.
+         */
+        private static long[] readRange(String name, String value, String location) {
+            String[] bounds = value.split("\\s*,\\s*");
+            try {
+                if (bounds.length == 2) {
+                    return new long[] {Long.parseLong(bounds[0]), Long.parseLong(bounds[1])};
+                }
+            } catch (NumberFormatException e) {
+                // Reported below.
+            }
+            throw schemaError("Expected two whole numbers, the least and greatest, e.g. 1, 100.", name, value, location);
+        }
+
+        private static ArgumentOptionException schemaError(String problem, String name, String value, String location) {
+            return new ArgumentOptionException(problem + "\n"
+                    + "Property: " + name + " = " + value + ".\n"
+                    + "Schema: " + location + ".");
+        }
+
+    }
+
+    /**
+     * The binary form of a validated spec written by {@link ArgsParser#fromSchema(ProgrammeDetails, Path, Path)}. The
+     * layout is:
+     * <ol>
+     *     <li>A header: magic, format version, the fingerprint of the schema, the number of options and the number of
+     *     charters in the string table.</li>
+     *     <li>A fixed size record per option: the short key, a byte with the usage in the low four bits and the value
+     *     format in the high four, a byte of boolean flags with the property override in the top two bits, the offset
+     *     and length, in charters, of each string in the string table, then the value range and length.</li>
+     *     <li>The {@link KeyIndex}: its seed, the number of buckets and slots, the displacements and the slots. The
+     *     keys themselves are in the records.</li>
+     *     <li>The string table, UTF-16 charters. Equal strings are only stored once.</li>
+     * </ol>
+     * Loading decodes the strings the parse needs, the keys, groups, requirements and value checks. The description
+     * and examples are left in the mapping as offsets, see {@link SnapshotText}, and only decoded if the help or one of
+     * their getters is used, so the mapping stays open until then.
+     */
+    private static final class SpecSnapshot {
+
+        private static final int MAGIC = 0x4A415053;
+
+        private static final int VERSION = 6;
+
+        private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4;
+
+        private static final int STRING_COUNT = 11;
+
+        private static final int RECORD_BYTES = 2 + 1 + 1 + STRING_COUNT * 8 + 8 + 8 + 4 + 4;
+
+        private static final int FLAG_USE_ON_ITS_OWN = 1;
+        private static final int FLAG_REPEATABLE = 1 << 1;
+        private static final int FLAG_REQUIRED = 1 << 2;
+        private static final int FLAG_INTERN_VALUES = 1 << 3;
+        private static final int FLAG_DISTINCT_VALUES = 1 << 4;
+        private static final int FLAG_FILE_VALUES = 1 << 5;
+        private static final int PROPERTY_OVERRIDE_SHIFT = 6;
+
+
+
+        /**
+         * FNV-1a over the schema and the format version, so a new format also invalidates old snapshots.
+         */
+        static long fingerprint(byte[] schema) {
+            long hash = 0xcbf29ce484222325L ^ VERSION;
+            for (byte b : schema) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        final ArrayList<ArgOption> options;
+
+        final KeyIndex keyIndex;
+
+        private SpecSnapshot(ArrayList<ArgOption> options, KeyIndex keyIndex) {
+            this.options = options;
+            this.keyIndex = keyIndex;
+        }
+
+        static void write(Path snapshotFile, ArrayList<ArgOption> options, KeyIndex keyIndex, long fingerprint) {
+            StringBuilder strings = new StringBuilder();
+            HashMap<String, Integer> offsets = new HashMap<>();
+            Path directory = snapshotFile.toAbsolutePath().getParent();
+
+            ByteBuffer records = ByteBuffer.allocate(options.size() * RECORD_BYTES);
+            for (ArgOption option : options) {
+                int flags = (option.useOnItsOwn ? FLAG_USE_ON_ITS_OWN : 0)
+                        | (option.repeatable ? FLAG_REPEATABLE : 0)
+                        | (option.required ? FLAG_REQUIRED : 0)
+                        | (option.internValues ? FLAG_INTERN_VALUES : 0)
+                        | (option.distinctValues ? FLAG_DISTINCT_VALUES : 0)
+                        | (option.fileValues ? FLAG_FILE_VALUES : 0)
+                        | (option.propertyOverride.ordinal() << PROPERTY_OVERRIDE_SHIFT);
+
+                records.putChar(option.shortKey);
+                records.put((byte) (option.usage.ordinal() | (option.valueFormat.ordinal() << 4)));
+                records.put((byte) flags);
+                for (String string : strings(option, directory)) {
+                    Integer offset = offsets.get(string);
+                    if (offset == null) {
+                        offset = strings.length();
+                        offsets.put(string, offset);
+                        strings.append(string);
+                    }
+                    records.putInt(offset).putInt(string.length());
+                }
+                records.putLong(option.valueRangeMin).putLong(option.valueRangeMax);
+                records.putInt(option.valueLengthMin).putInt(option.valueLengthMax);
+            }
+
+            int indexBytes = 3 * 4 + (keyIndex.displacements.length + keyIndex.slots.length) * 4;
+            ByteBuffer snapshot = ByteBuffer.allocate(HEADER_BYTES + records.capacity() + indexBytes
+                    + strings.length() * 2);
+            snapshot.putInt(MAGIC).putInt(VERSION).putLong(fingerprint).putInt(options.size()).putInt(strings.length());
+            snapshot.put(records.array());
+            snapshot.putInt(keyIndex.seed).putInt(keyIndex.displacements.length).putInt(keyIndex.slots.length);
+            snapshot.asIntBuffer().put(keyIndex.displacements).put(keyIndex.slots);
+            snapshot.position(snapshot.position() + (keyIndex.displacements.length + keyIndex.slots.length) * 4);
+            snapshot.asCharBuffer().put(strings.toString());
+            snapshot.clear();
+
+            // Written to a temporary file then moved, so a parser starting at the same time never maps half a file.
+            Path temporary = null;
+            boolean moved = false;
+            try {
+                temporary = Files.createTempFile(directory, snapshotFile.getFileName().toString(), ".tmp");
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                    while (snapshot.hasRemaining()) {
+                        channel.write(snapshot);
+                    }
+                }
+                Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                moved = true;
+            } catch (IOException e) {
+                // The snapshot is only a cache, without it the schema is compiled again on the next start.
+            } finally {
+                if (temporary != null && !moved) {
+                    // Else every start that can't move it leaves another file behind.
+                    try {
+                        Files.deleteIfExists(temporary);
+                    } catch (IOException ignored) {
+                        // Nothing more can be done, it is only left in the directory.
+                    }
+                }
+            }
+        }
+
+        /**
+         * @param directory The directory of the snapshot, the text file is kept relative to it, so the snapshot and its
+         *                  text files can be installed anywhere together.
+         */
+        private static String[] strings(ArgOption option, Path directory) {
+            option.decodeSnapshotText();
+            return new String[] {
+                    option.longKey,
+                    option.shortValueExample,
+                    option.longValueExample,
+                    option.listExample,
+                    option.description,
+                    option.exclusiveGroup,
+                    String.join("\0", option.requires),
+                    (option.textKey == null) ? "" : option.textKey,
+                    (option.textResource == null || option.textResource.file == null)
+                            ? "" : relativeTo(directory, option.textResource.file),
+                    option.valuePattern,
+                    option.valueCharset
+            };
+        }
+
+        private static String relativeTo(Path directory, Path file) {
+            try {
+                return directory.relativize(file.toAbsolutePath()).toString();
+            } catch (IllegalArgumentException e) {
+                // On another root, e.g. another drive, so it can only be found by its absolute path.
+                return file.toAbsolutePath().toString();
+            }
+        }
+
+        /**
+         * @return The snapshot, or null if it doesn't exist, is not a snapshot of this version or, unless
+         * {@code anyFingerprint}, was compiled from a different schema.
+         */
+        static SpecSnapshot read(Path snapshotFile, long fingerprint, boolean anyFingerprint) {
+            MappedByteBuffer snapshot;
+            try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+                snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                return null;
+            }
+
+            try {
+                if (snapshot.getInt(0) != MAGIC || snapshot.getInt(4) != VERSION) {
+                    return null;
+                }
+                if (!anyFingerprint && snapshot.getLong(8) != fingerprint) {
+                    return null;
+                }
+
+                // Each count is checked against the size of the mapping before anything is allocated for it, so a
+                // corrupt count is rejected like any other corruption instead of exhausting the memory.
+                int optionCount = snapshot.getInt(16);
+                int stringLength = snapshot.getInt(20);
+                long indexStart = HEADER_BYTES + (long) optionCount * RECORD_BYTES;
+                if (optionCount < 0 || stringLength < 0 || indexStart + 3 * 4 > snapshot.capacity()) {
+                    return null;
+                }
+
+                int seed = snapshot.getInt((int) indexStart);
+                int displacementCount = snapshot.getInt((int) indexStart + 4);
+                int slotCount = snapshot.getInt((int) indexStart + 8);
+                long stringStart = indexStart + 3 * 4 + ((long) displacementCount + slotCount) * 4;
+                if (displacementCount < 0 || slotCount < 0 || stringStart + stringLength * 2L > snapshot.capacity()) {
+                    return null;
+                }
+                int[] displacements = new int[displacementCount];
+                int[] slots = new int[slotCount];
+
+                ByteBuffer indexBytes = snapshot.duplicate();
+                indexBytes.position((int) indexStart + 3 * 4);
+                indexBytes.slice().asIntBuffer().get(displacements).get(slots);
+
+                ByteBuffer stringBytes = snapshot.duplicate();
+                stringBytes.position((int) stringStart);
+                stringBytes.limit((int) stringStart + stringLength * 2);
+                CharBuffer strings = stringBytes.slice().asCharBuffer();
+
+                ArrayList<ArgOption> options = new ArrayList<>(optionCount);
+                HashMap<String, TextResource> textResources = new HashMap<>();
+                for (int i = 0; i < optionCount; i++) {
+                    options.add(readOption(snapshot, HEADER_BYTES + i * RECORD_BYTES, strings, snapshotFile,
+                            textResources));
+                }
+                return new SpecSnapshot(options, KeyIndex.restore(seed, displacements, slots, options));
+            } catch (IndexOutOfBoundsException | IllegalArgumentException | BufferUnderflowException
+                     | NegativeArraySizeException e) {
+                // Truncated or corrupt, treated like a missing snapshot.
+                return null;
+            }
+        }
+
+        private static ArgOption readOption(ByteBuffer snapshot, int record, CharBuffer strings, Path snapshotFile,
+                                            HashMap<String, TextResource> textResources) {
+            ArgOption option = new ArgOption();
+            option.shortKey = snapshot.getChar(record);
+            int usage = snapshot.get(record + 2);
+            option.usage = E_Usage.values()[usage & 0xf];
+            option.valueFormat = E_ValueFormat.values()[(usage >>> 4) & 0xf];
+
+            int flags = snapshot.get(record + 3);
+            option.useOnItsOwn = (flags & FLAG_USE_ON_ITS_OWN) != 0;
+            option.repeatable = (flags & FLAG_REPEATABLE) != 0;
+            option.required = (flags & FLAG_REQUIRED) != 0;
+            option.internValues = (flags & FLAG_INTERN_VALUES) != 0;
+            option.distinctValues = (flags & FLAG_DISTINCT_VALUES) != 0;
+            option.fileValues = (flags & FLAG_FILE_VALUES) != 0;
+            option.propertyOverride = E_PropertyOverride.values()[(flags >>> PROPERTY_OVERRIDE_SHIFT) & 0x3];
+
+            int stringRef = record + 4;
+            option.longKey = readString(snapshot, stringRef, strings);
+            // The help text stays in the mapping until it is used, only its bounds are checked now.
+            int[] textRefs = new int[SnapshotText.FIELD_COUNT * 2];
+            for (int field = 0; field < SnapshotText.FIELD_COUNT; field++) {
+                int offset = snapshot.getInt(stringRef + 8 + field * 8);
+                int length = snapshot.getInt(stringRef + 12 + field * 8);
+                if (offset < 0 || length < 0 || offset + length > strings.length()) {
+                    throw new IndexOutOfBoundsException("A string is outside the string table.");
+                }
+                textRefs[field * 2] = offset;
+                textRefs[field * 2 + 1] = length;
+            }
+            option.snapshotText = new SnapshotText(strings, textRefs);
+            option.exclusiveGroup = readString(snapshot, stringRef + 40, strings);
+
+            String requires = readString(snapshot, stringRef + 48, strings);
+            option.requires = (requires.isEmpty()) ? new String[0] : requires.split("\0");
+
+            String textKey = readString(snapshot, stringRef + 56, strings);
+            String textFile = readString(snapshot, stringRef + 64, strings);
+            option.valuePattern = readString(snapshot, stringRef + 72, strings);
+            option.valueCharset = readString(snapshot, stringRef + 80, strings);
+
+            int numbers = stringRef + STRING_COUNT * 8;
+            option.valueRangeMin = snapshot.getLong(numbers);
+            option.valueRangeMax = snapshot.getLong(numbers + 8);
+            option.valueLengthMin = snapshot.getInt(numbers + 16);
+            option.valueLengthMax = snapshot.getInt(numbers + 20);
+
+            if (!textKey.isEmpty() && !textFile.isEmpty()) {
+                option.textKey = textKey;
+                option.textResource = textResources.computeIfAbsent(textFile, path -> TextResource.fromFile(
+                        snapshotFile.toAbsolutePath().resolveSibling(path).normalize()));
+            }
+            return option;
+        }
+
+        private static String readString(ByteBuffer snapshot, int stringRef, CharBuffer strings) {
+            int offset = snapshot.getInt(stringRef);
+            int length = snapshot.getInt(stringRef + 4);
+            return strings.subSequence(offset, offset + length).toString();
+        }
+
+    }
+
+    /**
+     * The help text of an option in the string table of a mapped {@link SpecSnapshot}, the offset and length of each
+     * field in the order they are in the option's record.
+     */
+    private static final class SnapshotText {
+
+        static final int SHORT_VALUE_EXAMPLE = 0;
+        static final int LONG_VALUE_EXAMPLE = 1;
+        static final int LIST_EXAMPLE = 2;
+        static final int DESCRIPTION = 3;
+        static final int FIELD_COUNT = 4;
+
+        private final CharBuffer strings;
+
+        private final int[] refs;
+
+        SnapshotText(CharBuffer strings, int[] refs) {
+            this.strings = strings;
+            this.refs = refs;
+        }
+
+        String get(int field) {
+            int offset = refs[field * 2];
+            return strings.subSequence(offset, offset + refs[field * 2 + 1]).toString();
+        }
+
+    }
+
+    /**
+     * Parsed config files shared by every {@link ArgsParser} in the process. An entry is reused while the modification
+     * time and size of the file are unchanged, so only a stat of the file is needed per parse.
+     */
+    private static final class ConfigFileCache {
+
+        private static final ConcurrentHashMap<Path, CachedConfigFile> CACHE = new ConcurrentHashMap<>();
+
+        static Map<String, String> load(Path configFile) {
+            Path path = configFile.toAbsolutePath().normalize();
+
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                CACHE.remove(path);
+                return Collections.emptyMap();
+            } catch (IOException e) {
+                throw new ArgumentOptionException("Unable to read the config file.\n"
+                        + "Path: " + path + ".\n"
+                        + "Reason: " + e);
+            }
+
+            CachedConfigFile cached = CACHE.get(path);
+            if (cached != null && cached.isCurrent(attributes)) {
+                return cached.values;
+            }
+
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException | IllegalArgumentException e) {
+                throw new ArgumentOptionException("Unable to read the config file.\n"
+                        + "Path: " + path + ".\n"
+                        + "Reason: " + e);
+            }
+
+            HashMap<String, String> values = new HashMap<>();
+            for (String name : properties.stringPropertyNames()) {
+                values.put(name, properties.getProperty(name));
+            }
+
+            cached = new CachedConfigFile(attributes, Collections.unmodifiableMap(values));
+            CACHE.put(path, cached);
+            return cached.values;
+        }
+
+    }
+
+    private static final class CachedConfigFile {
+
+        private final FileTime lastModified;
+
+        private final long size;
+
+        private final Map<String, String> values;
+
+        CachedConfigFile(BasicFileAttributes attributes, Map<String, String> values) {
+            this.lastModified = attributes.lastModifiedTime();
+            this.size = attributes.size();
+            this.values = values;
+        }
+
+        boolean isCurrent(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified.equals(attributes.lastModifiedTime());
+        }
+
+    }
+
+    /**
+     * A single snapshot of the environment variables taken the first time it is used.
+     */
+    private static final class EnvironmentSnapshot {
+
+        private static final Map<String, String> VALUES = System.getenv();
+
+    }
 
     /**
-     * The user should instantiate this class for each argument/option they would like there programme to accept. The instances are
-     * then passed to a constructor of {@link ArgsParser}. Alternately the user can instantiate instances of this class inside
-     * the fields of an enum implementing {@link EnumOptions} and then pass the {@code .class} of that enum to {@link
-     * ArgsParser#ArgsParser(ProgrammeDetails, Class)}, see the constructor for details. <br>
-     * <br>
-     * The user can configure: <br>
-     * <ul>
-     *     <li> The short key, {@link ArgOption#shortKey}. </li>
-     *     <li> The long key, {@link ArgOption#longKey}. </li>
-     *     <li> The format to use the argument, {@link ArgOption#usage}. </li>
-     *     <li> An example of how to use the short key, {@link ArgOption#shortValueExample}. </li>
-     *     <li> An example of how to use the long key, {@link ArgOption#longValueExample}. </li>
-     *     <li> An example of how to use the argument if it is a list, {@link ArgOption#listExample}. </li>
-     *     <li> A description of what the argument does and what it is used for, {@link ArgOption#description}. </li>
-     *     <li> Whether the argument should be passed on its own, {@link ArgOption#useOnItsOwn}. </li>
-     *     <li> Whether the argument can be used more than once, {@link ArgOption#repeatable}. </li>
-     * </ul>
-     *
-     * <br>
-     * There are several reversed keys to print the help, they are saved in {@link ArgsParser#HELP_FLAGS}. They print
-     * the help and stop excursion.
+     * A runtime exception class that is thrown when there is a problem with how the code writer has configured
+     * {@link  ArgsParser} using {@link ArgOption}s. (Mostly throw from a call to a constructor of {@link ArgsParser}.)
      */
-    public static class ArgOption {
+    public static class ArgumentOptionException extends RuntimeException {
 
-        /**
-         * The short key used for an argument. Should be a single char.
-         * <br>
-         * Example: 'w' -> '-w'
-         */
-        private char shortKey = '\0';
+        public ArgumentOptionException() {
+            super();
+        }
 
-        /**
-         * The long key used for an argument. Should be more than one char long.
-         * <br>
-         * {@code Example: 'Window-Name' -> '--Window-Name'}
-         */
-        private String longKey = "";
+        public ArgumentOptionException(String message) {
+            super(message);
+        }
 
-        /**
-         * The way to use the argument. See {@link E_Usage} for a description of the options.
-         */
-        private E_Usage usage = null;
+    }
 
-        /**
-         * An example usage of the short key that will be printed for the user if they use one of the help flags and: <br>
-         * 1) The short key has been set. <br>
-         * 2) {@link ArgOption#usage} is {@link E_Usage#KEY_VALUE}. <br>
-         * <br>
-         * {@code Example: '(1, 2, 3)' -> 'ColColorize ... -t (1,2,3) ...'}
-         */
-        private String shortValueExample = "{value}";
+    /**
+     * A runtime exception class that is thrown when there is a problem with either how the arguments are used in the
+     * command line or if there is an error during the parse of command line. (Mostly thrown by
+     * {@link ArgsParser#pareArgs(String[])}.)
+     */
+    public static class ParseArgumentException extends RuntimeException {
 
-        /**
-         * An example usage of the long key that will be printed for the user if they use one of the help flags and: <br>
-         * 1) The short key has been set. <br>
-         * 2) {@link ArgOption#usage} is {@link E_Usage#KEY_VALUE}. <br>
-         * <br>
-         * {@code Example: 'Bright Blue' -> 'ColColorize ... -Text-Colour="Bright Blue" ...'}
-         */
-        private String longValueExample = "{value}";
+        public ParseArgumentException() {
+            super();
+        }
 
-        /**
-         * An example usage of the space delimited list positional argument that will be printed for the user if they
-         * use one of the help flags.
-         * <br>
-         * {@code Example: 'Max, Maximus and Maximilian' -> 'BuildProfiles ... Max Maximus Maximilian'}
-         */
-        private String listExample = "{value} {value} {value}";
+        public ParseArgumentException(String message) {
+            this(message, true);
+        }
 
         /**
-         * A description of what the argument is used for in your programme.
+         * @param displayStackTrace See {@link ArgsParser#setParseErrorsDisplayStackTrace(boolean)}.
          */
-        private String description = "";
+        public ParseArgumentException(String message, boolean displayStackTrace) {
+            super(message + "\n" + "Use -h, --help or --Help for help.", null, false, displayStackTrace);
+        }
 
-        /**
-         * If true then the option should not be passed with any other option, if it is passed with another argument a
-         * {@link ParseArgumentException} is thrown. If false the user can pass this argument with others. An example
-         * argument with this set to true is {@code --help}.
-         */
-        private boolean useOnItsOwn = false;
+    }
 
-        /**
-         * If true the user can pass this argument more than once. If false then should the user passes this argument
-         * more than once an {@link ParseArgumentException} will be thrown.
-         */
-        private boolean repeatable = false;
+    /**
+     * A properties file of help text, see {@link ArgOption#setText(TextResource, String)}. The entries are named
+     * {@code <text key>.<field>}, where the field is {@code description}, {@code shortValueExample},
+     * {@code longValueExample} or {@code listExample}:
+     * <pre>{@code
+     * drinks.description = Use this to order a drink.
+     * drinks.shortValueExample = {drink_name}:{drink_size}:{quantity}
+     * }</pre>
+     * The file is read as UTF-8 the first time any text is asked for and then kept. Share one resource between the
+     * arguments using it, so it is only read once.
+     */
+    public static final class TextResource {
 
+        private final Path file;
 
+        private final Class<?> anchor;
 
-        /**
-         * Return the long key if the argument has one set if not the short key is returned.
-         */
-        public String getName() {
-            return (longKey.isEmpty()) ? String.valueOf(shortKey) : longKey;
+        private final String name;
+
+        private volatile Map<String, String> texts = null;
+
+        private TextResource(Path file, Class<?> anchor, String name) {
+            this.file = file;
+            this.anchor = anchor;
+            this.name = name;
         }
 
-        /**
-         * Return the short key, if not set will be {@code '\0'}. See {@link ArgsParser.ArgOption#shortKey}.
-         */
-        public char getShortKey() {
-            return shortKey;
+        public static TextResource fromFile(Path file) {
+            if (file == null) {
+                throw new NullPointerException("file cannot be null.");
+            }
+            return new TextResource(file, null, null);
         }
 
         /**
-         * Sets the short key. See {@link ArgsParser.ArgOption#shortKey}.
+         * A resource found by {@link Class#getResourceAsStream(String)} of {@code anchor}, e.g. one in the same jar.
          */
-        public ArgOption setShortKey(char shortKey) {
-            this.shortKey = shortKey;
-            return this;
+        public static TextResource fromResource(Class<?> anchor, String name) {
+            if (anchor == null || name == null) {
+                throw new NullPointerException("anchor and name cannot be null.");
+            }
+            return new TextResource(null, anchor, name);
         }
 
         /**
-         * Return the long key, if not set will be empty. See {@link ArgsParser.ArgOption#longKey}.
+         * @return The text of the entry, or null if there is none.
+         * @throws ArgumentOptionException If the resource can't be read.
          */
-        public String getLongKey() {
-            return longKey;
+        String get(String entry) {
+            Map<String, String> loaded = texts;
+            if (loaded == null) {
+                synchronized (this) {
+                    loaded = texts;
+                    if (loaded == null) {
+                        loaded = load();
+                        texts = loaded;
+                    }
+                }
+            }
+            return loaded.get(entry);
         }
 
-        /**
-         * Sets the long key. See {@link ArgsParser.ArgOption#longKey}.
-         *
-         * @throws ArgumentOptionException if the long key is not at least 2 chars long.
-         */
-        public ArgOption setLongKey(String longKey) {
-            if (longKey.length() < 2) {
-                throw new ArgumentOptionException("Long keys should be at least 2 charters long. \n");
+        private Map<String, String> load() {
+            Properties properties = new Properties();
+            try (InputStream in = (file != null) ? Files.newInputStream(file) : anchor.getResourceAsStream(name)) {
+                if (in == null) {
+                    throw new IOException("No such resource.");
+                }
+                properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            } catch (IOException | IllegalArgumentException e) {
+                throw new ArgumentOptionException("Unable to read the text resource.\n"
+                        + "Resource: " + this + ".\n"
+                        + "Reason: " + e);
             }
-            this.longKey = longKey;
-            return this;
+
+            HashMap<String, String> loaded = new HashMap<>();
+            for (String entry : properties.stringPropertyNames()) {
+                loaded.put(entry, properties.getProperty(entry));
+            }
+            return loaded;
         }
 
-        /**
-         * Returns the usage. See {@link ArgsParser.ArgOption#usage}.
-         */
-        public E_Usage getUsage() {
-            return usage;
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TextResource that = (TextResource) o;
+            return Objects.equals(file, that.file)
+                    && Objects.equals(anchor, that.anchor)
+                    && Objects.equals(name, that.name);
         }
 
-        /**
-         * Sets the way the argument is used. See {@link ArgsParser.ArgOption#usage}.
-         */
-        public ArgOption setUsage(E_Usage usage) {
-            this.usage = usage;
-            return this;
+        @Override
+        public int hashCode() {
+            return Objects.hash(file, anchor, name);
         }
 
-        /**
-         * Returns the example that will be used for the short key in the generated help text if the short key is set
-         * and the argument has usage, KEY_VALUE. <br>
-         * <br>
-         * See {@link ArgOption#shortValueExample}.
-         */
-        public String getShortValueExample() {
-            return shortValueExample;
+        @Override
+        public String toString() {
+            return (file != null) ? file.toString() : anchor.getName() + ":" + name;
         }
 
+    }
+
+    /**
+     * Receives the keys and values of a parse as they are recognised, see
+     * {@link ArgsParser#setParseListener(ParseListener)}. The token index is the index in the command line of the
+     * token holding the key or value, -1 for a value from a config file or an environment variable. The methods do
+     * nothing by default, so only the ones needed have to be implemented.
+     */
+    public interface ParseListener {
+
         /**
-         * Sets the example that will be used for the short key in the generated help text if the short key is set and
-         * the argument has usage, {@link E_Usage#KEY_VALUE}. <br>
-         * <br>
-         * {@code default = "{value}";} <br>
-         * <br>
-         * See {@link ArgOption#shortValueExample}.
+         * Called each time a {@link E_Usage#KEY} or {@link E_Usage#COUNT} argument is passed.
          */
-        public ArgOption setShortValueExample(String shortValueExample) {
-            this.shortValueExample = shortValueExample;
-            return this;
+        default void onKey(ArgOption option, int tokenIndex) {
         }
 
         /**
-         * Returns the example that will be used for the long key in the generated help text if the long key is set. <br>
-         * <br>
-         * See {@link ArgOption#longValueExample}.
+         * Called each time a {@link E_Usage#KEY_VALUE} argument is passed, with its value.
          */
-        public String getLongValueExample() {
-            return longValueExample;
+        default void onKeyValue(ArgOption option, String value, int tokenIndex) {
         }
 
         /**
-         * Sets the example that will be used for the long key in the generated help text if the long key is set and the
-         * argument has usage, {@link E_Usage#KEY_VALUE}. <br>
-         * <br>
-         * {@code default = "{value}";} <br>
-         * <br>
-         * See {@link ArgOption#longValueExample}.
+         * Called for each item of the {@link E_Usage#LIST} argument.
          */
-        public ArgOption setLongValueExample(String longValueExample) {
-            this.longValueExample = longValueExample;
-            return this;
+        default void onListValue(ArgOption option, String value, int tokenIndex) {
         }
 
-        /**
-         * Returns the example that will be included in the generated help if this argument has usage,
-         * {@link E_Usage#LIST}, a space delimited list. <br>
-         * <br>
-         * See {@link ArgOption#listExample}.
-         */
-        public String getListExample() {
-            return listExample;
+    }
+
+    /**
+     * The value checks of an {@link ArgOption}, compiled once for the parser and its forks. A check is a few compares
+     * and, with a pattern, one match.
+     */
+    private static final class ValueCheck {
+
+        private final ArgOption option;
+
+        private final Pattern pattern;
+
+        private final BitSet charset;
+
+        private final boolean checksRange;
+
+        ValueCheck(ArgOption option) {
+            this.option = option;
+            try {
+                pattern = (option.valuePattern.isEmpty()) ? null : Pattern.compile(option.valuePattern);
+            } catch (PatternSyntaxException e) {
+                throw new ArgumentOptionException("The value pattern of an argument is not a valid regular "
+                        + "expression.\n"
+                        + "Reason: " + e.getDescription() + ".\n"
+                        + "Argument option: " + option);
+            }
+
+            if (option.valueCharset.isEmpty()) {
+                charset = null;
+            } else {
+                charset = new BitSet();
+                option.valueCharset.codePoints().forEach(charset::set);
+            }
+            checksRange = option.valueRangeMin != Long.MIN_VALUE || option.valueRangeMax != Long.MAX_VALUE;
         }
 
         /**
-         * Set the example that will be included in the generated help if this argument has usage, {@link E_Usage#LIST},
-         * a space delimited list. <br>
-         * <br>
-         * {@code default = "{value} {value} {value}";} <br>
-         * <br>
-         * See {@link ArgOption#listExample}.
+         * @return What is wrong with {@code value}, or null if it passes.
          */
-        public ArgOption setListExample(String listExample) {
-            this.listExample = listExample;
-            return this;
+        String problem(String value) {
+            int length = value.length();
+            if (length < option.valueLengthMin || length > option.valueLengthMax) {
+                return "It has " + length + " charters, it must have from " + option.valueLengthMin + " to "
+                        + option.valueLengthMax;
+            }
+
+            if (charset != null) {
+                for (int i = 0; i < length; ) {
+                    int codePoint = value.codePointAt(i);
+                    if (!charset.get(codePoint)) {
+                        return "The charter '" + new String(Character.toChars(codePoint)) + "' is not one of \""
+                                + option.valueCharset + "\"";
+                    }
+                    i += Character.charCount(codePoint);
+                }
+            }
+
+            if (checksRange) {
+                long number;
+                try {
+                    number = Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    return "It is not a whole number";
+                }
+                if (number < option.valueRangeMin || number > option.valueRangeMax) {
+                    return "It is not from " + option.valueRangeMin + " to " + option.valueRangeMax;
+                }
+            }
+
+            if (pattern != null && !pattern.matcher(value).matches()) {
+                return "It does not match the pattern " + option.valuePattern;
+            }
+            return null;
         }
 
+    }
+
+    /**
+     * The {@code name=value} pairs of an {@link E_Usage#PROPERTIES} argument, in the order the names were first passed.
+     * The names and values are kept in two arrays, with no object per pair, and found through an open-addressed table
+     * of their positions, so a command line with thousands of pairs is split once and looked up with a hash and
+     * usually one compare.
+     */
+    public static final class PropertyMap {
+
+        private String[] names = new String[8];
+
+        private String[] values = new String[8];
+
+        private int size = 0;
+
         /**
-         * Returns the description that will be included in the generated help for what this argument is used for and
-         * what it does.
+         * The position in {@link PropertyMap#names} plus one of each name, at its hash, 0 for an empty slot. Linearly
+         * probed and kept at most half full.
          */
-        public String getDescription() {
-            return description;
+        private int[] slots = new int[16];
+
+        private PropertyMap() {
         }
 
-        /**
-         * Set the description that will be included in the generated help for what this argument is used for and what
-         * it does. <br>
-         * <br>
-         * {@code default = "";} <br>
-         * <br>
-         * See {@link ArgOption#description}.
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public boolean containsName(String name) {
+            return indexOf(name) >= 0;
+        }
+
+        /**
+         * @return The value of {@code name}, or null if it was not passed.
          */
-        public ArgOption setDescription(String description) {
-            this.description = description;
-            return this;
+        public String get(String name) {
+            int index = indexOf(name);
+            return (index < 0) ? null : values[index];
         }
 
         /**
-         * Returns the boolean {@link ArgOption#useOnItsOwn}.
+         * @return The value of {@code name}, or {@code absent} if it was not passed.
          */
-        public boolean isUseOnItsOwn() {
-            return useOnItsOwn;
+        public String get(String name, String absent) {
+            int index = indexOf(name);
+            return (index < 0) ? absent : values[index];
         }
 
         /**
-         * If this is true then the argument should not be passed with another
-         * argument, if it is passed with any other arguments a {@link ParseArgumentException} is thrown. If it is set
-         * to false the user can pass this argument with others. An example argument with this set to true is
-         * {@code --help}. <br>
-         * <br>
-         * {@code default = false;} <br>
-         * <br>
-         * Sets {@link ArgOption#useOnItsOwn}.
+         * @return The name at {@code index}, in the order the names were first passed.
          */
-        public ArgOption setUseOnItsOwn(boolean useOnItsOwn) {
-            this.useOnItsOwn = useOnItsOwn;
-            return this;
+        public String getName(int index) {
+            checkIndex(index);
+            return names[index];
         }
 
         /**
-         * Returns the boolean {@link ArgOption#repeatable}.
+         * @return The value of the name at {@code index}.
          */
-        public boolean isRepeatable() {
-            return repeatable;
+        public String getValue(int index) {
+            checkIndex(index);
+            return values[index];
         }
 
         /**
-         * If this is true the user can pass this argument more than once. If this is
-         * set to false then if the user passes this argument more than once a {@link ParseArgumentException} will be
-         * thrown. <br>
-         * <br>
-         * {@code default = false;} <br>
-         * <br>
-         * Sets {@link ArgOption#repeatable}.
+         * @return A copy of the pairs as a map, in the order the names were first passed.
          */
-        public ArgOption setRepeatable(boolean repeatable) {
-            this.repeatable = repeatable;
-            return this;
+        public LinkedHashMap<String, String> toMap() {
+            LinkedHashMap<String, String> map = new LinkedHashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                map.put(names[i], values[i]);
+            }
+            return map;
         }
 
+        private void checkIndex(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+        }
 
-        
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            ArgOption argOption = (ArgOption) o;
-            return shortKey == argOption.shortKey 
-                    && useOnItsOwn == argOption.useOnItsOwn 
-                    && repeatable == argOption.repeatable 
-                    && Objects.equals(longKey, argOption.longKey) 
-                    && usage == argOption.usage 
-                    && Objects.equals(shortValueExample, argOption.shortValueExample) 
-                    && Objects.equals(longValueExample, argOption.longValueExample) 
-                    && Objects.equals(listExample, argOption.listExample) 
-                    && Objects.equals(description, argOption.description);
+        private ArrayList<String> pairs() {
+            ArrayList<String> pairs = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                pairs.add(names[i] + "=" + values[i]);
+            }
+            return pairs;
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(
-                    shortKey, 
-                    longKey, 
-                    usage,
-                    shortValueExample,
-                    longValueExample,
-                    listExample,
-                    description,
-                    useOnItsOwn,
-                    repeatable
-            );
+        private int indexOf(String name) {
+            int mask = slots.length - 1;
+            for (int slot = spread(name.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+                int entry = slots[slot];
+                if (entry == 0) {
+                    return -1;
+                }
+                if (names[entry - 1].equals(name)) {
+                    return entry - 1;
+                }
+            }
+        }
+
+        /**
+         * Adds a name that is not in the map.
+         */
+        private void add(String name, String value) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            names[size] = name;
+            values[size] = value;
+            size++;
+
+            if (size * 2 > slots.length) {
+                slots = new int[slots.length * 2];
+                for (int i = 0; i < size; i++) {
+                    place(i);
+                }
+            } else {
+                place(size - 1);
+            }
+        }
+
+        private void place(int index) {
+            int mask = slots.length - 1;
+            int slot = spread(names[index].hashCode()) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
         }
 
         @Override
         public String toString() {
-            return "ArgOption{" +
-                    "shortKey='" + shortKey + "', " +
-                    "longKey=\"" + longKey + "\", " +
-                    "usage=" + usage + ", " +
-                    "shortValueExample=\"" + shortValueExample + "\", " +
-                    "longKeyValueExample=\"" + longValueExample + "\", " +
-                    "listExample=\"" + listExample + "\", " +
-                    "description=\"" + description + "\"" +
-                    "}";
+            return toMap().toString();
         }
 
     }
 
     /**
-     * This class holds any values passed by the user, {@link ArgReceived#values}, for a given argument,
-     * {@link ArgReceived#option}.
+     * Receives items from a {@link ListPublisher}. The methods are those of {@code java.util.concurrent.Flow.Subscriber}
+     * and follow its rules: {@link ListSubscriber#onSubscribe(ListSubscription)} is called first, then
+     * {@link ListSubscriber#onNext(String)} at most as many times as requested, then
+     * {@link ListSubscriber#onComplete()} or {@link ListSubscriber#onError(Throwable)} once, unless cancelled. The calls
+     * are never concurrent, but may be made by any thread that calls {@link ListSubscription#request(long)}.
      */
-    public static class ArgReceived {
+    public interface ListSubscriber {
+
+        void onSubscribe(ListSubscription subscription);
+
+        void onNext(String item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+
+    }
+
+    /**
+     * The link between a {@link ListPublisher} and a {@link ListSubscriber}, as
+     * {@code java.util.concurrent.Flow.Subscription}.
+     */
+    public interface ListSubscription {
 
         /**
-         * The argument used to pass {@link ArgReceived#values}.
+         * Adds {@code n} to the number of items the subscriber is ready for. The items are read and handed over on the
+         * calling thread, unless another thread is already doing so, then that thread hands them over too. A count
+         * that is not positive ends the subscription with an {@link IllegalArgumentException}.
          */
-        private final ArgOption option;
+        void request(long n);
 
         /**
-         * The results array for {@link ArgReceived#option}. This will be empty if the argument is not passed. The size
-         * of this array is the number of times the argument is passed.
+         * Stops the items, the source is closed. Items may still arrive for a request that is being handed over.
          */
-        private final ArrayList<String> values = new ArrayList<>();
+        void cancel();
 
+    }
 
+    /**
+     * Publishes items, the values of an argument or the lines of an argument file, to a {@link ListSubscriber} with
+     * back-pressure: an item is only read from its source once the subscriber has requested it, so a list of
+     * millions of paths given to a pool of workers holds only the items being worked on and reading overlaps the
+     * work. It follows the rules of {@code java.util.concurrent.Flow.Publisher}, which Java 8 doesn't have, so on a
+     * newer JDK it adapts to one by wrapping the subscriber. <br>
+     * <br>
+     * The values of {@link ArgReceived#publishValues()} and the lines of {@link ListPublisher#ofLines(Path)} can be
+     * subscribed to any number of times, each subscriber reads them from the start. The lines of
+     * {@link ListPublisher#ofLines(InputStream)}, e.g. stdin, can only be read once, so a second subscriber gets
+     * {@link ListSubscriber#onError(Throwable)} with an {@link IllegalStateException}.
+     */
+    public static final class ListPublisher {
 
-        public ArgReceived(ArgOption option) {
-            this.option = option;
-        }
+        private final Supplier<ListSource> sources;
 
+        private final boolean repeatable;
 
+        private final AtomicBoolean subscribed = new AtomicBoolean();
 
-        private void addValue(String value) {
-            values.add(value);
+        private ListPublisher(Supplier<ListSource> sources, boolean repeatable) {
+            this.sources = sources;
+            this.repeatable = repeatable;
         }
 
-
-
         /**
-         * Returns the argument that the results were passed with.
+         * Publishes the lines of a UTF-8 file, one item per line. The file is opened when a subscriber first requests
+         * an item.
          */
-        public ArgOption getOption() {
-            return option;
+        public static ListPublisher ofLines(Path file) {
+            Objects.requireNonNull(file, "file");
+            return new ListPublisher(() -> new LineSource(() -> Files.newInputStream(file)), true);
         }
 
         /**
-         * @return A copy of the list of values passed with the associated {@link ArgOption}. If the argument is a
-         * key type then the string will be empty.
+         * Publishes the lines of a UTF-8 stream, one item per line. The stream is closed once the lines end, there is
+         * an error or the subscription is cancelled.
          */
-        public ArrayList<String> getValues() {
-            return new ArrayList<>(values);
+        public static ListPublisher ofLines(InputStream in) {
+            Objects.requireNonNull(in, "in");
+            return new ListPublisher(() -> new LineSource(() -> in), false);
         }
 
+        public void subscribe(ListSubscriber subscriber) {
+            Objects.requireNonNull(subscriber, "subscriber");
+            if (!repeatable && !subscribed.compareAndSet(false, true)) {
+                subscriber.onSubscribe(new ListSubscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("The items can only be published to one subscriber."));
+                return;
+            }
+
+            PublishedSubscription subscription = new PublishedSubscription(subscriber, sources.get());
+            subscriber.onSubscribe(subscription);
+        }
+
+    }
+
+    /**
+     * A source of items, read by one thread at a time.
+     */
+    private interface ListSource {
+
         /**
-         * If the associated {@link ArgOption} was not used {@code null} is returned. <br>
-         * <br>
-         * If the argument is used at least once a string is returned. The string returned is based on the usage of the
-         * argument. <br>
-         * <ul>
-         *     <li>{@link E_Usage#KEY}: an empty string.</li>
-         *     <li>{@link E_Usage#KEY_VALUE}: the string passed with the first instance of the argument in the command
-         *     passed.</li>
-         *     <li>{@link E_Usage#LIST}: the first item in the list.</li>
-         * </ul>
+         * @return The next item, or null at the end.
          */
-        public String getValue() {
-            return (values.isEmpty()) ? null : values.get(0);
+        String next() throws IOException;
+
+        default void close() throws IOException {
         }
 
+    }
+
+    private interface StreamOpener {
 
+        InputStream open() throws IOException;
+
+    }
+
+    private static final class LineSource implements ListSource {
+
+        private final StreamOpener opener;
+
+        private BufferedReader reader = null;
+
+        LineSource(StreamOpener opener) {
+            this.opener = opener;
+        }
 
         @Override
-        public String toString() {
-            return "ArgReceived{Values=\"" + values + "\", Option=" + option + "}";
+        public String next() throws IOException {
+            if (reader == null) {
+                reader = new BufferedReader(new InputStreamReader(opener.open(), StandardCharsets.UTF_8));
+            }
+            return reader.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (reader != null) {
+                reader.close();
+            }
         }
 
     }
 
     /**
-     * This class holds details about the programme and is mainly used by {@link HelpBuilder}.
+     * Hands over items while there is demand. The thread that raises {@link PublishedSubscription#work} from zero
+     * does the handing over, a request or cancel from another thread meanwhile only raises it again, so the
+     * subscriber is never called concurrently and {@link ListSubscriber#onNext(String)} can request more without
+     * recursing.
      */
-    public static class ProgrammeDetails {
+    private static final class PublishedSubscription implements ListSubscription {
 
-        /**
-         * This is the mnemonic used to call the programme. This field must be set by the user.
-         */
-        private String commandName = "";
+        private final ListSubscriber subscriber;
 
-        /**
-         * This field is used in the help text. If this field is not set by the user commandName will be used instead.
-         */
-        private String programmeName = "";
+        private final ListSource source;
 
-        /**
-         * This is a description of the programme that will is used in the help text.
-         */
-        private String programmeDescription = "";
+        private final AtomicLong demand = new AtomicLong();
 
-        /**
-         * The author or authors of the programme that is used in the help text.
-         */
-        private String author = "";
+        private final AtomicInteger work = new AtomicInteger();
 
-        /**
-         * The version of the programme that is used in the help text.
-         */
-        private String version = "";
+        private volatile boolean cancelled = false;
 
+        private volatile Throwable badRequest = null;
 
+        private boolean done = false;
 
-        /**
-         * Returns the command mnemonic used in the help text. See {@link ProgrammeDetails#commandName}.
-         */
-        public String getCommandName() {
-            return commandName;
+        PublishedSubscription(ListSubscriber subscriber, ListSource source) {
+            this.subscriber = subscriber;
+            this.source = source;
         }
 
-        /**
-         * Sets the command mnemonic used to call the programme. This is used in the help text. See
-         * {@link ProgrammeDetails#commandName}.
-         */
-        public ProgrammeDetails setCommandName(String commandName) {
-            this.commandName = commandName;
-            return this;
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                badRequest = new IllegalArgumentException("A request must be for a positive number of items.\n"
+                        + "Requested: " + n + ".");
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> (current + added < 0) ? Long.MAX_VALUE : current + added);
+            }
+            drain();
         }
 
-        /**
-         * Get the programme name. See {@link ProgrammeDetails#programmeName}.
-         */
-        public String getProgrammeName() {
-            return programmeName;
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
         }
 
-        /**
-         * Sets the programme name, the proper name of the programme e.g. Google Chrome, used in the help text. If this
-         * is not set {@link ProgrammeDetails#commandName} is used instead. See {@link ProgrammeDetails#programmeName}.
-         */
-        public ProgrammeDetails setProgrammeName(String programmeName) {
-            this.programmeName = programmeName;
-            return this;
-        }
+        private void drain() {
+            if (work.getAndIncrement() != 0) {
+                return;
+            }
 
-        /**
-         * Gets the description of the programme that is used in the help text. See
-         * {@link ProgrammeDetails#programmeDescription}.
-         */
-        public String getProgrammeDescription() {
-            return programmeDescription;
+            int missed = 1;
+            do {
+                while (!done) {
+                    if (cancelled) {
+                        finish();
+                        break;
+                    }
+                    if (badRequest != null) {
+                        finish();
+                        subscriber.onError(badRequest);
+                        break;
+                    }
+                    if (demand.get() == 0) {
+                        break;
+                    }
+
+                    String item;
+                    try {
+                        item = source.next();
+                    } catch (IOException | RuntimeException e) {
+                        finish();
+                        subscriber.onError(e);
+                        break;
+                    }
+
+                    if (item == null) {
+                        finish();
+                        subscriber.onComplete();
+                        break;
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    subscriber.onNext(item);
+                }
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
         }
 
-        /**
-         * Sets the description of the programme that is used in the help text. See
-         * {@link ProgrammeDetails#programmeDescription}.
-         */
-        public ProgrammeDetails setProgrammeDescription(String programmeDescription) {
-            this.programmeDescription = programmeDescription;
-            return this;
+        private void finish() {
+            done = true;
+            try {
+                source.close();
+            } catch (IOException ignored) {
+                // The items are done with, a failed close changes nothing for the subscriber.
+            }
         }
 
-        /**
-         * Get the author or authors of the programme that are printed in the help text. See
-         * {@link ProgrammeDetails#author}.
-         */
-        public String getAuthor() {
-            return author;
+    }
+
+    /**
+     * The state of a parse after some tokens of a command line, see {@link ArgsParser#startIncrementalParse()}. It is
+     * immutable: {@link IncrementalParse#accept(String)} returns the state after one more token and leaves this one
+     * as it was, so keeping a state to go back to, e.g. on a backspace, costs nothing. The tokens are read as
+     * {@link ArgsParser#pareArgs(String[])} reads them, but no values are kept, only which options were passed. <br>
+     * <br>
+     * A token that {@link ArgsParser#pareArgs(String[])} would throw for is reported by
+     * {@link IncrementalParse#getProblem()} of the state after it, which otherwise carries on as the parse would
+     * recover. Values from config files and environment variables are not considered.
+     */
+    public static final class IncrementalParse {
+
+        private final ArgsParser parser;
+
+        private final long[] passedMask;
+
+        private final ArgOption valueOwner;
+
+        private final boolean listStarted;
+
+        private final boolean optionsEnded;
+
+        private final int tokenCount;
+
+        private final E_Diagnostic problem;
+
+        private IncrementalParse(ArgsParser parser) {
+            this.parser = parser;
+            passedMask = new long[parser.maskWords];
+            valueOwner = null;
+            listStarted = false;
+            optionsEnded = false;
+            tokenCount = 0;
+            problem = null;
         }
 
-        /**
-         * Sets the author or authors of the programme that are printed in the help text. See
-         * {@link ProgrammeDetails#author}.
-         */
-        public ProgrammeDetails setAuthor(String author) {
-            this.author = author;
-            return this;
+        private IncrementalParse(IncrementalParse previous, long[] passedMask, ArgOption valueOwner,
+                                 boolean listStarted, boolean optionsEnded, E_Diagnostic problem) {
+            parser = previous.parser;
+            this.passedMask = passedMask;
+            this.valueOwner = valueOwner;
+            this.listStarted = listStarted;
+            this.optionsEnded = optionsEnded;
+            tokenCount = previous.tokenCount + 1;
+            this.problem = problem;
         }
 
         /**
-         * Get the version that is printed in the help text. See {@link ProgrammeDetails#version}.
+         * @return The state after {@code token}.
          */
-        public String getVersion() {
-            return version;
+        public IncrementalParse accept(String token) {
+            ArgOption listOption = parser.optionListArg;
+            if (optionsEnded) {
+                return (listOption == null) ? next(passedMask, null, false, true, null)
+                        : next(withPassed(listOption), null, true, true, null);
+            }
+
+            if (valueOwner != null) {
+                if (token.startsWith("-")) {
+                    // Recovers as the parse does, by reading it as the key it looks like.
+                    return acceptKey(token, E_Diagnostic.MISSING_VALUE);
+                }
+                return next(withPassed(valueOwner), null, false, false, null);
+            }
+
+            if (token.equals(END_OF_OPTIONS)) {
+                return next(passedMask, null, listStarted, true, null);
+            }
+
+            if (!token.startsWith("-")) {
+                if (listOption == null) {
+                    return next(passedMask, null, false, false, E_Diagnostic.UNEXPECTED_VALUE);
+                }
+                return next(withPassed(listOption), null, true, false, null);
+            }
+
+            return acceptKey(token, (listStarted) ? E_Diagnostic.MISSING_VALUE : null);
         }
 
         /**
-         * Sets the version that is printed in the help text. See {@link ProgrammeDetails#version}.
+         * @param reported The problem already found with {@code token}, it is reported before any with the key.
          */
-        public ProgrammeDetails setVersion(String version) {
-            this.version = version;
-            return this;
-        }
+        private IncrementalParse acceptKey(String token, E_Diagnostic reported) {
+            boolean isLongKey = token.startsWith("--");
+            int start = (isLongKey) ? 2 : 1;
+
+            if (!isLongKey && token.length() > 2) {
+                ArgOption joined = parser.findJoinedProperties(token.substring(1));
+                if (joined != null) {
+                    return next(withPassed(joined), null, false, false, reported);
+                }
+            }
+            int equals = token.indexOf('=', start);
+            int end = (equals < 0) ? token.length() : equals;
 
+            int index = parser.keyIndex.indexOf(token, start, end);
+            if (index < 0) {
+                return next(passedMask, null, false, false, first(reported, E_Diagnostic.UNKNOWN_KEY));
+            }
 
+            ArgOption option = parser.argOptions.get(index);
+            boolean isLongKeyWithOneDash = !isLongKey && end - start == option.longKey.length()
+                    && token.startsWith(option.longKey, start);
+            if (isLongKeyWithOneDash || isLongKey && end - start == 1 && token.charAt(start) == option.shortKey) {
+                return next(passedMask, null, false, false, first(reported, E_Diagnostic.WRONG_DASH_COUNT));
+            }
 
-        @Override
-        public String toString() {
-            return "ProgrammeDetails{" +
-                    "commandName='" + commandName + "', " +
-                    "programmeName=\"" + programmeName + "\", " +
-                    "programmeDescription=" + programmeDescription + ", " +
-                    "author=\"" + author + "\", " +
-                    "version=\"" + version + "\"" +
-                    "}";
-        }
+            E_Diagnostic found = null;
+            if (isPassed(index) && !option.allowsRepeats()) {
+                found = E_Diagnostic.REPEATED_OPTION;
+            }
 
-    }
+            // The option is only passed once its value is, as in ArgsParser#parseKey.
+            switch (parser.keyActions[index * 2 + ((isLongKey) ? 1 : 0)]) {
+                case K_VALUE_SHORT:
+                    if (equals < 0) {
+                        return next(passedMask, option, false, false, first(reported, found));
+                    }
+                    found = first(found, E_Diagnostic.JOINED_SHORT_KEY_VALUE);
+                    break;
+
+                case K_VALUE_LONG:
+                    if (equals < 0) {
+                        return next(passedMask, null, false, false,
+                                first(reported, first(found, E_Diagnostic.MISSING_VALUE)));
+                    }
+                    break;
+
+                default:
+                    if (equals >= 0) {
+                        found = first(found, E_Diagnostic.UNEXPECTED_KEY_VALUE);
+                    }
+            }
 
-    /**
-     * This class builds the help/info message displayed if any of the arguments in {@link ArgsParser#HELP_FLAGS} are
-     * passed.
-     */
-    private class HelpBuilder {
+            long[] mask = passedMask;
+            if (!isPassed(index)) {
+                mask = passedMask.clone();
+                setBit(mask, index);
+            }
+            return next(mask, null, false, false, first(reported, found));
+        }
 
-        public StringBuilder stringBuilder = new StringBuilder();
+        private static E_Diagnostic first(E_Diagnostic reported, E_Diagnostic found) {
+            return (reported != null) ? reported : found;
+        }
 
-        // All measurements are mono-font cells.
-        private int infoWidth;
+        private IncrementalParse next(long[] mask, ArgOption owner, boolean list, boolean ended,
+                                      E_Diagnostic found) {
+            return new IncrementalParse(this, mask, owner, list, ended, found);
+        }
 
-        /**
-         * Maximum number or total number of monospaced charters per line.
-         */
-        private static final int LINE_WIDTH = 100;
+        private long[] withPassed(ArgOption option) {
+            int index = parser.optionIndexes.get(option);
+            if (isPassed(index)) {
+                return passedMask;
+            }
+            long[] mask = passedMask.clone();
+            setBit(mask, index);
+            return mask;
+        }
 
-        /**
-         * Minimum gap between the left and the right side of the name lines in the name box.
-         */
-        private static final int NAME_MARGIN = 5;
+        private boolean isPassed(int index) {
+            return (passedMask[index >>> 6] & (1L << index)) != 0;
+        }
 
         /**
-         * The starting width of the key column before it is expanded to fit longer long keys.
+         * @return The number of tokens accepted.
          */
-        private static final int BASE_KEY_COL_WIDTH = 40;
+        public int getTokenCount() {
+            return tokenCount;
+        }
 
         /**
-         * The maximum extra space that can be used for longer long keys. If the width of key column exceeds the sum of
-         * this and {@link HelpBuilder#BASE_KEY_COL_WIDTH} an error is thrown.
+         * @return What was wrong with the last token, or null.
          */
-        private static final int EXTRA_KEY_SPACE = 10;
+        public E_Diagnostic getProblem() {
+            return problem;
+        }
 
         /**
-         * The margin on the left-hand side of the key column.
+         * @return True if the next token must be the value of {@link IncrementalParse#getValueOwner()}.
          */
-        private static final int LEFT_MARGIN_WIDTH = 2;
+        public boolean isExpectingValue() {
+            return valueOwner != null;
+        }
 
         /**
-         * The minimum gap between the key column and the argument information.
+         * @return The {@link E_Usage#KEY_VALUE} argument whose value must come next, or null.
          */
-        private static final int KEY_DESCRIPTION_GAP = 3;
+        public ArgOption getValueOwner() {
+            return valueOwner;
+        }
 
         /**
-         * Default description for the special help argument.
+         * @return True once an item of the {@link E_Usage#LIST} argument was passed, after that only items can come.
          */
-        private static final String HELP_FLAG_DESCRIPTION = "Use to print this help.";
+        public boolean isListStarted() {
+            return listStarted;
+        }
 
         /**
-         * The default "key" used in the key column for an argument with usage {@link E_Usage#LIST}.
+         * @return True once {@code --} was passed.
          */
-        private static final String LIST_USAGE_KEY = "[SPACE DELIMITED LIST]";
+        public boolean isOptionsEnded() {
+            return optionsEnded;
+        }
 
         /**
-         * The usage text for an argument with usage {@link E_Usage#LIST}.
+         * @return True if {@code option} was passed.
          */
-        private static final String LIST_USAGE = "List, a space delimited list of values at the end of the command.";
+        public boolean isPassed(ArgOption option) {
+            Integer index = parser.optionIndexes.get(option);
+            return index != null && isPassed(index);
+        }
 
         /**
-         * The prefix that comes before each example block. See {@link ArgOption#shortValueExample} and
-         * {@link ArgOption#longValueExample}.
+         * @return True if a key of {@code option} can be the next token without a problem.
          */
-        private static final String EXAMPLE_PREFIX = "Example: ";
-
-
-
-        public String buildHelp() {
-            buildNameBox();
-            buildProgrammeDescription();
-            buildProgrammeDetail();
-            buildOptionHelpBlocks();
-            stringBuilder.append("\n");
-            return stringBuilder.toString();
+        public boolean isAllowed(ArgOption option) {
+            Integer index = parser.optionIndexes.get(option);
+            return index != null && isAllowed(index);
         }
 
-        private void buildNameBox() {
-            int nameSpace = LINE_WIDTH - (NAME_MARGIN * 2);
-
-            String programmeName = (programmeDetails.programmeName.isEmpty())
-                    ? programmeDetails.commandName : programmeDetails.programmeName;
-
-            ArrayList<String> nameLines = lineWrapString(programmeName, nameSpace);
-
-            boxProgrammeNameLines(nameLines);
-
-            addLinesToHelpText(nameLines);
-        }
-
-        private void boxProgrammeNameLines(ArrayList<String> nameLines) {
-            for (int i = 0; i < nameLines.size(); i++) {
-                String line = nameLines.get(i);
-
-                int leftSpace = (LINE_WIDTH - line.length()) / 2;
-                int rightSpace = LINE_WIDTH - (leftSpace + line.length());
-
-                String newLine = dupeString("=", leftSpace - 1) + " " + line
-                        + " " + dupeString("=", rightSpace - 1);
-
-                nameLines.set(i, newLine);
+        private boolean isAllowed(int index) {
+            ArgOption option = parser.argOptions.get(index);
+            if (valueOwner != null || listStarted || optionsEnded || option.usage == E_Usage.LIST) {
+                return false;
+            }
+            if (isPassed(index) && !option.allowsRepeats()) {
+                return false;
             }
 
-            nameLines.add(0, dupeString("=", LINE_WIDTH));
-            nameLines.add(dupeString("=", LINE_WIDTH));
-        }
-
-        private void buildProgrammeDescription() {
-            String description = programmeDetails.programmeDescription;
-
-            if (description.isEmpty()) {
-                return;
+            boolean anyPassed = false;
+            for (int word = 0; word < passedMask.length; word++) {
+                if ((passedMask[word] & parser.useOnItsOwnMask[word]) != 0) {
+                    return false;
+                }
+                anyPassed |= passedMask[word] != 0;
+            }
+            if (option.useOnItsOwn && anyPassed) {
+                return false;
             }
 
-            addLinesToHelpText(lineWrapString(description, LINE_WIDTH));
+            if (!option.exclusiveGroup.isEmpty()) {
+                long[] group = parser.exclusiveGroupMasks.get(parser.exclusiveGroupNames.indexOf(option.exclusiveGroup));
+                for (int word = 0; word < passedMask.length; word++) {
+                    long others = group[word] & passedMask[word];
+                    if (word == index >>> 6) {
+                        others &= ~(1L << index);
+                    }
+                    if (others != 0) {
+                        return false;
+                    }
+                }
+            }
+            return true;
         }
 
-        private void buildProgrammeDetail() {
-            String author = programmeDetails.author;
-            String version = programmeDetails.version;
-
-            if (!author.isEmpty()) {
-                author = "By " + author;
-                author += (version.isEmpty()) ? "." : ", ";
+        /**
+         * Returns the keys, with their dashes, that start with {@code prefix} and can be the next token without a
+         * problem, in sorted order. E.g. {@code "--"} gives the allowed long keys and {@code ""} every allowed key.
+         * The keys are found in a sorted index of every key, so only the keys with the prefix are looked at.
+         */
+        public List<String> getAllowedKeys(String prefix) {
+            if (valueOwner != null || listStarted || optionsEnded) {
+                return Collections.emptyList();
             }
 
-            if (!version.isEmpty()) {
-                String v = (author.isEmpty()) ? "Version " : "version ";
-                version = v + version + ".";
+            KeyPrefixIndex index = parser.keyPrefixIndex();
+            ArrayList<String> allowed = new ArrayList<>();
+            for (int i = index.first(prefix); i < index.keys.length && index.keys[i].startsWith(prefix); i++) {
+                if (isAllowed(index.options[i])) {
+                    allowed.add(index.keys[i]);
+                }
             }
+            return allowed;
+        }
 
-            String details = author + version;
+        /**
+         * @return True if a list item can be the next token.
+         */
+        public boolean isListItemAllowed() {
+            return parser.optionListArg != null && valueOwner == null;
+        }
 
-            if (details.isEmpty()) {
-                return;
+        /**
+         * @return True if the command line could end here: no value is missing and every required argument was
+         * passed.
+         */
+        public boolean isComplete() {
+            if (valueOwner != null) {
+                return false;
+            }
+            for (int word = 0; word < passedMask.length; word++) {
+                if ((parser.requiredMask[word] & ~passedMask[word]) != 0) {
+                    return false;
+                }
             }
+            return true;
+        }
 
-            addLinesToHelpText(lineWrapString(details, LINE_WIDTH));
+        @Override
+        public String toString() {
+            return "IncrementalParse{" +
+                    "tokenCount=" + tokenCount +
+                    ", valueOwner=" + valueOwner +
+                    ", listStarted=" + listStarted +
+                    ", optionsEnded=" + optionsEnded +
+                    ", problem=" + problem +
+                    '}';
         }
 
-        private void buildOptionHelpBlocks() {
-            // The fist option to be printed is help.
+    }
 
-            handBuildHelpOptionBlock();
+    /**
+     * Every key with its dashes, e.g. {@code -v} and {@code --Verbose}, in sorted order with the position of its
+     * option, so the keys with a prefix are a range found by a binary search.
+     */
+    private static final class KeyPrefixIndex {
 
-            // Note(Max): Have a temp variable so access to the parents classes private members isn't needed.
-            // We pull listOption out so that we can make sure it is the last option printed in the help and has one
-            // more new line.
-            ArgOption listOption = null;
+        final String[] keys;
 
-            for (ArgOption option : argOptions) {
-                if (option.usage == E_Usage.LIST) {
-                    listOption = option;
-                    continue;
-                }
+        final int[] options;
 
-                buildOptionBlock(option);
+        KeyPrefixIndex(List<ArgOption> argOptions) {
+            ArrayList<String> found = new ArrayList<>();
+            HashMap<String, Integer> optionOf = new HashMap<>();
+            for (int i = 0; i < argOptions.size(); i++) {
+                ArgOption option = argOptions.get(i);
+                if (option.shortKey != '\0') {
+                    found.add("-" + option.shortKey);
+                    optionOf.put("-" + option.shortKey, i);
+                }
+                if (!option.longKey.isEmpty()) {
+                    found.add("--" + option.longKey);
+                    optionOf.put("--" + option.longKey, i);
+                }
             }
 
-            if (listOption != null) {
-                stringBuilder.append("\n");
-                buildOptionBlock(listOption);
+            keys = found.toArray(new String[0]);
+            Arrays.sort(keys);
+            options = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                options[i] = optionOf.get(keys[i]);
             }
         }
 
-        private void handBuildHelpOptionBlock() {
-            stringBuilder.append("\n");
-
-            StringBuilder keyList = new StringBuilder();
-
-            for (String helpFlag : HELP_FLAGS) {
-                keyList.append(helpFlag).append(", ");
+        /**
+         * @return The position of the first key not less than {@code prefix}.
+         */
+        int first(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (keys[middle].compareTo(prefix) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
             }
+            return low;
+        }
 
-            keyList.delete(keyList.length() - 2, keyList.length() - 1);
-            String keyLine = dupeString(" ", LEFT_MARGIN_WIDTH) + keyList;
-
-
-            infoWidth = calcInfoWidth(keyLine);
-            ArrayList<String> description = lineWrapString(HELP_FLAG_DESCRIPTION, infoWidth);
-
-            ArrayList<String> example = lineWrapString(
-                    EXAMPLE_PREFIX + programmeDetails.commandName + " " + HELP_FLAGS[0],
-                    infoWidth
-            );
-
-            ArrayList<String> infoLines = new ArrayList<>();
-            infoLines.addAll(description);
-            infoLines.addAll(example);
-
-
-            mergeAndIndent(keyLine, infoLines);
+    }
 
-            addLinesToHelpText(infoLines);
-        }
+    /**
+     * The management interface of {@link ParseMetrics}, see {@link ParseMetrics#registerMBean(String)}. Latencies are
+     * in nanoseconds.
+     */
+    public interface ParseMetricsMXBean {
 
-        private void buildOptionBlock(ArgOption option) {
-            stringBuilder.append("\n");
+        long getParseCount();
 
-            String keyLine = buildKeyLine(option);
+        long getFailedParseCount();
 
-            ArrayList<String> infoLines = buildInfo(option, keyLine);
+        /**
+         * @return The number of parses each option was passed on the command line in, by the name of the option.
+         */
+        Map<String, Long> getOptionUsage();
 
-            mergeAndIndent(keyLine, infoLines);
+        /**
+         * @return The number of each {@link E_Diagnostic} reported, by its name.
+         */
+        Map<String, Long> getFailuresByCode();
 
-            addLinesToHelpText(infoLines);
-        }
+        long getLatencyMeanNanos();
 
-        private String buildKeyLine(ArgOption option) {
-            if (option.usage == E_Usage.LIST) {
-                return dupeString(" ", LEFT_MARGIN_WIDTH) + LIST_USAGE_KEY;
-            }
+        long getLatencyP50Nanos();
 
-            String keyLine = buildShortKeyString(option.shortKey);
-            keyLine = buildLongKeyString(option.longKey, keyLine);
-            return keyLine;
-        }
+        long getLatencyP99Nanos();
 
-        private String buildShortKeyString(char shortKey) {
-            if (shortKey == '\0') {
-                int keyWidth = "-x, ".length();
-                return dupeString(" ", LEFT_MARGIN_WIDTH + keyWidth);
-            }
+        long getLatencyP999Nanos();
 
-            return dupeString(" ", LEFT_MARGIN_WIDTH) + "-" + shortKey + ", ";
-        }
+        long getLatencyMaxNanos();
 
-        private String buildLongKeyString(String longKey, String keyLine) {
-            int spaceForLongKey = (BASE_KEY_COL_WIDTH + EXTRA_KEY_SPACE) - (keyLine.length());
+        void reset();
 
-            if ("--".length() + longKey.length() + KEY_DESCRIPTION_GAP > spaceForLongKey) {
-                int maxLongKeyLength = spaceForLongKey - (2 + KEY_DESCRIPTION_GAP);
-                throw new ArgumentOptionException("Long key is too long for the help block.\n" +
-                        "With the current setting the charter limit for a long key is " + maxLongKeyLength + ".\n" +
-                        "Long key: " + longKey);
-            }
+    }
 
-            // Note(Max): Reassigning to keyLine looks like it might be wrong.
-            keyLine += "--" + longKey + dupeString(" ", KEY_DESCRIPTION_GAP);
+    /**
+     * Counts of the parses of a parser, see {@link ArgsParser#setMetricsEnabled(boolean)}: how many there were, how
+     * many failed, which options were passed, which problems were found and how long the parses took. Everything is
+     * recorded without locks, the counters are {@link LongAdder}s and the latencies go in a histogram of atomic
+     * buckets, so many threads can parse at once. Reads are not a snapshot, a parse may be part counted. <br>
+     * <br>
+     * A parse with {@link ArgsParser#pareArgs(String[])} fails if it throws, and one with
+     * {@link ArgsParser#tryParseArgs(String[])} if it returns a diagnostic. A throwing parse counts the one problem it
+     * throws for, a collecting parse counts them all. Help requests are not counted. <br>
+     * <br>
+     * The latencies are kept with about 6% precision from 1 nanosecond to the largest long, like an HdrHistogram with
+     * one significant digit.
+     */
+    public static final class ParseMetrics implements ParseMetricsMXBean {
 
-            // This is where you would change the layout so that you only let the extra space be used a chunk at a time
-            // rather than a space at a time I.E. use 5 spaces rather than 2.
-            int extraSpace = keyLine.length() - BASE_KEY_COL_WIDTH;
-            if (extraSpace > 0) {
-                keyLine += dupeString(" ", extraSpace);
-            }
+        private final List<ArgOption> argOptions;
 
-            return keyLine;
-        }
+        /**
+         * The index of each option by identity, shared with the parser, see {@link ArgsParser#optionIndexes}.
+         */
+        private final Map<ArgOption, Integer> optionIndexes;
 
-        private ArrayList<String> buildInfo(ArgOption option, String keyLine) {
-            infoWidth = calcInfoWidth(keyLine);
+        private final LongAdder parses = new LongAdder();
 
-            ArrayList<String> description = buildDescription(option);
+        private final LongAdder failedParses = new LongAdder();
 
-            ArrayList<String> usageOption = buildUsage(option);
+        private final LongAdder[] optionUsage;
 
-            ArrayList<String> examples = buildExamples(option);
+        private final LongAdder[] failures = new LongAdder[E_Diagnostic.values().length];
 
-            ArrayList<String> infoLines = new ArrayList<>();
-            infoLines.addAll(description);
-            infoLines.addAll(usageOption);
-            infoLines.addAll(examples);
-            return infoLines;
-        }
+        private final LatencyHistogram latencies = new LatencyHistogram();
 
-        private int calcInfoWidth(String keyLine) {
-            // Note(Max): I would be easy to argue for this to set the field and not return a value, but I like how it
-            // looks when it returns a value, so I am going to leave it like this for the moment.
-            int indentWidth = Math.max(keyLine.length(), BASE_KEY_COL_WIDTH);
+        private ObjectName objectName;
 
-            return LINE_WIDTH - indentWidth;
+        private ParseMetrics(List<ArgOption> argOptions, Map<ArgOption, Integer> optionIndexes) {
+            this.argOptions = argOptions;
+            this.optionIndexes = optionIndexes;
+            optionUsage = new LongAdder[argOptions.size()];
+            for (int i = 0; i < optionUsage.length; i++) {
+                optionUsage[i] = new LongAdder();
+            }
+            for (int i = 0; i < failures.length; i++) {
+                failures[i] = new LongAdder();
+            }
         }
 
-        private ArrayList<String> buildDescription(ArgOption option) {
-            if (option.description.isEmpty()) {
-                return new ArrayList<>(0);
+        private void record(long[] commandLineMask, long nanos, boolean failed) {
+            parses.increment();
+            if (failed) {
+                failedParses.increment();
             }
 
-            return lineWrapString(option.description, infoWidth);
+            for (int word = 0; word < commandLineMask.length; word++) {
+                long bits = commandLineMask[word];
+                while (bits != 0) {
+                    optionUsage[(word << 6) + Long.numberOfTrailingZeros(bits)].increment();
+                    bits &= bits - 1;
+                }
+            }
+            latencies.record(nanos);
         }
 
-        private ArrayList<String> buildUsage(ArgOption option) {
-            String usage = "";
-            switch (option.usage) {
-                case KEY: usage = "Key"; break;
-                case KEY_VALUE: usage = "Key-value pair"; break;
-                case LIST: usage = LIST_USAGE.replaceAll(".$", ""); break;
-            }
+        @Override
+        public long getParseCount() {
+            return parses.sum();
+        }
 
-            if (option.isRepeatable()) {
-                usage += ", Repeatable";
-            }
+        @Override
+        public long getFailedParseCount() {
+            return failedParses.sum();
+        }
 
-            if (option.isUseOnItsOwn()) {
-                usage += ", Exclusive";
+        /**
+         * @return The number of parses {@code option} was passed on the command line in.
+         */
+        public long getUsageCount(ArgOption option) {
+            Integer index = optionIndexes.get(option);
+            if (index == null) {
+                throw new ArgumentOptionException("The option is not an option of this parser.\n"
+                        + "Option: " + option + ".");
             }
+            return optionUsage[index].sum();
+        }
 
-            return lineWrapString("Usage: " + usage + ".", infoWidth);
+        @Override
+        public Map<String, Long> getOptionUsage() {
+            LinkedHashMap<String, Long> usage = new LinkedHashMap<>();
+            for (int i = 0; i < optionUsage.length; i++) {
+                usage.put(argOptions.get(i).getName(), optionUsage[i].sum());
+            }
+            return usage;
         }
 
-        private ArrayList<String> buildExamples(ArgOption option) {
-            ArrayList<String> out = null;
+        public long getFailureCount(E_Diagnostic code) {
+            return failures[code.ordinal()].sum();
+        }
 
-            switch (option.usage) {
-                case KEY:
-                case KEY_VALUE:
-                    out = buildValueExamples(option); break;
-                case LIST: out = buildListExample(option); break;
+        @Override
+        public Map<String, Long> getFailuresByCode() {
+            LinkedHashMap<String, Long> byCode = new LinkedHashMap<>();
+            for (E_Diagnostic code : E_Diagnostic.values()) {
+                byCode.put(code.name(), failures[code.ordinal()].sum());
             }
+            return byCode;
+        }
 
-            return out;
+        @Override
+        public long getLatencyMeanNanos() {
+            long count = latencies.count.sum();
+            return (count == 0) ? 0 : latencies.total.sum() / count;
         }
 
-        private ArrayList<String> buildListExample(ArgOption option) {
-            String ellipses = (option.useOnItsOwn) ? " " : " ... ";
-            String exampleBuilder = EXAMPLE_PREFIX + programmeDetails.commandName + ellipses + option.getListExample();
-            return lineWrapString(exampleBuilder, infoWidth);
+        /**
+         * @param percentile From 0 to 100.
+         * @return The latency that {@code percentile} percent of the parses took at most, rounded up to the top of its
+         * bucket, or 0 if there were no parses.
+         */
+        public long getLatencyPercentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new ArgumentOptionException("A percentile must be from 0 to 100.");
+            }
+            return latencies.valueAtPercentile(percentile);
         }
 
-        private ArrayList<String> buildValueExamples(ArgOption option) {
-            String commandName = programmeDetails.commandName;
-            ArrayList<String> exampleLines = new ArrayList<>();
+        @Override
+        public long getLatencyP50Nanos() {
+            return latencies.valueAtPercentile(50);
+        }
 
-            String ellipses = (option.useOnItsOwn) ? " " : " ... ";
+        @Override
+        public long getLatencyP99Nanos() {
+            return latencies.valueAtPercentile(99);
+        }
 
-            if (option.shortKey != '\0') {
-                String valueExample = (option.usage == E_Usage.KEY) ? "" : " " + option.getShortValueExample();
+        @Override
+        public long getLatencyP999Nanos() {
+            return latencies.valueAtPercentile(99.9);
+        }
 
-                String shortExample = EXAMPLE_PREFIX + commandName + ellipses + "-" + option.getShortKey()
-                        + valueExample + ellipses;
+        @Override
+        public long getLatencyMaxNanos() {
+            return latencies.valueAtPercentile(100);
+        }
 
-                exampleLines.addAll(lineWrapString(shortExample, infoWidth));
+        @Override
+        public void reset() {
+            parses.reset();
+            failedParses.reset();
+            for (LongAdder adder : optionUsage) {
+                adder.reset();
             }
-
-            if (!option.longKey.isEmpty()) {
-                String valueExample = (option.usage == E_Usage.KEY) ? "" : "=" + option.getLongValueExample();
-
-                String longExample = EXAMPLE_PREFIX + commandName + ellipses + "--" + option.getLongKey()
-                        + valueExample + ellipses;
-
-                exampleLines.addAll(lineWrapString(longExample, infoWidth));
+            for (LongAdder adder : failures) {
+                adder.reset();
             }
-
-            return exampleLines;
+            latencies.reset();
         }
 
-        private void mergeAndIndent(String keyLine, ArrayList<String> infoLines) {
-            if (!infoLines.isEmpty()) {
-                String padding = dupeString(" ", LINE_WIDTH - (infoWidth + keyLine.length()));
-                infoLines.set(0, keyLine + padding + infoLines.get(0));
+        /**
+         * Registers these metrics with the platform MBean server as
+         * {@code JArgParse:type=ParseMetrics,name=<name>}, so they can be read with JConsole or a JMX exporter.
+         *
+         * @throws ArgumentOptionException If the name is taken or not valid.
+         */
+        public synchronized ObjectName registerMBean(String name) {
+            try {
+                ObjectName objectName = new ObjectName("JArgParse:type=ParseMetrics,name=" + ObjectName.quote(name));
+                ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(new StandardMBean(this, ParseMetricsMXBean.class, true), objectName);
+                this.objectName = objectName;
+                return objectName;
+            } catch (JMException e) {
+                throw new ArgumentOptionException("Unable to register the parse metrics.\n"
+                        + "Name: " + name + ".\n"
+                        + "Reason: " + e);
             }
+        }
 
-            for (int i = 1; i < infoLines.size(); i++) {
-                String newLine = dupeString(" ", LINE_WIDTH - infoWidth) + infoLines.get(i);
-                infoLines.set(i, newLine);
+        /**
+         * Removes the MBean added by {@link ParseMetrics#registerMBean(String)}, if there is one.
+         */
+        public synchronized void unregisterMBean() {
+            if (objectName == null) {
+                return;
             }
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                // Already gone.
+            }
+            objectName = null;
         }
 
+        @Override
+        public String toString() {
+            return "ParseMetrics{" +
+                    "parses=" + getParseCount() +
+                    ", failedParses=" + getFailedParseCount() +
+                    ", latencyP50Nanos=" + getLatencyP50Nanos() +
+                    ", latencyP99Nanos=" + getLatencyP99Nanos() +
+                    '}';
+        }
 
+    }
 
-        private ArrayList<String> lineWrapString(String input, int lineWidth) {
-            ArrayList<String> wrappedLines = new ArrayList<>();
+    /**
+     * A log-linear histogram of nanosecond latencies. Values below 16 have a bucket each, above that each power of two
+     * is split into 16 buckets, so a bucket is at most 1/16 of its value wide. 960 buckets cover every long.
+     */
+    private static final class LatencyHistogram {
 
-            String[] inputWords = input.split(" ");
-            StringBuilder lineBuilder = new StringBuilder(lineWidth);
-            int lineLength = 0;
+        private static final int SUB_BUCKET_BITS = 4;
 
-            for (String word : inputWords) {
-                if (lineLength + word.length() <= lineWidth) {
-                    lineBuilder.append(word).append(" ");
-                    lineLength += 1 + word.length();
-                    continue;
-                }
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
 
-                wrappedLines.add(lineBuilder.toString().trim());
-                lineLength = word.length();
-                lineBuilder = new StringBuilder(lineWidth);
-                lineBuilder.append(word).append(" ");
+        private final AtomicLongArray buckets = new AtomicLongArray((64 - SUB_BUCKET_BITS) * SUB_BUCKETS);
+
+        final LongAdder count = new LongAdder();
+
+        final LongAdder total = new LongAdder();
+
+        void record(long nanos) {
+            if (nanos < 0) {
+                nanos = 0;
             }
+            buckets.incrementAndGet(bucketOf(nanos));
+            count.increment();
+            total.add(nanos);
+        }
 
-            wrappedLines.add(lineBuilder.toString().trim());
-            return wrappedLines;
+        static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
         }
 
-        private String dupeString(String string, int count) {
-            StringBuilder stringBuilder = new StringBuilder(string.length() * count);
-            for (int i = 0; i < count; i++) {
-                stringBuilder.append(string);
+        /**
+         * @return The largest value that goes in {@code bucket}.
+         */
+        static long highestValueOf(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
             }
-            return stringBuilder.toString();
+            int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+            return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
         }
 
-        private void addLinesToHelpText(ArrayList<String> lines) {
-            if (lines.isEmpty()) {
-                return;
+        long valueAtPercentile(double percentile) {
+            long[] counts = new long[buckets.length()];
+            long recorded = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+                recorded += counts[i];
+            }
+            if (recorded == 0) {
+                return 0;
             }
 
-            for (String line : lines) {
-                stringBuilder.append(line).append(System.lineSeparator());
+            long target = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return highestValueOf(i);
+                }
+            }
+            return highestValueOf(counts.length - 1);
+        }
+
+        void reset() {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
             }
+            count.reset();
+            total.reset();
         }
 
     }
 
     /**
-     * A runtime exception class that is thrown when there is a problem with how the code writer has configured
-     * {@link  ArgsParser} using {@link ArgOption}s. (Mostly throw from a call to a constructor of {@link ArgsParser}.)
+     * The outcome of {@link ArgsParser#tryParseArgs(String[])}.
      */
-    public static class ArgumentOptionException extends RuntimeException {
+    public static final class ParseResult {
 
-        public ArgumentOptionException() {
-            super();
+        private final List<Diagnostic> diagnostics;
+
+        private final boolean helpRequested;
+
+        private ParseResult(List<Diagnostic> diagnostics, boolean helpRequested) {
+            this.diagnostics = Collections.unmodifiableList(diagnostics);
+            this.helpRequested = helpRequested;
         }
 
-        public ArgumentOptionException(String message) {
-            super(message);
+        /**
+         * @return The problems with the command line, in the order they were found.
+         */
+        public List<Diagnostic> getDiagnostics() {
+            return diagnostics;
+        }
+
+        public boolean hasErrors() {
+            return !diagnostics.isEmpty();
+        }
+
+        /**
+         * @return True if a help flag was passed, then nothing was parsed.
+         */
+        public boolean isHelpRequested() {
+            return helpRequested;
+        }
+
+        @Override
+        public String toString() {
+            return "ParseResult{" +
+                    "diagnostics=" + diagnostics +
+                    ", helpRequested=" + helpRequested +
+                    '}';
         }
 
     }
 
     /**
-     * A runtime exception class that is thrown when there is a problem with either how the arguments are used in the
-     * command line or if there is an error during the parse of command line. (Mostly thrown by
-     * {@link ArgsParser#pareArgs(String[])}.)
+     * A problem with the command line found by {@link ArgsParser#tryParseArgs(String[])}. Each is what
+     * {@link ArgsParser#pareArgs(String[])} would have thrown as a {@link ParseArgumentException}.
      */
-    public class ParseArgumentException extends RuntimeException {
+    public static final class Diagnostic {
 
-        public ParseArgumentException() {
-            super();
+        private final E_Diagnostic code;
+
+        private final int tokenIndex;
+
+        private final ArgOption option;
+
+        private final Supplier<String> messageBuilder;
+
+        /**
+         * Volatile and read once per call, so a result handed to another thread never sees it half set. Two threads
+         * may both build it, which gives equal messages.
+         */
+        private volatile String message;
+
+        private Diagnostic(E_Diagnostic code, int tokenIndex, ArgOption option, Supplier<String> messageBuilder) {
+            this.code = code;
+            this.tokenIndex = tokenIndex;
+            this.option = option;
+            this.messageBuilder = messageBuilder;
         }
 
-        public ParseArgumentException(String message) {
-            super(message + "\n" + "Use -h, --help or --Help for help.", null, false, parseErrorsDisplayStackTrace);
+        public E_Diagnostic getCode() {
+            return code;
+        }
+
+        /**
+         * @return The index of the token with the problem in the command line. It is the length of the command line if
+         * the problem was found at its end, and -1 if the problem is not with one token, e.g. a required option is
+         * missing or a config file has a bad value.
+         */
+        public int getTokenIndex() {
+            return tokenIndex;
+        }
+
+        /**
+         * @return The option the problem is about, or null if it is not about one option, e.g. an unknown key.
+         */
+        public ArgOption getOption() {
+            return option;
+        }
+
+        /**
+         * @return The message {@link ArgsParser#pareArgs(String[])} would have thrown. It is built on the first call.
+         */
+        public String getMessage() {
+            String built = message;
+            if (built == null) {
+                built = messageBuilder.get();
+                message = built;
+            }
+            return built;
+        }
+
+        @Override
+        public String toString() {
+            return "Diagnostic{" +
+                    "code=" + code +
+                    ", tokenIndex=" + tokenIndex +
+                    ", option=" + option +
+                    '}';
         }
 
     }
@@ -1613,7 +8233,7 @@ public class ArgsParser {
      *      <li> --Key-Word=arg </li>
      *      <li> ... argList </li>
      * </ol>
-     * KEY is 1 and 2. KEY_VALUE is 3 and 4. LIST is 5. <br>
+     * KEY and COUNT are 1 and 2. KEY_VALUE is 3 and 4. LIST is 5. <br>
      * <br>
      * The short key is `k` and the long key is `Key-Word`. argList is a space delimited list. There can only be one
      * list arg, and they are always at the end of the command.
@@ -1627,11 +8247,135 @@ public class ArgsParser {
          * Use this if the argument should accept and require a value argument. Aka a key-value pair.
          */
         KEY_VALUE,
+        /**
+         * Use this if the key should be used on its own and may be repeated to count, e.g. {@code -v -v -v} for a
+         * verbosity of 3. Only the count is stored, see {@link ArgReceived#getCount()}.
+         */
+        COUNT,
         /**
          * Use this if the argument should be a positional list, space delimited, always passed as the last part of the
          * command line. This can only be used by one {@link ArgOption} per {@link ArgsParser} instances.
          */
-        LIST
+        LIST,
+        /**
+         * Use this if the argument should take any number of {@code key=value} pairs, like the JVM's
+         * {@code -Dkey=value}. A short key is joined to its pair, {@code -Dname=value}, or followed by it,
+         * {@code -D name=value}, a long key takes it after an equals, {@code --Define=name=value}. The pairs are kept in
+         * a {@link PropertyMap}, see {@link ArgReceived#getProperties()}, and a repeated name follows
+         * {@link ArgOption#setPropertyOverride(E_PropertyOverride)}. The argument can always be repeated.
+         */
+        PROPERTIES
+    }
+
+    /**
+     * What happens when an {@link E_Usage#PROPERTIES} argument is given a name it already has a value for, see
+     * {@link ArgOption#setPropertyOverride(E_PropertyOverride)}.
+     */
+    public enum E_PropertyOverride {
+        /**
+         * The later value replaces the earlier, as with the JVM's {@code -D}.
+         */
+        LAST_WINS,
+        /**
+         * The earlier value is kept.
+         */
+        FIRST_WINS,
+        /**
+         * It is a problem with the command line, {@link E_Diagnostic#REPEATED_PROPERTY}. The earlier value is kept.
+         */
+        ERROR
+    }
+
+    /**
+     * The kinds of problem reported by {@link ArgsParser#tryParseArgs(String[])}.
+     */
+    public enum E_Diagnostic {
+        /** A key is not bound to an option. */
+        UNKNOWN_KEY,
+        /** A long key was passed with one dash or a short key with two. */
+        WRONG_DASH_COUNT,
+        /** An option that isn't repeatable was passed more than once. */
+        REPEATED_OPTION,
+        /** A key or counter was given a value. */
+        UNEXPECTED_KEY_VALUE,
+        /** A short key was joined to its value by an equals. */
+        JOINED_SHORT_KEY_VALUE,
+        /** A key-value option was not given its value. */
+        MISSING_VALUE,
+        /** A value was passed where a key was expected. */
+        UNEXPECTED_VALUE,
+        /** A value of an option with a value format is not a list of numbers and ranges. */
+        INVALID_NUMBER_LIST,
+        /** A value failed a check of its option, e.g. its pattern or range. */
+        INVALID_VALUE,
+        /** A pair of a properties option has no name before its equals. */
+        INVALID_PROPERTY,
+        /** A properties option was given a name twice and overrides are errors. */
+        REPEATED_PROPERTY,
+        /** A config file or environment variable has a value that the option can't take. */
+        INVALID_LAYER_VALUE,
+        /** A required option was not passed. */
+        MISSING_REQUIRED,
+        /** An option that must be used on its own was passed with others. */
+        NOT_USED_ON_ITS_OWN,
+        /** More than one option of an exclusive group was passed. */
+        EXCLUSIVE_CONFLICT,
+        /** An option was passed without an option it requires. */
+        MISSING_REQUIREMENT
+    }
+
+    /**
+     * How the values of a {@link E_Usage#KEY_VALUE} argument are read, see
+     * {@link ArgOption#setValueFormat(E_ValueFormat)}. Other than {@link E_ValueFormat#TEXT} each value is a comma
+     * separated list of numbers and inclusive ranges, e.g. {@code 1,5,9-200}.
+     */
+    public enum E_ValueFormat {
+        /**
+         * The values are only kept as text.
+         */
+        TEXT,
+        /**
+         * The numbers are also stored in an {@code int[]}, see {@link ArgReceived#getInts()}. Numbers may be negative,
+         * e.g. {@code -5--1}.
+         */
+        INT_LIST,
+        /**
+         * The numbers are also stored in a {@code long[]}, see {@link ArgReceived#getLongs()}. Numbers may be
+         * negative.
+         */
+        LONG_LIST,
+        /**
+         * The numbers are also set in a {@link BitSet}, see {@link ArgReceived#getBitSet()}. Numbers can't be
+         * negative.
+         */
+        BIT_SET
+    }
+
+    /**
+     * The shells {@link ArgsParser#getCompletionScript(E_Shell)} can generate a completion script for.
+     */
+    public enum E_Shell {
+        BASH,
+        ZSH
+    }
+
+    /**
+     * Where the values of an {@link ArgReceived} came from. The sources are listed from the highest precedence to the
+     * lowest.
+     */
+    public enum E_Source {
+        /**
+         * Passed on the command line.
+         */
+        COMMAND_LINE,
+        /**
+         * Read from an environment variable. See {@link ArgsParser#setEnvironmentPrefix(String)}.
+         */
+        ENVIRONMENT,
+        /**
+         * Read from a properties file. See {@link ArgsParser#addConfigFile(Path)}.
+         */
+        CONFIG_FILE
     }
 
     /**
@@ -1642,4 +8386,38 @@ public class ArgsParser {
         ArgOption get();
     }
 
+    /**
+     * Marks a field, or a constructor parameter, that {@link ArgsParser#bind(Class)} and
+     * {@link ArgsParser#bindInto(Object)} set to the result of the option with the short or long key {@link Bind#value}.
+     * The annotation can be put on the components of a record. <br>
+     * <br>
+     * The supported types, and the value used if the option was not passed, are:
+     * <ul>
+     *     <li>{@code boolean}: whether the option was passed.</li>
+     *     <li>{@code String}: {@link ArgReceived#getValue()}, null.</li>
+     *     <li>{@code int}, {@code long}, {@code double} and their boxes: the value parsed, 0 or null. For
+     *     {@link E_Usage#COUNT} the count.</li>
+     *     <li>Any enum: the constant named by the value ignoring case, null.</li>
+     *     <li>{@link Path}: the value as a path, resolved against {@link ArgsParser#setWorkingDirectory(Path)}, null.
+     *     </li>
+     *     <li>{@link ByteBuffer} and {@link CharSequence}: {@link ArgReceived#getValueBytes(int)} and
+     *     {@link ArgReceived#getValueChars(int)} of the first value, null.</li>
+     *     <li>{@code int[]}, {@code long[]} and {@link BitSet}: {@link ArgReceived#getInts()},
+     *     {@link ArgReceived#getLongs()} and {@link ArgReceived#getBitSet()}, empty.</li>
+     *     <li>{@code String[]}, {@code List<String>} or {@code ArrayList<String>}: {@link ArgReceived#getValues()},
+     *     empty.</li>
+     *     <li>{@link PropertyMap} and {@code Map<String, String>}: {@link ArgReceived#getProperties()}, and a copy of
+     *     it, empty.</li>
+     *     <li>{@link ArgReceived}: the result itself, null.</li>
+     * </ul>
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.FIELD, ElementType.PARAMETER})
+    public @interface Bind {
+        /**
+         * The short or long key of the option to bind.
+         */
+        String value();
+    }
+
 }
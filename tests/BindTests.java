@@ -0,0 +1,133 @@
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BindTests {
+
+    ArgsParser makeParser() {
+        return new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('n').setLongKey("Number").setUsage(ArgsParser.E_Usage.KEY_VALUE),
+                new ArgsParser.ArgOption().setShortKey('m').setLongKey("Mode").setUsage(ArgsParser.E_Usage.KEY_VALUE),
+                new ArgsParser.ArgOption().setShortKey('f').setLongKey("Force").setUsage(ArgsParser.E_Usage.KEY),
+                new ArgsParser.ArgOption().setShortKey('v').setLongKey("Verbose").setUsage(ArgsParser.E_Usage.COUNT),
+                new ArgsParser.ArgOption().setShortKey('o').setLongKey("Output").setUsage(ArgsParser.E_Usage.KEY_VALUE),
+                new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST)
+        );
+    }
+
+    enum Mode { FAST, SAFE }
+
+    static class FieldConfig {
+        @ArgsParser.Bind("Number")
+        private int number = 7;
+
+        @ArgsParser.Bind("m")
+        Mode mode = Mode.SAFE;
+
+        @ArgsParser.Bind("Force")
+        boolean force;
+
+        @ArgsParser.Bind("Verbose")
+        long verbosity;
+
+        @ArgsParser.Bind("Output")
+        Path output;
+    }
+
+    /**
+     * Built like the canonical constructor of a record with annotated components.
+     */
+    static final class ConstructorConfig {
+        final int number;
+        final boolean force;
+        final List<String> files;
+
+        ConstructorConfig(@ArgsParser.Bind("n") int number,
+                          @ArgsParser.Bind("f") boolean force,
+                          @ArgsParser.Bind("Output") List<String> files) {
+            this.number = number;
+            this.force = force;
+            this.files = files;
+        }
+    }
+
+    static class UnboundKeyConfig {
+        @ArgsParser.Bind("Number")
+        int number;
+
+        @ArgsParser.Bind("Missing")
+        String missing;
+    }
+
+
+
+    @Test
+    void pass_bind_fields() {
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"-n", "42", "--Mode=fast", "-v", "-v", "--Output=out.txt"});
+
+        FieldConfig config = argsParser.bind(FieldConfig.class);
+        assertEquals(42, config.number);
+        assertEquals(Mode.FAST, config.mode);
+        assertFalse(config.force);
+        assertEquals(2, config.verbosity);
+        assertEquals(Paths.get("out.txt"), config.output);
+    }
+
+    @Test
+    void pass_bind_into_keeps_defaults_of_options_not_passed() {
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"-f"});
+
+        FieldConfig config = new FieldConfig();
+        argsParser.bindInto(config);
+        assertEquals(7, config.number);
+        assertEquals(Mode.SAFE, config.mode);
+        assertTrue(config.force);
+    }
+
+    @Test
+    void pass_bind_constructor() {
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"--Number=3", "-o", "a"});
+
+        ConstructorConfig config = argsParser.bind(ConstructorConfig.class);
+        assertEquals(3, config.number);
+        assertFalse(config.force);
+        assertEquals(Arrays.asList("a"), config.files);
+    }
+
+    @Test
+    void fail_bind_value_not_a_number() {
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"-n", "many"});
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.bind(FieldConfig.class));
+    }
+
+    @Test
+    void fail_bind_value_not_an_enum_constant() {
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"-m", "slow"});
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.bind(FieldConfig.class));
+    }
+
+    @Test
+    void fail_bind_key_not_bound() {
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {});
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> argsParser.bind(UnboundKeyConfig.class));
+
+        // Every key is checked before any value is converted.
+        ArgsParser fork = argsParser.fork();
+        fork.pareArgs(new String[] {"-n", "many"});
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> fork.bind(UnboundKeyConfig.class));
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> fork.bindInto(new UnboundKeyConfig()));
+    }
+
+}
@@ -0,0 +1,63 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompletionTests {
+
+    ArgsParser.ProgrammeDetails makeProgrammeDetails() {
+        return new ArgsParser.ProgrammeDetails().setCommandName("ColColorize");
+    }
+
+
+
+    @Test
+    void pass_bash_script_lists_keys() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        String script = argsParser.getCompletionScript(ArgsParser.E_Shell.BASH);
+
+        assertTrue(script.contains("complete -F _ColColorize_complete 'ColColorize'"));
+        assertTrue(script.contains("--Set-Background= --Set-Text= --Use-Defaults"));
+        assertTrue(script.contains("=|-b|-t)"));
+        assertTrue(script.contains("-h -b -t -r"));
+    }
+
+    @Test
+    void pass_bash_script_without_list_does_not_complete_files() {
+        ArgsParser argsParser = new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("my-prog"),
+                new ArgsParser.ArgOption().setShortKey('a').setUsage(ArgsParser.E_Usage.KEY)
+        );
+        String script = argsParser.getCompletionScript(ArgsParser.E_Shell.BASH);
+
+        assertTrue(script.contains("_my_prog_complete() {"));
+        assertTrue(script.contains("        =)\n"));
+        assertTrue(script.endsWith("    esac\n}\ncomplete -F _my_prog_complete 'my-prog'\n"));
+    }
+
+    @Test
+    void pass_zsh_script_specs() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        String script = argsParser.getCompletionScript(ArgsParser.E_Shell.ZSH);
+
+        assertTrue(script.startsWith("#compdef ColColorize\n"));
+        assertTrue(script.contains("'(-b --Set-Background)'{-b,--Set-Background=-}'[This command sets"));
+        assertTrue(script.contains("'(-r --Use-Defaults)'{-r,--Use-Defaults}'["));
+        assertTrue(script.contains("'*:This will take the path"));
+    }
+
+    @Test
+    void pass_zsh_script_escapes_descriptions() {
+        ArgsParser argsParser = new ArgsParser(
+                makeProgrammeDetails(),
+                new ArgsParser.ArgOption()
+                        .setLongKey("Mode")
+                        .setUsage(ArgsParser.E_Usage.KEY)
+                        .setRepeatable(true)
+                        .setDescription("Sets [the] mode: it's fast.")
+        );
+        String script = argsParser.getCompletionScript(ArgsParser.E_Shell.ZSH);
+
+        assertTrue(script.contains("'*'--Mode'[Sets \\[the\\] mode\\: it'\\''s fast.]'"));
+    }
+
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ConfigParserTests {
 
@@ -153,4 +154,20 @@ class ConfigParserTests {
         new ArgsParser(makeProgrammeDetails(), colColorizeOptions());
     }
 
+    @Test
+    void pass_options_changed_after_constructor() {
+        ArgsParser.ArgOption verbose = new ArgsParser.ArgOption().setShortKey('v').setUsage(ArgsParser.E_Usage.KEY);
+        ArgsParser.ArgOption port = new ArgsParser.ArgOption().setShortKey('p').setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                .setValueRange(1, 10);
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), verbose, port);
+
+        verbose.setDescription("changed");
+        port.setShortValueExample("5");
+        argsParser.pareArgs(new String[] {"-v", "-p", "5"});
+
+        assertTrue(argsParser.isPassed("v"));
+        assertTrue(argsParser.isPassed("p"));
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(new String[] {"-p", "11"}));
+    }
+
 }
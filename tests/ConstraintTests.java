@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConstraintTests {
+
+    ArgsParser.ProgrammeDetails makeProgrammeDetails() {
+        return new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog");
+    }
+
+    ArgsParser makeParser() {
+        return new ArgsParser(
+                makeProgrammeDetails(),
+                new ArgsParser.ArgOption().setShortKey('i').setLongKey("Input").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setRequired(true),
+                new ArgsParser.ArgOption().setLongKey("Json").setUsage(ArgsParser.E_Usage.KEY)
+                        .setExclusiveGroup("format"),
+                new ArgsParser.ArgOption().setLongKey("Xml").setUsage(ArgsParser.E_Usage.KEY)
+                        .setExclusiveGroup("format"),
+                new ArgsParser.ArgOption().setShortKey('u').setLongKey("User").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setRequires("Password"),
+                new ArgsParser.ArgOption().setShortKey('p').setLongKey("Password").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+        );
+    }
+
+
+
+    @Test
+    void pass_all_constraints_met() {
+        ArgsParser argsParser = makeParser();
+        String[] input = new String[] {"-i", "a.txt", "--Json", "-u", "max", "-p", "secret"};
+        assertDoesNotThrow(() -> argsParser.pareArgs(input));
+    }
+
+    @Test
+    void fail_required_missing() {
+        ArgsParser argsParser = makeParser();
+        String[] input = new String[] {"--Json"};
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(input));
+    }
+
+    @Test
+    void pass_required_from_environment() {
+        ArgsParser argsParser = makeParser();
+        argsParser.setEnvironmentPrefix("PROG_");
+        argsParser.setEnvironment(Collections.singletonMap("PROG_INPUT", "a.txt"));
+        assertDoesNotThrow(() -> argsParser.pareArgs(new String[] {}));
+    }
+
+    @Test
+    void fail_two_of_exclusive_group() {
+        ArgsParser argsParser = makeParser();
+        String[] input = new String[] {"-i", "a.txt", "--Json", "--Xml"};
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(input));
+    }
+
+    @Test
+    void fail_requires_missing() {
+        ArgsParser argsParser = makeParser();
+        String[] input = new String[] {"-i", "a.txt", "--User=max"};
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(input));
+    }
+
+    @Test
+    void fail_use_on_its_own_with_other_argument() {
+        ArgsParser.ArgOption[] options = new ArgsParser.ArgOption[] {
+                new ArgsParser.ArgOption().setShortKey('r').setUsage(ArgsParser.E_Usage.KEY).setUseOnItsOwn(true),
+                new ArgsParser.ArgOption().setShortKey('t').setUsage(ArgsParser.E_Usage.KEY_VALUE)
+        };
+
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), options);
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(new String[] {"-r", "-t", "abc"}));
+
+        ArgsParser ownParser = new ArgsParser(makeProgrammeDetails(), options);
+        assertDoesNotThrow(() -> ownParser.pareArgs(new String[] {"-r"}));
+    }
+
+    @Test
+    void constructor_fail_requires_unbound_key() {
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> new ArgsParser(
+                makeProgrammeDetails(),
+                new ArgsParser.ArgOption().setShortKey('a').setUsage(ArgsParser.E_Usage.KEY).setRequires("b")
+        ));
+    }
+
+    @Test
+    void pass_many_options_span_mask_words() {
+        ArgsParser.ArgOption[] options = new ArgsParser.ArgOption[130];
+        for (int i = 0; i < options.length; i++) {
+            options[i] = new ArgsParser.ArgOption().setLongKey("Key-" + i).setUsage(ArgsParser.E_Usage.KEY);
+        }
+        options[129].setRequired(true);
+        options[100].setExclusiveGroup("group");
+        options[3].setExclusiveGroup("group");
+
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), options);
+        assertDoesNotThrow(() -> argsParser.pareArgs(new String[] {"--Key-129", "--Key-100"}));
+
+        ArgsParser failParser = new ArgsParser(makeProgrammeDetails(), options);
+        assertThrows(ArgsParser.ParseArgumentException.class,
+                () -> failParser.pareArgs(new String[] {"--Key-129", "--Key-100", "--Key-3"}));
+    }
+
+}
@@ -0,0 +1,63 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CounterTests {
+
+    ArgsParser makeParser() {
+        return new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('v').setLongKey("Verbose").setUsage(ArgsParser.E_Usage.COUNT),
+                new ArgsParser.ArgOption().setShortKey('a').setUsage(ArgsParser.E_Usage.KEY)
+        );
+    }
+
+
+
+    @Test
+    void pass_count_short_and_long_keys() {
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"-v", "-a", "--Verbose", "-v"});
+
+        assertTrue(argsParser.isPassed("v"));
+        assertEquals(3, argsParser.getResult("Verbose").getCount());
+        assertEquals("3", argsParser.getResult("v").getValue());
+        assertTrue(argsParser.getResult("v").getValues().isEmpty());
+        assertEquals(1, argsParser.getResult("a").getCount());
+    }
+
+    @Test
+    void pass_count_not_passed() {
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"-a"});
+
+        assertFalse(argsParser.isPassed("Verbose"));
+        assertNull(argsParser.getResult("Verbose"));
+    }
+
+    @Test
+    void fail_count_given_value() {
+        ArgsParser argsParser = makeParser();
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(new String[] {"--Verbose=2"}));
+    }
+
+    @Test
+    void pass_count_from_environment() {
+        ArgsParser argsParser = makeParser();
+        argsParser.setEnvironmentPrefix("PROG_");
+        argsParser.setEnvironment(Collections.singletonMap("PROG_VERBOSE", "2"));
+        argsParser.pareArgs(new String[] {});
+
+        assertEquals(2, argsParser.getResult("v").getCount());
+    }
+
+    @Test
+    void pass_help_usage_is_counter() {
+        ArgsParser argsParser = makeParser();
+        assertTrue(argsParser.getHelpText().contains("Usage: Counter."));
+        assertTrue(argsParser.getHelpText().contains("Example: Test_Prog ... -v ..."));
+    }
+
+}
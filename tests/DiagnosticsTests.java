@@ -0,0 +1,164 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiagnosticsTests {
+
+    ArgsParser makeParser() {
+        return new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('i').setLongKey("Input").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setRequired(true),
+                new ArgsParser.ArgOption().setShortKey('v').setLongKey("Verbose").setUsage(ArgsParser.E_Usage.KEY),
+                new ArgsParser.ArgOption().setShortKey('o').setLongKey("Output").setUsage(ArgsParser.E_Usage.KEY_VALUE),
+                new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST)
+        );
+    }
+
+
+
+    @Test
+    void pass_clean_command_line_has_no_diagnostics() {
+        ArgsParser argsParser = makeParser();
+        ArgsParser.ParseResult result = argsParser.tryParseArgs(new String[] {"-i", "a.txt", "-v", "b", "c"});
+
+        assertFalse(result.hasErrors());
+        assertFalse(result.isHelpRequested());
+        assertEquals("a.txt", argsParser.getResult("Input").getValue());
+    }
+
+    @Test
+    void pass_all_errors_reported_in_order() {
+        ArgsParser argsParser = makeParser();
+        String[] input = new String[] {"--Nope", "-Verbose", "-v", "-v", "--Output", "-o=x", "--v"};
+        List<ArgsParser.Diagnostic> diagnostics = argsParser.tryParseArgs(input).getDiagnostics();
+
+        assertEquals(7, diagnostics.size());
+        assertEquals(ArgsParser.E_Diagnostic.UNKNOWN_KEY, diagnostics.get(0).getCode());
+        assertEquals(0, diagnostics.get(0).getTokenIndex());
+        assertNull(diagnostics.get(0).getOption());
+
+        assertEquals(ArgsParser.E_Diagnostic.WRONG_DASH_COUNT, diagnostics.get(1).getCode());
+        assertEquals(1, diagnostics.get(1).getTokenIndex());
+
+        assertEquals(ArgsParser.E_Diagnostic.REPEATED_OPTION, diagnostics.get(2).getCode());
+        assertEquals(3, diagnostics.get(2).getTokenIndex());
+        assertEquals("Verbose", diagnostics.get(2).getOption().getLongKey());
+
+        assertEquals(ArgsParser.E_Diagnostic.MISSING_VALUE, diagnostics.get(3).getCode());
+        assertEquals(4, diagnostics.get(3).getTokenIndex());
+
+        assertEquals(ArgsParser.E_Diagnostic.JOINED_SHORT_KEY_VALUE, diagnostics.get(4).getCode());
+        assertEquals(ArgsParser.E_Diagnostic.WRONG_DASH_COUNT, diagnostics.get(5).getCode());
+
+        assertEquals(ArgsParser.E_Diagnostic.MISSING_REQUIRED, diagnostics.get(6).getCode());
+        assertEquals(-1, diagnostics.get(6).getTokenIndex());
+        assertTrue(diagnostics.get(6).getMessage().startsWith("A required argument was not passed."));
+    }
+
+    @Test
+    void pass_recovers_from_key_where_value_expected() {
+        ArgsParser argsParser = makeParser();
+        ArgsParser.ParseResult result = argsParser.tryParseArgs(new String[] {"-i", "a.txt", "-o", "-v", "b"});
+
+        assertEquals(1, result.getDiagnostics().size());
+        assertEquals(ArgsParser.E_Diagnostic.MISSING_VALUE, result.getDiagnostics().get(0).getCode());
+        assertEquals(3, result.getDiagnostics().get(0).getTokenIndex());
+        assertTrue(argsParser.isPassed("Verbose"));
+        assertEquals("a.txt", argsParser.getResult("Input").getValue());
+        assertFalse(argsParser.isPassed("Output"));
+    }
+
+    @Test
+    void pass_recovers_from_key_in_list_and_end_marker_as_value() {
+        ArgsParser argsParser = makeParser();
+        List<ArgsParser.Diagnostic> diagnostics =
+                argsParser.tryParseArgs(new String[] {"-i", "a", "b", "-v", "c", "-o", "--"}).getDiagnostics();
+
+        // "-o" is a key in the list, then "--" is read as a key where the value of "-o" was expected.
+        assertEquals(4, diagnostics.size());
+        assertEquals(ArgsParser.E_Diagnostic.MISSING_VALUE, diagnostics.get(0).getCode());
+        assertEquals(3, diagnostics.get(0).getTokenIndex());
+        assertEquals(5, diagnostics.get(1).getTokenIndex());
+        assertEquals(ArgsParser.E_Diagnostic.MISSING_VALUE, diagnostics.get(2).getCode());
+        assertEquals(6, diagnostics.get(2).getTokenIndex());
+        assertEquals(ArgsParser.E_Diagnostic.UNKNOWN_KEY, diagnostics.get(3).getCode());
+
+        assertTrue(argsParser.isPassed("Verbose"));
+        assertEquals(Arrays.asList("b", "c"), argsParser.getResult(argsParser.getArgOptions().get(3)).getValues());
+    }
+
+    @Test
+    void pass_missing_value_at_end() {
+        ArgsParser argsParser = makeParser();
+        List<ArgsParser.Diagnostic> diagnostics = argsParser.tryParseArgs(new String[] {"-o"}).getDiagnostics();
+
+        assertEquals(ArgsParser.E_Diagnostic.MISSING_VALUE, diagnostics.get(0).getCode());
+        assertEquals(1, diagnostics.get(0).getTokenIndex());
+        assertEquals("Output", diagnostics.get(0).getOption().getLongKey());
+        assertFalse(argsParser.isPassed("Output"));
+
+        argsParser.tryParseArgs(new String[] {"-o", "-v"});
+        assertFalse(argsParser.isPassed("Output"));
+        assertTrue(argsParser.isPassed("Verbose"));
+    }
+
+    @Test
+    void pass_layer_value_used_when_value_missing() {
+        ArgsParser argsParser = makeParser();
+        argsParser.setEnvironmentPrefix("PROG_");
+        argsParser.setEnvironment(Collections.singletonMap("PROG_OUTPUT", "env.txt"));
+        List<ArgsParser.Diagnostic> diagnostics = argsParser.tryParseArgs(new String[] {"-i", "a", "-o"})
+                .getDiagnostics();
+
+        assertEquals(1, diagnostics.size());
+        assertEquals(ArgsParser.E_Diagnostic.MISSING_VALUE, diagnostics.get(0).getCode());
+        assertEquals("env.txt", argsParser.getResult("Output").getValue());
+        assertEquals(ArgsParser.E_Source.ENVIRONMENT, argsParser.getResult("Output").getSource());
+    }
+
+    @Test
+    void pass_help_requested_without_exit() {
+        ArgsParser argsParser = makeParser();
+        ArgsParser.ParseResult result = argsParser.tryParseArgs(new String[] {"-v", "--help"});
+
+        assertTrue(result.isHelpRequested());
+        assertFalse(result.hasErrors());
+        assertFalse(argsParser.isPassed("Verbose"));
+    }
+
+    @Test
+    void pass_invalid_layer_value_reported() {
+        ArgsParser argsParser = makeParser();
+        argsParser.setEnvironmentPrefix("PROG_");
+        argsParser.setEnvironment(Collections.singletonMap("PROG_VERBOSE", "loud"));
+        List<ArgsParser.Diagnostic> diagnostics = argsParser.tryParseArgs(new String[] {"-i", "a"}).getDiagnostics();
+
+        assertEquals(1, diagnostics.size());
+        assertEquals(ArgsParser.E_Diagnostic.INVALID_LAYER_VALUE, diagnostics.get(0).getCode());
+    }
+
+    @Test
+    void pass_results_reset_between_parses() {
+        ArgsParser argsParser = makeParser();
+        argsParser.tryParseArgs(new String[] {"-i", "a", "-v"});
+        ArgsParser.ParseResult result = argsParser.tryParseArgs(new String[] {"-i", "b"});
+
+        assertFalse(result.hasErrors());
+        assertFalse(argsParser.isPassed("Verbose"));
+        assertEquals("b", argsParser.getResult("i").getValue());
+    }
+
+    @Test
+    void fail_throwing_mode_unchanged() {
+        ArgsParser argsParser = makeParser();
+        ArgsParser.ParseArgumentException e = assertThrows(ArgsParser.ParseArgumentException.class,
+                () -> argsParser.pareArgs(new String[] {"--Nope"}));
+        assertTrue(e.getMessage().startsWith("No key match."));
+    }
+
+}
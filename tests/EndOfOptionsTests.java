@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndOfOptionsTests {
+
+    ArgsParser.ProgrammeDetails makeProgrammeDetails() {
+        return new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog");
+    }
+
+
+
+    @Test
+    void pass_tail_is_a_view_of_the_input() {
+        ArgsParser argsParser = new ArgsParser(
+                makeProgrammeDetails(),
+                new ArgsParser.ArgOption().setShortKey('v').setUsage(ArgsParser.E_Usage.KEY)
+        );
+
+        String[] input = new String[] {"-v", "--", "java", "-jar", "--help", "-v"};
+        argsParser.pareArgs(input);
+
+        assertEquals(2, argsParser.getPassThroughOffset());
+        List<String> tail = argsParser.getPassThroughArgs();
+        assertEquals(Arrays.asList("java", "-jar", "--help", "-v"), tail);
+        assertSame(input[3], tail.get(1));
+        assertEquals(1, argsParser.getResult("v").getCount());
+    }
+
+    @Test
+    void pass_no_terminator() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        argsParser.pareArgs(new String[] {"-t", "abc"});
+
+        assertEquals(-1, argsParser.getPassThroughOffset());
+        assertEquals(Collections.emptyList(), argsParser.getPassThroughArgs());
+    }
+
+    @Test
+    void pass_list_values_starting_with_dash() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        argsParser.pareArgs(new String[] {"-t", "abc", "--", "-a.json", "--b.json"});
+
+        assertEquals(Arrays.asList("-a.json", "--b.json"), argsParser.getResult(EnumArgOptions.CONFIGS).getValues());
+        assertEquals("-a.json", argsParser.getResult(EnumArgOptions.CONFIGS).getValue());
+        assertEquals(2, argsParser.getResult(EnumArgOptions.CONFIGS).getCount());
+    }
+
+    @Test
+    void pass_terminator_after_list_started() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        argsParser.pareArgs(new String[] {"a.json", "--", "-b.json"});
+
+        assertEquals(Arrays.asList("a.json", "-b.json"), argsParser.getResult(EnumArgOptions.CONFIGS).getValues());
+    }
+
+    @Test
+    void fail_terminator_in_place_of_value() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(new String[] {"-t", "--"}));
+    }
+
+}
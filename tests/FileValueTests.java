@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileValueTests {
+
+    ArgsParser makeParser() {
+        return new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('f').setLongKey("Filter").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setFileValues(true),
+                new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST).setFileValues(true)
+        );
+    }
+
+    Path writeFile(String contents) throws IOException {
+        Path file = Files.createTempFile("FileValueTests", ".txt");
+        file.toFile().deleteOnExit();
+        Files.write(file, contents.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+
+
+    @Test
+    void pass_ascii_file_read_as_chars() throws IOException {
+        Path file = writeFile("{\"level\": \"debug\"}");
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"--Filter=@" + file});
+
+        ArgsParser.ArgReceived result = argsParser.getResult("f");
+        assertEquals("@" + file, result.getValue());
+
+        CharSequence chars = result.getValueChars(0);
+        assertEquals("{\"level\": \"debug\"}", chars.toString());
+        assertEquals("level", chars.subSequence(2, 7).toString());
+        assertSame(chars, result.getValueChars(0));
+    }
+
+    @Test
+    void pass_utf8_file_decoded_and_bytes_mapped() throws IOException {
+        Path file = writeFile("Gr\u00fc\u00dfe");
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"-f", "@" + file});
+
+        ArgsParser.ArgReceived result = argsParser.getResult("f");
+        assertEquals("Gr\u00fc\u00dfe", result.getValueChars(0).toString());
+
+        ByteBuffer bytes = result.getValueBytes(0);
+        assertEquals(7, bytes.remaining());
+        assertTrue(bytes.isReadOnly());
+    }
+
+    @Test
+    void pass_missing_file_not_touched_by_parse() {
+        ArgsParser argsParser = makeParser();
+        assertDoesNotThrow(() -> argsParser.pareArgs(new String[] {"--Filter=@/no/such/file"}));
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.getResult("f").getValueBytes(0));
+    }
+
+    @Test
+    void pass_escapes_and_inline_values() throws IOException {
+        Path file = writeFile("from file");
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"--Filter=@@home", "a", "@" + file, "@", "--", "@" + file});
+
+        assertEquals("@home", argsParser.getResult("f").getValueChars(0).toString());
+
+        ArgsParser.ArgReceived list = argsParser.getResult(argsParser.getArgOptions().get(1));
+        assertEquals(Arrays.asList("a", "@" + file, "@", "@" + file), list.getValues());
+        assertEquals("a", list.getValueChars(0));
+        assertEquals("from file", list.getValueChars(1).toString());
+        assertEquals("@", list.getValueChars(2));
+        assertEquals("@" + file, list.getValueChars(3));
+    }
+
+    @Test
+    void constructor_fail_file_values_on_key() {
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('a').setUsage(ArgsParser.E_Usage.KEY).setFileValues(true)
+        ));
+    }
+
+}
@@ -0,0 +1,172 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalParseTests {
+
+    ArgsParser makeParser() {
+        return new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('i').setLongKey("Input").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setRequired(true),
+                new ArgsParser.ArgOption().setShortKey('v').setLongKey("Verbose").setUsage(ArgsParser.E_Usage.COUNT),
+                new ArgsParser.ArgOption().setShortKey('j').setLongKey("Json").setUsage(ArgsParser.E_Usage.KEY)
+                        .setExclusiveGroup("format"),
+                new ArgsParser.ArgOption().setShortKey('x').setLongKey("Xml").setUsage(ArgsParser.E_Usage.KEY)
+                        .setExclusiveGroup("format"),
+                new ArgsParser.ArgOption().setLongKey("Version").setUsage(ArgsParser.E_Usage.KEY)
+                        .setUseOnItsOwn(true),
+                new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST)
+        );
+    }
+
+    ArgsParser.IncrementalParse acceptAll(ArgsParser.IncrementalParse state, String... tokens) {
+        for (String token : tokens) {
+            state = state.accept(token);
+        }
+        return state;
+    }
+
+
+
+    @Test
+    void pass_allowed_keys_by_prefix() {
+        ArgsParser.IncrementalParse start = makeParser().startIncrementalParse();
+
+        assertEquals(Arrays.asList("--Verbose", "--Version"), start.getAllowedKeys("--Ver"));
+        assertEquals(Arrays.asList("-i", "-j", "-v", "-x"), start.getAllowedKeys("-").subList(5, 9));
+        assertEquals(9, start.getAllowedKeys("").size());
+        assertTrue(start.getAllowedKeys("--Z").isEmpty());
+        assertTrue(start.isListItemAllowed());
+        assertFalse(start.isComplete());
+    }
+
+    @Test
+    void pass_used_exclusive_and_on_its_own_keys_removed() {
+        ArgsParser argsParser = makeParser();
+        ArgsParser.IncrementalParse state = acceptAll(argsParser.startIncrementalParse(), "--Json", "-v");
+
+        assertEquals(Arrays.asList("--Input", "--Verbose"), state.getAllowedKeys("--"));
+        assertFalse(state.isAllowed(argsParser.getArgOptions().get(3)));
+        assertTrue(state.isPassed(argsParser.getArgOptions().get(2)));
+        assertNull(state.getProblem());
+
+        ArgsParser.IncrementalParse version = argsParser.startIncrementalParse().accept("--Version");
+        assertEquals(Collections.emptyList(), version.getAllowedKeys(""));
+    }
+
+    @Test
+    void pass_value_expected_and_list_started() {
+        ArgsParser.IncrementalParse start = makeParser().startIncrementalParse();
+
+        ArgsParser.IncrementalParse key = start.accept("-i");
+        assertTrue(key.isExpectingValue());
+        assertEquals("Input", key.getValueOwner().getLongKey());
+        assertTrue(key.getAllowedKeys("").isEmpty());
+        assertFalse(key.isComplete());
+
+        ArgsParser.IncrementalParse value = key.accept("a.txt");
+        assertFalse(value.isExpectingValue());
+        assertTrue(value.isComplete());
+
+        ArgsParser.IncrementalParse list = value.accept("b");
+        assertTrue(list.isListStarted());
+        assertTrue(list.getAllowedKeys("-").isEmpty());
+        assertEquals(ArgsParser.E_Diagnostic.MISSING_VALUE, list.accept("-v").getProblem());
+
+        ArgsParser.IncrementalParse ended = acceptAll(start, "--Input=a", "--", "-v");
+        assertTrue(ended.isOptionsEnded());
+        assertTrue(ended.isListStarted());
+        assertNull(ended.getProblem());
+        assertEquals(3, ended.getTokenCount());
+    }
+
+    @Test
+    void pass_states_are_snapshots() {
+        ArgsParser.IncrementalParse start = makeParser().startIncrementalParse();
+        ArgsParser.IncrementalParse json = start.accept("-j");
+        ArgsParser.IncrementalParse xml = start.accept("-x");
+
+        assertTrue(json.getAllowedKeys("-").contains("-v"));
+        assertFalse(json.getAllowedKeys("-").contains("-x"));
+        assertFalse(xml.getAllowedKeys("-").contains("-j"));
+        assertEquals(9, start.getAllowedKeys("").size());
+        assertEquals(0, start.getTokenCount());
+    }
+
+    /**
+     * Checks the state after {@code tokens} against what {@link ArgsParser#tryParseArgs(String[])} makes of them.
+     */
+    void assertRecoversLikeParse(String... tokens) {
+        ArgsParser argsParser = new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('f').setLongKey("File").setUsage(ArgsParser.E_Usage.KEY_VALUE),
+                new ArgsParser.ArgOption().setShortKey('g').setLongKey("Group").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setRequired(true),
+                new ArgsParser.ArgOption().setShortKey('k').setLongKey("Keep").setUsage(ArgsParser.E_Usage.KEY),
+                new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST)
+        );
+        ArgsParser.IncrementalParse state = acceptAll(argsParser.startIncrementalParse(), tokens);
+        List<ArgsParser.Diagnostic> diagnostics = argsParser.tryParseArgs(tokens).getDiagnostics();
+
+        for (ArgsParser.ArgOption option : argsParser.getArgOptions()) {
+            assertEquals(argsParser.isPassed(option), state.isPassed(option), option.toString());
+        }
+
+        ArgsParser.ArgOption owner = null;
+        boolean requiredMissing = false;
+        for (ArgsParser.Diagnostic diagnostic : diagnostics) {
+            if (diagnostic.getCode() == ArgsParser.E_Diagnostic.MISSING_VALUE
+                    && diagnostic.getTokenIndex() == tokens.length) {
+                owner = diagnostic.getOption();
+            }
+            requiredMissing |= diagnostic.getCode() == ArgsParser.E_Diagnostic.MISSING_REQUIRED;
+        }
+        assertSame(owner, state.getValueOwner());
+        assertEquals(owner == null && !requiredMissing, state.isComplete());
+    }
+
+    @Test
+    void pass_recovers_like_parse() {
+        assertRecoversLikeParse("-f", "-k");
+        assertRecoversLikeParse("-f", "-g", "v");
+        assertRecoversLikeParse("item", "-k", "x");
+        assertRecoversLikeParse("item", "-g", "v", "x");
+        assertRecoversLikeParse("-f");
+        assertRecoversLikeParse("-g", "--");
+        assertRecoversLikeParse("--Group", "-k");
+        assertRecoversLikeParse("-g=v", "-f", "--File=a");
+    }
+
+    @Test
+    void pass_value_key_passed_once_value_accepted() {
+        ArgsParser argsParser = makeParser();
+        ArgsParser.ArgOption input = argsParser.getArgOptions().get(0);
+        ArgsParser.IncrementalParse key = argsParser.startIncrementalParse().accept("-i");
+
+        assertFalse(key.isPassed(input));
+        assertTrue(key.accept("a.txt").isPassed(input));
+        assertFalse(key.accept("-v").isPassed(input));
+        assertNull(key.accept("-v").getValueOwner());
+        assertFalse(argsParser.startIncrementalParse().accept("--Input").isPassed(input));
+    }
+
+    @Test
+    void fail_problems_reported_like_parse() {
+        ArgsParser.IncrementalParse start = makeParser().startIncrementalParse();
+
+        assertEquals(ArgsParser.E_Diagnostic.UNKNOWN_KEY, start.accept("--Nope").getProblem());
+        assertEquals(ArgsParser.E_Diagnostic.WRONG_DASH_COUNT, start.accept("-Json").getProblem());
+        assertEquals(ArgsParser.E_Diagnostic.WRONG_DASH_COUNT, start.accept("--j").getProblem());
+        assertEquals(ArgsParser.E_Diagnostic.JOINED_SHORT_KEY_VALUE, start.accept("-i=a").getProblem());
+        assertEquals(ArgsParser.E_Diagnostic.UNEXPECTED_KEY_VALUE, start.accept("--Json=yes").getProblem());
+        assertEquals(ArgsParser.E_Diagnostic.REPEATED_OPTION, acceptAll(start, "-j", "-j").getProblem());
+        assertEquals(ArgsParser.E_Diagnostic.MISSING_VALUE, acceptAll(start, "-i", "-v").getProblem());
+        assertNull(acceptAll(start, "-v", "-v").getProblem());
+    }
+
+}
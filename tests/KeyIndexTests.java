@@ -0,0 +1,59 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyIndexTests {
+
+    ArgsParser.ProgrammeDetails makeProgrammeDetails() {
+        return new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog");
+    }
+
+    ArgsParser.ArgOption[] makeManyOptions(int count) {
+        ArgsParser.ArgOption[] options = new ArgsParser.ArgOption[count];
+        for (int i = 0; i < count; i++) {
+            options[i] = new ArgsParser.ArgOption().setLongKey("Option-" + i).setUsage(ArgsParser.E_Usage.KEY_VALUE);
+        }
+        for (int i = 0; i < 26; i++) {
+            options[i].setShortKey((char) ('a' + i));
+        }
+        return options;
+    }
+
+
+
+    @Test
+    void pass_thousands_of_options_all_found() {
+        ArgsParser.ArgOption[] options = makeManyOptions(5000);
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), options);
+
+        argsParser.pareArgs(new String[] {"--Option-0=a", "--Option-2500=b", "-z", "c", "--Option-4999=d"});
+
+        assertEquals("a", argsParser.getResult("a").getValue());
+        assertEquals("b", argsParser.getResult("Option-2500").getValue());
+        assertEquals("c", argsParser.getResult("Option-25").getValue());
+        assertEquals("d", argsParser.getResult(options[4999]).getValue());
+        assertNull(argsParser.getResult("Option-1"));
+    }
+
+    @Test
+    void fail_unknown_key_with_many_options() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), makeManyOptions(2000));
+
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(new String[] {"--Option-2000=a"}));
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(new String[] {"--Option-1"}));
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> argsParser.getResult("Option-"));
+    }
+
+    @Test
+    void constructor_fail_repeated_key_names_both_options() {
+        ArgsParser.ArgOption[] options = makeManyOptions(1000);
+        options[700].setLongKey("Option-3");
+
+        ArgsParser.ArgumentOptionException exception = assertThrows(ArgsParser.ArgumentOptionException.class,
+                () -> new ArgsParser(makeProgrammeDetails(), options));
+
+        assertTrue(exception.getMessage().startsWith("Arguments share a long key."));
+        assertTrue(exception.getMessage().contains(options[3].toString()));
+    }
+
+}
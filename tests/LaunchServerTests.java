@@ -0,0 +1,173 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LaunchServerTests {
+
+    ArgsParser makeParser() {
+        ArgsParser argsParser = new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("greet"),
+                new ArgsParser.ArgOption().setShortKey('n').setLongKey("Name").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setRequired(true),
+                new ArgsParser.ArgOption().setShortKey('s').setLongKey("Shout").setUsage(ArgsParser.E_Usage.KEY)
+        );
+        argsParser.setEnvironmentPrefix("GREET_");
+        return argsParser;
+    }
+
+    ArgsParser.LaunchServer startServer() throws IOException {
+        Path directory = Files.createTempDirectory("LaunchServerTests");
+        directory.toFile().deleteOnExit();
+
+        ArgsParser.LaunchServer server = new ArgsParser.LaunchServer(directory.resolve("launch.sock"), null);
+        server.addCommand("greet", makeParser(), (argsParser, invocation) -> {
+            String greeting = "Hello " + argsParser.getResult("Name").getValue() + " in " + invocation.getWorkingDirectory();
+            invocation.getOut().println(argsParser.isPassed("Shout") ? greeting.toUpperCase() : greeting);
+            return 0;
+        });
+        server.addCommand("fail", makeParser(), (argsParser, invocation) -> {
+            throw new IllegalStateException("Handler failed");
+        });
+        server.start();
+        return server;
+    }
+
+
+
+    @Test
+    void pass_command_runs_with_client_directory() throws Exception {
+        try (ArgsParser.LaunchServer server = startServer()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+            int exitCode = ArgsParser.LaunchClient.run(server.getSocketFile(), "greet", new String[] {"-n", "Ada", "-s"},
+                    Paths.get("/work"), Collections.emptyMap(), out, err);
+
+            assertEquals(0, exitCode);
+            assertEquals("HELLO ADA IN /WORK" + System.lineSeparator(), out.toString("UTF-8"));
+            assertEquals(0, err.size());
+        }
+    }
+
+    @Test
+    void pass_client_environment_used_for_values() throws Exception {
+        try (ArgsParser.LaunchServer server = startServer()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            int exitCode = ArgsParser.LaunchClient.run(server.getSocketFile(), "greet", new String[0], Paths.get("/"),
+                    Collections.singletonMap("GREET_NAME", "Grace"), out, new ByteArrayOutputStream());
+
+            assertEquals(0, exitCode);
+            assertTrue(out.toString("UTF-8").startsWith("Hello Grace"));
+        }
+    }
+
+    @Test
+    void pass_relative_paths_resolved_against_client_directory() throws Exception {
+        Path clientDirectory = Files.createTempDirectory("LaunchServerTests");
+        clientDirectory.toFile().deleteOnExit();
+        Files.write(clientDirectory.resolve("name.txt"), "Ada".getBytes(StandardCharsets.UTF_8));
+        Files.write(clientDirectory.resolve("greet.properties"), "Shout=true".getBytes(StandardCharsets.UTF_8));
+        clientDirectory.resolve("name.txt").toFile().deleteOnExit();
+        clientDirectory.resolve("greet.properties").toFile().deleteOnExit();
+
+        ArgsParser argsParser = new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("read"),
+                new ArgsParser.ArgOption().setShortKey('n').setLongKey("Name").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setFileValues(true),
+                new ArgsParser.ArgOption().setShortKey('s').setLongKey("Shout").setUsage(ArgsParser.E_Usage.KEY)
+        );
+        argsParser.addConfigFile(Paths.get("greet.properties"));
+
+        try (ArgsParser.LaunchServer server = startServer()) {
+            server.addCommand("read", argsParser, (parser, invocation) -> {
+                invocation.getOut().print(parser.getResult("Name").getValueChars(0) + " " + parser.isPassed("Shout"));
+                return 0;
+            });
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            int exitCode = ArgsParser.LaunchClient.run(server.getSocketFile(), "read", new String[] {"-n", "@name.txt"},
+                    clientDirectory, Collections.emptyMap(), out, new ByteArrayOutputStream());
+
+            assertEquals(0, exitCode);
+            assertEquals("Ada true", out.toString("UTF-8"));
+        }
+    }
+
+    @Test
+    void pass_help_sent_without_exit() throws Exception {
+        try (ArgsParser.LaunchServer server = startServer()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            int exitCode = ArgsParser.LaunchClient.run(server.getSocketFile(), "greet", new String[] {"--help"},
+                    Paths.get("/"), Collections.emptyMap(), out, new ByteArrayOutputStream());
+
+            assertEquals(0, exitCode);
+            assertTrue(out.toString("UTF-8").contains("--Name"));
+        }
+    }
+
+    @Test
+    void fail_parse_errors_sent_to_stderr() throws Exception {
+        try (ArgsParser.LaunchServer server = startServer()) {
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+            int exitCode = ArgsParser.LaunchClient.run(server.getSocketFile(), "greet", new String[] {"--Nope"},
+                    Paths.get("/"), Collections.emptyMap(), new ByteArrayOutputStream(), err);
+
+            assertEquals(2, exitCode);
+            String messages = new String(err.toByteArray(), StandardCharsets.UTF_8);
+            assertTrue(messages.contains("No key match."));
+            assertTrue(messages.contains("A required argument was not passed."));
+        }
+    }
+
+    @Test
+    void fail_start_keeps_other_files_and_open_directories() throws Exception {
+        Path directory = Files.createTempDirectory("LaunchServerTests");
+        directory.toFile().deleteOnExit();
+        Path notSocket = directory.resolve("notes.txt");
+        notSocket.toFile().deleteOnExit();
+        Files.write(notSocket, "keep".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> new ArgsParser.LaunchServer(notSocket, null).start());
+        assertEquals("keep", new String(Files.readAllBytes(notSocket), StandardCharsets.UTF_8));
+
+        try (ArgsParser.LaunchServer server = startServer()) {
+            assertThrows(IOException.class, () -> new ArgsParser.LaunchServer(server.getSocketFile(), null).start());
+            assertEquals(0, ArgsParser.LaunchClient.run(server.getSocketFile(), "greet", new String[] {"-n", "x"},
+                    Paths.get("/"), Collections.emptyMap(), new ByteArrayOutputStream(), new ByteArrayOutputStream()));
+        }
+
+        if (Files.getFileStore(directory).supportsFileAttributeView("posix")) {
+            Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwxr-xr-x"));
+            assertThrows(IOException.class,
+                    () -> new ArgsParser.LaunchServer(directory.resolve("launch.sock"), null).start());
+        }
+    }
+
+    @Test
+    void fail_handler_exception_and_unknown_command() throws Exception {
+        try (ArgsParser.LaunchServer server = startServer()) {
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            int exitCode = ArgsParser.LaunchClient.run(server.getSocketFile(), "fail", new String[] {"-n", "x"},
+                    Paths.get("/"), Collections.emptyMap(), new ByteArrayOutputStream(), err);
+            assertEquals(1, exitCode);
+            assertTrue(err.toString("UTF-8").contains("Handler failed"));
+
+            exitCode = ArgsParser.LaunchClient.run(server.getSocketFile(), "nope", new String[0],
+                    Paths.get("/"), Collections.emptyMap(), new ByteArrayOutputStream(), new ByteArrayOutputStream());
+            assertEquals(2, exitCode);
+        }
+    }
+
+}
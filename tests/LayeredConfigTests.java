@@ -0,0 +1,121 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LayeredConfigTests {
+
+    ArgsParser.ProgrammeDetails makeProgrammeDetails() {
+        return new ArgsParser.ProgrammeDetails().setCommandName("ColColorize");
+    }
+
+    Path writeConfig(String... lines) throws IOException {
+        Path configFile = Files.createTempFile("LayeredConfigTests", ".properties");
+        configFile.toFile().deleteOnExit();
+        Files.write(configFile, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return configFile;
+    }
+
+
+
+    @Test
+    void pass_value_read_from_config_file() throws IOException {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        argsParser.addConfigFile(writeConfig("Set-Background=(1,2,3)", "Use-Defaults=true", "Not-An-Option=abc"));
+        argsParser.pareArgs(new String[] {});
+
+        assertEquals("(1,2,3)", argsParser.getResult(EnumArgOptions.BACKGROUND).getValue());
+        assertEquals(ArgsParser.E_Source.CONFIG_FILE, argsParser.getResult(EnumArgOptions.BACKGROUND).getSource());
+        assertTrue(argsParser.isPassed(EnumArgOptions.RESET));
+        assertTrue(argsParser.isShortPassed('b'));
+        assertFalse(argsParser.isPassed(EnumArgOptions.TEXT));
+    }
+
+    @Test
+    void pass_command_line_beats_environment_beats_config_file() throws IOException {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        argsParser.addConfigFile(writeConfig("Set-Background=file", "Set-Text=file"));
+        argsParser.setEnvironmentPrefix("COL_");
+
+        HashMap<String, String> environment = new HashMap<>();
+        environment.put("COL_SET_BACKGROUND", "env");
+        environment.put("COL_SET_TEXT", "env");
+        argsParser.setEnvironment(environment);
+
+        argsParser.pareArgs(new String[] {"-t", "cli"});
+
+        assertEquals("env", argsParser.getResult(EnumArgOptions.BACKGROUND).getValue());
+        assertEquals(ArgsParser.E_Source.ENVIRONMENT, argsParser.getResult(EnumArgOptions.BACKGROUND).getSource());
+        assertEquals("cli", argsParser.getResult(EnumArgOptions.TEXT).getValue());
+        assertEquals(ArgsParser.E_Source.COMMAND_LINE, argsParser.getResult(EnumArgOptions.TEXT).getSource());
+    }
+
+    @Test
+    void pass_later_config_file_takes_precedence() throws IOException {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        argsParser.addConfigFile(writeConfig("Set-Background=first", "Set-Text=first"));
+        argsParser.addConfigFile(writeConfig("Set-Background=second"));
+        argsParser.pareArgs(new String[] {});
+
+        assertEquals("second", argsParser.getResult(EnumArgOptions.BACKGROUND).getValue());
+        assertEquals("first", argsParser.getResult(EnumArgOptions.TEXT).getValue());
+    }
+
+    @Test
+    void pass_key_set_false_is_not_passed() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        argsParser.setEnvironmentPrefix("COL_");
+        argsParser.setEnvironment(Collections.singletonMap("COL_USE_DEFAULTS", "false"));
+        argsParser.pareArgs(new String[] {});
+
+        assertFalse(argsParser.isPassed(EnumArgOptions.RESET));
+    }
+
+    @Test
+    void fail_key_set_to_a_value() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        argsParser.setEnvironmentPrefix("COL_");
+        argsParser.setEnvironment(Collections.singletonMap("COL_USE_DEFAULTS", "yes please"));
+
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(new String[] {}));
+    }
+
+    @Test
+    void pass_missing_config_file_is_skipped() throws IOException {
+        Path configFile = writeConfig("Set-Background=abc");
+        Files.delete(configFile);
+
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        argsParser.addConfigFile(configFile);
+
+        assertDoesNotThrow(() -> argsParser.pareArgs(new String[] {}));
+        assertFalse(argsParser.isPassed(EnumArgOptions.BACKGROUND));
+    }
+
+    @Test
+    void pass_changed_config_file_is_read_again() throws IOException {
+        Path configFile = writeConfig("Set-Background=old");
+
+        ArgsParser first = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        first.addConfigFile(configFile);
+        first.pareArgs(new String[] {});
+        assertEquals("old", first.getResult(EnumArgOptions.BACKGROUND).getValue());
+
+        FileTime lastModified = Files.getLastModifiedTime(configFile);
+        Files.write(configFile, "Set-Background=new".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(configFile, FileTime.fromMillis(lastModified.toMillis() + 10_000));
+
+        ArgsParser second = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        second.addConfigFile(configFile);
+        second.pareArgs(new String[] {});
+        assertEquals("new", second.getResult(EnumArgOptions.BACKGROUND).getValue());
+    }
+
+}
@@ -0,0 +1,220 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListPublisherTests {
+
+    ArgsParser makeParser() {
+        return new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('v').setLongKey("Verbose").setUsage(ArgsParser.E_Usage.KEY),
+                new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST)
+        );
+    }
+
+    /**
+     * Records what it is given and keeps its subscription.
+     */
+    static class RecordingSubscriber implements ArgsParser.ListSubscriber {
+
+        final ArrayList<String> items = new ArrayList<>();
+
+        ArgsParser.ListSubscription subscription;
+
+        Throwable error;
+
+        boolean complete;
+
+        @Override
+        public void onSubscribe(ArgsParser.ListSubscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(String item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            complete = true;
+        }
+
+    }
+
+
+
+    @Test
+    void pass_items_only_as_requested() {
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"-v", "a", "b", "c", "--", "-d"});
+        ArgsParser.ListPublisher publisher = argsParser.getResult(argsParser.getArgOptions().get(1)).publishValues();
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher.subscribe(subscriber);
+        assertTrue(subscriber.items.isEmpty());
+
+        subscriber.subscription.request(1);
+        assertEquals(Arrays.asList("a"), subscriber.items);
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.asList("a", "b", "c"), subscriber.items);
+        assertFalse(subscriber.complete);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(Arrays.asList("a", "b", "c", "-d"), subscriber.items);
+        assertTrue(subscriber.complete);
+
+        // Each subscriber reads the values from the start.
+        RecordingSubscriber second = new RecordingSubscriber();
+        publisher.subscribe(second);
+        second.subscription.request(10);
+        assertEquals(subscriber.items, second.items);
+    }
+
+    @Test
+    void pass_undecoded_values_published_while_read() throws Exception {
+        byte[][] args = new byte[2001][];
+        args[0] = "-v".getBytes(StandardCharsets.UTF_8);
+        for (int i = 1; i < args.length; i++) {
+            args[i] = ("item-" + i).getBytes(StandardCharsets.UTF_8);
+        }
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(args);
+        ArgsParser.ArgReceived result = argsParser.getResult(argsParser.getArgOptions().get(1));
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        result.publishValues().subscribe(subscriber);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> subscriber.subscription.request(Long.MAX_VALUE));
+            for (int i = 0; i < 20; i++) {
+                assertEquals("item-2000", result.getValues().get(1999));
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertTrue(subscriber.complete);
+        assertEquals(result.getValues(), subscriber.items);
+    }
+
+    @Test
+    void pass_lines_to_worker_pool_with_bounded_in_flight() throws IOException, InterruptedException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            lines.append("/data/file-").append(i).append('\n');
+        }
+        Path argFile = Files.createTempFile("ListPublisherTests", ".txt");
+        argFile.toFile().deleteOnExit();
+        Files.write(argFile, lines.toString().getBytes(StandardCharsets.UTF_8));
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch processed = new CountDownLatch(1000);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        ArgsParser.ListPublisher.ofLines(argFile).subscribe(new ArgsParser.ListSubscriber() {
+            ArgsParser.ListSubscription subscription;
+
+            @Override
+            public void onSubscribe(ArgsParser.ListSubscription subscription) {
+                this.subscription = subscription;
+                subscription.request(4);
+            }
+
+            @Override
+            public void onNext(String item) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                pool.execute(() -> {
+                    assertTrue(item.startsWith("/data/file-"));
+                    inFlight.decrementAndGet();
+                    processed.countDown();
+                    subscription.request(1);
+                });
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        assertTrue(processed.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertTrue(maxInFlight.get() <= 4);
+    }
+
+    @Test
+    void pass_cancel_closes_stream() {
+        AtomicInteger closes = new AtomicInteger();
+        ByteArrayInputStream in = new ByteArrayInputStream("a\nb\nc\n".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closes.incrementAndGet();
+            }
+        };
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        ArgsParser.ListPublisher.ofLines(in).subscribe(subscriber);
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(5);
+
+        assertEquals(Arrays.asList("a"), subscriber.items);
+        assertFalse(subscriber.complete);
+        assertEquals(1, closes.get());
+    }
+
+    @Test
+    void fail_stream_has_one_subscriber() {
+        ArgsParser.ListPublisher publisher =
+                ArgsParser.ListPublisher.ofLines(new ByteArrayInputStream("a\nb".getBytes(StandardCharsets.UTF_8)));
+
+        RecordingSubscriber first = new RecordingSubscriber();
+        publisher.subscribe(first);
+        RecordingSubscriber second = new RecordingSubscriber();
+        publisher.subscribe(second);
+
+        first.subscription.request(3);
+        assertEquals(Arrays.asList("a", "b"), first.items);
+        assertTrue(first.complete);
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    @Test
+    void fail_non_positive_request() {
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"a", "b"});
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        argsParser.getResult(argsParser.getArgOptions().get(1)).publishValues().subscribe(subscriber);
+        subscriber.subscription.request(0);
+        subscriber.subscription.request(1);
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertTrue(subscriber.items.isEmpty());
+    }
+
+}
@@ -72,4 +72,15 @@ public class MixedInputTests {
         assertEquals("def", values.get(5));
     }
 
+    @Test
+    void pass_list_values_returned() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), EnumArgOptions.class);
+        String[] input = new String[] {"-t", "Black", "a.json", "b.json"};
+        argsParser.pareArgs(input);
+
+        assertTrue(argsParser.isPassed(EnumArgOptions.CONFIGS));
+        assertEquals(2, argsParser.getResult(EnumArgOptions.CONFIGS).getValues().size());
+        assertEquals("a.json", argsParser.getResult(EnumArgOptions.CONFIGS).getValue());
+    }
+
 }
@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParseListenerTests {
+
+    ArgsParser makeParser() {
+        return new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('v').setLongKey("Verbose").setUsage(ArgsParser.E_Usage.COUNT),
+                new ArgsParser.ArgOption().setShortKey('d').setLongKey("Dry-Run").setUsage(ArgsParser.E_Usage.KEY),
+                new ArgsParser.ArgOption().setShortKey('o').setLongKey("Output").setUsage(ArgsParser.E_Usage.KEY_VALUE),
+                new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST)
+        );
+    }
+
+    /**
+     * Records each callback as "kind:key:value@index".
+     */
+    static class RecordingListener implements ArgsParser.ParseListener {
+
+        final ArrayList<String> events = new ArrayList<>();
+
+        @Override
+        public void onKey(ArgsParser.ArgOption option, int tokenIndex) {
+            events.add("key:" + option.getName() + "@" + tokenIndex);
+        }
+
+        @Override
+        public void onKeyValue(ArgsParser.ArgOption option, String value, int tokenIndex) {
+            events.add("value:" + option.getName() + ":" + value + "@" + tokenIndex);
+        }
+
+        @Override
+        public void onListValue(ArgsParser.ArgOption option, String value, int tokenIndex) {
+            events.add("list:" + value + "@" + tokenIndex);
+        }
+
+    }
+
+
+
+    @Test
+    void pass_events_in_command_line_order() {
+        ArgsParser argsParser = makeParser();
+        RecordingListener listener = new RecordingListener();
+        argsParser.setParseListener(listener);
+
+        argsParser.pareArgs(new String[] {"-v", "-o", "out", "--Dry-Run", "-v", "a", "b", "--", "-c"});
+
+        assertEquals(Arrays.asList(
+                "key:Verbose@0",
+                "value:Output:out@2",
+                "key:Dry-Run@3",
+                "key:Verbose@4",
+                "list:a@5",
+                "list:b@6",
+                "list:-c@8"
+        ), listener.events);
+        assertEquals("out", argsParser.getResult("o").getValue());
+    }
+
+    @Test
+    void pass_without_storing_results() {
+        ArgsParser argsParser = makeParser();
+        RecordingListener listener = new RecordingListener();
+        argsParser.setParseListener(listener);
+        argsParser.setStoreResults(false);
+
+        argsParser.pareArgs(new String[] {"--Output=x", "a", "b"});
+
+        assertEquals(Arrays.asList("value:Output:x@0", "list:a@1", "list:b@2"), listener.events);
+        assertTrue(argsParser.isPassed("Output"));
+        assertTrue(argsParser.getResult("Output").getValues().isEmpty());
+        assertEquals(2, argsParser.getResult(argsParser.getArgOptions().get(3)).getCount());
+    }
+
+    @Test
+    void pass_layer_values_have_no_token() {
+        ArgsParser argsParser = makeParser();
+        RecordingListener listener = new RecordingListener();
+        argsParser.setParseListener(listener);
+        argsParser.setEnvironmentPrefix("PROG_");
+        argsParser.setEnvironment(Collections.singletonMap("PROG_OUTPUT", "env"));
+
+        argsParser.pareArgs(new String[] {"-d"});
+
+        assertEquals(Arrays.asList("key:Dry-Run@0", "value:Output:env@-1"), listener.events);
+    }
+
+    @Test
+    void fail_listener_exception_stops_parse() {
+        ArgsParser argsParser = makeParser();
+        argsParser.setParseListener(new ArgsParser.ParseListener() {
+            @Override
+            public void onListValue(ArgsParser.ArgOption option, String value, int tokenIndex) {
+                throw new IllegalStateException("Stop at " + value);
+            }
+        });
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> argsParser.pareArgs(new String[] {"-d", "a", "b"}));
+        assertEquals("Stop at a", e.getMessage());
+    }
+
+}
@@ -0,0 +1,130 @@
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParseMetricsTests {
+
+    ArgsParser makeParser() {
+        return new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('i').setLongKey("Input").setUsage(ArgsParser.E_Usage.KEY_VALUE),
+                new ArgsParser.ArgOption().setShortKey('v').setLongKey("Verbose").setUsage(ArgsParser.E_Usage.KEY),
+                new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST)
+        );
+    }
+
+
+
+    @Test
+    void pass_disabled_by_default() {
+        ArgsParser argsParser = makeParser();
+        assertNull(argsParser.getMetrics());
+
+        argsParser.setMetricsEnabled(true);
+        assertNotNull(argsParser.getMetrics());
+        argsParser.setMetricsEnabled(false);
+        assertNull(argsParser.getMetrics());
+    }
+
+    @Test
+    void pass_usage_and_failures_counted() {
+        ArgsParser argsParser = makeParser();
+        argsParser.setMetricsEnabled(true);
+        ArgsParser.ParseMetrics metrics = argsParser.getMetrics();
+
+        argsParser.pareArgs(new String[] {"-i", "a", "-v"});
+        argsParser.pareArgs(new String[] {"--Input=b", "c"});
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(new String[] {"--Nope"}));
+
+        assertEquals(3, metrics.getParseCount());
+        assertEquals(1, metrics.getFailedParseCount());
+        assertEquals(2, metrics.getUsageCount(argsParser.getArgOptions().get(0)));
+        assertEquals(1, (long) metrics.getOptionUsage().get("Verbose"));
+        assertEquals(1, metrics.getUsageCount(argsParser.getArgOptions().get(2)));
+        assertEquals(1, metrics.getFailureCount(ArgsParser.E_Diagnostic.UNKNOWN_KEY));
+        assertEquals(0, (long) metrics.getFailuresByCode().get("MISSING_VALUE"));
+    }
+
+    @Test
+    void fail_usage_count_of_equal_option_from_another_parser() {
+        ArgsParser argsParser = makeParser();
+        argsParser.setMetricsEnabled(true);
+        argsParser.pareArgs(new String[] {"-i", "a"});
+
+        ArgsParser.ArgOption equal = makeParser().getArgOptions().get(0);
+        assertEquals(argsParser.getArgOptions().get(0), equal);
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> argsParser.getMetrics().getUsageCount(equal));
+    }
+
+    @Test
+    void pass_collecting_parse_counts_every_problem() {
+        ArgsParser argsParser = makeParser();
+        argsParser.setMetricsEnabled(true);
+
+        argsParser.tryParseArgs(new String[] {"--Nope", "-v", "-v", "-i"});
+
+        ArgsParser.ParseMetrics metrics = argsParser.getMetrics();
+        assertEquals(1, metrics.getFailedParseCount());
+        assertEquals(1, metrics.getFailureCount(ArgsParser.E_Diagnostic.UNKNOWN_KEY));
+        assertEquals(1, metrics.getFailureCount(ArgsParser.E_Diagnostic.REPEATED_OPTION));
+        assertEquals(1, metrics.getFailureCount(ArgsParser.E_Diagnostic.MISSING_VALUE));
+
+        metrics.reset();
+        assertEquals(0, metrics.getParseCount());
+        assertEquals(0, metrics.getLatencyMaxNanos());
+    }
+
+    @Test
+    void pass_forks_share_metrics_across_threads() throws Exception {
+        ArgsParser compiled = makeParser();
+        compiled.setMetricsEnabled(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                futures.add(executor.submit(() -> compiled.fork().pareArgs(new String[] {"-v", "x"})));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        ArgsParser.ParseMetrics metrics = compiled.getMetrics();
+        assertEquals(1000, metrics.getParseCount());
+        assertEquals(1000, (long) metrics.getOptionUsage().get("Verbose"));
+        assertTrue(metrics.getLatencyP50Nanos() > 0);
+        assertTrue(metrics.getLatencyP50Nanos() <= metrics.getLatencyP99Nanos());
+        assertTrue(metrics.getLatencyP99Nanos() <= metrics.getLatencyMaxNanos());
+    }
+
+    @Test
+    void pass_registered_as_mbean() throws Exception {
+        ArgsParser argsParser = makeParser();
+        argsParser.setMetricsEnabled(true);
+        ArgsParser.ParseMetrics metrics = argsParser.getMetrics();
+        argsParser.pareArgs(new String[] {"-v"});
+
+        ObjectName name = metrics.registerMBean("ParseMetricsTests");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "ParseCount"));
+            assertThrows(ArgsParser.ArgumentOptionException.class, () -> metrics.registerMBean("ParseMetricsTests"));
+        } finally {
+            metrics.unregisterMBean();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+}
@@ -0,0 +1,151 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParserRegistryTests {
+
+    ArgsParser.ProgrammeDetails makeProgrammeDetails(String command) {
+        return new ArgsParser.ProgrammeDetails().setCommandName(command);
+    }
+
+    ArrayList<ArgsParser.ArgOption> makeOptions() {
+        return new ArrayList<>(Arrays.asList(
+                new ArgsParser.ArgOption().setShortKey('i').setLongKey("Input").setUsage(ArgsParser.E_Usage.KEY_VALUE),
+                new ArgsParser.ArgOption().setShortKey('v').setLongKey("Verbose").setUsage(ArgsParser.E_Usage.KEY)
+        ));
+    }
+
+
+
+    @Test
+    void pass_equal_specs_share_one_compile() {
+        ArgsParser.ParserRegistry registry = new ArgsParser.ParserRegistry(4);
+
+        ArgsParser first = registry.get(makeProgrammeDetails("tool"), makeOptions());
+        ArgsParser second = registry.get(makeProgrammeDetails("tool"), makeOptions());
+
+        assertNotSame(first, second);
+        assertSame(first.getArgOptions().get(0), second.getArgOptions().get(0));
+        assertEquals(1, registry.size());
+        assertEquals(1, registry.getHitCount());
+        assertEquals(1, registry.getMissCount());
+    }
+
+    @Test
+    void pass_forks_keep_separate_results() {
+        ArgsParser.ParserRegistry registry = new ArgsParser.ParserRegistry(4);
+        ArgsParser first = registry.get(makeProgrammeDetails("tool"), makeOptions());
+        ArgsParser second = registry.get(makeProgrammeDetails("tool"), makeOptions());
+
+        first.pareArgs(new String[] {"-i", "a", "-v"});
+        second.pareArgs(new String[] {"-i", "b"});
+
+        assertEquals("a", first.getResult("Input").getValue());
+        assertTrue(first.isPassed("Verbose"));
+        assertEquals("b", second.getResult("Input").getValue());
+        assertFalse(second.isPassed("Verbose"));
+    }
+
+    @Test
+    void pass_least_recently_used_evicted() {
+        ArgsParser.ParserRegistry registry = new ArgsParser.ParserRegistry(2);
+        AtomicInteger compiles = new AtomicInteger();
+
+        registry.get("a", () -> { compiles.incrementAndGet(); return new ArgsParser(makeProgrammeDetails("a"), makeOptions()); });
+        registry.get("b", () -> { compiles.incrementAndGet(); return new ArgsParser(makeProgrammeDetails("b"), makeOptions()); });
+        registry.get("a", () -> { compiles.incrementAndGet(); return new ArgsParser(makeProgrammeDetails("a"), makeOptions()); });
+        registry.get("c", () -> { compiles.incrementAndGet(); return new ArgsParser(makeProgrammeDetails("c"), makeOptions()); });
+        registry.get("a", () -> { compiles.incrementAndGet(); return new ArgsParser(makeProgrammeDetails("a"), makeOptions()); });
+        registry.get("b", () -> { compiles.incrementAndGet(); return new ArgsParser(makeProgrammeDetails("b"), makeOptions()); });
+
+        assertEquals(4, compiles.get());
+        assertEquals(2, registry.size());
+        assertEquals(2, registry.getEvictionCount());
+    }
+
+    @Test
+    void pass_concurrent_gets_parse_independently() throws Exception {
+        ArgsParser.ParserRegistry registry = new ArgsParser.ParserRegistry(8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String value = "value-" + i;
+                results.add(executor.submit(() -> {
+                    ArgsParser argsParser = registry.get(makeProgrammeDetails("tool"), makeOptions());
+                    argsParser.pareArgs(new String[] {"--Input=" + value});
+                    return argsParser.getResult("i").getValue();
+                }));
+            }
+            for (int i = 0; i < 200; i++) {
+                assertEquals("value-" + i, results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, registry.size());
+        assertEquals(200, registry.getHitCount() + registry.getMissCount());
+    }
+
+    @Test
+    void pass_slow_compile_holds_up_only_its_own_spec() throws Exception {
+        ArgsParser.ParserRegistry registry = new ArgsParser.ParserRegistry(8);
+        CountDownLatch compiling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger compiles = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<ArgsParser>> slow = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                slow.add(executor.submit(() -> registry.get("slow", () -> {
+                    compiles.incrementAndGet();
+                    compiling.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return new ArgsParser(makeProgrammeDetails("slow"), makeOptions());
+                })));
+            }
+            assertTrue(compiling.await(10, TimeUnit.SECONDS));
+
+            // Every other spec is served while "slow" compiles.
+            for (int i = 0; i < 20; i++) {
+                String command = "fast-" + (i % 4);
+                assertNotNull(executor.submit(() -> registry.get(command,
+                        () -> new ArgsParser(makeProgrammeDetails(command), makeOptions()))).get(10, TimeUnit.SECONDS));
+            }
+            assertFalse(slow.get(0).isDone());
+
+            release.countDown();
+            assertNotSame(slow.get(0).get(10, TimeUnit.SECONDS), slow.get(1).get(10, TimeUnit.SECONDS));
+            assertEquals(1, compiles.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void fail_compile_error_not_cached() {
+        ArgsParser.ParserRegistry registry = new ArgsParser.ParserRegistry(2);
+        List<ArgsParser.ArgOption> bad = Arrays.asList(
+                new ArgsParser.ArgOption().setShortKey('a').setUsage(ArgsParser.E_Usage.KEY),
+                new ArgsParser.ArgOption().setShortKey('a').setUsage(ArgsParser.E_Usage.KEY)
+        );
+
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> registry.get(makeProgrammeDetails("tool"), bad));
+        assertEquals(0, registry.size());
+    }
+
+}
@@ -0,0 +1,136 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PropertiesTests {
+
+    ArgsParser makeParser(ArgsParser.E_PropertyOverride override) {
+        return new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('D').setLongKey("Define")
+                        .setUsage(ArgsParser.E_Usage.PROPERTIES).setPropertyOverride(override),
+                new ArgsParser.ArgOption().setShortKey('d').setLongKey("Debug").setUsage(ArgsParser.E_Usage.KEY),
+                new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST)
+        );
+    }
+
+
+
+    @Test
+    void pass_joined_separate_and_long_forms() {
+        ArgsParser argsParser = makeParser(ArgsParser.E_PropertyOverride.LAST_WINS);
+        argsParser.pareArgs(new String[] {"-Dmode=fast", "-d", "-D", "level=3", "--Define=path=/a=b", "-Dflag", "x"});
+
+        ArgsParser.PropertyMap properties = argsParser.getResult("D").getProperties();
+        assertEquals(4, properties.size());
+        assertEquals("fast", properties.get("mode"));
+        assertEquals("3", properties.get("level"));
+        assertEquals("/a=b", properties.get("path"));
+        assertEquals("", properties.get("flag"));
+        assertNull(properties.get("missing"));
+        assertEquals("none", properties.get("missing", "none"));
+
+        assertEquals(Arrays.asList("mode=fast", "level=3", "path=/a=b", "flag="),
+                argsParser.getResult("Define").getValues());
+        assertEquals("mode=fast", argsParser.getResult("Define").getValue());
+        assertTrue(argsParser.isPassed("Debug"));
+        assertEquals("x", argsParser.getResult(argsParser.getArgOptions().get(2)).getValue());
+    }
+
+    @Test
+    void pass_long_key_with_one_dash_not_read_as_property() {
+        ArgsParser argsParser = makeParser(ArgsParser.E_PropertyOverride.LAST_WINS);
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(new String[] {"-Define=x"}));
+
+        List<ArgsParser.Diagnostic> diagnostics =
+                argsParser.tryParseArgs(new String[] {"-Define=x", "-Define", "-Defined=y"}).getDiagnostics();
+        assertEquals(2, diagnostics.size());
+        assertEquals(ArgsParser.E_Diagnostic.WRONG_DASH_COUNT, diagnostics.get(0).getCode());
+        assertEquals(ArgsParser.E_Diagnostic.WRONG_DASH_COUNT, diagnostics.get(1).getCode());
+        assertEquals("y", argsParser.getResult("D").getProperties().get("efined"));
+
+        assertEquals(ArgsParser.E_Diagnostic.WRONG_DASH_COUNT,
+                argsParser.startIncrementalParse().accept("-Define=x").getProblem());
+    }
+
+    @Test
+    void pass_override_policies() {
+        String[] input = new String[] {"-Dmode=a", "-Dother=1", "-Dmode=b"};
+
+        ArgsParser last = makeParser(ArgsParser.E_PropertyOverride.LAST_WINS);
+        last.pareArgs(input);
+        assertEquals("b", last.getResult("D").getProperties().get("mode"));
+        assertEquals("mode", last.getResult("D").getProperties().getName(0));
+        assertEquals(3, last.getResult("D").getCount());
+
+        ArgsParser first = makeParser(ArgsParser.E_PropertyOverride.FIRST_WINS);
+        first.pareArgs(input);
+        assertEquals("a", first.getResult("D").getProperties().get("mode"));
+
+        ArgsParser error = makeParser(ArgsParser.E_PropertyOverride.ERROR);
+        List<ArgsParser.Diagnostic> diagnostics = error.tryParseArgs(input).getDiagnostics();
+        assertEquals(1, diagnostics.size());
+        assertEquals(ArgsParser.E_Diagnostic.REPEATED_PROPERTY, diagnostics.get(0).getCode());
+        assertEquals(2, diagnostics.get(0).getTokenIndex());
+        assertEquals("a", error.getResult("D").getProperties().get("mode"));
+    }
+
+    @Test
+    void pass_thousands_of_pairs() {
+        String[] input = new String[5000];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = "-Dkey." + i + "=" + (i * 7);
+        }
+        ArgsParser argsParser = makeParser(ArgsParser.E_PropertyOverride.LAST_WINS);
+        argsParser.pareArgs(input);
+
+        ArgsParser.PropertyMap properties = argsParser.getResult("D").getProperties();
+        assertEquals(5000, properties.size());
+        for (int i = 0; i < input.length; i++) {
+            assertEquals(String.valueOf(i * 7), properties.get("key." + i));
+            assertEquals("key." + i, properties.getName(i));
+        }
+        assertEquals(5000, properties.toMap().size());
+    }
+
+    @Test
+    void pass_schema_and_snapshot_keep_override() throws IOException {
+        Path schemaFile = Files.createTempFile("PropertiesTests", ".schema");
+        schemaFile.toFile().deleteOnExit();
+        Files.write(schemaFile, String.join("\n", "[define]", "shortKey = D", "usage = properties",
+                "propertyOverride = error").getBytes(StandardCharsets.UTF_8));
+        Path snapshotFile = Files.createTempFile("PropertiesTests", ".snapshot");
+        snapshotFile.toFile().deleteOnExit();
+        Files.delete(snapshotFile);
+
+        ArgsParser.ProgrammeDetails details = new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog");
+        ArgsParser.fromSchema(details, schemaFile, snapshotFile);
+        ArgsParser fromSnapshot = ArgsParser.fromSnapshot(details, snapshotFile);
+
+        assertEquals(ArgsParser.readSchema(schemaFile), fromSnapshot.getArgOptions());
+        assertEquals(ArgsParser.E_PropertyOverride.ERROR, fromSnapshot.getArgOptions().get(0).getPropertyOverride());
+    }
+
+    @Test
+    void fail_pair_without_name_and_override_on_key_value() {
+        ArgsParser argsParser = makeParser(ArgsParser.E_PropertyOverride.LAST_WINS);
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(new String[] {"-D=x"}));
+        assertEquals(ArgsParser.E_Diagnostic.INVALID_PROPERTY,
+                argsParser.tryParseArgs(new String[] {"--Define==x", "-d"}).getDiagnostics().get(0).getCode());
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> argsParser.getResult("d").getProperties());
+
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('o').setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setPropertyOverride(ArgsParser.E_PropertyOverride.FIRST_WINS)
+        ));
+    }
+
+}
@@ -0,0 +1,129 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReloadableParserTests {
+
+    ArgsParser.ProgrammeDetails makeProgrammeDetails() {
+        return new ArgsParser.ProgrammeDetails().setCommandName("Daemon");
+    }
+
+    Path writeSchema(Path schemaFile, String... lines) throws IOException {
+        Files.write(schemaFile, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return schemaFile;
+    }
+
+    Path makeSchemaPath() throws IOException {
+        Path schemaFile = Files.createTempFile("ReloadableParserTests", ".schema");
+        schemaFile.toFile().deleteOnExit();
+        return schemaFile;
+    }
+
+    String[] firstSchema = new String[] {
+            "[level]",
+            "shortKey = l",
+            "longKey = Level",
+            "usage = KEY_VALUE",
+    };
+
+    String[] secondSchema = new String[] {
+            "[level]",
+            "shortKey = l",
+            "longKey = Level",
+            "usage = KEY_VALUE",
+            "",
+            "[trace]",
+            "longKey = Trace",
+            "usage = KEY",
+    };
+
+
+
+    @Test
+    void pass_reload_publishes_new_version() throws IOException {
+        Path schemaFile = writeSchema(makeSchemaPath(), firstSchema);
+        try (ArgsParser.ReloadableParser reloadable =
+                     new ArgsParser.ReloadableParser(makeProgrammeDetails(), schemaFile, null, 0, null)) {
+            ArgsParser before = reloadable.get();
+            assertThrows(ArgsParser.ParseArgumentException.class, () -> before.pareArgs(new String[] {"--Trace"}));
+
+            writeSchema(schemaFile, secondSchema);
+            assertTrue(reloadable.reload());
+            assertEquals(2, reloadable.getVersion());
+
+            ArgsParser after = reloadable.get();
+            after.pareArgs(new String[] {"--Trace", "-l", "debug"});
+            assertTrue(after.isPassed("Trace"));
+
+            // A parser from before the reload keeps the old options.
+            assertThrows(ArgsParser.ArgumentOptionException.class, () -> before.getResult("Trace"));
+        }
+    }
+
+    @Test
+    void pass_unchanged_contents_not_recompiled() throws IOException {
+        Path schemaFile = writeSchema(makeSchemaPath(), firstSchema);
+        try (ArgsParser.ReloadableParser reloadable =
+                     new ArgsParser.ReloadableParser(makeProgrammeDetails(), schemaFile, null, 0, null)) {
+            writeSchema(schemaFile, firstSchema);
+            assertTrue(reloadable.reload());
+            assertEquals(1, reloadable.getVersion());
+        }
+    }
+
+    @Test
+    void pass_configure_applied_to_each_version() throws IOException {
+        Path schemaFile = writeSchema(makeSchemaPath(), firstSchema);
+        try (ArgsParser.ReloadableParser reloadable = new ArgsParser.ReloadableParser(makeProgrammeDetails(),
+                schemaFile, null, 0, argsParser -> argsParser.setStoreResults(false))) {
+            writeSchema(schemaFile, secondSchema);
+            reloadable.reload();
+
+            ArgsParser argsParser = reloadable.get();
+            argsParser.pareArgs(new String[] {"--Level=debug"});
+            assertTrue(argsParser.getResult("Level").getValues().isEmpty());
+        }
+    }
+
+    @Test
+    void pass_poll_picks_up_change() throws Exception {
+        Path schemaFile = writeSchema(makeSchemaPath(), firstSchema);
+        try (ArgsParser.ReloadableParser reloadable =
+                     new ArgsParser.ReloadableParser(makeProgrammeDetails(), schemaFile, null, 10, null)) {
+            writeSchema(schemaFile, secondSchema);
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (reloadable.getVersion() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, reloadable.getVersion());
+            assertDoesNotThrow(() -> reloadable.get().pareArgs(new String[] {"--Trace"}));
+        }
+    }
+
+    @Test
+    void fail_bad_schema_keeps_current_version() throws IOException {
+        Path schemaFile = writeSchema(makeSchemaPath(), firstSchema);
+        try (ArgsParser.ReloadableParser reloadable =
+                     new ArgsParser.ReloadableParser(makeProgrammeDetails(), schemaFile, null, 0, null)) {
+            writeSchema(schemaFile, "[level]", "colour = red");
+            assertFalse(reloadable.reload());
+            assertTrue(reloadable.getLastError() instanceof ArgsParser.ArgumentOptionException);
+            assertEquals(1, reloadable.getVersion());
+            assertDoesNotThrow(() -> reloadable.get().pareArgs(new String[] {"-l", "info"}));
+        }
+    }
+
+    @Test
+    void constructor_fail_bad_first_schema() throws IOException {
+        Path schemaFile = writeSchema(makeSchemaPath(), "[level]", "usage = SOMETIMES");
+        assertThrows(ArgsParser.ArgumentOptionException.class,
+                () -> new ArgsParser.ReloadableParser(makeProgrammeDetails(), schemaFile, null, 0, null));
+    }
+
+}
@@ -0,0 +1,165 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultCacheTests {
+
+    ArgsParser makeParser() {
+        ArgsParser argsParser = new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('j').setLongKey("Job").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setRequired(true),
+                new ArgsParser.ArgOption().setShortKey('c').setLongKey("Cpus").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setValueFormat(ArgsParser.E_ValueFormat.INT_LIST),
+                new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST)
+        );
+        argsParser.setResultCacheSize(4);
+        return argsParser;
+    }
+
+
+
+    @Test
+    void pass_repeat_parse_served_from_cache() {
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"-j", "backup", "--Cpus=0-3", "a", "--", "-b"});
+        argsParser.pareArgs(new String[] {"-j", "report"});
+        argsParser.pareArgs(new String[] {"-j", "backup", "--Cpus=0-3", "a", "--", "-b"});
+
+        assertEquals(1, argsParser.getResultCacheHitCount());
+        assertEquals(2, argsParser.getResultCacheMissCount());
+        assertEquals("backup", argsParser.getResult("Job").getValue());
+        assertArrayEquals(new int[] {0, 1, 2, 3}, argsParser.getResult("c").getInts());
+        assertEquals(Arrays.asList("a", "-b"), argsParser.getResult(argsParser.getArgOptions().get(2)).getValues());
+        assertEquals(Collections.singletonList("-b"), argsParser.getPassThroughArgs());
+    }
+
+    @Test
+    void pass_later_parses_leave_cached_results_alone() {
+        ArgsParser argsParser = makeParser();
+        String[] args = new String[] {"-j", "backup", "x"};
+        argsParser.pareArgs(args);
+        args[1] = "changed";
+
+        argsParser.pareArgs(new String[] {"-j", "other", "y"});
+        argsParser.pareArgs(new String[] {"-j", "backup", "x"});
+
+        assertEquals(1, argsParser.getResultCacheHitCount());
+        assertEquals("backup", argsParser.getResult("j").getValue());
+        assertEquals("x", argsParser.getResult(argsParser.getArgOptions().get(2)).getValue());
+        assertFalse(argsParser.isPassed("Cpus"));
+    }
+
+    @Test
+    void pass_forks_share_the_cache() {
+        ArgsParser compiled = makeParser();
+        compiled.fork().pareArgs(new String[] {"-j", "a"});
+        ArgsParser fork = compiled.fork();
+        fork.pareArgs(new String[] {"-j", "a"});
+
+        assertEquals(1, compiled.getResultCacheHitCount());
+        assertEquals("a", fork.getResult("Job").getValue());
+    }
+
+    @Test
+    void pass_forks_hit_on_many_threads() throws Exception {
+        ArgsParser compiled = makeParser();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String job = "job-" + (i % 3);
+                results.add(executor.submit(() -> {
+                    ArgsParser fork = compiled.fork();
+                    fork.pareArgs(new String[] {"-j", job, "--Cpus=1"});
+                    return fork.getResult("Job").getValue();
+                }));
+            }
+            for (int i = 0; i < 400; i++) {
+                assertEquals("job-" + (i % 3), results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(400, compiled.getResultCacheHitCount() + compiled.getResultCacheMissCount());
+        assertTrue(compiled.getResultCacheHitCount() >= 400 - 8 * 3);
+    }
+
+    @Test
+    void pass_skipped_with_environment_values() {
+        ArgsParser argsParser = makeParser();
+        argsParser.setEnvironmentPrefix("PROG_");
+        argsParser.setEnvironment(Collections.singletonMap("PROG_JOB", "env"));
+        argsParser.pareArgs(new String[0]);
+        argsParser.pareArgs(new String[0]);
+
+        assertEquals(0, argsParser.getResultCacheHitCount() + argsParser.getResultCacheMissCount());
+        assertEquals("env", argsParser.getResult("Job").getValue());
+    }
+
+    @Test
+    void pass_skipped_with_file_values() throws IOException {
+        Path file = Files.createTempFile("ResultCacheTests", ".txt");
+        file.toFile().deleteOnExit();
+        ArgsParser argsParser = new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('f').setUsage(ArgsParser.E_Usage.KEY_VALUE).setFileValues(true)
+        );
+        argsParser.setResultCacheSize(4);
+
+        Files.write(file, "first".getBytes(StandardCharsets.UTF_8));
+        argsParser.pareArgs(new String[] {"-f", "@" + file});
+        assertEquals("first", argsParser.getResult("f").getValueChars(0).toString());
+
+        Files.write(file, "second".getBytes(StandardCharsets.UTF_8));
+        argsParser.pareArgs(new String[] {"-f", "@" + file});
+        assertEquals("second", argsParser.getResult("f").getValueChars(0).toString());
+        assertEquals(0, argsParser.getResultCacheHitCount() + argsParser.getResultCacheMissCount());
+    }
+
+    @Test
+    void fail_changed_value_list_limit_not_served_from_cache() {
+        ArgsParser compiled = makeParser();
+        String[] args = new String[] {"-j", "a", "--Cpus=1-5"};
+        compiled.pareArgs(args);
+
+        ArgsParser fork = compiled.fork();
+        fork.setValueListLimit(2);
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> fork.pareArgs(args));
+
+        compiled.setValueListLimit(2);
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> compiled.pareArgs(args));
+        assertEquals(0, compiled.getResultCacheHitCount());
+
+        ArgsParser unchanged = makeParser();
+        unchanged.pareArgs(args);
+        ArgsParser sameLimit = unchanged.fork();
+        sameLimit.setValueListLimit(1 << 20);
+        sameLimit.pareArgs(args);
+        assertEquals(1, unchanged.getResultCacheHitCount());
+    }
+
+    @Test
+    void fail_errors_not_cached() {
+        ArgsParser argsParser = makeParser();
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(new String[] {"x"}));
+        }
+        assertEquals(0, argsParser.getResultCacheHitCount());
+        assertEquals(2, argsParser.getResultCacheMissCount());
+    }
+
+}
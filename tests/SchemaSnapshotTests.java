@@ -0,0 +1,183 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaSnapshotTests {
+
+    ArgsParser.ProgrammeDetails makeProgrammeDetails() {
+        return new ArgsParser.ProgrammeDetails().setCommandName("ColColorize");
+    }
+
+    Path writeSchema(String... lines) throws IOException {
+        Path schemaFile = Files.createTempFile("SchemaSnapshotTests", ".schema");
+        schemaFile.toFile().deleteOnExit();
+        Files.write(schemaFile, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return schemaFile;
+    }
+
+    Path makeSnapshotPath() throws IOException {
+        Path snapshotFile = Files.createTempFile("SchemaSnapshotTests", ".snapshot");
+        snapshotFile.toFile().deleteOnExit();
+        Files.delete(snapshotFile);
+        return snapshotFile;
+    }
+
+    String[] colourSchema = new String[] {
+            "# The options of ColColorize.",
+            "[background]",
+            "shortKey = b",
+            "longKey = Set-Background",
+            "usage = KEY_VALUE",
+            "description = This command sets the background colour of the console.",
+            "requires = Set-Text",
+            "",
+            "[text]",
+            "shortKey = t",
+            "longKey = Set-Text",
+            "usage = key_value",
+            "repeatable = true",
+            "",
+            "[files]",
+            "usage = LIST",
+            "listExample = {path...}",
+    };
+
+
+
+    @Test
+    void pass_schema_read() throws IOException {
+        ArrayList<ArgsParser.ArgOption> options = ArgsParser.readSchema(writeSchema(colourSchema));
+
+        assertEquals(3, options.size());
+        assertEquals('b', options.get(0).getShortKey());
+        assertEquals("Set-Background", options.get(0).getLongKey());
+        assertArrayEquals(new String[] {"Set-Text"}, options.get(0).getRequires());
+        assertTrue(options.get(1).isRepeatable());
+        assertEquals(ArgsParser.E_Usage.LIST, options.get(2).getUsage());
+    }
+
+    @Test
+    void pass_snapshot_matches_schema() throws IOException {
+        Path schemaFile = writeSchema(colourSchema);
+        Path snapshotFile = makeSnapshotPath();
+
+        ArgsParser compiled = ArgsParser.fromSchema(makeProgrammeDetails(), schemaFile, snapshotFile);
+        assertTrue(Files.exists(snapshotFile));
+
+        ArgsParser fromSnapshot = ArgsParser.fromSchema(makeProgrammeDetails(), schemaFile, snapshotFile);
+        assertEquals(ArgsParser.readSchema(schemaFile), fromSnapshot.getArgOptions());
+        assertEquals(compiled.getHelpText(), fromSnapshot.getHelpText());
+
+        fromSnapshot.pareArgs(new String[] {"-t", "red", "--Set-Background=blue", "a.txt"});
+        assertEquals("blue", fromSnapshot.getResult("b").getValue());
+        assertEquals("a.txt", fromSnapshot.getResult(fromSnapshot.getArgOptions().get(2)).getValue());
+    }
+
+    @Test
+    void pass_snapshot_help_text_decoded_when_used() throws IOException {
+        Path schemaFile = writeSchema(colourSchema);
+        Path snapshotFile = makeSnapshotPath();
+        ArgsParser.fromSchema(makeProgrammeDetails(), schemaFile, snapshotFile);
+
+        ArgsParser fromSnapshot = ArgsParser.fromSnapshot(makeProgrammeDetails(), snapshotFile);
+        ArgsParser.ArgOption background = fromSnapshot.getArgOptions().get(0);
+        ArgsParser.ArgOption files = fromSnapshot.getArgOptions().get(2);
+
+        // A setter decodes the rest of the text first, so only the field set changes.
+        files.setListExample("{file...}");
+        assertEquals("{file...}", files.getListExample());
+        assertEquals("", files.getDescription());
+        assertEquals("This command sets the background colour of the console.", background.getDescription());
+        assertEquals("{value}", background.getShortValueExample());
+        assertTrue(fromSnapshot.getHelpText().contains("{file...}"));
+    }
+
+    @Test
+    void pass_changed_schema_rebuilds_snapshot() throws IOException {
+        Path schemaFile = writeSchema(colourSchema);
+        Path snapshotFile = makeSnapshotPath();
+        ArgsParser.fromSchema(makeProgrammeDetails(), schemaFile, snapshotFile);
+
+        Files.write(schemaFile, "[reset]\nshortKey = r\nusage = KEY\n".getBytes(StandardCharsets.UTF_8));
+        ArgsParser argsParser = ArgsParser.fromSchema(makeProgrammeDetails(), schemaFile, snapshotFile);
+        assertEquals(1, argsParser.getArgOptions().size());
+
+        ArgsParser fromSnapshot = ArgsParser.fromSnapshot(makeProgrammeDetails(), snapshotFile);
+        assertEquals('r', fromSnapshot.getArgOptions().get(0).getShortKey());
+    }
+
+    @Test
+    void pass_corrupt_snapshot_is_rebuilt() throws IOException {
+        Path schemaFile = writeSchema(colourSchema);
+        Path snapshotFile = makeSnapshotPath();
+        Files.write(snapshotFile, new byte[] {1, 2, 3});
+
+        ArgsParser argsParser = ArgsParser.fromSchema(makeProgrammeDetails(), schemaFile, snapshotFile);
+        assertEquals(3, argsParser.getArgOptions().size());
+        assertEquals(3, ArgsParser.fromSnapshot(makeProgrammeDetails(), snapshotFile).getArgOptions().size());
+    }
+
+    @Test
+    void pass_snapshot_with_corrupt_counts_is_rebuilt() throws IOException {
+        Path schemaFile = writeSchema(colourSchema);
+        Path snapshotFile = makeSnapshotPath();
+        ArgsParser.fromSchema(makeProgrammeDetails(), schemaFile, snapshotFile);
+        byte[] valid = Files.readAllBytes(snapshotFile);
+
+        // The option count, the string table length, then the bucket and slot counts after the 24 byte header and
+        // three 116 byte option records.
+        for (int offset : new int[] {16, 20, 24 + 3 * 116 + 4, 24 + 3 * 116 + 8}) {
+            byte[] corrupt = valid.clone();
+            ByteBuffer.wrap(corrupt).putInt(offset, Integer.MAX_VALUE - 8);
+            Files.write(snapshotFile, corrupt);
+
+            ArgsParser argsParser = ArgsParser.fromSchema(makeProgrammeDetails(), schemaFile, snapshotFile);
+            assertEquals(3, argsParser.getArgOptions().size());
+            assertTrue(Arrays.equals(valid, Files.readAllBytes(snapshotFile)));
+        }
+    }
+
+    @Test
+    void pass_failed_snapshot_write_leaves_no_temporary_file() throws IOException {
+        Path schemaFile = writeSchema(colourSchema);
+        Path directory = Files.createTempDirectory("SchemaSnapshotTests");
+        directory.toFile().deleteOnExit();
+        // A directory that isn't empty can't be replaced, so the move fails.
+        Path snapshotFile = Files.createDirectory(directory.resolve("colour.snapshot"));
+        snapshotFile.toFile().deleteOnExit();
+        Path blocker = Files.createFile(snapshotFile.resolve("blocker"));
+        blocker.toFile().deleteOnExit();
+
+        ArgsParser argsParser = ArgsParser.fromSchema(makeProgrammeDetails(), schemaFile, snapshotFile);
+        assertEquals(3, argsParser.getArgOptions().size());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void fail_schema_unknown_property() throws IOException {
+        Path schemaFile = writeSchema("[background]", "shortKey = b", "colour = red");
+
+        ArgsParser.ArgumentOptionException e = assertThrows(ArgsParser.ArgumentOptionException.class,
+                () -> ArgsParser.readSchema(schemaFile));
+        assertTrue(e.getMessage().contains(schemaFile + ":3"));
+    }
+
+    @Test
+    void fail_snapshot_missing() throws IOException {
+        Path snapshotFile = makeSnapshotPath();
+        assertThrows(ArgsParser.ArgumentOptionException.class,
+                () -> ArgsParser.fromSnapshot(makeProgrammeDetails(), snapshotFile));
+    }
+
+}
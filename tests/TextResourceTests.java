@@ -0,0 +1,160 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextResourceTests {
+
+    ArgsParser.ProgrammeDetails makeProgrammeDetails() {
+        return new ArgsParser.ProgrammeDetails().setCommandName("Drinks");
+    }
+
+    Path makeDirectory() throws IOException {
+        Path directory = Files.createTempDirectory("TextResourceTests");
+        directory.toFile().deleteOnExit();
+        return directory;
+    }
+
+    Path write(Path file, String... lines) throws IOException {
+        Files.write(file, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+
+
+    @Test
+    void pass_text_loaded_for_help() throws IOException {
+        Path textFile = write(makeDirectory().resolve("drinks.properties"),
+                "drink.description = Use this to order a drink.",
+                "drink.shortValueExample = coke:large",
+                "size.description = Caf\\u00e9 sizes.");
+        ArgsParser.TextResource text = ArgsParser.TextResource.fromFile(textFile);
+
+        ArgsParser.ArgOption drink = new ArgsParser.ArgOption().setShortKey('d').setLongKey("Drink")
+                .setUsage(ArgsParser.E_Usage.KEY_VALUE).setLongValueExample("pepsi").setText(text, "drink");
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), drink,
+                new ArgsParser.ArgOption().setShortKey('s').setUsage(ArgsParser.E_Usage.KEY).setText(text, "size"));
+
+        String help = argsParser.getHelpText();
+        assertTrue(help.contains("Use this to order a drink."));
+        assertTrue(help.contains("-d coke:large"));
+        assertTrue(help.contains("--Drink=pepsi"));
+        assertEquals("Caf\u00e9 sizes.", argsParser.getArgOptions().get(1).getDescription());
+    }
+
+    @Test
+    void pass_parse_and_equals_never_read_the_text() throws IOException {
+        Path missingFile = makeDirectory().resolve("missing.properties");
+        ArgsParser.TextResource missing = ArgsParser.TextResource.fromFile(missingFile);
+        ArgsParser.ArgOption first = new ArgsParser.ArgOption().setShortKey('d').setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                .setText(missing, "drink");
+        ArgsParser.ArgOption second = new ArgsParser.ArgOption().setShortKey('d').setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                .setText(ArgsParser.TextResource.fromFile(missingFile), "drink");
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, new ArgsParser.ArgOption().setShortKey('d').setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                .setText(missing, "other"));
+
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), first);
+        argsParser.pareArgs(new String[] {"-d", "coke"});
+        assertEquals("coke", argsParser.getResult("d").getValue());
+
+        assertThrows(ArgsParser.ArgumentOptionException.class, argsParser::getHelpText);
+    }
+
+    @Test
+    void pass_held_text_not_part_of_equals() {
+        ArgsParser.ArgOption first = new ArgsParser.ArgOption().setShortKey('d').setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                .setDescription("Order a drink.").setShortValueExample("coke");
+        ArgsParser.ArgOption second = new ArgsParser.ArgOption().setShortKey('d').setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                .setDescription("Pick a drink.").setLongValueExample("pepsi").setListExample("a b");
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        // The registry still keeps a parser per help text.
+        ArgsParser.ParserRegistry registry = new ArgsParser.ParserRegistry(4);
+        assertTrue(registry.get(makeProgrammeDetails(), Arrays.asList(first)).getHelpText().contains("Order a drink."));
+        assertTrue(registry.get(makeProgrammeDetails(), Arrays.asList(second)).getHelpText().contains("Pick a drink."));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void pass_schema_text_file_survives_snapshot() throws IOException {
+        Path directory = makeDirectory();
+        write(directory.resolve("drinks.properties"), "drink.description = Order a drink.");
+        Path schemaFile = write(directory.resolve("drinks.schema"),
+                "[drink]",
+                "shortKey = d",
+                "usage = KEY_VALUE",
+                "textFile = drinks.properties",
+                "textKey = drink");
+        Path snapshotFile = directory.resolve("drinks.snapshot");
+        snapshotFile.toFile().deleteOnExit();
+
+        ArrayList<ArgsParser.ArgOption> options = ArgsParser.readSchema(schemaFile);
+        assertEquals("Order a drink.", options.get(0).getDescription());
+
+        ArgsParser.fromSchema(makeProgrammeDetails(), schemaFile, snapshotFile);
+        ArgsParser restored = ArgsParser.fromSnapshot(makeProgrammeDetails(), snapshotFile);
+        assertEquals(options, restored.getArgOptions());
+        assertTrue(restored.getHelpText().contains("Order a drink."));
+    }
+
+    @Test
+    void pass_snapshot_moved_with_its_text_file() throws IOException {
+        Path built = makeDirectory();
+        Path textFile = write(built.resolve("drinks.properties"), "drink.description = Order a drink.");
+        Path schemaFile = write(built.resolve("drinks.schema"),
+                "[drink]",
+                "shortKey = d",
+                "usage = KEY_VALUE",
+                "textFile = drinks.properties",
+                "textKey = drink");
+        Path snapshotFile = built.resolve("drinks.snapshot");
+        ArgsParser.fromSchema(makeProgrammeDetails(), schemaFile, snapshotFile);
+
+        Path installed = makeDirectory();
+        Files.move(textFile, installed.resolve("drinks.properties"));
+        Files.move(snapshotFile, installed.resolve("drinks.snapshot"));
+        installed.resolve("drinks.properties").toFile().deleteOnExit();
+        installed.resolve("drinks.snapshot").toFile().deleteOnExit();
+
+        ArgsParser restored = ArgsParser.fromSnapshot(makeProgrammeDetails(), installed.resolve("drinks.snapshot"));
+        assertEquals("Order a drink.", restored.getArgOptions().get(0).getDescription());
+    }
+
+    @Test
+    void constructor_fail_text_key_without_resource() throws IOException {
+        Path schemaFile = write(makeDirectory().resolve("drinks.schema"),
+                "[drink]",
+                "shortKey = d",
+                "usage = KEY",
+                "textKey = drink");
+
+        assertThrows(ArgsParser.ArgumentOptionException.class,
+                () -> new ArgsParser(makeProgrammeDetails(), ArgsParser.readSchema(schemaFile)));
+        assertThrows(ArgsParser.ArgumentOptionException.class,
+                () -> new ArgsParser.ArgOption().setText(null, "drink"));
+    }
+
+    @Test
+    void fail_missing_class_resource_on_help() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(),
+                new ArgsParser.ArgOption().setShortKey('d').setUsage(ArgsParser.E_Usage.KEY)
+                        .setText(ArgsParser.TextResource.fromResource(TextResourceTests.class, "missing.properties"), "d"));
+
+        ArgsParser.ArgumentOptionException e =
+                assertThrows(ArgsParser.ArgumentOptionException.class, argsParser::getHelpText);
+        assertTrue(e.getMessage().startsWith("Unable to read the text resource."));
+    }
+
+}
@@ -0,0 +1,82 @@
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Utf8ArgsTests {
+
+    ArgsParser makeParser() {
+        return new ArgsParser(
+                new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog"),
+                new ArgsParser.ArgOption().setShortKey('o').setLongKey("Output").setUsage(ArgsParser.E_Usage.KEY_VALUE),
+                new ArgsParser.ArgOption().setShortKey('v').setLongKey("Verbose").setUsage(ArgsParser.E_Usage.KEY),
+                new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST)
+        );
+    }
+
+    byte[][] encode(String... args) {
+        byte[][] encoded = new byte[args.length][];
+        for (int i = 0; i < args.length; i++) {
+            encoded[i] = args[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+
+
+
+    @Test
+    void pass_same_results_as_strings() {
+        String[] args = new String[] {"-o", "caf\u00e9.txt", "-v", "\u65e5\u672c", "a", "b", "--", "-d"};
+        ArgsParser fromStrings = makeParser();
+        fromStrings.pareArgs(args);
+        ArgsParser fromBytes = makeParser();
+        fromBytes.pareArgs(encode(args));
+
+        for (ArgsParser.ArgOption option : fromStrings.getArgOptions()) {
+            assertEquals(fromStrings.getResult(option).getValues(), fromBytes.getResult(option).getValues());
+            assertEquals(fromStrings.getResult(option).getCount(), fromBytes.getResult(option).getCount());
+        }
+        assertEquals(Arrays.asList("-d"), fromBytes.getPassThroughArgs());
+    }
+
+    @Test
+    void pass_list_items_decoded_when_read() {
+        byte[][] args = encode("-v", "first", "second");
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(args);
+
+        // Not decoded by the parse, so the change is seen.
+        args[2][0] = 'S';
+
+        ArgsParser.ArgReceived list = argsParser.getResult(argsParser.getArgOptions().get(2));
+        assertEquals(2, list.getCount());
+        assertEquals("first", list.getValue());
+        assertEquals("Second", list.getValueChars(1));
+        assertEquals(Arrays.asList("first", "Second"), list.getValues());
+    }
+
+    @Test
+    void pass_nul_separated_command_line() {
+        byte[] cmdline = "java\0-o\0out\0x\0\0".getBytes(StandardCharsets.UTF_8);
+        ArgsParser argsParser = makeParser();
+        argsParser.pareNulSeparatedArgs(cmdline, 5, cmdline.length - 5);
+
+        assertEquals("out", argsParser.getResult("o").getValue());
+        assertEquals(Arrays.asList("x", ""), argsParser.getResult(argsParser.getArgOptions().get(2)).getValues());
+
+        byte[] unterminated = "--Output=a\0b".getBytes(StandardCharsets.UTF_8);
+        argsParser.pareNulSeparatedArgs(unterminated, 0, unterminated.length);
+        assertEquals("a", argsParser.getResult("o").getValue());
+        assertEquals("b", argsParser.getResult(argsParser.getArgOptions().get(2)).getValue());
+    }
+
+    @Test
+    void fail_unknown_key_and_missing_value() {
+        ArgsParser argsParser = makeParser();
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(encode("--Nope")));
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(encode("a", "-o")));
+    }
+
+}
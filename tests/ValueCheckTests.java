@@ -0,0 +1,119 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValueCheckTests {
+
+    ArgsParser.ProgrammeDetails makeProgrammeDetails() {
+        return new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog");
+    }
+
+    ArgsParser makeParser() {
+        return new ArgsParser(
+                makeProgrammeDetails(),
+                new ArgsParser.ArgOption().setShortKey('p').setLongKey("Port").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setValueRange(1, 65535),
+                new ArgsParser.ArgOption().setShortKey('n').setLongKey("Name").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setValuePattern("[a-z][a-z0-9-]*").setValueLength(1, 8),
+                new ArgsParser.ArgOption().setShortKey('k').setLongKey("Key").setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setValueCharset("0123456789abcdef"),
+                new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST).setValueLength(1, 3)
+        );
+    }
+
+
+
+    @Test
+    void pass_values_that_pass_checks() {
+        ArgsParser argsParser = makeParser();
+        argsParser.pareArgs(new String[] {"-p", "8080", "--Name=web-1", "-k", "00ff", "a", "bb", "--", "-c"});
+
+        assertEquals("8080", argsParser.getResult("Port").getValue());
+        assertEquals("web-1", argsParser.getResult("Name").getValue());
+        assertEquals("00ff", argsParser.getResult("Key").getValue());
+        assertEquals(Arrays.asList("a", "bb", "-c"), argsParser.getResult(argsParser.getArgOptions().get(3)).getValues());
+    }
+
+    @Test
+    void fail_each_check_reported_and_value_dropped() {
+        ArgsParser argsParser = makeParser();
+        assertThrows(ArgsParser.ParseArgumentException.class, () -> argsParser.pareArgs(new String[] {"-p", "0"}));
+
+        String[] input = new String[] {"-p", "http", "--Port=70000", "-n", "Web", "-n", "abcdefghi", "-k", "00fg",
+                "abcd", "--", "long"};
+        List<ArgsParser.Diagnostic> diagnostics = argsParser.tryParseArgs(input).getDiagnostics();
+
+        assertEquals(7, diagnostics.size());
+        for (ArgsParser.Diagnostic diagnostic : diagnostics) {
+            assertEquals(ArgsParser.E_Diagnostic.INVALID_VALUE, diagnostic.getCode());
+        }
+        assertEquals(1, diagnostics.get(0).getTokenIndex());
+        assertTrue(diagnostics.get(0).getMessage().contains("It is not a whole number"));
+        assertTrue(diagnostics.get(1).getMessage().contains("It is not from 1 to 65535"));
+        assertTrue(diagnostics.get(2).getMessage().contains("does not match the pattern"));
+        assertTrue(diagnostics.get(3).getMessage().contains("It has 9 charters"));
+        assertTrue(diagnostics.get(4).getMessage().contains("The charter 'g'"));
+        assertEquals(9, diagnostics.get(5).getTokenIndex());
+        assertEquals(11, diagnostics.get(6).getTokenIndex());
+
+        assertNull(argsParser.getResult("Port").getValue());
+        assertTrue(argsParser.getResult(argsParser.getArgOptions().get(3)).getValues().isEmpty());
+    }
+
+    @Test
+    void fail_layer_value_checked() {
+        ArgsParser argsParser = makeParser();
+        argsParser.setEnvironmentPrefix("PROG_");
+        argsParser.setEnvironment(Collections.singletonMap("PROG_PORT", "99999"));
+
+        List<ArgsParser.Diagnostic> diagnostics = argsParser.tryParseArgs(new String[0]).getDiagnostics();
+        assertEquals(1, diagnostics.size());
+        assertEquals(ArgsParser.E_Diagnostic.INVALID_VALUE, diagnostics.get(0).getCode());
+        assertEquals("Port", diagnostics.get(0).getOption().getLongKey());
+    }
+
+    @Test
+    void pass_schema_snapshot_and_help_keep_checks() throws IOException {
+        Path schemaFile = Files.createTempFile("ValueCheckTests", ".schema");
+        schemaFile.toFile().deleteOnExit();
+        Files.write(schemaFile, String.join("\n", "[port]", "longKey = Port", "usage = KEY_VALUE",
+                "valueRange = 1, 65535", "valueLength = 1, 5", "valueCharset = 0123456789", "valuePattern = [1-9].*")
+                .getBytes(StandardCharsets.UTF_8));
+        Path snapshotFile = Files.createTempFile("ValueCheckTests", ".snapshot");
+        snapshotFile.toFile().deleteOnExit();
+        Files.delete(snapshotFile);
+
+        ArgsParser.fromSchema(makeProgrammeDetails(), schemaFile, snapshotFile);
+        ArgsParser fromSnapshot = ArgsParser.fromSnapshot(makeProgrammeDetails(), snapshotFile);
+
+        ArgsParser.ArgOption port = fromSnapshot.getArgOptions().get(0);
+        assertEquals(ArgsParser.readSchema(schemaFile).get(0), port);
+        assertEquals(65535, port.getValueRangeMax());
+        assertEquals(5, port.getValueLengthMax());
+        assertTrue(fromSnapshot.getHelpText().contains("From 1 to 65535"));
+
+        assertThrows(ArgsParser.ParseArgumentException.class,
+                () -> fromSnapshot.pareArgs(new String[] {"--Port=080"}));
+    }
+
+    @Test
+    void constructor_fail_bad_checks() {
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> new ArgsParser(makeProgrammeDetails(),
+                new ArgsParser.ArgOption().setShortKey('a').setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setValuePattern("[a-")));
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> new ArgsParser(makeProgrammeDetails(),
+                new ArgsParser.ArgOption().setShortKey('a').setUsage(ArgsParser.E_Usage.KEY).setValueLength(1, 2)));
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> new ArgsParser(makeProgrammeDetails(),
+                new ArgsParser.ArgOption().setShortKey('a').setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                        .setValueRange(10, 1)));
+    }
+
+}
@@ -0,0 +1,60 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValueDedupTests {
+
+    ArgsParser.ProgrammeDetails makeProgrammeDetails() {
+        return new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog");
+    }
+
+
+
+    @Test
+    void pass_interned_list_values_share_instances() {
+        ArgsParser.ArgOption option = new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST).setInternValues(true);
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), option);
+
+        // Built so the equal values are different instances.
+        String[] input = new String[] {new String("tenant-a"), new String("tenant-b"), new String("tenant-a")};
+        argsParser.pareArgs(input);
+
+        ArrayList<String> values = argsParser.getResult(option).getValues();
+        assertEquals(Arrays.asList("tenant-a", "tenant-b", "tenant-a"), values);
+        assertSame(values.get(0), values.get(2));
+    }
+
+    @Test
+    void pass_intern_table_limit_stops_new_entries() {
+        ArgsParser.ArgOption option = new ArgsParser.ArgOption().setUsage(ArgsParser.E_Usage.LIST).setInternValues(true);
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), option);
+        argsParser.setInternTableLimit(1);
+
+        String[] input = new String[] {new String("a"), new String("b"), new String("a"), new String("b")};
+        argsParser.pareArgs(input);
+
+        ArrayList<String> values = argsParser.getResult(option).getValues();
+        assertSame(values.get(0), values.get(2));
+        assertNotSame(values.get(1), values.get(3));
+    }
+
+    @Test
+    void pass_distinct_values_keep_first_use_order() {
+        ArgsParser.ArgOption option = new ArgsParser.ArgOption()
+                .setShortKey('t')
+                .setLongKey("Tag")
+                .setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                .setRepeatable(true)
+                .setDistinctValues(true);
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), option);
+
+        argsParser.pareArgs(new String[] {"--Tag=b", "-t", "a", "--Tag=b", "-t", "c", "-t", "a"});
+
+        assertEquals(Arrays.asList("b", "a", "c"), argsParser.getResult(option).getValues());
+        assertEquals(5, argsParser.getResult(option).getCount());
+    }
+
+}
@@ -0,0 +1,107 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValueFormatTests {
+
+    ArgsParser.ProgrammeDetails makeProgrammeDetails() {
+        return new ArgsParser.ProgrammeDetails().setCommandName("Test_Prog");
+    }
+
+    ArgsParser.ArgOption makeOption(ArgsParser.E_ValueFormat format) {
+        return new ArgsParser.ArgOption()
+                .setShortKey('p')
+                .setLongKey("Partitions")
+                .setUsage(ArgsParser.E_Usage.KEY_VALUE)
+                .setRepeatable(true)
+                .setValueFormat(format);
+    }
+
+
+
+    @Test
+    void pass_int_list_with_ranges() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), makeOption(ArgsParser.E_ValueFormat.INT_LIST));
+        argsParser.pareArgs(new String[] {"--Partitions=1,5,9-12", "--Partitions=-3--1,2147483647"});
+
+        assertArrayEquals(new int[] {1, 5, 9, 10, 11, 12, -3, -2, -1, Integer.MAX_VALUE},
+                argsParser.getResult("p").getInts());
+        assertEquals("1,5,9-12", argsParser.getResult("p").getValue());
+    }
+
+    @Test
+    void pass_long_list_extremes() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), makeOption(ArgsParser.E_ValueFormat.LONG_LIST));
+        argsParser.pareArgs(new String[] {"--Partitions=-9223372036854775808,9223372036854775806-9223372036854775807"});
+
+        assertArrayEquals(new long[] {Long.MIN_VALUE, Long.MAX_VALUE - 1, Long.MAX_VALUE},
+                argsParser.getResult("p").getLongs());
+    }
+
+    @Test
+    void pass_bit_set_large_range() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), makeOption(ArgsParser.E_ValueFormat.BIT_SET));
+        argsParser.pareArgs(new String[] {"--Partitions=0-7,12,16-40000"});
+
+        BitSet cpus = argsParser.getResult("p").getBitSet();
+        assertEquals(8 + 1 + 39985, cpus.cardinality());
+        assertTrue(cpus.get(12));
+        assertFalse(cpus.get(13));
+        assertEquals(40000, cpus.length() - 1);
+    }
+
+    @Test
+    void fail_malformed_values() {
+        String[] bad = new String[] {"", "1,", "1,,2", "a", "5-3", "1-", "2147483648", "1;2"};
+        for (String value : bad) {
+            ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), makeOption(ArgsParser.E_ValueFormat.INT_LIST));
+            assertThrows(ArgsParser.ParseArgumentException.class,
+                    () -> argsParser.pareArgs(new String[] {"--Partitions=" + value}));
+        }
+    }
+
+    @Test
+    void fail_bit_set_negative_and_over_limit() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), makeOption(ArgsParser.E_ValueFormat.BIT_SET));
+        argsParser.setValueListLimit(100);
+
+        List<ArgsParser.Diagnostic> diagnostics =
+                argsParser.tryParseArgs(new String[] {"--Partitions=-1", "-p", "0-100", "-p", "3,99"}).getDiagnostics();
+        assertEquals(2, diagnostics.size());
+        assertEquals(ArgsParser.E_Diagnostic.INVALID_NUMBER_LIST, diagnostics.get(0).getCode());
+        assertEquals(0, diagnostics.get(0).getTokenIndex());
+        assertEquals(2, diagnostics.get(1).getTokenIndex());
+
+        // The bad values added nothing.
+        assertEquals(2, argsParser.getResult("p").getBitSet().cardinality());
+    }
+
+    @Test
+    void fail_malformed_value_dropped_from_text_and_numbers() {
+        ArgsParser argsParser = new ArgsParser(makeProgrammeDetails(), makeOption(ArgsParser.E_ValueFormat.INT_LIST));
+
+        List<ArgsParser.Diagnostic> diagnostics =
+                argsParser.tryParseArgs(new String[] {"-p", "1-", "-p", "7"}).getDiagnostics();
+        assertEquals(1, diagnostics.size());
+        assertEquals(ArgsParser.E_Diagnostic.INVALID_NUMBER_LIST, diagnostics.get(0).getCode());
+
+        ArgsParser.ArgReceived result = argsParser.getResult("p");
+        assertEquals(Arrays.asList("7"), result.getValues());
+        assertArrayEquals(new int[] {7}, result.getInts());
+        assertEquals(1, result.getCount());
+    }
+
+    @Test
+    void constructor_fail_value_format_on_key() {
+        assertThrows(ArgsParser.ArgumentOptionException.class, () -> new ArgsParser(
+                makeProgrammeDetails(),
+                new ArgsParser.ArgOption().setShortKey('a').setUsage(ArgsParser.E_Usage.KEY)
+                        .setValueFormat(ArgsParser.E_ValueFormat.INT_LIST)
+        ));
+    }
+
+}